@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -308,33 +308,50 @@ public class DeployerPartitionHandler
 
 	private void launchWorkers(Set<StepExecution> candidates,
 			Set<StepExecution> executed) {
+		List<StepExecution> workerStepExecutions = new ArrayList<>();
 		for (StepExecution execution : candidates) {
-			if (this.currentWorkers < this.maxWorkers || this.maxWorkers < 0) {
-				launchWorker(execution);
-				this.currentWorkers++;
-
-				executed.add(execution);
+			if (this.currentWorkers + workerStepExecutions.size() < this.maxWorkers
+					|| this.maxWorkers < 0) {
+				workerStepExecutions.add(execution);
 			}
 		}
-	}
 
-	private void launchWorker(StepExecution workerStepExecution) {
-		List<String> arguments = new ArrayList<>();
-
-		ExecutionContext copyContext = new ExecutionContext(
-				workerStepExecution.getExecutionContext());
+		List<TaskExecution> partitionTaskExecutions = createPartitionTaskExecutions(
+				workerStepExecutions.size());
 
-		arguments.addAll(this.commandLineArgsProvider.getCommandLineArgs(copyContext));
+		for (int i = 0; i < workerStepExecutions.size(); i++) {
+			StepExecution execution = workerStepExecutions.get(i);
+			launchWorker(execution, partitionTaskExecutions.get(i));
+			this.currentWorkers++;
 
-		TaskExecution partitionTaskExecution = null;
+			executed.add(execution);
+		}
+	}
 
-		if (this.taskRepository != null) {
-			partitionTaskExecution = this.taskRepository.createTaskExecution();
+	private List<TaskExecution> createPartitionTaskExecutions(int count) {
+		if (count == 0) {
+			return Collections.emptyList();
 		}
-		else {
+		if (this.taskRepository == null) {
 			logger.warn(
 					"TaskRepository was not set so external execution id will not be recorded.");
+			return Collections.nCopies(count, null);
+		}
+		List<TaskExecution> taskExecutions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			taskExecutions.add(new TaskExecution());
 		}
+		return this.taskRepository.createTaskExecutions(taskExecutions);
+	}
+
+	private void launchWorker(StepExecution workerStepExecution,
+			TaskExecution partitionTaskExecution) {
+		List<String> arguments = new ArrayList<>();
+
+		ExecutionContext copyContext = new ExecutionContext(
+				workerStepExecution.getExecutionContext());
+
+		arguments.addAll(this.commandLineArgsProvider.getCommandLineArgs(copyContext));
 
 		if (!this.defaultArgsAsEnvironmentVars) {
 			arguments.add(formatArgument(SPRING_CLOUD_TASK_JOB_EXECUTION_ID,
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.batch.configuration.TaskBatchAutoConfiguration;
+import org.springframework.cloud.task.batch.configuration.TaskBatchProperties;
+import org.springframework.cloud.task.batch.configuration.TaskJobLauncherAutoConfiguration;
+import org.springframework.cloud.task.util.NativeImageConfigurationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the native image configuration of the task batch module refers to
+ * existing types and covers its auto-configurations and properties.
+ *
+ * @author Glenn Renfro
+ */
+public class TaskBatchNativeImageConfigurationTests {
+
+	private static final String MODULE = "spring-cloud-task-batch";
+
+	@Test
+	public void testReflectedTypesExist() throws IOException {
+		List<String> types = NativeImageConfigurationUtils.readReflectedTypes(MODULE);
+		assertThat(types).contains(TaskBatchAutoConfiguration.class.getName(),
+				TaskJobLauncherAutoConfiguration.class.getName(),
+				TaskBatchProperties.class.getName());
+	}
+
+}
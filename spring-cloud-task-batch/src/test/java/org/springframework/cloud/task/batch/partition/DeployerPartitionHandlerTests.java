@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,6 +55,7 @@ import org.springframework.mock.env.MockEnvironment;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -92,8 +93,10 @@ public class DeployerPartitionHandlerTests {
 		this.environment = new MockEnvironment();
 		TaskExecution taskExecution = new TaskExecution(2, 0, "name", new Date(),
 				new Date(), "", Collections.emptyList(), null, null, null);
-		Mockito.lenient().when(taskRepository.createTaskExecution())
-				.thenReturn(taskExecution);
+		Mockito.lenient().when(taskRepository.createTaskExecutions(any()))
+				.thenAnswer((invocation) -> Collections.nCopies(
+						invocation.<List<TaskExecution>>getArgument(0).size(),
+						taskExecution));
 	}
 
 	@Test
@@ -362,6 +365,9 @@ public class DeployerPartitionHandlerTests {
 
 		verify(this.taskLauncher, times(3))
 				.launch(this.appDeploymentRequestArgumentCaptor.capture());
+		verify(this.taskRepository).createTaskExecutions(
+				argThat((taskExecutions) -> taskExecutions.size() == 3));
+		verify(this.taskRepository, never()).createTaskExecution();
 
 		List<AppDeploymentRequest> allValues = this.appDeploymentRequestArgumentCaptor
 				.getAllValues();
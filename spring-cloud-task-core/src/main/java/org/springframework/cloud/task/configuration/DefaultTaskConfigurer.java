@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,9 +27,11 @@ import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
+import org.springframework.cloud.task.repository.support.CachingTaskExplorer;
 import org.springframework.cloud.task.repository.support.SimpleTaskExplorer;
 import org.springframework.cloud.task.repository.support.SimpleTaskRepository;
 import org.springframework.cloud.task.repository.support.TaskExecutionDaoFactoryBean;
+import org.springframework.cloud.task.repository.support.WriteBehindTaskRepository;
 import org.springframework.context.ApplicationContext;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -44,6 +46,10 @@ import org.springframework.transaction.PlatformTransactionManager;
  * data source is present then a data will be stored in the database
  * {@link JdbcTaskExecutionDao} else it will be stored in a map
  * {@link MapTaskExecutionDao}.
+ * <li>{@link SimpleTaskExplorer} is the default {@link TaskExplorer} returned, decorated
+ * by a {@link CachingTaskExplorer} if the explorer cache is enabled.
+ * <li>The {@link SimpleTaskRepository} is decorated by a
+ * {@link WriteBehindTaskRepository} if the write behind mode is enabled.
  * </ul>
  *
  * @author Glenn Renfro
@@ -98,21 +104,62 @@ public class DefaultTaskConfigurer implements TaskConfigurer {
 	 */
 	public DefaultTaskConfigurer(DataSource dataSource, String tablePrefix,
 			ApplicationContext context) {
-		this.dataSource = dataSource;
-		this.context = context;
+		this(dataSource, createTaskExecutionDaoFactoryBean(dataSource, tablePrefix),
+				context);
+	}
 
-		TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean;
+	/**
+	 * Initializes the DefaultTaskConfigurer.
+	 * @param dataSource references the {@link DataSource} to be used as the Task
+	 * repository. If none is provided, a Map will be used (not recommended for production
+	 * use).
+	 * @param taskProperties the properties providing the prefix of the task table names,
+	 * the retention of the Map based repository, the task explorer cache and the write
+	 * behind mode of the task repository.
+	 * @param context the context to be used.
+	 * @since 2.3.0
+	 */
+	public DefaultTaskConfigurer(DataSource dataSource, TaskProperties taskProperties,
+			ApplicationContext context) {
+		this(dataSource, createTaskExecutionDaoFactoryBean(dataSource, taskProperties),
+				taskProperties, context);
+	}
 
-		if (this.dataSource != null) {
-			taskExecutionDaoFactoryBean = new TaskExecutionDaoFactoryBean(this.dataSource,
-					tablePrefix);
-		}
-		else {
-			taskExecutionDaoFactoryBean = new TaskExecutionDaoFactoryBean();
-		}
+	private DefaultTaskConfigurer(DataSource dataSource,
+			TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean,
+			ApplicationContext context) {
+		this(dataSource, taskExecutionDaoFactoryBean, null, context);
+	}
 
-		this.taskRepository = new SimpleTaskRepository(taskExecutionDaoFactoryBean);
+	private DefaultTaskConfigurer(DataSource dataSource,
+			TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean,
+			TaskProperties taskProperties, ApplicationContext context) {
+		this.dataSource = dataSource;
+		this.context = context;
+		SimpleTaskRepository simpleTaskRepository = new SimpleTaskRepository(
+				taskExecutionDaoFactoryBean);
+		this.taskRepository = simpleTaskRepository;
 		this.taskExplorer = new SimpleTaskExplorer(taskExecutionDaoFactoryBean);
+		if (taskProperties != null && taskProperties.isExplorerCacheEnabled()) {
+			CachingTaskExplorer cachingTaskExplorer = new CachingTaskExplorer(
+					this.taskExplorer);
+			cachingTaskExplorer
+					.setMaxEntries(taskProperties.getExplorerCacheMaxEntries());
+			cachingTaskExplorer
+					.setTimeToLive(taskProperties.getExplorerCacheTimeToLive());
+			simpleTaskRepository.setCacheEvictor(cachingTaskExplorer);
+			this.taskExplorer = cachingTaskExplorer;
+		}
+		if (taskProperties != null && taskProperties.isWriteBehindEnabled()) {
+			WriteBehindTaskRepository writeBehindTaskRepository = new WriteBehindTaskRepository(
+					simpleTaskRepository);
+			writeBehindTaskRepository
+					.setFlushTimeout(taskProperties.getWriteBehindFlushTimeout());
+			if (dataSource != null) {
+				writeBehindTaskRepository.setTransactionManager(getTransactionManager());
+			}
+			this.taskRepository = writeBehindTaskRepository;
+		}
 	}
 
 	@Override
@@ -168,4 +215,33 @@ public class DefaultTaskConfigurer implements TaskConfigurer {
 		return this.dataSource != null;
 	}
 
+	private static TaskExecutionDaoFactoryBean createTaskExecutionDaoFactoryBean(
+			DataSource dataSource, String tablePrefix) {
+		if (dataSource != null) {
+			return new TaskExecutionDaoFactoryBean(dataSource, tablePrefix);
+		}
+		else {
+			return new TaskExecutionDaoFactoryBean();
+		}
+	}
+
+	private static TaskExecutionDaoFactoryBean createTaskExecutionDaoFactoryBean(
+			DataSource dataSource, TaskProperties taskProperties) {
+		TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean = createTaskExecutionDaoFactoryBean(
+				dataSource, taskProperties.getTablePrefix());
+		taskExecutionDaoFactoryBean
+				.setMapRepositoryMaxEntries(taskProperties.getMapRepositoryMaxEntries());
+		taskExecutionDaoFactoryBean
+				.setMapRepositoryMaxAge(taskProperties.getMapRepositoryMaxAge());
+		taskExecutionDaoFactoryBean
+				.setMapRepositoryMaxWeight(taskProperties.getMapRepositoryMaxWeight());
+		taskExecutionDaoFactoryBean
+				.setStreamFetchSize(taskProperties.getStreamFetchSize());
+		taskExecutionDaoFactoryBean.setStartTimePartitioned(
+				taskProperties.isStartTimePartitioningEnabled());
+		taskExecutionDaoFactoryBean.setWindowFunctionsEnabled(
+				taskProperties.isLatestExecutionsWindowFunctionEnabled());
+		return taskExecutionDaoFactoryBean;
+	}
+
 }
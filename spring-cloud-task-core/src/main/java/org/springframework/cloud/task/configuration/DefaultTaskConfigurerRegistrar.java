@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.configuration;
+
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Registers the bean definition of the {@link DefaultTaskConfigurer} when the context
+ * does not define a {@link TaskConfigurer} and contains no more than one
+ * {@link DataSource}. The decision is made while the bean definitions are post
+ * processed, so that the default configurer is a regular bean definition that ahead of
+ * time processing can see, rather than a singleton registered while the context is
+ * being refreshed.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+class DefaultTaskConfigurerRegistrar implements BeanDefinitionRegistryPostProcessor {
+
+	/**
+	 * The name of the default {@link TaskConfigurer} bean.
+	 */
+	static final String TASK_CONFIGURER_BEAN_NAME = "taskConfigurer";
+
+	@Override
+	public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry)
+			throws BeansException {
+		if (!(registry instanceof ListableBeanFactory)
+				|| registry.containsBeanDefinition(TASK_CONFIGURER_BEAN_NAME)) {
+			return;
+		}
+		ListableBeanFactory beanFactory = (ListableBeanFactory) registry;
+		if (beanFactory.getBeanNamesForType(TaskConfigurer.class, true,
+				false).length > 0 || countDataSources(beanFactory, false) > 1) {
+			return;
+		}
+		RootBeanDefinition beanDefinition = new RootBeanDefinition(
+				DefaultTaskConfigurerRegistrar.class);
+		beanDefinition.setFactoryMethodName("defaultTaskConfigurer");
+		beanDefinition.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		registry.registerBeanDefinition(TASK_CONFIGURER_BEAN_NAME, beanDefinition);
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory)
+			throws BeansException {
+	}
+
+	static DefaultTaskConfigurer defaultTaskConfigurer(
+			ObjectProvider<DataSource> dataSources, TaskProperties taskProperties,
+			ApplicationContext context) {
+		DataSource dataSource = dataSources.getIfUnique();
+		return (dataSource != null)
+				? new DefaultTaskConfigurer(dataSource, taskProperties, context)
+				: new DefaultTaskConfigurer(null, taskProperties, null);
+	}
+
+	/**
+	 * Counts the {@link DataSource} beans, excluding the targets of scoped proxies.
+	 */
+	static long countDataSources(ListableBeanFactory beanFactory,
+			boolean allowEagerInit) {
+		return Arrays
+				.stream(beanFactory.getBeanNamesForType(DataSource.class, true,
+						allowEagerInit))
+				.filter((name -> !ScopedProxyUtils.isScopedTarget(name))).count();
+	}
+
+}
@@ -16,8 +16,7 @@
 
 package org.springframework.cloud.task.configuration;
 
-import java.util.Arrays;
-import java.util.Collection;
+import java.nio.file.Paths;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
@@ -25,7 +24,6 @@ import javax.sql.DataSource;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import org.springframework.aop.scope.ScopedProxyUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -34,13 +32,15 @@ import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskNameResolver;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.cloud.task.repository.support.SimpleTaskNameResolver;
+import org.springframework.cloud.task.repository.support.TaskExecutionPurgeScheduler;
+import org.springframework.cloud.task.repository.support.TaskExecutionPurger;
 import org.springframework.cloud.task.repository.support.TaskRepositoryInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
-import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * Base {@code Configuration} class providing common structure for enabling and using
@@ -62,9 +62,6 @@ public class SimpleTaskAutoConfiguration {
 	protected static final Log logger = LogFactory
 			.getLog(SimpleTaskAutoConfiguration.class);
 
-	@Autowired(required = false)
-	private Collection<DataSource> dataSources;
-
 	@Autowired
 	private ConfigurableApplicationContext context;
 
@@ -97,6 +94,11 @@ public class SimpleTaskAutoConfiguration {
 		return this.taskExplorer;
 	}
 
+	@Bean
+	static DefaultTaskConfigurerRegistrar defaultTaskConfigurerRegistrar() {
+		return new DefaultTaskConfigurerRegistrar();
+	}
+
 	@Bean
 	public TaskNameResolver taskNameResolver() {
 		return new SimpleTaskNameResolver();
@@ -114,6 +116,25 @@ public class SimpleTaskAutoConfiguration {
 		return taskRepositoryInitializer;
 	}
 
+	@Bean
+	@ConditionalOnProperty(prefix = "spring.cloud.task", name = "purge-enabled",
+			havingValue = "true")
+	public TaskExecutionPurgeScheduler taskExecutionPurgeScheduler(
+			TaskExplorer taskExplorer, TaskRepository taskRepository) {
+		TaskExecutionPurger purger = new TaskExecutionPurger(taskExplorer,
+				taskRepository);
+		purger.setChunkSize(this.taskProperties.getPurgeChunkSize());
+		if (StringUtils.hasText(this.taskProperties.getPurgeArchiveDirectory())) {
+			purger.setArchiveDirectory(
+					Paths.get(this.taskProperties.getPurgeArchiveDirectory()));
+		}
+		TaskExecutionPurgeScheduler scheduler = new TaskExecutionPurgeScheduler(purger);
+		scheduler.setInterval(this.taskProperties.getPurgeInterval());
+		scheduler.setMaxAge(this.taskProperties.getPurgeMaxAge());
+		scheduler.setRetainedCount(this.taskProperties.getPurgeRetainedCount());
+		return scheduler;
+	}
+
 	/**
 	 * Determines the {@link TaskConfigurer} to use.
 	 */
@@ -134,45 +155,29 @@ public class SimpleTaskAutoConfiguration {
 		this.initialized = true;
 	}
 
+	/**
+	 * Returns the {@link TaskConfigurer} of the context. The default configurer, if
+	 * needed, is registered by the {@link DefaultTaskConfigurerRegistrar}.
+	 */
 	private TaskConfigurer getDefaultConfigurer() {
 		verifyEnvironment();
 
 		int configurers = this.context.getBeanNamesForType(TaskConfigurer.class).length;
 
-		if (configurers < 1) {
-			TaskConfigurer taskConfigurer;
-			if (!CollectionUtils.isEmpty(this.dataSources)
-					&& this.dataSources.size() == 1) {
-				taskConfigurer = new DefaultTaskConfigurer(
-						this.dataSources.iterator().next(),
-						this.taskProperties.getTablePrefix(), this.context);
-			}
-			else {
-				taskConfigurer = new DefaultTaskConfigurer(
-						this.taskProperties.getTablePrefix());
-			}
-			this.context.getBeanFactory().registerSingleton("taskConfigurer",
-					taskConfigurer);
-			return taskConfigurer;
+		if (configurers == 1) {
+			return this.context.getBean(TaskConfigurer.class);
 		}
 		else {
-			if (configurers == 1) {
-				return this.context.getBean(TaskConfigurer.class);
-			}
-			else {
-				throw new IllegalStateException(
-						"Expected one TaskConfigurer but found " + configurers);
-			}
+			throw new IllegalStateException(
+					"Expected one TaskConfigurer but found " + configurers);
 		}
 	}
 
 	private void verifyEnvironment() {
 		int configurers = this.context.getBeanNamesForType(TaskConfigurer.class).length;
-		// retrieve the count of dataSources (without instantiating them) excluding
-		// DataSource proxy beans
-		long dataSources = Arrays
-				.stream(this.context.getBeanNamesForType(DataSource.class))
-				.filter((name -> !ScopedProxyUtils.isScopedTarget(name))).count();
+		// retrieve the count of dataSources excluding DataSource proxy beans
+		long dataSources = DefaultTaskConfigurerRegistrar.countDataSources(this.context,
+				true);
 
 		if (configurers == 0 && dataSources > 1) {
 			throw new IllegalStateException(
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,16 @@
 
 package org.springframework.cloud.task.configuration;
 
+import java.time.Duration;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.task.repository.support.CachingTaskExplorer;
+import org.springframework.cloud.task.repository.support.TaskExecutionPurgeScheduler;
+import org.springframework.cloud.task.repository.support.TaskExecutionPurger;
+import org.springframework.cloud.task.repository.support.WriteBehindTaskRepository;
 
 /**
  * Properties available to configure the task.
@@ -96,6 +102,120 @@ public class TaskProperties {
 	 */
 	private Boolean initializeEnabled;
 
+	/**
+	 * The maximum number of task executions retained by the in-memory task repository
+	 * used when no DataSource is available. Once exceeded, the least recently used
+	 * completed task executions are evicted. Defaults to 0, no limit.
+	 */
+	private int mapRepositoryMaxEntries;
+
+	/**
+	 * The time completed task executions are retained by the in-memory task repository
+	 * after their end time. Defaults to no limit.
+	 */
+	private Duration mapRepositoryMaxAge;
+
+	/**
+	 * The maximum total number of characters of the arguments, exit messages and error
+	 * messages of the task executions retained by the in-memory task repository. Once
+	 * exceeded, the least recently used completed task executions are evicted. Defaults
+	 * to 0, no limit.
+	 */
+	private long mapRepositoryMaxWeight;
+
+	/**
+	 * When set to true the task explorer caches task executions, task names, latest task
+	 * executions and task execution counts. Defaults to false.
+	 */
+	private boolean explorerCacheEnabled = false;
+
+	/**
+	 * The maximum number of task executions, and of aggregate answers, cached by the task
+	 * explorer. Defaults to 1000.
+	 */
+	private int explorerCacheMaxEntries = CachingTaskExplorer.DEFAULT_MAX_ENTRIES;
+
+	/**
+	 * The time the task explorer caches running task executions and aggregate answers.
+	 * Completed task executions are cached until evicted. Defaults to 1 second.
+	 */
+	private Duration explorerCacheTimeToLive = CachingTaskExplorer.DEFAULT_TIME_TO_LIVE;
+
+	/**
+	 * When set to true the start, the external execution id and the completion of the
+	 * task executions are written to the task repository on a background thread.
+	 * Defaults to false.
+	 */
+	private boolean writeBehindEnabled = false;
+
+	/**
+	 * The time to wait for the task execution updates written on the background thread
+	 * to be applied when the context is closed. Defaults to 30 seconds.
+	 */
+	private Duration writeBehindFlushTimeout
+			= WriteBehindTaskRepository.DEFAULT_FLUSH_TIMEOUT;
+
+	/**
+	 * The number of rows fetched from the database per round trip when task executions
+	 * are streamed through the task explorer. Defaults to 1000, or to Integer.MIN_VALUE
+	 * on MySQL, where the rows are streamed one at a time.
+	 */
+	private Integer streamFetchSize;
+
+	/**
+	 * When set to true the task tables are initialized with, and accessed as, the
+	 * variant of the schema where TASK_EXECUTION and TASK_EXECUTION_PARAMS are range
+	 * partitioned by start time. Available for PostgreSQL and MySQL, and for H2 and
+	 * HSQLDB without the partitions. Defaults to false.
+	 */
+	private boolean startTimePartitioningEnabled = false;
+
+	/**
+	 * When set to true the latest task execution of each task name is selected with the
+	 * ROW_NUMBER window function, on the databases that support it, rather than with
+	 * self joins. Defaults to false.
+	 */
+	private boolean latestExecutionsWindowFunctionEnabled = false;
+
+	/**
+	 * When set to true the completed task executions that exceed the purge max age or
+	 * the purge retained count are purged from the task repository on a background
+	 * thread, when the application starts and then at the purge interval. Defaults to
+	 * false.
+	 */
+	private boolean purgeEnabled = false;
+
+	/**
+	 * The time completed task executions are retained after their end time before they
+	 * are purged. Defaults to null, no limit.
+	 */
+	private Duration purgeMaxAge;
+
+	/**
+	 * The number of most recent completed task executions retained per task name, the
+	 * older ones are purged. Defaults to 0, no limit.
+	 */
+	private int purgeRetainedCount;
+
+	/**
+	 * The interval between the end of a purge and the start of the next one. Defaults to
+	 * 1 hour.
+	 */
+	private Duration purgeInterval = TaskExecutionPurgeScheduler.DEFAULT_INTERVAL;
+
+	/**
+	 * The number of task executions deleted per transaction when purging. Defaults to
+	 * 100.
+	 */
+	private int purgeChunkSize = TaskExecutionPurger.DEFAULT_CHUNK_SIZE;
+
+	/**
+	 * The directory the purged task executions are archived to, as gzip compressed JSON
+	 * lines files, before they are deleted. Defaults to null, where the task executions
+	 * are not archived.
+	 */
+	private String purgeArchiveDirectory;
+
 	public String getExternalExecutionId() {
 		return this.externalExecutionId;
 	}
@@ -168,4 +288,141 @@ public class TaskProperties {
 		this.initializeEnabled = initializeEnabled;
 	}
 
+	public int getMapRepositoryMaxEntries() {
+		return this.mapRepositoryMaxEntries;
+	}
+
+	public void setMapRepositoryMaxEntries(int mapRepositoryMaxEntries) {
+		this.mapRepositoryMaxEntries = mapRepositoryMaxEntries;
+	}
+
+	public Duration getMapRepositoryMaxAge() {
+		return this.mapRepositoryMaxAge;
+	}
+
+	public void setMapRepositoryMaxAge(Duration mapRepositoryMaxAge) {
+		this.mapRepositoryMaxAge = mapRepositoryMaxAge;
+	}
+
+	public long getMapRepositoryMaxWeight() {
+		return this.mapRepositoryMaxWeight;
+	}
+
+	public void setMapRepositoryMaxWeight(long mapRepositoryMaxWeight) {
+		this.mapRepositoryMaxWeight = mapRepositoryMaxWeight;
+	}
+
+	public boolean isExplorerCacheEnabled() {
+		return this.explorerCacheEnabled;
+	}
+
+	public void setExplorerCacheEnabled(boolean explorerCacheEnabled) {
+		this.explorerCacheEnabled = explorerCacheEnabled;
+	}
+
+	public int getExplorerCacheMaxEntries() {
+		return this.explorerCacheMaxEntries;
+	}
+
+	public void setExplorerCacheMaxEntries(int explorerCacheMaxEntries) {
+		this.explorerCacheMaxEntries = explorerCacheMaxEntries;
+	}
+
+	public Duration getExplorerCacheTimeToLive() {
+		return this.explorerCacheTimeToLive;
+	}
+
+	public void setExplorerCacheTimeToLive(Duration explorerCacheTimeToLive) {
+		this.explorerCacheTimeToLive = explorerCacheTimeToLive;
+	}
+
+	public boolean isWriteBehindEnabled() {
+		return this.writeBehindEnabled;
+	}
+
+	public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+		this.writeBehindEnabled = writeBehindEnabled;
+	}
+
+	public Duration getWriteBehindFlushTimeout() {
+		return this.writeBehindFlushTimeout;
+	}
+
+	public void setWriteBehindFlushTimeout(Duration writeBehindFlushTimeout) {
+		this.writeBehindFlushTimeout = writeBehindFlushTimeout;
+	}
+
+	public Integer getStreamFetchSize() {
+		return this.streamFetchSize;
+	}
+
+	public void setStreamFetchSize(Integer streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	public boolean isStartTimePartitioningEnabled() {
+		return this.startTimePartitioningEnabled;
+	}
+
+	public void setStartTimePartitioningEnabled(boolean startTimePartitioningEnabled) {
+		this.startTimePartitioningEnabled = startTimePartitioningEnabled;
+	}
+
+	public boolean isLatestExecutionsWindowFunctionEnabled() {
+		return this.latestExecutionsWindowFunctionEnabled;
+	}
+
+	public void setLatestExecutionsWindowFunctionEnabled(
+			boolean latestExecutionsWindowFunctionEnabled) {
+		this.latestExecutionsWindowFunctionEnabled = latestExecutionsWindowFunctionEnabled;
+	}
+
+	public boolean isPurgeEnabled() {
+		return this.purgeEnabled;
+	}
+
+	public void setPurgeEnabled(boolean purgeEnabled) {
+		this.purgeEnabled = purgeEnabled;
+	}
+
+	public Duration getPurgeMaxAge() {
+		return this.purgeMaxAge;
+	}
+
+	public void setPurgeMaxAge(Duration purgeMaxAge) {
+		this.purgeMaxAge = purgeMaxAge;
+	}
+
+	public int getPurgeRetainedCount() {
+		return this.purgeRetainedCount;
+	}
+
+	public void setPurgeRetainedCount(int purgeRetainedCount) {
+		this.purgeRetainedCount = purgeRetainedCount;
+	}
+
+	public Duration getPurgeInterval() {
+		return this.purgeInterval;
+	}
+
+	public void setPurgeInterval(Duration purgeInterval) {
+		this.purgeInterval = purgeInterval;
+	}
+
+	public int getPurgeChunkSize() {
+		return this.purgeChunkSize;
+	}
+
+	public void setPurgeChunkSize(int purgeChunkSize) {
+		this.purgeChunkSize = purgeChunkSize;
+	}
+
+	public String getPurgeArchiveDirectory() {
+		return this.purgeArchiveDirectory;
+	}
+
+	public void setPurgeArchiveDirectory(String purgeArchiveDirectory) {
+		this.purgeArchiveDirectory = purgeArchiveDirectory;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -198,10 +198,7 @@ public class TaskLifecycleListener implements ApplicationListener<ApplicationEve
 			}
 
 			setExitMessage(invokeOnTaskEnd(this.taskExecution));
-			this.taskRepository.completeTaskExecution(this.taskExecution.getExecutionId(),
-					this.taskExecution.getExitCode(), this.taskExecution.getEndTime(),
-					this.taskExecution.getExitMessage(),
-					this.taskExecution.getErrorMessage());
+			this.taskRepository.completeTaskExecution(this.taskExecution);
 
 			this.finished = true;
 
@@ -257,7 +254,6 @@ public class TaskLifecycleListener implements ApplicationListener<ApplicationEve
 		try {
 			if (!this.started) {
 				this.taskExecutionListeners = new ArrayList<>();
-				this.taskListenerExecutorObjectFactory.getObject();
 				if (!CollectionUtils.isEmpty(this.taskExecutionListenersFromContext)) {
 					this.taskExecutionListeners
 							.addAll(this.taskExecutionListenersFromContext);
@@ -271,14 +267,8 @@ public class TaskLifecycleListener implements ApplicationListener<ApplicationEve
 					args = Arrays.asList(this.applicationArguments.getSourceArgs());
 				}
 				if (this.taskProperties.getExecutionid() != null) {
-					TaskExecution taskExecution = this.taskExplorer
-							.getTaskExecution(this.taskProperties.getExecutionid());
-					Assert.notNull(taskExecution,
-							String.format("Invalid TaskExecution, ID %s not found",
-									this.taskProperties.getExecutionid()));
-					Assert.isNull(taskExecution.getEndTime(), String.format(
-							"Invalid TaskExecution, ID %s task is already complete",
-							this.taskProperties.getExecutionid()));
+					// The repository rejects task executions that do not exist or
+					// are already complete
 					this.taskExecution = this.taskRepository.startTaskExecution(
 							this.taskProperties.getExecutionid(),
 							this.taskNameResolver.getTaskName(), new Date(), args,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 the original author or authors.
+ * Copyright 2018-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,12 @@ package org.springframework.cloud.task.listener;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -42,7 +43,10 @@ import org.springframework.core.MethodIntrospector;
 import org.springframework.core.annotation.AnnotationUtils;
 
 /**
- * Initializes TaskListenerExecutor for a task.
+ * Initializes TaskListenerExecutor for a task. The listener methods of each bean class
+ * are introspected once and cached. When a {@link TaskListenerIndex} is available, only
+ * the classes it lists are introspected. Listeners are called in the order their beans
+ * are defined in.
  *
  * @author Glenn Renfro
  * @since 2.1.0
@@ -52,11 +56,15 @@ public class TaskListenerExecutorObjectFactory
 
 	private static final Log logger = LogFactory.getLog(TaskListenerExecutor.class);
 
-	private final Set<Class<?>> nonAnnotatedClasses = Collections
-			.newSetFromMap(new ConcurrentHashMap<>());
+	private final Map<Class<?>, ListenerMethods> listenerMethods
+			= new ConcurrentHashMap<>();
 
 	private ConfigurableApplicationContext context;
 
+	private volatile TaskListenerIndex index;
+
+	private volatile boolean indexLoaded;
+
 	private Map<Method, Object> beforeTaskInstances;
 
 	private Map<Method, Object> afterTaskInstances;
@@ -69,15 +77,19 @@ public class TaskListenerExecutorObjectFactory
 
 	@Override
 	public TaskListenerExecutor getObject() {
-		this.beforeTaskInstances = new HashMap<>();
-		this.afterTaskInstances = new HashMap<>();
-		this.failedTaskInstances = new HashMap<>();
+		this.beforeTaskInstances = new LinkedHashMap<>();
+		this.afterTaskInstances = new LinkedHashMap<>();
+		this.failedTaskInstances = new LinkedHashMap<>();
 		initializeExecutor();
 		return new TaskListenerExecutor(this.beforeTaskInstances, this.afterTaskInstances,
 				this.failedTaskInstances);
 	}
 
 	private void initializeExecutor() {
+		if (!this.indexLoaded) {
+			this.index = TaskListenerIndex.load(this.context.getClassLoader());
+			this.indexLoaded = true;
+		}
 		ConfigurableListableBeanFactory factory = this.context.getBeanFactory();
 		for (String beanName : this.context.getBeanDefinitionNames()) {
 
@@ -127,39 +139,62 @@ public class TaskListenerExecutorObjectFactory
 	}
 
 	private void processBean(String beanName, final Class<?> type) {
-		if (!this.nonAnnotatedClasses.contains(type)) {
-			Map<Method, BeforeTask> beforeTaskMethods = (new MethodGetter<BeforeTask>())
-					.getMethods(type, BeforeTask.class);
-			Map<Method, AfterTask> afterTaskMethods = (new MethodGetter<AfterTask>())
-					.getMethods(type, AfterTask.class);
-			Map<Method, FailedTask> failedTaskMethods = (new MethodGetter<FailedTask>())
-					.getMethods(type, FailedTask.class);
-
-			if (beforeTaskMethods.isEmpty() && afterTaskMethods.isEmpty()) {
-				this.nonAnnotatedClasses.add(type);
-				return;
-			}
-			if (!beforeTaskMethods.isEmpty()) {
-				for (Method beforeTaskMethod : beforeTaskMethods.keySet()) {
-					this.beforeTaskInstances.put(beforeTaskMethod,
-							this.context.getBean(beanName));
-				}
-			}
-			if (!afterTaskMethods.isEmpty()) {
-				for (Method afterTaskMethod : afterTaskMethods.keySet()) {
-					this.afterTaskInstances.put(afterTaskMethod,
-							this.context.getBean(beanName));
-				}
-			}
-			if (!failedTaskMethods.isEmpty()) {
-				for (Method failedTaskMethod : failedTaskMethods.keySet()) {
-					this.failedTaskInstances.put(failedTaskMethod,
-							this.context.getBean(beanName));
-				}
-			}
+		if (this.index != null && !this.index.mayDeclareListenerMethods(type)) {
+			return;
+		}
+		ListenerMethods methods = this.listenerMethods.computeIfAbsent(type,
+				ListenerMethods::new);
+		if (methods.isEmpty()) {
+			return;
+		}
+		Object bean = this.context.getBean(beanName);
+		for (Method beforeTaskMethod : methods.beforeTaskMethods) {
+			this.beforeTaskInstances.put(beforeTaskMethod, bean);
+		}
+		for (Method afterTaskMethod : methods.afterTaskMethods) {
+			this.afterTaskInstances.put(afterTaskMethod, bean);
+		}
+		for (Method failedTaskMethod : methods.failedTaskMethods) {
+			this.failedTaskInstances.put(failedTaskMethod, bean);
 		}
 	}
 
+	/**
+	 * The listener methods of a class, sorted by signature so that listeners are called
+	 * in the same order whatever the order of the methods returned by the JVM.
+	 */
+	private static final class ListenerMethods {
+
+		private static final Comparator<Method> METHOD_ORDER = Comparator
+				.comparing(Method::toGenericString);
+
+		private final List<Method> beforeTaskMethods;
+
+		private final List<Method> afterTaskMethods;
+
+		private final List<Method> failedTaskMethods;
+
+		ListenerMethods(Class<?> type) {
+			this.beforeTaskMethods = sort((new MethodGetter<BeforeTask>())
+					.getMethods(type, BeforeTask.class));
+			this.afterTaskMethods = sort((new MethodGetter<AfterTask>())
+					.getMethods(type, AfterTask.class));
+			this.failedTaskMethods = sort((new MethodGetter<FailedTask>())
+					.getMethods(type, FailedTask.class));
+		}
+
+		private static List<Method> sort(Map<Method, ?> methods) {
+			return methods.keySet().stream().sorted(METHOD_ORDER)
+					.collect(Collectors.toList());
+		}
+
+		boolean isEmpty() {
+			return this.beforeTaskMethods.isEmpty() && this.afterTaskMethods.isEmpty()
+					&& this.failedTaskMethods.isEmpty();
+		}
+
+	}
+
 	private static class MethodGetter<T extends Annotation> {
 
 		public Map<Method, T> getMethods(final Class<?> type,
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.listener;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.cloud.task.listener.annotation.AfterTask;
+import org.springframework.cloud.task.listener.annotation.BeforeTask;
+import org.springframework.cloud.task.listener.annotation.FailedTask;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Index of the classes that declare {@link BeforeTask}, {@link AfterTask} or
+ * {@link FailedTask} methods, generated at build time by the
+ * {@code spring-cloud-task-listener-indexer} annotation processor. When an index is
+ * found, the {@link TaskListenerExecutorObjectFactory} only introspects the methods of
+ * the beans whose class, superclasses or interfaces are indexed, instead of the methods
+ * of every bean.
+ *
+ * <p>
+ * Every jar that provides listener methods must then be compiled with the annotation
+ * processor. Setting the {@value #IGNORE_INDEX} system (or spring.properties) property
+ * to {@code true} ignores the index and introspects every bean.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public final class TaskListenerIndex {
+
+	/**
+	 * The location of the index files, whose keys are the binary names of the classes
+	 * that declare listener methods.
+	 */
+	public static final String INDEX_LOCATION = "META-INF/spring-cloud-task.listeners";
+
+	/**
+	 * The property that, when {@code true}, ignores the index.
+	 */
+	public static final String IGNORE_INDEX = "spring.cloud.task.listener.index.ignore";
+
+	private final Set<String> listenerClassNames;
+
+	TaskListenerIndex(Collection<String> listenerClassNames) {
+		this.listenerClassNames = new HashSet<>(listenerClassNames);
+	}
+
+	/**
+	 * Loads the index files available to the class loader provided.
+	 * @param classLoader the class loader to load the index files with
+	 * @return the index, or null if there is no index file or the index is ignored
+	 */
+	public static TaskListenerIndex load(ClassLoader classLoader) {
+		if (SpringProperties.getFlag(IGNORE_INDEX)) {
+			return null;
+		}
+		ClassLoader indexClassLoader = (classLoader != null) ? classLoader
+				: ClassUtils.getDefaultClassLoader();
+		try {
+			Enumeration<URL> urls = indexClassLoader.getResources(INDEX_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return null;
+			}
+			Set<String> listenerClassNames = new HashSet<>();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				listenerClassNames.addAll(PropertiesLoaderUtils
+						.loadProperties(new UrlResource(url)).stringPropertyNames());
+			}
+			return new TaskListenerIndex(listenerClassNames);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(
+					"Unable to load indexes from location [" + INDEX_LOCATION + "]", e);
+		}
+	}
+
+	/**
+	 * Returns whether the type provided may declare or inherit listener methods.
+	 * @param type the type of a bean
+	 * @return true if the type, one of its superclasses or one of its interfaces is
+	 * indexed
+	 */
+	public boolean mayDeclareListenerMethods(Class<?> type) {
+		for (Class<?> current = type; current != null
+				&& current != Object.class; current = current.getSuperclass()) {
+			if (this.listenerClassNames.contains(current.getName())) {
+				return true;
+			}
+		}
+		for (Class<?> implemented : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+			if (this.listenerClassNames.contains(implemented.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the binary names of the indexed classes
+	 */
+	public Set<String> getListenerClassNames() {
+		return Collections.unmodifiableSet(this.listenerClassNames);
+	}
+
+}
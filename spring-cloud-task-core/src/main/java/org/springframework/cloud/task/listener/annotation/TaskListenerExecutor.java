@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,15 @@
 
 package org.springframework.cloud.task.listener.annotation;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Map;
-import java.util.Set;
 
+import org.springframework.aop.support.AopUtils;
 import org.springframework.cloud.task.listener.TaskExecutionException;
 import org.springframework.cloud.task.listener.TaskExecutionListener;
 import org.springframework.cloud.task.repository.TaskExecution;
@@ -28,25 +32,38 @@ import org.springframework.cloud.task.repository.TaskExecution;
 /**
  * Identifies all beans that contain a TaskExecutionListener annotation and stores the
  * associated method so that it can be called by the {@link TaskExecutionListener} at the
- * appropriate time.
+ * appropriate time. The methods are bound to their beans as {@link MethodHandle}s when
+ * the executor is created and are called in the iteration order of the maps provided.
  *
  * @author Glenn Renfro
  */
 public class TaskListenerExecutor implements TaskExecutionListener {
 
-	private Map<Method, Object> beforeTaskInstances;
+	private static final MethodType TASK_LISTENER_TYPE = MethodType
+			.methodType(void.class, TaskExecution.class);
 
-	private Map<Method, Object> afterTaskInstances;
+	private static final MethodType FAILED_TASK_LISTENER_TYPE = MethodType
+			.methodType(void.class, TaskExecution.class, Throwable.class);
 
-	private Map<Method, Object> failedTaskInstances;
+	private final ListenerMethod[] beforeTaskListeners;
+
+	private final ListenerMethod[] afterTaskListeners;
+
+	private final ListenerMethod[] failedTaskListeners;
 
 	public TaskListenerExecutor(Map<Method, Object> beforeTaskInstances,
 			Map<Method, Object> afterTaskInstances,
 			Map<Method, Object> failedTaskInstances) {
 
-		this.beforeTaskInstances = beforeTaskInstances;
-		this.afterTaskInstances = afterTaskInstances;
-		this.failedTaskInstances = failedTaskInstances;
+		this.beforeTaskListeners = createListenerMethods(beforeTaskInstances,
+				TASK_LISTENER_TYPE, "@BeforeTask and @AfterTask annotated methods",
+				"taskExecution parameter is required");
+		this.afterTaskListeners = createListenerMethods(afterTaskInstances,
+				TASK_LISTENER_TYPE, "@BeforeTask and @AfterTask annotated methods",
+				"taskExecution parameter is required");
+		this.failedTaskListeners = createListenerMethods(failedTaskInstances,
+				FAILED_TASK_LISTENER_TYPE, "@FailedTask annotated methods",
+				"taskExecution and throwable parameters are required");
 	}
 
 	/**
@@ -55,8 +72,7 @@ public class TaskListenerExecutor implements TaskExecutionListener {
 	 */
 	@Override
 	public void onTaskStartup(TaskExecution taskExecution) {
-		executeTaskListener(taskExecution, this.beforeTaskInstances.keySet(),
-				this.beforeTaskInstances);
+		executeTaskListener(taskExecution, this.beforeTaskListeners);
 	}
 
 	/**
@@ -65,8 +81,7 @@ public class TaskListenerExecutor implements TaskExecutionListener {
 	 */
 	@Override
 	public void onTaskEnd(TaskExecution taskExecution) {
-		executeTaskListener(taskExecution, this.afterTaskInstances.keySet(),
-				this.afterTaskInstances);
+		executeTaskListener(taskExecution, this.afterTaskListeners);
 	}
 
 	/**
@@ -77,54 +92,125 @@ public class TaskListenerExecutor implements TaskExecutionListener {
 	@Override
 	public void onTaskFailed(TaskExecution taskExecution, Throwable throwable) {
 		executeTaskListenerWithThrowable(taskExecution, throwable,
-				this.failedTaskInstances.keySet(), this.failedTaskInstances);
+				this.failedTaskListeners);
 	}
 
-	private void executeTaskListener(TaskExecution taskExecution, Set<Method> methods,
-			Map<Method, Object> instances) {
-		for (Method method : methods) {
+	private void executeTaskListener(TaskExecution taskExecution,
+			ListenerMethod[] listeners) {
+		for (ListenerMethod listener : listeners) {
+			listener.assertInvocable();
 			try {
-				method.invoke(instances.get(method), taskExecution);
-			}
-			catch (IllegalAccessException e) {
-				throw new TaskExecutionException(
-						"@BeforeTask and @AfterTask annotated methods must be public.",
-						e);
+				listener.handle.invokeExact(taskExecution);
 			}
-			catch (InvocationTargetException e) {
+			catch (Throwable e) {
 				throw new TaskExecutionException(String.format(
 						"Failed to process @BeforeTask or @AfterTask"
 								+ " annotation because: %s",
-						e.getTargetException().getMessage()), e);
-			}
-			catch (IllegalArgumentException e) {
-				throw new TaskExecutionException("taskExecution parameter "
-						+ "is required for @BeforeTask and @AfterTask annotated methods",
-						e);
+						e.getMessage()), new InvocationTargetException(e));
 			}
 		}
 	}
 
 	private void executeTaskListenerWithThrowable(TaskExecution taskExecution,
-			Throwable throwable, Set<Method> methods, Map<Method, Object> instances) {
-		for (Method method : methods) {
+			Throwable throwable, ListenerMethod[] listeners) {
+		for (ListenerMethod listener : listeners) {
+			listener.assertInvocable();
 			try {
-				method.invoke(instances.get(method), taskExecution, throwable);
-			}
-			catch (IllegalAccessException e) {
-				throw new TaskExecutionException(
-						"@FailedTask annotated methods must be public.", e);
+				listener.handle.invokeExact(taskExecution, throwable);
 			}
-			catch (InvocationTargetException e) {
+			catch (Throwable e) {
 				throw new TaskExecutionException(String.format(
 						"Failed to process @FailedTask " + "annotation because: %s",
-						e.getTargetException().getMessage()), e);
+						e.getMessage()), new InvocationTargetException(e));
+			}
+		}
+	}
+
+	private static ListenerMethod[] createListenerMethods(Map<Method, Object> instances,
+			MethodType type, String methodsDescription, String parametersDescription) {
+		ListenerMethod[] listeners = new ListenerMethod[instances.size()];
+		int i = 0;
+		for (Map.Entry<Method, Object> entry : instances.entrySet()) {
+			listeners[i++] = createListenerMethod(entry.getKey(), entry.getValue(), type,
+					methodsDescription, parametersDescription);
+		}
+		return listeners;
+	}
+
+	/**
+	 * Binds the method provided to its instance and adapts it to the listener type. The
+	 * method is declared by the target class of the bean, so the method of the same
+	 * signature is bound instead when the bean is an interface based proxy. A method
+	 * that cannot be adapted fails when the listener is executed, as it did when
+	 * listener methods were invoked reflectively.
+	 */
+	private static ListenerMethod createListenerMethod(Method method, Object instance,
+			MethodType type, String methodsDescription, String parametersDescription) {
+		if (!isInvocable(method, type)) {
+			return new ListenerMethod(
+					parametersDescription + " for " + methodsDescription, null);
+		}
+		try {
+			boolean isStatic = Modifier.isStatic(method.getModifiers());
+			Method invocableMethod = isStatic ? method
+					: AopUtils.selectInvocableMethod(method, instance.getClass());
+			MethodHandle handle = MethodHandles.publicLookup().unreflect(invocableMethod);
+			if (!isStatic) {
+				handle = handle.bindTo(instance);
+			}
+			return new ListenerMethod(handle.asType(type));
+		}
+		catch (IllegalStateException e) {
+			return new ListenerMethod(e.getMessage(), e);
+		}
+		catch (IllegalAccessException e) {
+			return new ListenerMethod(methodsDescription + " must be public.", e);
+		}
+	}
+
+	private static boolean isInvocable(Method method, MethodType type) {
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		if (parameterTypes.length != type.parameterCount()) {
+			return false;
+		}
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (!parameterTypes[i].isAssignableFrom(type.parameterType(i))) {
+				return false;
 			}
-			catch (IllegalArgumentException e) {
-				throw new TaskExecutionException("taskExecution and throwable parameters "
-						+ "are required for @FailedTask annotated methods", e);
+		}
+		return true;
+	}
+
+	/**
+	 * A listener method bound to its instance, or the reason why it cannot be invoked.
+	 */
+	private static final class ListenerMethod {
+
+		private final MethodHandle handle;
+
+		private final String failureMessage;
+
+		private final Throwable failureCause;
+
+		ListenerMethod(MethodHandle handle) {
+			this.handle = handle;
+			this.failureMessage = null;
+			this.failureCause = null;
+		}
+
+		ListenerMethod(String failureMessage, Throwable failureCause) {
+			this.handle = null;
+			this.failureMessage = failureMessage;
+			this.failureCause = failureCause;
+		}
+
+		void assertInvocable() {
+			if (this.handle == null) {
+				throw new TaskExecutionException(this.failureMessage,
+						this.failureCause);
 			}
 		}
+
 	}
 
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.util.Date;
+
+/**
+ * Criteria the task executions returned by
+ * {@link TaskExplorer#findTaskExecutions(TaskExecutionCriteria,
+ * org.springframework.data.domain.Pageable)} must match. Criteria that are not set (null)
+ * match all task executions, the task executions returned match all of the criteria that
+ * are set.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class TaskExecutionCriteria {
+
+	private String taskName;
+
+	private String taskNamePrefix;
+
+	private Date startTimeFrom;
+
+	private Date startTimeTo;
+
+	private Integer exitCode;
+
+	private Boolean successful;
+
+	public String getTaskName() {
+		return this.taskName;
+	}
+
+	/**
+	 * Sets the name of the task the task executions must belong to.
+	 * @param taskName the task name.
+	 */
+	public void setTaskName(String taskName) {
+		this.taskName = taskName;
+	}
+
+	public String getTaskNamePrefix() {
+		return this.taskNamePrefix;
+	}
+
+	/**
+	 * Sets the prefix of the names of the tasks the task executions must belong to.
+	 * @param taskNamePrefix the task name prefix, matched case sensitively.
+	 */
+	public void setTaskNamePrefix(String taskNamePrefix) {
+		this.taskNamePrefix = taskNamePrefix;
+	}
+
+	public Date getStartTimeFrom() {
+		return this.startTimeFrom;
+	}
+
+	/**
+	 * Sets the time at or after which the task executions must have started.
+	 * @param startTimeFrom the inclusive lower bound of the start times.
+	 */
+	public void setStartTimeFrom(Date startTimeFrom) {
+		this.startTimeFrom = startTimeFrom;
+	}
+
+	public Date getStartTimeTo() {
+		return this.startTimeTo;
+	}
+
+	/**
+	 * Sets the time before which the task executions must have started.
+	 * @param startTimeTo the exclusive upper bound of the start times.
+	 */
+	public void setStartTimeTo(Date startTimeTo) {
+		this.startTimeTo = startTimeTo;
+	}
+
+	public Integer getExitCode() {
+		return this.exitCode;
+	}
+
+	/**
+	 * Sets the exit code the task executions must have completed with.
+	 * @param exitCode the exit code.
+	 */
+	public void setExitCode(Integer exitCode) {
+		this.exitCode = exitCode;
+	}
+
+	public Boolean getSuccessful() {
+		return this.successful;
+	}
+
+	/**
+	 * Sets whether the task executions must have completed successfully, with an exit
+	 * code of 0, or must have failed, with any other exit code. Running task executions
+	 * match neither.
+	 * @param successful true for successful task executions, false for failed ones.
+	 */
+	public void setSuccessful(Boolean successful) {
+		this.successful = successful;
+	}
+
+	/**
+	 * Returns whether the task execution provided matches the criteria.
+	 * @param taskExecution the task execution to test.
+	 * @return true if the task execution matches all of the criteria that are set.
+	 */
+	public boolean matches(TaskExecution taskExecution) {
+		String name = taskExecution.getTaskName();
+		long startTime = (taskExecution.getStartTime() != null)
+				? taskExecution.getStartTime().getTime() : Long.MIN_VALUE;
+		Integer actualExitCode = taskExecution.getExitCode();
+		return (this.taskName == null || this.taskName.equals(name))
+				&& (this.taskNamePrefix == null
+						|| (name != null && name.startsWith(this.taskNamePrefix)))
+				&& (this.startTimeFrom == null || (taskExecution.getStartTime() != null
+						&& startTime >= this.startTimeFrom.getTime()))
+				&& (this.startTimeTo == null || (taskExecution.getStartTime() != null
+						&& startTime < this.startTimeTo.getTime()))
+				&& (this.exitCode == null || this.exitCode.equals(actualExitCode))
+				&& (this.successful == null || (actualExitCode != null
+						&& this.successful == (actualExitCode == 0)));
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionCriteria{taskName='" + this.taskName
+				+ "', taskNamePrefix='" + this.taskNamePrefix + "', startTimeFrom="
+				+ this.startTimeFrom + ", startTimeTo=" + this.startTimeTo
+				+ ", exitCode=" + this.exitCode + ", successful=" + this.successful
+				+ '}';
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Summary of the executions of a task, optionally restricted to the executions that
+ * started within a time bucket. Successful executions completed with an exit code of 0,
+ * failed executions with any other exit code.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class TaskExecutionStatistics {
+
+	/**
+	 * The name of the task the executions belong to.
+	 */
+	private final String taskName;
+
+	/**
+	 * The start of the time bucket the executions started within, null if the
+	 * statistics are not bucketed.
+	 */
+	private final Date bucketStartTime;
+
+	/**
+	 * The number of executions.
+	 */
+	private final long executionCount;
+
+	/**
+	 * The number of executions that have not ended.
+	 */
+	private final long runningExecutionCount;
+
+	/**
+	 * The number of executions that completed with an exit code of 0.
+	 */
+	private final long successfulExecutionCount;
+
+	/**
+	 * The number of executions that completed with an exit code other than 0.
+	 */
+	private final long failedExecutionCount;
+
+	/**
+	 * The latest start time of the executions, null if none has started.
+	 */
+	private final Date lastStartTime;
+
+	/**
+	 * The average duration of the executions that have ended, null if none has ended.
+	 */
+	private final Duration averageDuration;
+
+	public TaskExecutionStatistics(String taskName, Date bucketStartTime,
+			long executionCount, long runningExecutionCount,
+			long successfulExecutionCount, long failedExecutionCount, Date lastStartTime,
+			Duration averageDuration) {
+		this.taskName = taskName;
+		this.bucketStartTime = (bucketStartTime != null)
+				? (Date) bucketStartTime.clone() : null;
+		this.executionCount = executionCount;
+		this.runningExecutionCount = runningExecutionCount;
+		this.successfulExecutionCount = successfulExecutionCount;
+		this.failedExecutionCount = failedExecutionCount;
+		this.lastStartTime = (lastStartTime != null) ? (Date) lastStartTime.clone()
+				: null;
+		this.averageDuration = averageDuration;
+	}
+
+	public String getTaskName() {
+		return this.taskName;
+	}
+
+	public Date getBucketStartTime() {
+		return (this.bucketStartTime != null) ? (Date) this.bucketStartTime.clone()
+				: null;
+	}
+
+	public long getExecutionCount() {
+		return this.executionCount;
+	}
+
+	public long getRunningExecutionCount() {
+		return this.runningExecutionCount;
+	}
+
+	public long getSuccessfulExecutionCount() {
+		return this.successfulExecutionCount;
+	}
+
+	public long getFailedExecutionCount() {
+		return this.failedExecutionCount;
+	}
+
+	public Date getLastStartTime() {
+		return (this.lastStartTime != null) ? (Date) this.lastStartTime.clone() : null;
+	}
+
+	public Duration getAverageDuration() {
+		return this.averageDuration;
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionStatistics{taskName='" + this.taskName
+				+ "', bucketStartTime=" + this.bucketStartTime + ", executionCount="
+				+ this.executionCount + ", runningExecutionCount="
+				+ this.runningExecutionCount + ", successfulExecutionCount="
+				+ this.successfulExecutionCount + ", failedExecutionCount="
+				+ this.failedExecutionCount + ", lastStartTime=" + this.lastStartTime
+				+ ", averageDuration=" + this.averageDuration + '}';
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,21 @@
 
 package org.springframework.cloud.task.repository;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import org.springframework.cloud.task.repository.support.TaskExecutionQueryUtils;
+import org.springframework.cloud.task.repository.support.TaskExecutionStatisticsCollector;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.Assert;
 
 /**
  * Offers methods that allow users to query the task executions that are available.
@@ -79,6 +89,109 @@ public interface TaskExplorer {
 	 */
 	Page<TaskExecution> findTaskExecutionsByName(String taskName, Pageable pageable);
 
+	/**
+	 * Get a page of the executions that started within the bounds provided. On task
+	 * tables partitioned by start time, bounded queries only read the partitions of the
+	 * matching start times.
+	 * The default implementation reads every slice of {@link #findAllAsSlice(Pageable)}.
+	 * @param startTimeFrom the inclusive lower bound of the start times, or null for no
+	 * lower bound
+	 * @param startTimeTo the exclusive upper bound of the start times, or null for no
+	 * upper bound
+	 * @param pageable the constraints for the search
+	 * @return page of task executions
+	 * @since 2.3.0
+	 */
+	default Page<TaskExecution> findTaskExecutionsStartedBetween(Date startTimeFrom,
+			Date startTimeTo, Pageable pageable) {
+		return TaskExecutionQueryUtils.findStartedBetween(this::findAllAsSlice,
+				startTimeFrom, startTimeTo, pageable);
+	}
+
+	/**
+	 * Get a page of the executions for a taskName that started within the bounds
+	 * provided.
+	 * The default implementation reads every slice of
+	 * {@link #findTaskExecutionsByNameAsSlice(String, Pageable)}.
+	 * @param taskName the name of the task to be searched
+	 * @param startTimeFrom the inclusive lower bound of the start times, or null for no
+	 * lower bound
+	 * @param startTimeTo the exclusive upper bound of the start times, or null for no
+	 * upper bound
+	 * @param pageable the constraints for the search
+	 * @return page of task executions
+	 * @since 2.3.0
+	 * @see #findTaskExecutionsStartedBetween(Date, Date, Pageable)
+	 */
+	default Page<TaskExecution> findTaskExecutionsByNameStartedBetween(String taskName,
+			Date startTimeFrom, Date startTimeTo, Pageable pageable) {
+		return TaskExecutionQueryUtils.findStartedBetween(
+				(slicePageable) -> findTaskExecutionsByNameAsSlice(taskName,
+						slicePageable),
+				startTimeFrom, startTimeTo, pageable);
+	}
+
+	/**
+	 * Get a page of the executions that match the criteria provided, for example the
+	 * failed executions of the tasks whose name starts with a prefix within the last
+	 * hour. The executions are filtered by the task repository rather than by the
+	 * caller.
+	 * The default implementation reads every slice of {@link #findAllAsSlice(Pageable)},
+	 * or of {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} when the criteria
+	 * select a single task name.
+	 * @param criteria the criteria the task executions must match
+	 * @param pageable the constraints for the search
+	 * @return page of task executions
+	 * @since 2.3.0
+	 */
+	default Page<TaskExecution> findTaskExecutions(TaskExecutionCriteria criteria,
+			Pageable pageable) {
+		Assert.notNull(criteria, "criteria must not be null");
+		String taskName = criteria.getTaskName();
+		return TaskExecutionQueryUtils.findMatching((taskName != null)
+				? (slicePageable) -> findTaskExecutionsByNameAsSlice(taskName,
+						slicePageable)
+				: this::findAllAsSlice, criteria::matches, pageable);
+	}
+
+	/**
+	 * Get the statistics of the executions that match the criteria provided, one entry
+	 * per task name sorted by task name. All the statistics are computed by a single
+	 * grouped query, so that a dashboard does not need to count the executions of each
+	 * task separately.
+	 * The default implementation calls
+	 * {@link #getTaskExecutionStatistics(TaskExecutionCriteria, Duration)} without a
+	 * bucket size.
+	 * @param criteria the criteria the task executions must match
+	 * @return the statistics of the executions of each task
+	 * @since 2.3.0
+	 */
+	default List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria) {
+		return getTaskExecutionStatistics(criteria, null);
+	}
+
+	/**
+	 * Get the statistics of the executions that match the criteria provided, one entry
+	 * per task name and time bucket that has executions, sorted by task name and bucket
+	 * start time. The buckets are consecutive periods of the bucket size, the first one
+	 * starting at the start time lower bound of the criteria, which must be set.
+	 * The default implementation passes the task executions of
+	 * {@link #streamTaskExecutions(TaskExecutionCriteria, Consumer)} to a
+	 * {@link TaskExecutionStatisticsCollector}.
+	 * @param criteria the criteria the task executions must match
+	 * @param bucketSize the length of the time buckets
+	 * @return the statistics of the executions of each task in each time bucket
+	 * @since 2.3.0
+	 */
+	default List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria, Duration bucketSize) {
+		TaskExecutionStatisticsCollector collector = new TaskExecutionStatisticsCollector(
+				criteria, bucketSize);
+		streamTaskExecutions(criteria, collector::add);
+		return collector.getStatistics();
+	}
+
 	/**
 	 * Retrieves all the task executions within the pageable constraints sorted by start
 	 * date descending, taskExecution id descending.
@@ -87,6 +200,178 @@ public interface TaskExplorer {
 	 */
 	Page<TaskExecution> findAll(Pageable pageable);
 
+	/**
+	 * Retrieves all the task executions within the pageable constraints sorted by start
+	 * date descending, taskExecution id descending. Unlike {@link #findAll(Pageable)} the
+	 * total number of task executions is not counted, the returned slice only reports
+	 * whether a next slice exists.
+	 * The default implementation returns the page of {@link #findAll(Pageable)}.
+	 * @param pageable the constraints for the search
+	 * @return slice containing the results from the search
+	 * @since 2.3.0
+	 */
+	default Slice<TaskExecution> findAllAsSlice(Pageable pageable) {
+		return findAll(pageable);
+	}
+
+	/**
+	 * Get a slice of executions for a taskName without counting the total number of
+	 * executions.
+	 * The default implementation returns the page of
+	 * {@link #findTaskExecutionsByName(String, Pageable)}.
+	 * @param taskName the name of the task to be searched
+	 * @param pageable the constraints for the search
+	 * @return slice of task executions
+	 * @since 2.3.0
+	 * @see #findAllAsSlice(Pageable)
+	 */
+	default Slice<TaskExecution> findTaskExecutionsByNameAsSlice(String taskName,
+			Pageable pageable) {
+		return findTaskExecutionsByName(taskName, pageable);
+	}
+
+	/**
+	 * Retrieve a slice of running executions for a taskName without counting the total
+	 * number of running executions.
+	 * The default implementation returns the page of
+	 * {@link #findRunningTaskExecutions(String, Pageable)}.
+	 * @param taskName the name of the task
+	 * @param pageable the constraints for the search
+	 * @return slice of running executions for tasks with the specified name
+	 * @since 2.3.0
+	 * @see #findAllAsSlice(Pageable)
+	 */
+	default Slice<TaskExecution> findRunningTaskExecutionsAsSlice(String taskName,
+			Pageable pageable) {
+		return findRunningTaskExecutions(taskName, pageable);
+	}
+
+	/**
+	 * Retrieves up to {@code limit} task executions that follow the provided task
+	 * execution sorted by start date descending, taskExecution id descending. Unlike
+	 * {@link #findAll(Pageable)} the results are located by seeking past the provided
+	 * task execution instead of skipping an offset, so the cost of retrieving a page
+	 * does not grow with its depth. Task executions without a start time are not
+	 * returned.
+	 * The default implementation reads the slices of {@link #findAllAsSlice(Pageable)}
+	 * from the first one, its cost grows with the depth of the page.
+	 * @param after the last task execution of the previous page or {@code null} to
+	 * retrieve the first page
+	 * @param limit the maximum number of task executions to return
+	 * @return list of task executions. May be empty but never null.
+	 * @since 2.3.0
+	 */
+	default List<TaskExecution> findAll(TaskExecution after, int limit) {
+		return TaskExecutionQueryUtils.findAfter(this::findAllAsSlice, after, limit);
+	}
+
+	/**
+	 * Retrieves up to {@code limit} task executions with the task name provided that
+	 * follow the provided task execution sorted by start date descending, taskExecution
+	 * id descending.
+	 * The default implementation reads the slices of
+	 * {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} from the first one.
+	 * @param taskName the name of the task to be searched
+	 * @param after the last task execution of the previous page or {@code null} to
+	 * retrieve the first page
+	 * @param limit the maximum number of task executions to return
+	 * @return list of task executions. May be empty but never null.
+	 * @since 2.3.0
+	 * @see #findAll(TaskExecution, int)
+	 */
+	default List<TaskExecution> findTaskExecutionsByName(String taskName,
+			TaskExecution after, int limit) {
+		return TaskExecutionQueryUtils.findAfter(
+				(pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable), after,
+				limit);
+	}
+
+	/**
+	 * Passes the task executions, with their arguments, to the provided consumer one at
+	 * a time, sorted by taskExecution id ascending. Intended for walking the full task
+	 * history, e.g. for an export, without paging: the task executions are read with a
+	 * single forward-only query and are not collected. The JDBC based implementation
+	 * calls the consumer within a read-only transaction, held open until the last task
+	 * execution is consumed. On MySQL the consumer must not query the task repository
+	 * within the same transaction while the rows are streamed.
+	 * The default implementation reads the slices of {@link #findAllAsSlice(Pageable)},
+	 * or of {@link #findTaskExecutionsByNameAsSlice(String, Pageable)}, and passes the
+	 * task executions in the order of those queries rather than by task execution id.
+	 * @param taskName the name of the task to be searched, or {@code null} for the task
+	 * executions of all tasks
+	 * @param consumer the consumer of the task executions
+	 * @since 2.3.0
+	 */
+	default void streamTaskExecutions(String taskName, Consumer<TaskExecution> consumer) {
+		TaskExecutionQueryUtils.forEach((taskName != null)
+				? (pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable)
+				: this::findAllAsSlice, (taskExecution) -> {
+					consumer.accept(taskExecution);
+					return true;
+				});
+	}
+
+	/**
+	 * Passes the task executions that match the criteria, with their arguments, to the
+	 * provided consumer one at a time, sorted by taskExecution id ascending.
+	 * The default implementation reads the slices of {@link #findAllAsSlice(Pageable)},
+	 * or of {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} when the criteria
+	 * select a single task name, and passes the matching task executions in the order of
+	 * those queries rather than by task execution id.
+	 * @param criteria the criteria the task executions must match
+	 * @param consumer the consumer of the task executions
+	 * @since 2.3.0
+	 * @see #streamTaskExecutions(String, Consumer)
+	 */
+	default void streamTaskExecutions(TaskExecutionCriteria criteria,
+			Consumer<TaskExecution> consumer) {
+		Assert.notNull(criteria, "criteria must not be null");
+		Assert.notNull(consumer, "consumer must not be null");
+		String taskName = criteria.getTaskName();
+		TaskExecutionQueryUtils.forEach((taskName != null)
+				? (pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable)
+				: this::findAllAsSlice, (taskExecution) -> {
+					if (criteria.matches(taskExecution)) {
+						consumer.accept(taskExecution);
+					}
+					return true;
+				});
+	}
+
+	/**
+	 * Retrieves up to limit completed task executions that ended before the time
+	 * provided, sorted by taskExecution id ascending.
+	 * The default implementation reads every slice of {@link #findAllAsSlice(Pageable)}.
+	 * @param endTime the time before which the task executions ended
+	 * @param limit the maximum number of task executions to return
+	 * @return the completed task executions that ended before the end time
+	 * @since 2.3.0
+	 */
+	default List<TaskExecution> findCompletedTaskExecutionsEndedBefore(Date endTime,
+			int limit) {
+		return TaskExecutionQueryUtils.findCompletedEndedBefore(this::findAllAsSlice,
+				endTime, limit);
+	}
+
+	/**
+	 * Retrieves up to limit completed task executions of a task, skipping the most
+	 * recent ones. The task executions are sorted by start date descending,
+	 * taskExecution id descending.
+	 * The default implementation reads the slices of
+	 * {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} from the first one.
+	 * @param taskName the name of the task to be searched
+	 * @param retainedCount the number of most recent completed task executions to skip
+	 * @param limit the maximum number of task executions to return
+	 * @return the completed task executions beyond the most recent ones
+	 * @since 2.3.0
+	 */
+	default List<TaskExecution> findCompletedTaskExecutionsBeyondLatest(String taskName,
+			int retainedCount, int limit) {
+		return TaskExecutionQueryUtils.findCompletedBeyondLatest(
+				(pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable),
+				retainedCount, limit);
+	}
+
 	/**
 	 * Returns the id of the TaskExecution that the requested Spring Batch job execution
 	 * was executed within the context of. Returns null if none were found.
@@ -104,6 +389,26 @@ public interface TaskExplorer {
 	 */
 	Set<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId);
 
+	/**
+	 * Returns the ids of the JobExecutions executed within the scope of each of the
+	 * requested tasks. The default implementation calls
+	 * {@link #getJobExecutionIdsByTaskExecutionId(long)} for each task execution.
+	 * @param taskExecutionIds ids of the {@link TaskExecution}s
+	 * @return a <code>Map</code> of the ids of the job executions executed within each
+	 * task, keyed by task execution id. Task executions without job executions are
+	 * mapped to an empty set.
+	 * @since 2.3.0
+	 */
+	default Map<Long, Set<Long>> getJobExecutionIdsByTaskExecutionIds(
+			Collection<Long> taskExecutionIds) {
+		Map<Long, Set<Long>> jobExecutionIds = new HashMap<>();
+		for (Long taskExecutionId : taskExecutionIds) {
+			jobExecutionIds.put(taskExecutionId,
+					getJobExecutionIdsByTaskExecutionId(taskExecutionId));
+		}
+		return jobExecutionIds;
+	}
+
 	/**
 	 * Returns a {@link List} of the latest {@link TaskExecution} for 1 or more task
 	 * names.
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.task.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -56,6 +58,21 @@ public interface TaskRepository {
 	TaskExecution completeTaskExecution(long executionId, Integer exitCode, Date endTime,
 			String exitMessage, String errorMessage);
 
+	/**
+	 * Notifies the repository that a taskExecution has completed, storing its exit code,
+	 * end time, exit message and error message. Implementations may update and return
+	 * the given instance instead of reading the task execution back from the repository.
+	 * @param taskExecution the task execution that completed.
+	 * @return the updated {@link TaskExecution}
+	 * @since 2.3.0
+	 */
+	@Transactional("springCloudTaskTransactionManager")
+	default TaskExecution completeTaskExecution(TaskExecution taskExecution) {
+		return completeTaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getErrorMessage());
+	}
+
 	/**
 	 * Notifies the repository that a taskExecution needs to be created.
 	 * @param taskExecution a TaskExecution instance containing the startTime, arguments
@@ -68,6 +85,42 @@ public interface TaskRepository {
 	@Transactional("springCloudTaskTransactionManager")
 	TaskExecution createTaskExecution(TaskExecution taskExecution);
 
+	/**
+	 * Notifies the repository that a number of taskExecutions need to be created. The
+	 * ids of the task executions are allocated together and the task executions are
+	 * stored using batched statements, which makes this considerably cheaper than
+	 * creating them one at a time. The default implementation creates them one at a
+	 * time.
+	 * @param taskExecutions TaskExecution instances containing the taskName, startTime,
+	 * arguments, externalExecutionId and parentExecutionId that will be stored in the
+	 * repository. The startTime may be null for task executions that will be started
+	 * later.
+	 * @return the {@link TaskExecution}s that were stored in the repository, in the
+	 * order they were provided.
+	 * @since 2.3.0
+	 */
+	@Transactional("springCloudTaskTransactionManager")
+	default List<TaskExecution> createTaskExecutions(
+			List<TaskExecution> taskExecutions) {
+		List<TaskExecution> createdTaskExecutions = new ArrayList<>(
+				taskExecutions.size());
+		for (TaskExecution taskExecution : taskExecutions) {
+			createdTaskExecutions.add(createTaskExecution(taskExecution));
+		}
+		return createdTaskExecutions;
+	}
+
+	/**
+	 * Deletes the task executions with the ids provided, along with their arguments and
+	 * their associations with batch job executions. Intended to purge completed task
+	 * executions in small chunks, each within its own transaction.
+	 * @param executionIds the ids of the task executions to delete.
+	 * @return the number of task executions deleted.
+	 * @since 2.3.0
+	 */
+	@Transactional("springCloudTaskTransactionManager")
+	int deleteTaskExecutions(Collection<Long> executionIds);
+
 	/**
 	 * Creates an empty TaskExecution with just an id and name provided. This is intended
 	 * to be utilized in systems where the request of launching a task is separate from
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,34 +19,55 @@ package org.springframework.cloud.task.repository.dao;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import javax.sql.DataSource;
 
 import org.springframework.batch.item.database.Order;
 import org.springframework.cloud.task.configuration.TaskProperties;
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCriteria;
+import org.springframework.cloud.task.repository.TaskExecutionStatistics;
 import org.springframework.cloud.task.repository.database.PagingQueryProvider;
+import org.springframework.cloud.task.repository.database.support.AbstractSqlPagingQueryProvider;
+import org.springframework.cloud.task.repository.database.support.SqlDateTimeUtils;
 import org.springframework.cloud.task.repository.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.cloud.task.repository.support.BulkDataFieldMaxValueIncrementer;
+import org.springframework.cloud.task.repository.support.DatabaseDialect;
+import org.springframework.cloud.task.repository.support.DatabaseType;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -84,6 +105,29 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	 */
 	public static final String TASK_NAME_WHERE_CLAUSE = "where TASK_NAME = :taskName ";
 
+	/**
+	 * WHERE clause for started tasks (used by keyset queries).
+	 */
+	public static final String STARTED_TASK_WHERE_CLAUSE = "where START_TIME IS NOT NULL ";
+
+	/**
+	 * WHERE clause for started tasks by task name (used by keyset queries).
+	 */
+	public static final String STARTED_TASK_NAME_WHERE_CLAUSE = "where TASK_NAME = :taskName "
+			+ "AND START_TIME IS NOT NULL ";
+
+	/**
+	 * Condition for the inclusive lower bound of the start time of task executions (used
+	 * by start time bounded queries).
+	 */
+	public static final String START_TIME_FROM_CONDITION = "START_TIME >= :startTimeFrom";
+
+	/**
+	 * Condition for the exclusive upper bound of the start time of task executions (used
+	 * by start time bounded queries).
+	 */
+	public static final String START_TIME_TO_CONDITION = "START_TIME < :startTimeTo";
+
 	private static final String SAVE_TASK_EXECUTION = "INSERT into %PREFIX%EXECUTION"
 			+ "(TASK_EXECUTION_ID, EXIT_CODE, START_TIME, TASK_NAME, LAST_UPDATED, EXTERNAL_EXECUTION_ID, PARENT_EXECUTION_ID)"
 			+ "values (:taskExecutionId, :exitCode, :startTime, "
@@ -92,18 +136,32 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	private static final String CREATE_TASK_ARGUMENT = "INSERT into "
 			+ "%PREFIX%EXECUTION_PARAMS(TASK_EXECUTION_ID, TASK_PARAM ) values (:taskExecutionId, :taskParam)";
 
+	/**
+	 * Escapes the wildcards of task name prefixes. Unlike a backslash it does not need to
+	 * be escaped in string literals, and is accepted by all the supported databases.
+	 */
+	private static final char LIKE_ESCAPE_CHARACTER = '!';
+
+	private static final String TASK_NAME_PREFIX_CONDITION = "TASK_NAME LIKE :taskNamePattern "
+			+ "ESCAPE '" + LIKE_ESCAPE_CHARACTER + "'";
+
+	private static final String CREATE_PARTITIONED_TASK_ARGUMENT = "INSERT into "
+			+ "%PREFIX%EXECUTION_PARAMS(TASK_EXECUTION_ID, START_TIME, TASK_PARAM ) "
+			+ "values (:taskExecutionId, :startTime, :taskParam)";
+
+	private static final String UPDATE_PARTITIONED_TASK_ARGUMENTS_START_TIME = "UPDATE "
+			+ "%PREFIX%EXECUTION_PARAMS set START_TIME = :startTime "
+			+ "where TASK_EXECUTION_ID = :taskExecutionId";
+
 	private static final String START_TASK_EXECUTION_PREFIX = "UPDATE %PREFIX%EXECUTION set "
 			+ "START_TIME = :startTime, TASK_NAME = :taskName, LAST_UPDATED = :lastUpdated";
 
 	private static final String START_TASK_EXECUTION_EXTERNAL_ID_SUFFIX = ", "
 			+ "EXTERNAL_EXECUTION_ID = :externalExecutionId, PARENT_EXECUTION_ID = :parentExecutionId "
-			+ "where TASK_EXECUTION_ID = :taskExecutionId";
+			+ "where TASK_EXECUTION_ID = :taskExecutionId AND END_TIME IS NULL";
 
 	private static final String START_TASK_EXECUTION_SUFFIX = ", PARENT_EXECUTION_ID = :parentExecutionId "
-			+ "where TASK_EXECUTION_ID = :taskExecutionId";
-
-	private static final String CHECK_TASK_EXECUTION_EXISTS = "SELECT COUNT(*) FROM "
-			+ "%PREFIX%EXECUTION WHERE TASK_EXECUTION_ID = :taskExecutionId";
+			+ "where TASK_EXECUTION_ID = :taskExecutionId AND END_TIME IS NULL";
 
 	private static final String UPDATE_TASK_EXECUTION = "UPDATE %PREFIX%EXECUTION set "
 			+ "END_TIME = :endTime, EXIT_CODE = :exitCode, EXIT_MESSAGE = :exitMessage, ERROR_MESSAGE = :errorMessage, "
@@ -121,6 +179,9 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	private static final String FIND_ARGUMENT_FROM_ID = "SELECT TASK_EXECUTION_ID, "
 			+ "TASK_PARAM from %PREFIX%EXECUTION_PARAMS where TASK_EXECUTION_ID = :taskExecutionId";
 
+	private static final String FIND_ARGUMENTS_FROM_IDS = "SELECT TASK_EXECUTION_ID, "
+			+ "TASK_PARAM from %PREFIX%EXECUTION_PARAMS where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
 	private static final String TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
 			+ "%PREFIX%EXECUTION ";
 
@@ -143,6 +204,64 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			+ "inner join %PREFIX%EXECUTION TE2 ON TE1.TASK_EXECUTION_ID = TE2.TASK_EXECUTION_ID "
 			+ "order by TE2.START_TIME DESC, TE2.TASK_EXECUTION_ID DESC";
 
+	/**
+	 * Selects the latest task execution of each task name with a single pass over the
+	 * task name index, instead of the self joins of
+	 * {@link #LAST_TASK_EXECUTIONS_BY_TASK_NAMES}, when enabled for a database that
+	 * supports window functions.
+	 */
+	private static final String LATEST_TASK_EXECUTIONS_BY_TASK_NAMES = "SELECT TASK_EXECUTION_ID, "
+			+ "START_TIME, END_TIME, TASK_NAME, EXIT_CODE, "
+			+ "EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, EXTERNAL_EXECUTION_ID, "
+			+ "PARENT_EXECUTION_ID from (SELECT TASK_EXECUTION_ID, "
+			+ "START_TIME, END_TIME, TASK_NAME, EXIT_CODE, "
+			+ "EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, EXTERNAL_EXECUTION_ID, "
+			+ "PARENT_EXECUTION_ID, ROW_NUMBER() OVER (PARTITION BY TASK_NAME "
+			+ "ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC) AS EXECUTION_RANK "
+			+ "from %PREFIX%EXECUTION where TASK_NAME in (:taskNames) "
+			+ "AND START_TIME IS NOT NULL) RANKED_EXECUTIONS where EXECUTION_RANK = 1 "
+			+ "order by START_TIME DESC, TASK_EXECUTION_ID DESC";
+
+	private static final String STREAM_TASK_EXECUTIONS = "SELECT E.TASK_EXECUTION_ID, "
+			+ "E.START_TIME, E.END_TIME, E.TASK_NAME, E.EXIT_CODE, "
+			+ "E.EXIT_MESSAGE, E.ERROR_MESSAGE, E.LAST_UPDATED, E.EXTERNAL_EXECUTION_ID, "
+			+ "E.PARENT_EXECUTION_ID, P.TASK_EXECUTION_ID as PARAM_EXECUTION_ID, P.TASK_PARAM "
+			+ "from %PREFIX%EXECUTION E left outer join %PREFIX%EXECUTION_PARAMS P "
+			+ "on E.TASK_EXECUTION_ID = P.TASK_EXECUTION_ID ";
+
+	private static final String STREAM_TASK_EXECUTIONS_BY_NAME = STREAM_TASK_EXECUTIONS
+			+ "where E.TASK_NAME = :taskName ";
+
+	private static final String STREAM_ORDER_BY = "order by E.TASK_EXECUTION_ID";
+
+	private static final String FIND_COMPLETED_TASK_EXECUTIONS_ENDED_BEFORE = "SELECT TASK_EXECUTION_ID, "
+			+ "START_TIME, END_TIME, TASK_NAME, EXIT_CODE, "
+			+ "EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, EXTERNAL_EXECUTION_ID, "
+			+ "PARENT_EXECUTION_ID "
+			+ "from %PREFIX%EXECUTION where END_TIME < :endTime order by TASK_EXECUTION_ID";
+
+	private static final String FIND_COMPLETED_TASK_EXECUTIONS_BY_NAME = "SELECT TASK_EXECUTION_ID, "
+			+ "START_TIME, END_TIME, TASK_NAME, EXIT_CODE, "
+			+ "EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, EXTERNAL_EXECUTION_ID, "
+			+ "PARENT_EXECUTION_ID "
+			+ "from %PREFIX%EXECUTION where TASK_NAME = :taskName AND END_TIME IS NOT NULL "
+			+ "order by START_TIME DESC, TASK_EXECUTION_ID DESC";
+
+	private static final String DELETE_TASK_BATCH_ASSOCIATIONS = "DELETE from "
+			+ "%PREFIX%TASK_BATCH where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String DELETE_TASK_ARGUMENTS = "DELETE from "
+			+ "%PREFIX%EXECUTION_PARAMS where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String DELETE_TASK_EXECUTIONS = "DELETE from "
+			+ "%PREFIX%EXECUTION where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String TASK_EXECUTION_STATISTICS_AGGREGATES = "COUNT(*) AS EXECUTION_COUNT, "
+			+ "SUM(CASE WHEN END_TIME IS NULL THEN 1 ELSE 0 END) AS RUNNING_COUNT, "
+			+ "SUM(CASE WHEN EXIT_CODE = 0 THEN 1 ELSE 0 END) AS SUCCESSFUL_COUNT, "
+			+ "SUM(CASE WHEN EXIT_CODE <> 0 THEN 1 ELSE 0 END) AS FAILED_COUNT, "
+			+ "MAX(START_TIME) AS LAST_START_TIME, AVG(DURATION) AS AVERAGE_DURATION ";
+
 	private static final String FIND_TASK_NAMES = "SELECT distinct TASK_NAME from %PREFIX%EXECUTION order by TASK_NAME";
 
 	private static final String FIND_TASK_EXECUTION_BY_JOB_EXECUTION_ID = "SELECT TASK_EXECUTION_ID FROM "
@@ -151,6 +270,35 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	private static final String FIND_JOB_EXECUTION_BY_TASK_EXECUTION_ID = "SELECT JOB_EXECUTION_ID "
 			+ "FROM %PREFIX%TASK_BATCH WHERE TASK_EXECUTION_ID = :taskExecutionId";
 
+	private static final String FIND_JOB_EXECUTIONS_BY_TASK_EXECUTION_IDS = "SELECT "
+			+ "TASK_EXECUTION_ID, JOB_EXECUTION_ID FROM %PREFIX%TASK_BATCH "
+			+ "WHERE TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	/**
+	 * Maximum number of task execution ids bound to a single IN clause when the
+	 * arguments for a list of task executions are retrieved. Kept at or below the
+	 * smallest limit imposed by the supported databases (Oracle).
+	 */
+	private static final int MAX_ARGUMENT_QUERY_IDS = 1000;
+
+	/**
+	 * Maximum number of paging query providers and generated paging queries retained by
+	 * each dao. The least recently used entry is evicted once the limit is reached.
+	 */
+	private static final int MAX_PAGING_QUERY_CACHE_SIZE = 100;
+
+	/**
+	 * Default number of rows fetched from the database per round trip when task
+	 * executions are streamed, except on MySQL where the rows are streamed one at a time.
+	 */
+	public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
+	private static final String WINDOW_COUNT_COLUMN = "TOTAL_COUNT";
+
+
+	private static final String WINDOW_COUNT_SELECT_CLAUSE = "COUNT(*) OVER() AS "
+			+ WINDOW_COUNT_COLUMN;
+
 	private final NamedParameterJdbcTemplate jdbcTemplate;
 
 	private String tablePrefix = TaskProperties.DEFAULT_TABLE_PREFIX;
@@ -161,6 +309,22 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 
 	private DataFieldMaxValueIncrementer taskIncrementer;
 
+	private Integer streamFetchSize;
+
+	private PlatformTransactionManager transactionManager;
+
+	private boolean startTimePartitioned;
+
+	private volatile DatabaseDialect databaseDialect;
+
+	private boolean windowFunctionsEnabled;
+
+	private final Map<String, PagingQueryProvider> pagingQueryProviders = Collections
+			.synchronizedMap(new LruCache<>(MAX_PAGING_QUERY_CACHE_SIZE));
+
+	private final Map<String, String> pagingQueries = Collections
+			.synchronizedMap(new LruCache<>(MAX_PAGING_QUERY_CACHE_SIZE));
+
 	/**
 	 * Initializes the JdbcTaskExecutionDao.
 	 * @param dataSource used by the dao to execute queries and update the tables.
@@ -211,10 +375,57 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 				.addValue("parentExecutionId", parentExecutionId, Types.BIGINT);
 
 		this.jdbcTemplate.update(getQuery(SAVE_TASK_EXECUTION), queryParameters);
-		insertTaskArguments(nextExecutionId, arguments);
+		insertTaskArguments(nextExecutionId, startTime, arguments);
 		return taskExecution;
 	}
 
+	@Override
+	public List<TaskExecution> createTaskExecutions(List<TaskExecution> taskExecutions) {
+		Assert.notNull(taskExecutions, "taskExecutions must not be null");
+		if (taskExecutions.isEmpty()) {
+			return Collections.emptyList();
+		}
+		long[] executionIds = getNextExecutionIds(taskExecutions.size());
+		Date lastUpdated = new Date();
+		List<TaskExecution> result = new ArrayList<>(taskExecutions.size());
+		SqlParameterSource[] executionParameters = new SqlParameterSource[taskExecutions
+				.size()];
+		List<SqlParameterSource> argumentParameters = new ArrayList<>();
+		for (int i = 0; i < executionParameters.length; i++) {
+			TaskExecution taskExecution = taskExecutions.get(i);
+			long executionId = executionIds[i];
+			List<String> arguments = (taskExecution.getArguments() != null)
+					? taskExecution.getArguments() : Collections.emptyList();
+			result.add(new TaskExecution(executionId, null, taskExecution.getTaskName(),
+					taskExecution.getStartTime(), null, null, arguments, null,
+					taskExecution.getExternalExecutionId(),
+					taskExecution.getParentExecutionId()));
+			executionParameters[i] = new MapSqlParameterSource()
+					.addValue("taskExecutionId", executionId, Types.BIGINT)
+					.addValue("exitCode", null, Types.INTEGER)
+					.addValue("startTime", taskExecution.getStartTime(), Types.TIMESTAMP)
+					.addValue("taskName", taskExecution.getTaskName(), Types.VARCHAR)
+					.addValue("lastUpdated", lastUpdated, Types.TIMESTAMP)
+					.addValue("externalExecutionId",
+							taskExecution.getExternalExecutionId(), Types.VARCHAR)
+					.addValue("parentExecutionId", taskExecution.getParentExecutionId(),
+							Types.BIGINT);
+			for (String argument : arguments) {
+				argumentParameters.add(new MapSqlParameterSource()
+						.addValue("taskExecutionId", executionId, Types.BIGINT)
+						.addValue("startTime", taskExecution.getStartTime(),
+								Types.TIMESTAMP)
+						.addValue("taskParam", argument, Types.VARCHAR));
+			}
+		}
+		this.jdbcTemplate.batchUpdate(getQuery(SAVE_TASK_EXECUTION), executionParameters);
+		if (!argumentParameters.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(getCreateTaskArgumentQuery(),
+					argumentParameters.toArray(new SqlParameterSource[0]));
+		}
+		return result;
+	}
+
 	@Override
 	public TaskExecution startTaskExecution(long executionId, String taskName,
 			Date startTime, List<String> arguments, String externalExecutionId) {
@@ -249,25 +460,27 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 					Types.VARCHAR);
 		}
 
-		this.jdbcTemplate.update(getQuery(updateString), queryParameters);
-		insertTaskArguments(executionId, arguments);
+		// The update only matches task executions that exist and are not complete, a
+		// lookup to report the cause is only needed if nothing was updated.
+		if (this.jdbcTemplate.update(getQuery(updateString), queryParameters) != 1) {
+			Assert.notNull(getTaskExecution(executionId), String
+					.format("Invalid TaskExecution, ID %s not found", executionId));
+			throw new IllegalArgumentException(String.format(
+					"Invalid TaskExecution, ID %s task is already complete",
+					executionId));
+		}
+		if (this.startTimePartitioned) {
+			// moves the arguments stored when the execution was created to its partition
+			this.jdbcTemplate.update(getQuery(UPDATE_PARTITIONED_TASK_ARGUMENTS_START_TIME),
+					queryParameters);
+		}
+		insertTaskArguments(executionId, startTime, arguments);
 		return taskExecution;
 	}
 
 	@Override
 	public void completeTaskExecution(long taskExecutionId, Integer exitCode,
 			Date endTime, String exitMessage, String errorMessage) {
-		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
-				.addValue("taskExecutionId", taskExecutionId, Types.BIGINT);
-
-		// Check if given TaskExecution's Id already exists, if none is found
-		// it is invalid and an exception should be thrown.
-		if (this.jdbcTemplate.queryForObject(getQuery(CHECK_TASK_EXECUTION_EXISTS),
-				queryParameters, Integer.class) != 1) {
-			throw new IllegalStateException(
-					"Invalid TaskExecution, ID " + taskExecutionId + " not found.");
-		}
-
 		final MapSqlParameterSource parameters = new MapSqlParameterSource()
 				.addValue("endTime", endTime, Types.TIMESTAMP)
 				.addValue("exitCode", exitCode, Types.INTEGER)
@@ -276,7 +489,12 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 				.addValue("lastUpdated", new Date(), Types.TIMESTAMP)
 				.addValue("taskExecutionId", taskExecutionId, Types.BIGINT);
 
-		this.jdbcTemplate.update(getQuery(UPDATE_TASK_EXECUTION), parameters);
+		// If no row was updated the given TaskExecution's Id does not exist, it is
+		// invalid and an exception should be thrown.
+		if (this.jdbcTemplate.update(getQuery(UPDATE_TASK_EXECUTION), parameters) != 1) {
+			throw new IllegalStateException(
+					"Invalid TaskExecution, ID " + taskExecutionId + " not found.");
+		}
 	}
 
 	@Override
@@ -364,8 +582,11 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		try {
 			final Map<String, List<String>> paramMap = Collections
 					.singletonMap("taskNames", taskNamesAsList);
-			return this.jdbcTemplate.query(getQuery(LAST_TASK_EXECUTIONS_BY_TASK_NAMES),
-					paramMap, new TaskExecutionRowMapper());
+			String query = isWindowFunctionsUsed()
+					? LATEST_TASK_EXECUTIONS_BY_TASK_NAMES
+					: LAST_TASK_EXECUTIONS_BY_TASK_NAMES;
+			return populateArguments(this.jdbcTemplate.query(getQuery(query), paramMap,
+					new TaskExecutionRowMapper()));
 		}
 		catch (EmptyResultDataAccessException e) {
 			return Collections.emptyList();
@@ -408,7 +629,7 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE,
 				RUNNING_TASK_WHERE_CLAUSE,
 				new MapSqlParameterSource("taskName", taskName),
-				getRunningTaskExecutionCountByTaskName(taskName));
+				() -> getRunningTaskExecutionCountByTaskName(taskName), null, null);
 	}
 
 	@Override
@@ -416,7 +637,105 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			Pageable pageable) {
 		return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE,
 				TASK_NAME_WHERE_CLAUSE, new MapSqlParameterSource("taskName", taskName),
-				getTaskExecutionCountByTaskName(taskName));
+				() -> getTaskExecutionCountByTaskName(taskName), null, null);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsStartedBetween(Date startTimeFrom,
+			Date startTimeTo, Pageable pageable) {
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+		criteria.setStartTimeFrom(startTimeFrom);
+		criteria.setStartTimeTo(startTimeTo);
+		return findTaskExecutions(criteria, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsByNameStartedBetween(String taskName,
+			Date startTimeFrom, Date startTimeTo, Pageable pageable) {
+		Assert.notNull(taskName, "taskName must not be null");
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+		criteria.setTaskName(taskName);
+		criteria.setStartTimeFrom(startTimeFrom);
+		criteria.setStartTimeTo(startTimeTo);
+		return findTaskExecutions(criteria, pageable);
+	}
+
+	/**
+	 * Queries a page of the task executions that match the criteria. Each criterion is
+	 * a condition of the where clause, so the task name and start time criteria are
+	 * served by the task name and start time indexes. The start time bounds also let
+	 * the database read only the partitions of the matching start times.
+	 */
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionCriteria criteria,
+			Pageable pageable) {
+		Assert.notNull(criteria, "criteria must not be null");
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource();
+		String whereClause = getCriteriaWhereClause(criteria, queryParameters);
+		String countQuery = getQuery(TASK_EXECUTION_COUNT
+				+ ((whereClause != null) ? whereClause : ""));
+		return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE, whereClause,
+				queryParameters,
+				() -> this.jdbcTemplate.queryForObject(countQuery, queryParameters,
+						Long.class),
+				criteria.getStartTimeFrom(), criteria.getStartTimeTo());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The durations and time buckets are computed by a nested select, so that the
+	 * grouped query does not depend on the database allowing expressions and parameters
+	 * in its group by clause.
+	 */
+	@Override
+	public List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria, Duration bucketSize) {
+		Assert.notNull(criteria, "criteria must not be null");
+		Date bucketOrigin = criteria.getStartTimeFrom();
+		if (bucketSize != null) {
+			Assert.isTrue(bucketSize.toMillis() > 0,
+					"bucketSize must be at least one millisecond");
+			Assert.notNull(bucketOrigin,
+					"The start time lower bound of the criteria must be set to bucket the statistics");
+		}
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource();
+		String whereClause = getCriteriaWhereClause(criteria, queryParameters);
+		DatabaseType databaseType = getDatabaseType();
+		String groupByClause = (bucketSize != null) ? "TASK_NAME, BUCKET" : "TASK_NAME";
+		StringBuilder query = new StringBuilder("SELECT ").append(groupByClause)
+				.append(", ").append(TASK_EXECUTION_STATISTICS_AGGREGATES)
+				.append("from (SELECT TASK_NAME, START_TIME, END_TIME, EXIT_CODE, ")
+				.append(SqlDateTimeUtils.millisecondsBetween(databaseType, "START_TIME",
+						"END_TIME"))
+				.append(" AS DURATION");
+		if (bucketSize != null) {
+			query.append(", FLOOR(").append(SqlDateTimeUtils.millisecondsBetween(
+					databaseType,
+					SqlDateTimeUtils.timestampParameter(databaseType, ":startTimeFrom"),
+					"START_TIME")).append(" / :bucketSize) AS BUCKET");
+			queryParameters.addValue("bucketSize", bucketSize.toMillis(), Types.BIGINT);
+		}
+		query.append(" from %PREFIX%EXECUTION ")
+				.append((whereClause != null) ? whereClause : "")
+				.append(") TASK_EXECUTION_DURATIONS group by ").append(groupByClause)
+				.append(" order by ").append(groupByClause);
+		return this.jdbcTemplate.query(getQuery(query.toString()), queryParameters,
+				(rs, rowNum) -> {
+					Date bucketStartTime = null;
+					if (bucketSize != null) {
+						bucketStartTime = new Date(bucketOrigin.getTime()
+								+ rs.getLong("BUCKET") * bucketSize.toMillis());
+					}
+					double averageMillis = rs.getDouble("AVERAGE_DURATION");
+					Duration averageDuration = rs.wasNull() ? null
+							: Duration.ofMillis(Math.round(averageMillis));
+					return new TaskExecutionStatistics(rs.getString("TASK_NAME"),
+							bucketStartTime, rs.getLong("EXECUTION_COUNT"),
+							rs.getLong("RUNNING_COUNT"), rs.getLong("SUCCESSFUL_COUNT"),
+							rs.getLong("FAILED_COUNT"),
+							rs.getTimestamp("LAST_START_TIME"), averageDuration);
+				});
 	}
 
 	@Override
@@ -428,7 +747,155 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	@Override
 	public Page<TaskExecution> findAll(Pageable pageable) {
 		return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE, null,
-				new MapSqlParameterSource(), getTaskExecutionCount());
+				new MapSqlParameterSource(), this::getTaskExecutionCount, null, null);
+	}
+
+	@Override
+	public Slice<TaskExecution> findAllAsSlice(Pageable pageable) {
+		return queryForSliceResults(pageable, null, new MapSqlParameterSource());
+	}
+
+	@Override
+	public Slice<TaskExecution> findTaskExecutionsByNameAsSlice(String taskName,
+			Pageable pageable) {
+		return queryForSliceResults(pageable, TASK_NAME_WHERE_CLAUSE,
+				new MapSqlParameterSource("taskName", taskName));
+	}
+
+	@Override
+	public Slice<TaskExecution> findRunningTaskExecutionsAsSlice(String taskName,
+			Pageable pageable) {
+		return queryForSliceResults(pageable, RUNNING_TASK_WHERE_CLAUSE,
+				new MapSqlParameterSource("taskName", taskName));
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecution after, int limit) {
+		return queryForKeysetResults(after, limit, STARTED_TASK_WHERE_CLAUSE,
+				new MapSqlParameterSource());
+	}
+
+	@Override
+	public List<TaskExecution> findTaskExecutionsByName(String taskName,
+			TaskExecution after, int limit) {
+		return queryForKeysetResults(after, limit, STARTED_TASK_NAME_WHERE_CLAUSE,
+				new MapSqlParameterSource("taskName", taskName));
+	}
+
+	@Override
+	public void streamTaskExecutions(String taskName,
+			Consumer<TaskExecution> consumer) {
+		streamTaskExecutions((taskName != null) ? STREAM_TASK_EXECUTIONS_BY_NAME
+				: STREAM_TASK_EXECUTIONS, new MapSqlParameterSource("taskName", taskName),
+				consumer);
+	}
+
+	/**
+	 * Streams the task executions that match the criteria with a single query, the
+	 * criteria being the conditions of its where clause as for
+	 * {@link #findTaskExecutions(TaskExecutionCriteria, Pageable)}.
+	 */
+	@Override
+	public void streamTaskExecutions(TaskExecutionCriteria criteria,
+			Consumer<TaskExecution> consumer) {
+		Assert.notNull(criteria, "criteria must not be null");
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource();
+		String whereClause = getCriteriaWhereClause(criteria, queryParameters);
+		streamTaskExecutions(STREAM_TASK_EXECUTIONS
+				+ ((whereClause != null) ? whereClause : ""), queryParameters, consumer);
+	}
+
+	private void streamTaskExecutions(String query,
+			MapSqlParameterSource queryParameters, Consumer<TaskExecution> consumer) {
+		Assert.notNull(consumer, "consumer must not be null");
+		JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(this.dataSource);
+		streamingJdbcTemplate.setFetchSize(getStreamFetchSize());
+		// drivers such as PostgreSQL only fetch the rows incrementally within a
+		// transaction, the result set is held open until the last row is consumed
+		TransactionTemplate transactionTemplate = new TransactionTemplate(
+				getTransactionManager());
+		transactionTemplate.setReadOnly(true);
+		transactionTemplate.executeWithoutResult((status) -> {
+			StreamingRowCallbackHandler handler = new StreamingRowCallbackHandler(
+					consumer);
+			new NamedParameterJdbcTemplate(streamingJdbcTemplate).query(
+					getQuery(query + STREAM_ORDER_BY), queryParameters, handler);
+			handler.complete();
+		});
+	}
+
+	@Override
+	public List<TaskExecution> findCompletedTaskExecutionsEndedBefore(Date endTime,
+			int limit) {
+		Assert.notNull(endTime, "endTime must not be null");
+		return queryForLimitedResults(FIND_COMPLETED_TASK_EXECUTIONS_ENDED_BEFORE,
+				new MapSqlParameterSource("endTime", endTime), 0, limit);
+	}
+
+	@Override
+	public List<TaskExecution> findCompletedTaskExecutionsBeyondLatest(String taskName,
+			int retainedCount, int limit) {
+		Assert.isTrue(retainedCount >= 0, "retainedCount must not be negative");
+		return queryForLimitedResults(FIND_COMPLETED_TASK_EXECUTIONS_BY_NAME,
+				new MapSqlParameterSource("taskName", taskName), retainedCount, limit);
+	}
+
+	@Override
+	public int deleteTaskExecutions(Collection<Long> executionIds) {
+		Assert.notNull(executionIds, "executionIds must not be null");
+		List<Long> taskExecutionIds = new ArrayList<>(executionIds);
+		int deleted = 0;
+		for (int i = 0; i < taskExecutionIds.size(); i += MAX_ARGUMENT_QUERY_IDS) {
+			MapSqlParameterSource queryParameters = new MapSqlParameterSource(
+					"taskExecutionIds", taskExecutionIds.subList(i,
+							Math.min(i + MAX_ARGUMENT_QUERY_IDS, taskExecutionIds.size())));
+			this.jdbcTemplate.update(getQuery(DELETE_TASK_BATCH_ASSOCIATIONS),
+					queryParameters);
+			this.jdbcTemplate.update(getQuery(DELETE_TASK_ARGUMENTS), queryParameters);
+			deleted += this.jdbcTemplate.update(getQuery(DELETE_TASK_EXECUTIONS),
+					queryParameters);
+		}
+		return deleted;
+	}
+
+	/**
+	 * Sets the number of rows fetched from the database per round trip when task
+	 * executions are streamed. Defaults to {@link #DEFAULT_STREAM_FETCH_SIZE}, or to
+	 * {@link Integer#MIN_VALUE} on MySQL, the only fetch size for which MySQL
+	 * Connector/J streams the rows of a result set instead of reading them all at once.
+	 * @param streamFetchSize the fetch size to use, greater than zero or
+	 * {@link Integer#MIN_VALUE}.
+	 * @since 2.3.0
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		Assert.isTrue(streamFetchSize > 0 || streamFetchSize == Integer.MIN_VALUE,
+				"streamFetchSize must be greater than zero or Integer.MIN_VALUE");
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	/**
+	 * Sets the transaction manager of the read-only transaction task executions are
+	 * streamed within. Defaults to a {@link DataSourceTransactionManager} of the data
+	 * source of this dao.
+	 * @param transactionManager the transaction manager to use.
+	 * @since 2.3.0
+	 */
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		Assert.notNull(transactionManager, "transactionManager must not be null");
+		this.transactionManager = transactionManager;
+	}
+
+	/**
+	 * Sets whether the task tables are partitioned by start time, as created by the
+	 * {@code schema-*-partitioned.sql} scripts. When set, the start time of each task
+	 * execution is also stored with its arguments, so that the arguments are partitioned
+	 * along with the task execution, and the arguments of start time bounded queries are
+	 * retrieved from the matching partitions only. Defaults to false.
+	 * @param startTimePartitioned whether the task tables are partitioned by start time.
+	 * @since 2.3.0
+	 */
+	public void setStartTimePartitioned(boolean startTimePartitioned) {
+		this.startTimePartitioned = startTimePartitioned;
 	}
 
 	public void setTaskIncrementer(DataFieldMaxValueIncrementer taskIncrementer) {
@@ -439,6 +906,25 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		return this.taskIncrementer.nextLongValue();
 	}
 
+	/**
+	 * Obtains a number of task execution ids, with a single call to the task incrementer
+	 * if it is a {@link BulkDataFieldMaxValueIncrementer}.
+	 * @param count the number of ids required.
+	 * @return the task execution ids.
+	 * @since 2.3.0
+	 */
+	public long[] getNextExecutionIds(int count) {
+		if (this.taskIncrementer instanceof BulkDataFieldMaxValueIncrementer) {
+			return ((BulkDataFieldMaxValueIncrementer) this.taskIncrementer)
+					.nextLongValues(count);
+		}
+		long[] executionIds = new long[count];
+		for (int i = 0; i < count; i++) {
+			executionIds[i] = getNextExecutionId();
+		}
+		return executionIds;
+	}
+
 	@Override
 	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
 		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
@@ -482,6 +968,28 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		}
 	}
 
+	@Override
+	public Map<Long, Set<Long>> getJobExecutionIdsByTaskExecutionIds(
+			Collection<Long> taskExecutionIds) {
+		Assert.notNull(taskExecutionIds, "taskExecutionIds must not be null");
+		Map<Long, Set<Long>> jobExecutionIds = new HashMap<>();
+		for (Long taskExecutionId : taskExecutionIds) {
+			jobExecutionIds.put(taskExecutionId, new TreeSet<>());
+		}
+		RowCallbackHandler handler = (resultSet) -> jobExecutionIds
+				.get(resultSet.getLong("TASK_EXECUTION_ID"))
+				.add(resultSet.getLong("JOB_EXECUTION_ID"));
+		List<Long> ids = new ArrayList<>(jobExecutionIds.keySet());
+		for (int i = 0; i < ids.size(); i += MAX_ARGUMENT_QUERY_IDS) {
+			MapSqlParameterSource queryParameters = new MapSqlParameterSource(
+					"taskExecutionIds",
+					ids.subList(i, Math.min(i + MAX_ARGUMENT_QUERY_IDS, ids.size())));
+			this.jdbcTemplate.query(getQuery(FIND_JOB_EXECUTIONS_BY_TASK_EXECUTION_IDS),
+					queryParameters, handler);
+		}
+		return jobExecutionIds;
+	}
+
 	@Override
 	public void updateExternalExecutionId(long taskExecutionId,
 			String externalExecutionId) {
@@ -499,13 +1007,55 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 
 	private Page<TaskExecution> queryForPageableResults(Pageable pageable,
 			String selectClause, String fromClause, String whereClause,
-			MapSqlParameterSource queryParameters, long totalCount) {
-		SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
-		factoryBean.setSelectClause(selectClause);
-		factoryBean.setFromClause(fromClause);
-		if (StringUtils.hasText(whereClause)) {
-			factoryBean.setWhereClause(whereClause);
+			MapSqlParameterSource queryParameters, LongSupplier totalCount,
+			Date startTimeFrom, Date startTimeTo) {
+		Map<String, Order> sortKeys = getSortKeys(pageable);
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(selectClause,
+				fromClause, whereClause, sortKeys);
+		if (!pagingQueryProvider.isWindowCountSupported()) {
+			List<TaskExecution> resultList = this.jdbcTemplate.query(
+					getPageQuery(pageable, "page", selectClause, fromClause,
+							whereClause, sortKeys, queryParameters),
+					queryParameters, new TaskExecutionRowMapper());
+			return PageableExecutionUtils.getPage(
+					populateArguments(resultList, startTimeFrom, startTimeTo), pageable,
+					totalCount);
+		}
+
+		final long[] windowCount = { -1 };
+		final TaskExecutionRowMapper rowMapper = new TaskExecutionRowMapper();
+		List<TaskExecution> resultList = this.jdbcTemplate.query(
+				getPageQuery(pageable, "page",
+						selectClause + ", " + WINDOW_COUNT_SELECT_CLAUSE, fromClause,
+						whereClause, sortKeys, queryParameters),
+				queryParameters, (rs, rowNum) -> {
+					if (rowNum == 0) {
+						windowCount[0] = rs.getLong(WINDOW_COUNT_COLUMN);
+					}
+					return rowMapper.mapRow(rs, rowNum);
+				});
+		if (resultList.isEmpty()) {
+			return PageableExecutionUtils.getPage(resultList, pageable, totalCount);
 		}
+		return new PageImpl<>(populateArguments(resultList, startTimeFrom, startTimeTo),
+				pageable, windowCount[0]);
+	}
+
+	private Slice<TaskExecution> queryForSliceResults(Pageable pageable,
+			String whereClause, MapSqlParameterSource queryParameters) {
+		Map<String, Order> sortKeys = getSortKeys(pageable);
+		List<TaskExecution> resultList = this.jdbcTemplate.query(
+				getPageQuery(new OverFetchingPageable(pageable), "slice", SELECT_CLAUSE,
+						FROM_CLAUSE, whereClause, sortKeys, queryParameters),
+				queryParameters, new TaskExecutionRowMapper());
+		boolean hasNext = resultList.size() > pageable.getPageSize();
+		if (hasNext) {
+			resultList = new ArrayList<>(resultList.subList(0, pageable.getPageSize()));
+		}
+		return new SliceImpl<>(populateArguments(resultList), pageable, hasNext);
+	}
+
+	private Map<String, Order> getSortKeys(Pageable pageable) {
 		final Sort sort = pageable.getSort();
 		final LinkedHashMap<String, Order> sortOrderMap = new LinkedHashMap<>();
 
@@ -515,14 +1065,174 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 						sortOrder.isAscending() ? Order.ASCENDING : Order.DESCENDING);
 			}
 		}
+		return !CollectionUtils.isEmpty(sortOrderMap) ? sortOrderMap : this.orderMap;
+	}
+
+	/**
+	 * Returns the page query, cached per page size with the offset bound to the query
+	 * parameters, so that deep pages do not evict the queries of other page shapes.
+	 */
+	private String getPageQuery(Pageable pageable, String shape, String selectClause,
+			String fromClause, String whereClause, Map<String, Order> sortKeys,
+			MapSqlParameterSource queryParameters) {
+		String providerKey = getPagingQueryProviderKey(selectClause, fromClause,
+				whereClause, sortKeys);
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(providerKey,
+				selectClause, fromClause, whereClause, sortKeys);
+		if (!(pagingQueryProvider instanceof AbstractSqlPagingQueryProvider)) {
+			return getQuery(pagingQueryProvider.getPageQuery(pageable));
+		}
+		int pageSize = pageable.getPageSize();
+		queryParameters
+				.addValue(AbstractSqlPagingQueryProvider.OFFSET_PARAMETER_NAME,
+						pageable.getOffset(), Types.BIGINT)
+				.addValue(AbstractSqlPagingQueryProvider.END_ROW_PARAMETER_NAME,
+						pageable.getOffset() + pageSize, Types.BIGINT);
+		return this.pagingQueries.computeIfAbsent(
+				providerKey + "|" + shape + "|" + pageSize,
+				key -> getQuery(((AbstractSqlPagingQueryProvider) pagingQueryProvider)
+						.getPageQuery(pageSize)));
+	}
 
-		if (!CollectionUtils.isEmpty(sortOrderMap)) {
-			factoryBean.setSortKeys(sortOrderMap);
+	private List<TaskExecution> queryForKeysetResults(TaskExecution after, int limit,
+			String whereClause, MapSqlParameterSource queryParameters) {
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		String providerKey = getPagingQueryProviderKey(SELECT_CLAUSE, FROM_CLAUSE,
+				whereClause, this.orderMap);
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(providerKey,
+				SELECT_CLAUSE, FROM_CLAUSE, whereClause, this.orderMap);
+		String query;
+		if (after == null) {
+			query = this.pagingQueries.computeIfAbsent(
+					providerKey + "|first|" + limit, key -> getQuery(
+							pagingQueryProvider.getFirstPageQuery(limit)));
 		}
 		else {
-			factoryBean.setSortKeys(this.orderMap);
+			Assert.notNull(after.getStartTime(),
+					"The task execution to seek after must have a start time");
+			query = this.pagingQueries.computeIfAbsent(
+					providerKey + "|remaining|" + limit, key -> getQuery(
+							pagingQueryProvider.getRemainingPagesQuery(limit)));
+			queryParameters
+					.addValue(pagingQueryProvider.getSortKeyParameterName("START_TIME"),
+							after.getStartTime(), Types.TIMESTAMP)
+					.addValue(
+							pagingQueryProvider
+									.getSortKeyParameterName("TASK_EXECUTION_ID"),
+							after.getExecutionId(), Types.BIGINT);
+		}
+		return populateArguments(this.jdbcTemplate.query(query, queryParameters,
+				new TaskExecutionRowMapper()));
+	}
+
+	/**
+	 * Runs the query with a maximum number of rows, so that the database can stop once
+	 * the rows to skip and the rows requested were read.
+	 */
+	private List<TaskExecution> queryForLimitedResults(String query,
+			MapSqlParameterSource queryParameters, int offset, int limit) {
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		JdbcTemplate limitedJdbcTemplate = new JdbcTemplate(this.dataSource);
+		limitedJdbcTemplate.setMaxRows(Math.addExact(offset, limit));
+		TaskExecutionRowMapper rowMapper = new TaskExecutionRowMapper();
+		List<TaskExecution> taskExecutions = new NamedParameterJdbcTemplate(
+				limitedJdbcTemplate).query(getQuery(query), queryParameters, rs -> {
+					List<TaskExecution> result = new ArrayList<>(limit);
+					for (int rowNum = 0; rs.next(); rowNum++) {
+						if (rowNum >= offset) {
+							result.add(rowMapper.mapRow(rs, rowNum));
+						}
+					}
+					return result;
+				});
+		return populateArguments(taskExecutions);
+	}
+
+	private String getPagingQueryProviderKey(String selectClause, String fromClause,
+			String whereClause, Map<String, Order> sortKeys) {
+		return selectClause + "|" + fromClause + "|" + whereClause + "|" + sortKeys;
+	}
+
+	private PagingQueryProvider getPagingQueryProvider(String selectClause,
+			String fromClause, String whereClause, Map<String, Order> sortKeys) {
+		return getPagingQueryProvider(getPagingQueryProviderKey(selectClause,
+				fromClause, whereClause, sortKeys), selectClause, fromClause,
+				whereClause, sortKeys);
+	}
+
+	/**
+	 * Returns the {@link PagingQueryProvider} for the given clauses, creating it on first
+	 * use. Creating a provider inspects the database meta data, so providers are cached
+	 * for the lifetime of the dao.
+	 */
+	private PagingQueryProvider getPagingQueryProvider(String providerKey,
+			String selectClause, String fromClause, String whereClause,
+			Map<String, Order> sortKeys) {
+		return this.pagingQueryProviders.computeIfAbsent(providerKey,
+				key -> createPagingQueryProvider(selectClause, fromClause, whereClause,
+						sortKeys));
+	}
+
+	/**
+	 * Sets whether the latest task executions of task names are selected with
+	 * {@code ROW_NUMBER() OVER (PARTITION BY ...)} rather than with self joins, on the
+	 * databases (and versions) that support window functions. Defaults to false: the
+	 * window function has only been benchmarked on H2, where it materializes and sorts
+	 * every execution of the task names to rank them, which is slower than reading the
+	 * latest start times from the task name index.
+	 * @param windowFunctionsEnabled whether to use window functions where supported
+	 * @since 2.3.0
+	 */
+	public void setWindowFunctionsEnabled(boolean windowFunctionsEnabled) {
+		this.windowFunctionsEnabled = windowFunctionsEnabled;
+	}
+
+	private boolean isWindowFunctionsUsed() {
+		return this.windowFunctionsEnabled
+				&& getDatabaseDialect().isWindowFunctionSupported();
+	}
+
+	private int getStreamFetchSize() {
+		if (this.streamFetchSize != null) {
+			return this.streamFetchSize;
 		}
+		return (getDatabaseType() == DatabaseType.MYSQL) ? Integer.MIN_VALUE
+				: DEFAULT_STREAM_FETCH_SIZE;
+	}
 
+	private PlatformTransactionManager getTransactionManager() {
+		if (this.transactionManager == null) {
+			this.transactionManager = new DataSourceTransactionManager(this.dataSource);
+		}
+		return this.transactionManager;
+	}
+
+	private DatabaseType getDatabaseType() {
+		return getDatabaseDialect().getDatabaseType();
+	}
+
+	private DatabaseDialect getDatabaseDialect() {
+		if (this.databaseDialect == null) {
+			try {
+				this.databaseDialect = DatabaseDialect.fromDataSource(this.dataSource);
+			}
+			catch (MetaDataAccessException e) {
+				throw new IllegalStateException(
+						"Could not inspect meta data for database type", e);
+			}
+		}
+		return this.databaseDialect;
+	}
+
+	private PagingQueryProvider createPagingQueryProvider(String selectClause,
+			String fromClause, String whereClause, Map<String, Order> sortKeys) {
+		SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
+		factoryBean.setSelectClause(selectClause);
+		factoryBean.setFromClause(fromClause);
+		if (StringUtils.hasText(whereClause)) {
+			factoryBean.setWhereClause(whereClause);
+		}
+		factoryBean.setSortKeys(sortKeys);
 		factoryBean.setDataSource(this.dataSource);
 		PagingQueryProvider pagingQueryProvider;
 		try {
@@ -532,10 +1242,58 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		catch (Exception e) {
 			throw new IllegalStateException(e);
 		}
-		String query = pagingQueryProvider.getPageQuery(pageable);
-		List<TaskExecution> resultList = this.jdbcTemplate.query(getQuery(query),
-				queryParameters, new TaskExecutionRowMapper());
-		return new PageImpl<>(resultList, pageable, totalCount);
+		return pagingQueryProvider;
+	}
+
+	/**
+	 * Returns the where clause that selects the task executions matching the criteria,
+	 * or null if no criteria are set, and adds the values of its parameters.
+	 */
+	private static String getCriteriaWhereClause(TaskExecutionCriteria criteria,
+			MapSqlParameterSource queryParameters) {
+		List<String> conditions = new ArrayList<>();
+		if (criteria.getTaskName() != null) {
+			conditions.add("TASK_NAME = :taskName");
+			queryParameters.addValue("taskName", criteria.getTaskName(), Types.VARCHAR);
+		}
+		if (criteria.getTaskNamePrefix() != null) {
+			conditions.add(TASK_NAME_PREFIX_CONDITION);
+			queryParameters.addValue("taskNamePattern",
+					escapeLikeWildcards(criteria.getTaskNamePrefix()) + "%",
+					Types.VARCHAR);
+		}
+		if (criteria.getStartTimeFrom() != null) {
+			conditions.add(START_TIME_FROM_CONDITION);
+			queryParameters.addValue("startTimeFrom", criteria.getStartTimeFrom(),
+					Types.TIMESTAMP);
+		}
+		if (criteria.getStartTimeTo() != null) {
+			conditions.add(START_TIME_TO_CONDITION);
+			queryParameters.addValue("startTimeTo", criteria.getStartTimeTo(),
+					Types.TIMESTAMP);
+		}
+		if (criteria.getExitCode() != null) {
+			conditions.add("EXIT_CODE = :exitCode");
+			queryParameters.addValue("exitCode", criteria.getExitCode(), Types.INTEGER);
+		}
+		if (criteria.getSuccessful() != null) {
+			conditions.add(criteria.getSuccessful() ? "EXIT_CODE = 0" : "EXIT_CODE <> 0");
+		}
+		return conditions.isEmpty() ? null
+				: "where " + StringUtils.collectionToDelimitedString(conditions, " AND ")
+						+ " ";
+	}
+
+	private static String escapeLikeWildcards(String value) {
+		StringBuilder escaped = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == LIKE_ESCAPE_CHARACTER || c == '%' || c == '_') {
+				escaped.append(LIKE_ESCAPE_CHARACTER);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
 	}
 
 	private String getQuery(String base) {
@@ -543,27 +1301,32 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	}
 
 	/**
-	 * Convenience method that inserts all arguments from the provided task arguments.
+	 * Convenience method that inserts all arguments from the provided task arguments
+	 * into the TASK_EXECUTION_PARAMS table using a single JDBC batch.
 	 * @param executionId The executionId to which the arguments are associated.
+	 * @param startTime The start time of the task execution, stored with the arguments
+	 * when the task tables are partitioned by start time.
 	 * @param taskArguments The arguments to be stored.
 	 */
-	private void insertTaskArguments(long executionId, List<String> taskArguments) {
-		for (String args : taskArguments) {
-			insertArgument(executionId, args);
+	private void insertTaskArguments(long executionId, Date startTime,
+			List<String> taskArguments) {
+		if (taskArguments.isEmpty()) {
+			return;
 		}
+		SqlParameterSource[] batchParameters = new SqlParameterSource[taskArguments
+				.size()];
+		for (int i = 0; i < batchParameters.length; i++) {
+			batchParameters[i] = new MapSqlParameterSource()
+					.addValue("taskExecutionId", executionId, Types.BIGINT)
+					.addValue("startTime", startTime, Types.TIMESTAMP)
+					.addValue("taskParam", taskArguments.get(i), Types.VARCHAR);
+		}
+		this.jdbcTemplate.batchUpdate(getCreateTaskArgumentQuery(), batchParameters);
 	}
 
-	/**
-	 * Convenience method that inserts an individual records into the
-	 * TASK_EXECUTION_PARAMS table.
-	 * @param taskExecutionId id of a task execution
-	 * @param taskParam task parameters
-	 */
-	private void insertArgument(long taskExecutionId, String taskParam) {
-		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
-				.addValue("taskExecutionId", taskExecutionId, Types.BIGINT)
-				.addValue("taskParam", taskParam, Types.VARCHAR);
-		this.jdbcTemplate.update(getQuery(CREATE_TASK_ARGUMENT), queryParameters);
+	private String getCreateTaskArgumentQuery() {
+		return getQuery(this.startTimePartitioned ? CREATE_PARTITIONED_TASK_ARGUMENT
+				: CREATE_TASK_ARGUMENT);
 	}
 
 	private List<String> getTaskArguments(long taskExecutionId) {
@@ -580,7 +1343,63 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	}
 
 	/**
-	 * Re-usable mapper for {@link TaskExecution} instances.
+	 * Retrieves the arguments for all of the provided task executions using one query
+	 * per {@link #MAX_ARGUMENT_QUERY_IDS} executions (instead of one query per
+	 * execution) and adds them to the matching {@link TaskExecution}.
+	 * @param taskExecutions the task executions to be populated.
+	 * @return the same list of task executions, with their arguments populated.
+	 */
+	private List<TaskExecution> populateArguments(List<TaskExecution> taskExecutions) {
+		return populateArguments(taskExecutions, null, null);
+	}
+
+	/**
+	 * Retrieves the arguments for all of the provided task executions, which started
+	 * within the bounds provided. When the task tables are partitioned by start time,
+	 * the bounds restrict the query to the partitions of the matching start times.
+	 * @param taskExecutions the task executions to be populated.
+	 * @param startTimeFrom the inclusive lower bound of the start times, or null.
+	 * @param startTimeTo the exclusive upper bound of the start times, or null.
+	 * @return the same list of task executions, with their arguments populated.
+	 */
+	private List<TaskExecution> populateArguments(List<TaskExecution> taskExecutions,
+			Date startTimeFrom, Date startTimeTo) {
+		if (taskExecutions.isEmpty()) {
+			return taskExecutions;
+		}
+		final Map<Long, TaskExecution> taskExecutionMap = new HashMap<>();
+		for (TaskExecution taskExecution : taskExecutions) {
+			taskExecutionMap.put(taskExecution.getExecutionId(), taskExecution);
+		}
+		RowCallbackHandler handler = new RowCallbackHandler() {
+			@Override
+			public void processRow(ResultSet rs) throws SQLException {
+				taskExecutionMap.get(rs.getLong(1)).getArguments().add(rs.getString(2));
+			}
+		};
+		String query = FIND_ARGUMENTS_FROM_IDS;
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource();
+		if (this.startTimePartitioned && startTimeFrom != null) {
+			query += " AND " + START_TIME_FROM_CONDITION;
+			queryParameters.addValue("startTimeFrom", startTimeFrom, Types.TIMESTAMP);
+		}
+		if (this.startTimePartitioned && startTimeTo != null) {
+			query += " AND " + START_TIME_TO_CONDITION;
+			queryParameters.addValue("startTimeTo", startTimeTo, Types.TIMESTAMP);
+		}
+		List<Long> taskExecutionIds = new ArrayList<>(taskExecutionMap.keySet());
+		for (int i = 0; i < taskExecutionIds.size(); i += MAX_ARGUMENT_QUERY_IDS) {
+			List<Long> chunk = taskExecutionIds.subList(i,
+					Math.min(i + MAX_ARGUMENT_QUERY_IDS, taskExecutionIds.size()));
+			this.jdbcTemplate.query(getQuery(query),
+					queryParameters.addValue("taskExecutionIds", chunk), handler);
+		}
+		return taskExecutions;
+	}
+
+	/**
+	 * Re-usable mapper for {@link TaskExecution} instances. The arguments of the mapped
+	 * task executions are not retrieved by the mapper and must be populated separately.
 	 *
 	 */
 	private final class TaskExecutionRowMapper implements RowMapper<TaskExecution> {
@@ -598,7 +1417,7 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			return new TaskExecution(id, getNullableExitCode(rs),
 					rs.getString("TASK_NAME"), rs.getTimestamp("START_TIME"),
 					rs.getTimestamp("END_TIME"), rs.getString("EXIT_MESSAGE"),
-					getTaskArguments(id), rs.getString("ERROR_MESSAGE"),
+					Collections.<String>emptyList(), rs.getString("ERROR_MESSAGE"),
 					rs.getString("EXTERNAL_EXECUTION_ID"), parentExecutionId);
 		}
 
@@ -609,4 +1428,123 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 
 	}
 
+	/**
+	 * Assembles the task executions from the rows of the streaming query, which holds
+	 * one row per argument of a task execution (or a single row without an argument),
+	 * ordered by task execution id. Each task execution is passed to the consumer once
+	 * its last row was read, so only one task execution is held at a time.
+	 */
+	private final class StreamingRowCallbackHandler implements RowCallbackHandler {
+
+		private final TaskExecutionRowMapper rowMapper = new TaskExecutionRowMapper();
+
+		private final Consumer<TaskExecution> consumer;
+
+		private TaskExecution current;
+
+		private int rowNum;
+
+		private StreamingRowCallbackHandler(Consumer<TaskExecution> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			long executionId = rs.getLong("TASK_EXECUTION_ID");
+			if (this.current == null || this.current.getExecutionId() != executionId) {
+				complete();
+				// ResultSet.getRow() is optional on forward-only result sets
+				this.current = this.rowMapper.mapRow(rs, this.rowNum++);
+			}
+			rs.getLong("PARAM_EXECUTION_ID");
+			if (!rs.wasNull()) {
+				this.current.getArguments().add(rs.getString("TASK_PARAM"));
+			}
+		}
+
+		private void complete() {
+			if (this.current != null) {
+				this.consumer.accept(this.current);
+				this.current = null;
+			}
+		}
+
+	}
+
+	/**
+	 * {@link Pageable} that covers the same offset as the delegate but one more row, so
+	 * that a slice can determine whether a next slice exists without counting rows.
+	 */
+	private static final class OverFetchingPageable implements Pageable {
+
+		private final Pageable delegate;
+
+		private OverFetchingPageable(Pageable delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public int getPageNumber() {
+			return this.delegate.getPageNumber();
+		}
+
+		@Override
+		public int getPageSize() {
+			return this.delegate.getPageSize() + 1;
+		}
+
+		@Override
+		public long getOffset() {
+			return this.delegate.getOffset();
+		}
+
+		@Override
+		public Sort getSort() {
+			return this.delegate.getSort();
+		}
+
+		@Override
+		public Pageable next() {
+			return new OverFetchingPageable(this.delegate.next());
+		}
+
+		@Override
+		public Pageable previousOrFirst() {
+			return new OverFetchingPageable(this.delegate.previousOrFirst());
+		}
+
+		@Override
+		public Pageable first() {
+			return new OverFetchingPageable(this.delegate.first());
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return this.delegate.hasPrevious();
+		}
+
+	}
+
+	/**
+	 * {@link LinkedHashMap} in access order that evicts its least recently used entry
+	 * once it holds more than the configured maximum number of entries.
+	 */
+	private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		private LruCache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > this.maxSize;
+		}
+
+	}
+
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.util.Arrays;
+
+/**
+ * Thread safe hash map of primitive {@code long} keys to primitive {@code long} values,
+ * using open addressing with linear probing. Avoids the boxing and per entry objects of
+ * a {@code Map<Long, Long>}.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+final class LongToLongMap {
+
+	private static final long FREE_KEY = Long.MIN_VALUE;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] keys;
+
+	private long[] values;
+
+	private int size;
+
+	/**
+	 * {@link #FREE_KEY} marks the free slots, so its mapping is stored separately.
+	 */
+	private boolean hasFreeKey;
+
+	private long freeKeyValue;
+
+	LongToLongMap() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Returns the value the key is mapped to.
+	 * @param key the key to look up.
+	 * @param defaultValue the value to return if the key is not mapped.
+	 * @return the value the key is mapped to or the default value.
+	 */
+	synchronized long get(long key, long defaultValue) {
+		if (key == FREE_KEY) {
+			return this.hasFreeKey ? this.freeKeyValue : defaultValue;
+		}
+		int slot = findSlot(key);
+		return this.keys[slot] == key ? this.values[slot] : defaultValue;
+	}
+
+	synchronized boolean containsKey(long key) {
+		if (key == FREE_KEY) {
+			return this.hasFreeKey;
+		}
+		return this.keys[findSlot(key)] == key;
+	}
+
+	synchronized void put(long key, long value) {
+		if (key == FREE_KEY) {
+			if (!this.hasFreeKey) {
+				this.size++;
+			}
+			this.hasFreeKey = true;
+			this.freeKeyValue = value;
+			return;
+		}
+		int slot = findSlot(key);
+		if (this.keys[slot] != key) {
+			this.keys[slot] = key;
+			this.size++;
+		}
+		this.values[slot] = value;
+		if (this.size * 2 > this.keys.length) {
+			rehash(this.keys.length * 2);
+		}
+	}
+
+	/**
+	 * Removes the mapping of the key, if it is mapped to the given value.
+	 * @param key the key to remove.
+	 * @param value the value the key must be mapped to.
+	 * @return true if the mapping was removed.
+	 */
+	synchronized boolean remove(long key, long value) {
+		if (key == FREE_KEY) {
+			if (!this.hasFreeKey || this.freeKeyValue != value) {
+				return false;
+			}
+			this.hasFreeKey = false;
+			this.size--;
+			return true;
+		}
+		int slot = findSlot(key);
+		if (this.keys[slot] != key || this.values[slot] != value) {
+			return false;
+		}
+		removeSlot(slot);
+		this.size--;
+		return true;
+	}
+
+	synchronized int size() {
+		return this.size;
+	}
+
+	synchronized void clear() {
+		allocate(INITIAL_CAPACITY);
+		this.size = 0;
+		this.hasFreeKey = false;
+	}
+
+	/**
+	 * Returns the slot holding the key, or the free slot that ends its probe sequence.
+	 */
+	private int findSlot(long key) {
+		int mask = this.keys.length - 1;
+		int slot = hash(key) & mask;
+		while (this.keys[slot] != FREE_KEY && this.keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Frees the slot and shifts back the entries of the following probe sequence that
+	 * would otherwise no longer be found.
+	 */
+	private void removeSlot(int slot) {
+		int mask = this.keys.length - 1;
+		int gap = slot;
+		int next = (gap + 1) & mask;
+		while (this.keys[next] != FREE_KEY) {
+			int home = hash(this.keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				this.keys[gap] = this.keys[next];
+				this.values[gap] = this.values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		this.keys[gap] = FREE_KEY;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = this.keys;
+		long[] oldValues = this.values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE_KEY) {
+				int slot = findSlot(oldKeys[i]);
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.values = new long[capacity];
+		Arrays.fill(this.keys, FREE_KEY);
+	}
+
+	private static int hash(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+}
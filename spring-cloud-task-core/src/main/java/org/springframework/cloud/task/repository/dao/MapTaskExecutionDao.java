@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,44 +17,158 @@
 package org.springframework.cloud.task.repository.dao;
 
 import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCriteria;
+import org.springframework.cloud.task.repository.TaskExecutionStatistics;
+import org.springframework.cloud.task.repository.support.TaskExecutionStatisticsCollector;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
  * Stores Task Execution Information to a in-memory map.
  *
+ * <p>
+ * The task executions are indexed by start time, by task name and by running state, so
+ * that counts are answered in constant time and pages are read from sorted indexes
+ * instead of sorting all the task executions. The index keys are captured when a task
+ * execution is created, started or completed, changes made directly to the returned
+ * {@link TaskExecution} instances are not reflected by the indexes. The batch job
+ * associations are indexed by job execution id.
+ *
+ * <p>
+ * By default all the task executions are retained. The number of task executions, the
+ * age of the completed task executions and the total weight of the task executions can
+ * be bounded, see {@link #setMaxEntries(int)}, {@link #setMaxAge(Duration)} and
+ * {@link #setMaxWeight(long)}. Once a bound is exceeded the completed task executions
+ * are evicted, together with their batch job associations, least recently used first.
+ * Running task executions are never evicted. Evictions are counted by the
+ * {@value #EVICTION_METER} meter.
+ *
  * @author Glenn Renfro
  * @author Gunnar Hillert
  * @author David Turanski
  */
 public class MapTaskExecutionDao implements TaskExecutionDao {
 
+	/**
+	 * Counter of the evicted task executions, tagged with the {@value #REASON_TAG}.
+	 */
+	public static final String EVICTION_METER = "spring.cloud.task.repository.evictions";
+
+	/**
+	 * The bound whose excess caused the eviction: {@code max-entries}, {@code max-age} or
+	 * {@code max-weight}.
+	 */
+	public static final String REASON_TAG = "reason";
+
+	private static final ExecutionIndex EMPTY_INDEX = new ExecutionIndex();
+
 	private final AtomicLong currentId = new AtomicLong(0L);
 
-	private ConcurrentMap<Long, TaskExecution> taskExecutions;
+	/**
+	 * The task executions sorted by id, so that they can be streamed in id order.
+	 */
+	private ConcurrentNavigableMap<Long, TaskExecution> taskExecutions;
 
 	private ConcurrentMap<Long, Set<Long>> batchJobAssociations;
 
+	/**
+	 * The keys the task executions are currently indexed with, guarded by this dao.
+	 */
+	private final Map<Long, IndexEntry> indexEntries = new HashMap<>();
+
+	private final ExecutionIndex allExecutions = new ExecutionIndex();
+
+	private final ExecutionIndex runningExecutions = new ExecutionIndex();
+
+	/**
+	 * The task executions by task name, the keys are the sorted task names.
+	 */
+	private final ConcurrentNavigableMap<String, ExecutionIndex> executionsByTaskName
+			= new ConcurrentSkipListMap<>();
+
+	private final ConcurrentMap<String, ExecutionIndex> runningExecutionsByTaskName
+			= new ConcurrentHashMap<>();
+
+	private final LongToLongMap taskExecutionIdsByJobExecutionId = new LongToLongMap();
+
+	/**
+	 * The completed task executions in least recently used order, guarded by this dao.
+	 */
+	private final Map<Long, IndexEntry> completedExecutions = new LinkedHashMap<>(16,
+			0.75f, true);
+
+	/**
+	 * The completed task executions by end time, guarded by this dao.
+	 */
+	private final TreeSet<ExecutionKey> completionTimes = new TreeSet<>();
+
+	/**
+	 * The total weight of the task executions, guarded by this dao.
+	 */
+	private long totalWeight;
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private final Counter maxAgeEvictions;
+
+	private final Counter maxEntriesEvictions;
+
+	private final Counter maxWeightEvictions;
+
+	private int maxEntries;
+
+	private Duration maxAge;
+
+	private long maxWeight;
+
+	private Clock clock = Clock.systemUTC();
+
 	public MapTaskExecutionDao() {
-		this.taskExecutions = new ConcurrentHashMap<>();
-		this.batchJobAssociations = new ConcurrentHashMap<>();
+		this.taskExecutions = new ConcurrentSkipListMap<>();
+		this.batchJobAssociations = new BatchJobAssociations();
+		this.maxAgeEvictions = Metrics.counter(EVICTION_METER, REASON_TAG, "max-age");
+		this.maxEntriesEvictions = Metrics.counter(EVICTION_METER, REASON_TAG,
+				"max-entries");
+		this.maxWeightEvictions = Metrics.counter(EVICTION_METER, REASON_TAG,
+				"max-weight");
 	}
 
 	@Override
@@ -72,9 +186,23 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 				startTime, null, null, arguments, null, externalExecutionId,
 				parentExecutionId);
 		this.taskExecutions.put(taskExecutionId, taskExecution);
+		index(taskExecution);
 		return taskExecution;
 	}
 
+	@Override
+	public List<TaskExecution> createTaskExecutions(List<TaskExecution> taskExecutions) {
+		Assert.notNull(taskExecutions, "taskExecutions must not be null");
+		List<TaskExecution> result = new ArrayList<>(taskExecutions.size());
+		for (TaskExecution taskExecution : taskExecutions) {
+			result.add(createTaskExecution(taskExecution.getTaskName(),
+					taskExecution.getStartTime(), taskExecution.getArguments(),
+					taskExecution.getExternalExecutionId(),
+					taskExecution.getParentExecutionId()));
+		}
+		return result;
+	}
+
 	@Override
 	public TaskExecution startTaskExecution(long executionId, String taskName,
 			Date startTime, List<String> arguments, String externalExecutionid) {
@@ -87,6 +215,10 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 			Date startTime, List<String> arguments, String externalExecutionid,
 			Long parentExecutionId) {
 		TaskExecution taskExecution = this.taskExecutions.get(executionId);
+		Assert.notNull(taskExecution,
+				String.format("Invalid TaskExecution, ID %s not found", executionId));
+		Assert.isNull(taskExecution.getEndTime(), String.format(
+				"Invalid TaskExecution, ID %s task is already complete", executionId));
 		taskExecution.setTaskName(taskName);
 		taskExecution.setStartTime(startTime);
 		taskExecution.setArguments(arguments);
@@ -94,6 +226,7 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 		if (externalExecutionid != null) {
 			taskExecution.setExternalExecutionId(externalExecutionid);
 		}
+		index(taskExecution);
 		return taskExecution;
 	}
 
@@ -110,6 +243,7 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 		taskExecution.setExitCode(exitCode);
 		taskExecution.setExitMessage(exitMessage);
 		taskExecution.setErrorMessage(errorMessage);
+		index(taskExecution);
 	}
 
 	@Override
@@ -120,41 +254,26 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 
 	@Override
 	public TaskExecution getTaskExecution(long executionId) {
-		return this.taskExecutions.get(executionId);
+		TaskExecution taskExecution = this.taskExecutions.get(executionId);
+		if (taskExecution != null && isRetentionBounded()) {
+			touch(executionId);
+		}
+		return taskExecution;
 	}
 
 	@Override
 	public long getTaskExecutionCountByTaskName(String taskName) {
-		int count = 0;
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)) {
-				count++;
-			}
-		}
-		return count;
+		return getIndex(this.executionsByTaskName, taskName).size();
 	}
 
 	@Override
 	public long getRunningTaskExecutionCountByTaskName(String taskName) {
-		int count = 0;
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)
-					&& entry.getValue().getEndTime() == null) {
-				count++;
-			}
-		}
-		return count;
+		return getIndex(this.runningExecutionsByTaskName, taskName).size();
 	}
 
 	@Override
 	public long getRunningTaskExecutionCount() {
-		long count = 0;
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getEndTime() == null) {
-				count++;
-			}
-		}
-		return count;
+		return this.runningExecutions.size();
 	}
 
 	@Override
@@ -165,45 +284,178 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 	@Override
 	public Page<TaskExecution> findRunningTaskExecutions(String taskName,
 			Pageable pageable) {
-		Set<TaskExecution> result = getTaskExecutionTreeSet();
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)
-					&& entry.getValue().getEndTime() == null) {
-				result.add(entry.getValue());
-			}
-		}
-		return getPageFromList(new ArrayList<>(result), pageable,
-				getRunningTaskExecutionCountByTaskName(taskName));
+		return getIndex(this.runningExecutionsByTaskName, taskName).getPage(pageable);
 	}
 
 	@Override
 	public Page<TaskExecution> findTaskExecutionsByName(String taskName,
 			Pageable pageable) {
-		Set<TaskExecution> filteredSet = getTaskExecutionTreeSet();
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)) {
-				filteredSet.add(entry.getValue());
+		return getIndex(this.executionsByTaskName, taskName).getPage(pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsStartedBetween(Date startTimeFrom,
+			Date startTimeTo, Pageable pageable) {
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+		criteria.setStartTimeFrom(startTimeFrom);
+		criteria.setStartTimeTo(startTimeTo);
+		return findTaskExecutions(criteria, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsByNameStartedBetween(String taskName,
+			Date startTimeFrom, Date startTimeTo, Pageable pageable) {
+		Assert.notNull(taskName, "taskName must not be null");
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+		criteria.setTaskName(taskName);
+		criteria.setStartTimeFrom(startTimeFrom);
+		criteria.setStartTimeTo(startTimeTo);
+		return findTaskExecutions(criteria, pageable);
+	}
+
+	/**
+	 * Finds the task executions that match the criteria in the index of their task name,
+	 * if the criteria select a single task name, or else in the index of all task
+	 * executions. Only the range of the index within the start time criteria is visited.
+	 */
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionCriteria criteria,
+			Pageable pageable) {
+		Assert.notNull(criteria, "criteria must not be null");
+		return getIndex(criteria).getPage(criteria, pageable);
+	}
+
+	@Override
+	public List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria, Duration bucketSize) {
+		TaskExecutionStatisticsCollector collector = new TaskExecutionStatisticsCollector(
+				criteria, bucketSize);
+		getIndex(criteria).forEachMatching(criteria, collector::add);
+		return collector.getStatistics();
+	}
+
+	/**
+	 * Returns the smallest index that contains all the task executions matching the
+	 * criteria: the index of the task name, or of the only task name with the name
+	 * prefix, if any.
+	 */
+	private ExecutionIndex getIndex(TaskExecutionCriteria criteria) {
+		if (criteria.getTaskName() != null) {
+			return getIndex(this.executionsByTaskName, criteria.getTaskName());
+		}
+		if (criteria.getTaskNamePrefix() != null) {
+			Map<String, ExecutionIndex> prefixedIndexes = this.executionsByTaskName
+					.subMap(criteria.getTaskNamePrefix(),
+							criteria.getTaskNamePrefix() + Character.MAX_VALUE);
+			if (prefixedIndexes.size() <= 1) {
+				return prefixedIndexes.isEmpty() ? EMPTY_INDEX
+						: prefixedIndexes.values().iterator().next();
 			}
 		}
-		return getPageFromList(new ArrayList<>(filteredSet), pageable,
-				getTaskExecutionCountByTaskName(taskName));
+		return this.allExecutions;
 	}
 
 	@Override
 	public List<String> getTaskNames() {
-		Set<String> result = new TreeSet<>();
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			result.add(entry.getValue().getTaskName());
-		}
-		return new ArrayList<>(result);
+		return new ArrayList<>(this.executionsByTaskName.keySet());
 	}
 
 	@Override
 	public Page<TaskExecution> findAll(Pageable pageable) {
-		TreeSet<TaskExecution> sortedSet = getTaskExecutionTreeSet();
-		sortedSet.addAll(this.taskExecutions.values());
-		List<TaskExecution> result = new ArrayList<>(sortedSet.descendingSet());
-		return getPageFromList(result, pageable, getTaskExecutionCount());
+		return this.allExecutions.getPage(pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findAllAsSlice(Pageable pageable) {
+		return this.allExecutions.getSlice(pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findTaskExecutionsByNameAsSlice(String taskName,
+			Pageable pageable) {
+		return getIndex(this.executionsByTaskName, taskName).getSlice(pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findRunningTaskExecutionsAsSlice(String taskName,
+			Pageable pageable) {
+		return getIndex(this.runningExecutionsByTaskName, taskName).getSlice(pageable);
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecution after, int limit) {
+		return this.allExecutions.getKeysetPage(after, limit);
+	}
+
+	@Override
+	public List<TaskExecution> findTaskExecutionsByName(String taskName,
+			TaskExecution after, int limit) {
+		return getIndex(this.executionsByTaskName, taskName).getKeysetPage(after, limit);
+	}
+
+	@Override
+	public void streamTaskExecutions(String taskName,
+			Consumer<TaskExecution> consumer) {
+		Assert.notNull(consumer, "consumer must not be null");
+		for (TaskExecution taskExecution : this.taskExecutions.values()) {
+			if (taskName == null || taskName.equals(taskExecution.getTaskName())) {
+				consumer.accept(taskExecution);
+			}
+		}
+	}
+
+	@Override
+	public void streamTaskExecutions(TaskExecutionCriteria criteria,
+			Consumer<TaskExecution> consumer) {
+		Assert.notNull(criteria, "criteria must not be null");
+		Assert.notNull(consumer, "consumer must not be null");
+		for (TaskExecution taskExecution : this.taskExecutions.values()) {
+			if (criteria.matches(taskExecution)) {
+				consumer.accept(taskExecution);
+			}
+		}
+	}
+
+	@Override
+	public synchronized List<TaskExecution> findCompletedTaskExecutionsEndedBefore(
+			Date endTime, int limit) {
+		Assert.notNull(endTime, "endTime must not be null");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		List<Long> executionIds = new ArrayList<>();
+		for (ExecutionKey completionKey : this.completionTimes.descendingSet()) {
+			if (completionKey.time >= endTime.getTime()) {
+				break;
+			}
+			executionIds.add(completionKey.executionId);
+		}
+		return executionIds.stream().sorted().limit(limit)
+				.map(this.taskExecutions::get).collect(Collectors.toList());
+	}
+
+	@Override
+	public synchronized List<TaskExecution> findCompletedTaskExecutionsBeyondLatest(
+			String taskName, int retainedCount, int limit) {
+		Assert.isTrue(retainedCount >= 0, "retainedCount must not be negative");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		return getIndex(this.executionsByTaskName, taskName).executions.values()
+				.stream().filter(taskExecution -> taskExecution.getEndTime() != null)
+				.skip(retainedCount).limit(limit).collect(Collectors.toList());
+	}
+
+	@Override
+	public synchronized int deleteTaskExecutions(Collection<Long> executionIds) {
+		Assert.notNull(executionIds, "executionIds must not be null");
+		int deleted = 0;
+		for (Long executionId : executionIds) {
+			IndexEntry entry = this.indexEntries.remove(executionId);
+			if (entry != null) {
+				unindex(entry);
+				this.taskExecutions.remove(executionId);
+				this.batchJobAssociations.remove(executionId);
+				deleted++;
+			}
+		}
+		return deleted;
 	}
 
 	public Map<Long, TaskExecution> getTaskExecutions() {
@@ -214,23 +466,65 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 		return this.currentId.getAndIncrement();
 	}
 
-	@Override
-	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
-		Long taskId = null;
+	/**
+	 * Sets the maximum number of task executions retained. Defaults to 0, no limit.
+	 * @param maxEntries the maximum number of task executions, or 0 for no limit.
+	 * @since 2.3.0
+	 */
+	public void setMaxEntries(int maxEntries) {
+		Assert.isTrue(maxEntries >= 0, "maxEntries must not be negative");
+		this.maxEntries = maxEntries;
+	}
 
-		found:
+	/**
+	 * Sets the time completed task executions are retained after their end time.
+	 * Defaults to null, no limit.
+	 * @param maxAge the time completed task executions are retained, or null for no
+	 * limit.
+	 * @since 2.3.0
+	 */
+	public void setMaxAge(Duration maxAge) {
+		Assert.isTrue(maxAge == null || !maxAge.isNegative(),
+				"maxAge must not be negative");
+		this.maxAge = maxAge;
+	}
 
-		for (Map.Entry<Long, Set<Long>> association : this.batchJobAssociations
-				.entrySet()) {
-			for (Long curJobExecutionId : association.getValue()) {
-				if (curJobExecutionId.equals(jobExecutionId)) {
-					taskId = association.getKey();
-					break found;
-				}
-			}
-		}
+	/**
+	 * Sets the maximum total weight of the task executions retained. The weight of a
+	 * task execution is the number of characters of its arguments, exit message and
+	 * error message, which usually make up most of its memory footprint. Defaults to 0,
+	 * no limit.
+	 * @param maxWeight the maximum total weight, or 0 for no limit.
+	 * @since 2.3.0
+	 */
+	public void setMaxWeight(long maxWeight) {
+		Assert.isTrue(maxWeight >= 0, "maxWeight must not be negative");
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * Returns the number of task executions evicted since the dao was created.
+	 * @return the number of evicted task executions.
+	 * @since 2.3.0
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
 
-		return taskId;
+	void setClock(Clock clock) {
+		Assert.notNull(clock, "clock must not be null");
+		this.clock = clock;
+	}
+
+	@Override
+	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+		long taskExecutionId = this.taskExecutionIdsByJobExecutionId.get(jobExecutionId,
+				Long.MIN_VALUE);
+		if (taskExecutionId == Long.MIN_VALUE
+				&& !this.taskExecutionIdsByJobExecutionId.containsKey(jobExecutionId)) {
+			return null;
+		}
+		return taskExecutionId;
 	}
 
 	@Override
@@ -253,32 +547,142 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 		taskExecution.setExternalExecutionId(externalExecutionId);
 	}
 
+	/**
+	 * Returns the ids of the job executions associated with each task execution. The
+	 * returned map may be modified, the changes are reflected by
+	 * {@link #getTaskExecutionIdByJobExecutionId(long)}.
+	 * @return the job execution ids by task execution id.
+	 */
 	public ConcurrentMap<Long, Set<Long>> getBatchJobAssociations() {
 		return this.batchJobAssociations;
 	}
 
-	private TreeSet<TaskExecution> getTaskExecutionTreeSet() {
-		return new TreeSet<>(new Comparator<TaskExecution>() {
-			@Override
-			public int compare(TaskExecution e1, TaskExecution e2) {
-				int result = e1.getStartTime().compareTo(e2.getStartTime());
-				if (result == 0) {
-					result = Long.valueOf(e1.getExecutionId())
-							.compareTo(e2.getExecutionId());
+	/**
+	 * Adds the task execution to the indexes, or moves it to the keys matching its
+	 * current state if it is already indexed.
+	 */
+	private synchronized void index(TaskExecution taskExecution) {
+		IndexEntry entry = new IndexEntry(taskExecution);
+		IndexEntry previous = this.indexEntries.put(taskExecution.getExecutionId(),
+				entry);
+		if (previous != null) {
+			unindex(previous);
+		}
+		this.allExecutions.add(entry.key, taskExecution);
+		if (entry.taskName != null) {
+			this.executionsByTaskName
+					.computeIfAbsent(entry.taskName, taskName -> new ExecutionIndex())
+					.add(entry.key, taskExecution);
+		}
+		if (entry.running) {
+			this.runningExecutions.add(entry.key, taskExecution);
+			if (entry.taskName != null) {
+				this.runningExecutionsByTaskName
+						.computeIfAbsent(entry.taskName, taskName -> new ExecutionIndex())
+						.add(entry.key, taskExecution);
+			}
+		}
+		else {
+			this.completedExecutions.put(entry.key.executionId, entry);
+			this.completionTimes.add(entry.completionKey);
+		}
+		this.totalWeight += entry.weight;
+		if (isRetentionBounded()) {
+			evict(entry.key.executionId);
+		}
+	}
+
+	private void unindex(IndexEntry entry) {
+		this.allExecutions.remove(entry.key);
+		removeFromIndex(this.executionsByTaskName, entry.taskName, entry.key);
+		if (entry.running) {
+			this.runningExecutions.remove(entry.key);
+			removeFromIndex(this.runningExecutionsByTaskName, entry.taskName, entry.key);
+		}
+		else {
+			this.completedExecutions.remove(entry.key.executionId);
+			this.completionTimes.remove(entry.completionKey);
+		}
+		this.totalWeight -= entry.weight;
+	}
+
+	private boolean isRetentionBounded() {
+		return this.maxEntries > 0 || this.maxAge != null || this.maxWeight > 0;
+	}
+
+	private synchronized void touch(long executionId) {
+		this.completedExecutions.get(executionId);
+	}
+
+	/**
+	 * Evicts completed task executions until the retention bounds are met, or no
+	 * completed task execution is left. The task execution being written is retained
+	 * so that it can be read back.
+	 */
+	private void evict(long retainedExecutionId) {
+		if (this.maxAge != null) {
+			long expiration = this.clock.millis() - this.maxAge.toMillis();
+			List<Long> expiredExecutionIds = new ArrayList<>();
+			for (ExecutionKey completionKey : this.completionTimes.descendingSet()) {
+				if (completionKey.time >= expiration) {
+					break;
 				}
-				return result;
+				if (completionKey.executionId != retainedExecutionId) {
+					expiredExecutionIds.add(completionKey.executionId);
+				}
+			}
+			for (long executionId : expiredExecutionIds) {
+				evict(executionId, this.maxAgeEvictions);
 			}
-		});
+		}
+		while (this.maxEntries > 0 && this.indexEntries.size() > this.maxEntries) {
+			if (!evictLeastRecentlyUsed(retainedExecutionId,
+					this.maxEntriesEvictions)) {
+				break;
+			}
+		}
+		while (this.maxWeight > 0 && this.totalWeight > this.maxWeight) {
+			if (!evictLeastRecentlyUsed(retainedExecutionId,
+					this.maxWeightEvictions)) {
+				break;
+			}
+		}
+	}
+
+	private boolean evictLeastRecentlyUsed(long retainedExecutionId,
+			Counter evictions) {
+		for (long executionId : this.completedExecutions.keySet()) {
+			if (executionId != retainedExecutionId) {
+				evict(executionId, evictions);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void evict(long executionId, Counter evictions) {
+		unindex(this.indexEntries.remove(executionId));
+		this.taskExecutions.remove(executionId);
+		this.batchJobAssociations.remove(executionId);
+		this.evictionCount.incrementAndGet();
+		evictions.increment();
 	}
 
-	private Page getPageFromList(List<TaskExecution> executionList, Pageable pageable,
-			long maxSize) {
-		long toIndex = (pageable.getOffset() + pageable.getPageSize() > executionList
-				.size()) ? executionList.size()
-						: pageable.getOffset() + pageable.getPageSize();
-		return new PageImpl<>(
-				executionList.subList((int) pageable.getOffset(), (int) toIndex),
-				pageable, maxSize);
+	private static void removeFromIndex(Map<String, ExecutionIndex> indexes,
+			String taskName, ExecutionKey key) {
+		if (taskName == null) {
+			return;
+		}
+		ExecutionIndex index = indexes.get(taskName);
+		if (index != null && index.remove(key) && index.size() == 0) {
+			indexes.remove(taskName);
+		}
+	}
+
+	private static ExecutionIndex getIndex(Map<String, ExecutionIndex> indexes,
+			String taskName) {
+		ExecutionIndex index = (taskName != null) ? indexes.get(taskName) : null;
+		return (index != null) ? index : EMPTY_INDEX;
 	}
 
 	@Override
@@ -286,42 +690,30 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 
 		Assert.notEmpty(taskNames, "At least 1 task name must be provided.");
 
-		final List<String> taskNamesAsList = new ArrayList<>();
+		final Set<String> taskNamesAsSet = new LinkedHashSet<>();
+		int emptyTaskNameCount = 0;
 
 		for (String taskName : taskNames) {
 			if (StringUtils.hasText(taskName)) {
-				taskNamesAsList.add(taskName);
+				taskNamesAsSet.add(taskName);
+			}
+			else {
+				emptyTaskNameCount++;
 			}
 		}
 
-		Assert.isTrue(taskNamesAsList.size() == taskNames.length, String.format(
+		Assert.isTrue(emptyTaskNameCount == 0, String.format(
 				"Task names must not contain any empty elements but %s of %s were empty or null.",
-				taskNames.length - taskNamesAsList.size(), taskNames.length));
-
-		final Map<String, TaskExecution> tempTaskExecutions = new HashMap<>();
+				emptyTaskNameCount, taskNames.length));
 
-		for (Map.Entry<Long, TaskExecution> taskExecutionMapEntry : this.taskExecutions
-				.entrySet()) {
-			if (!taskNamesAsList
-					.contains(taskExecutionMapEntry.getValue().getTaskName())) {
-				continue;
-			}
-
-			final TaskExecution tempTaskExecution = tempTaskExecutions
-					.get(taskExecutionMapEntry.getValue().getTaskName());
-			if (tempTaskExecution == null
-					|| tempTaskExecution.getStartTime()
-							.before(taskExecutionMapEntry.getValue().getStartTime())
-					|| (tempTaskExecution.getStartTime()
-							.equals(taskExecutionMapEntry.getValue().getStartTime())
-							&& tempTaskExecution.getExecutionId() < taskExecutionMapEntry
-									.getValue().getExecutionId())) {
-				tempTaskExecutions.put(taskExecutionMapEntry.getValue().getTaskName(),
-						taskExecutionMapEntry.getValue());
+		final List<TaskExecution> latestTaskExecutions = new ArrayList<>();
+		for (String taskName : taskNamesAsSet) {
+			TaskExecution latestTaskExecution = getIndex(this.executionsByTaskName,
+					taskName).getLatest();
+			if (latestTaskExecution != null) {
+				latestTaskExecutions.add(latestTaskExecution);
 			}
 		}
-		final List<TaskExecution> latestTaskExecutions = new ArrayList<>(
-				tempTaskExecutions.values());
 		Collections.sort(latestTaskExecutions, new TaskExecutionComparator());
 		return latestTaskExecutions;
 	}
@@ -363,4 +755,479 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 
 	}
 
+	/**
+	 * Sort key of a task execution by start or end time. Sorts by time descending, then
+	 * by execution id descending, keys without a time last.
+	 */
+	private static final class ExecutionKey implements Comparable<ExecutionKey> {
+
+		private final boolean timed;
+
+		private final long time;
+
+		private final long executionId;
+
+		ExecutionKey(Date time, long executionId) {
+			this.timed = time != null;
+			this.time = (time != null) ? time.getTime() : 0;
+			this.executionId = executionId;
+		}
+
+		@Override
+		public int compareTo(ExecutionKey other) {
+			if (this.timed != other.timed) {
+				return this.timed ? -1 : 1;
+			}
+			int result = Long.compare(other.time, this.time);
+			if (result == 0) {
+				result = Long.compare(other.executionId, this.executionId);
+			}
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ExecutionKey)) {
+				return false;
+			}
+			ExecutionKey other = (ExecutionKey) o;
+			return this.timed == other.timed && this.time == other.time
+					&& this.executionId == other.executionId;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(this.time) * 31 + Long.hashCode(this.executionId);
+		}
+
+	}
+
+	/**
+	 * The state a task execution is indexed with.
+	 */
+	private static final class IndexEntry {
+
+		private final ExecutionKey key;
+
+		private final String taskName;
+
+		private final boolean running;
+
+		private final ExecutionKey completionKey;
+
+		private final long weight;
+
+		IndexEntry(TaskExecution taskExecution) {
+			this.key = new ExecutionKey(taskExecution.getStartTime(),
+					taskExecution.getExecutionId());
+			this.taskName = taskExecution.getTaskName();
+			this.running = taskExecution.getEndTime() == null;
+			this.completionKey = this.running ? null
+					: new ExecutionKey(taskExecution.getEndTime(),
+							taskExecution.getExecutionId());
+			this.weight = getWeight(taskExecution);
+		}
+
+		private static long getWeight(TaskExecution taskExecution) {
+			long weight = 0;
+			if (taskExecution.getArguments() != null) {
+				for (String argument : taskExecution.getArguments()) {
+					weight += (argument != null) ? argument.length() : 0;
+				}
+			}
+			if (taskExecution.getExitMessage() != null) {
+				weight += taskExecution.getExitMessage().length();
+			}
+			if (taskExecution.getErrorMessage() != null) {
+				weight += taskExecution.getErrorMessage().length();
+			}
+			return weight;
+		}
+
+	}
+
+	/**
+	 * Sorted set of task executions. The size is tracked separately because computing
+	 * the size of a skip list requires traversing it.
+	 */
+	private static final class ExecutionIndex {
+
+		private final ConcurrentNavigableMap<ExecutionKey, TaskExecution> executions
+				= new ConcurrentSkipListMap<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		void add(ExecutionKey key, TaskExecution taskExecution) {
+			if (this.executions.put(key, taskExecution) == null) {
+				this.size.incrementAndGet();
+			}
+		}
+
+		boolean remove(ExecutionKey key) {
+			if (this.executions.remove(key) == null) {
+				return false;
+			}
+			this.size.decrementAndGet();
+			return true;
+		}
+
+		int size() {
+			return this.size.get();
+		}
+
+		Page<TaskExecution> getPage(Pageable pageable) {
+			return new PageImpl<>(
+					getContent(pageable.getOffset(), pageable.getPageSize()), pageable,
+					size());
+		}
+
+		/**
+		 * Returns a page of the task executions that match the criteria. Only the task
+		 * executions within the start time criteria are visited.
+		 */
+		Page<TaskExecution> getPage(TaskExecutionCriteria criteria, Pageable pageable) {
+			List<TaskExecution> content = new ArrayList<>(pageable.getPageSize());
+			AtomicLong total = new AtomicLong();
+			forEachMatching(criteria, (taskExecution) -> {
+				if (total.get() >= pageable.getOffset()
+						&& content.size() < pageable.getPageSize()) {
+					content.add(taskExecution);
+				}
+				total.incrementAndGet();
+			});
+			return new PageImpl<>(content, pageable, total.get());
+		}
+
+		/**
+		 * Passes the task executions that match the criteria to the consumer, in index
+		 * order. Only the task executions within the start time criteria are visited.
+		 */
+		void forEachMatching(TaskExecutionCriteria criteria,
+				Consumer<TaskExecution> consumer) {
+			ConcurrentNavigableMap<ExecutionKey, TaskExecution> executions = this.executions;
+			if (criteria.getStartTimeTo() != null) {
+				// the keys are sorted by descending start time
+				executions = executions.tailMap(
+						new ExecutionKey(criteria.getStartTimeTo(), Long.MIN_VALUE),
+						false);
+			}
+			boolean startTimeBounded = criteria.getStartTimeFrom() != null
+					|| criteria.getStartTimeTo() != null;
+			for (Map.Entry<ExecutionKey, TaskExecution> entry : executions.entrySet()) {
+				ExecutionKey key = entry.getKey();
+				if (startTimeBounded && (!key.timed || (criteria.getStartTimeFrom() != null
+						&& key.time < criteria.getStartTimeFrom().getTime()))) {
+					break;
+				}
+				if (criteria.matches(entry.getValue())) {
+					consumer.accept(entry.getValue());
+				}
+			}
+		}
+
+		Slice<TaskExecution> getSlice(Pageable pageable) {
+			List<TaskExecution> content = getContent(pageable.getOffset(),
+					pageable.getPageSize() + 1);
+			boolean hasNext = content.size() > pageable.getPageSize();
+			if (hasNext) {
+				content.remove(content.size() - 1);
+			}
+			return new SliceImpl<>(content, pageable, hasNext);
+		}
+
+		List<TaskExecution> getKeysetPage(TaskExecution after, int limit) {
+			Assert.isTrue(limit > 0, "limit must be greater than zero");
+			ConcurrentNavigableMap<ExecutionKey, TaskExecution> executions = this.executions;
+			if (after != null) {
+				Assert.notNull(after.getStartTime(),
+						"The task execution to seek after must have a start time");
+				executions = executions.tailMap(
+						new ExecutionKey(after.getStartTime(), after.getExecutionId()),
+						false);
+			}
+			List<TaskExecution> result = new ArrayList<>(limit);
+			for (Map.Entry<ExecutionKey, TaskExecution> entry : executions.entrySet()) {
+				if (result.size() == limit || !entry.getKey().timed) {
+					break;
+				}
+				result.add(entry.getValue());
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the task execution with the latest start time, or null if none of the
+		 * task executions has a start time.
+		 */
+		TaskExecution getLatest() {
+			Map.Entry<ExecutionKey, TaskExecution> entry = this.executions.firstEntry();
+			return (entry != null && entry.getKey().timed) ? entry.getValue() : null;
+		}
+
+		private List<TaskExecution> getContent(long offset, int limit) {
+			List<TaskExecution> content = new ArrayList<>(Math.min(limit, size()));
+			Iterator<TaskExecution> iterator = this.executions.values().iterator();
+			for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+				iterator.next();
+			}
+			while (content.size() < limit && iterator.hasNext()) {
+				content.add(iterator.next());
+			}
+			return content;
+		}
+
+	}
+
+	/**
+	 * Batch job associations that maintain the job execution id to task execution id
+	 * index. The sets of job execution ids are copied when they are added to the map,
+	 * the sets returned by the map maintain the index when they are modified. The
+	 * compute methods apply their functions while holding the lock of the map.
+	 */
+	private final class BatchJobAssociations extends AbstractMap<Long, Set<Long>>
+			implements ConcurrentMap<Long, Set<Long>> {
+
+		private final ConcurrentMap<Long, Set<Long>> associations
+				= new ConcurrentHashMap<>();
+
+		@Override
+		public Set<Long> get(Object key) {
+			return this.associations.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return this.associations.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return this.associations.size();
+		}
+
+		@Override
+		public Set<Entry<Long, Set<Long>>> entrySet() {
+			return Collections.unmodifiableMap(this.associations).entrySet();
+		}
+
+		@Override
+		public synchronized Set<Long> put(Long key, Set<Long> value) {
+			Assert.notNull(value, "The job execution ids must not be null");
+			JobExecutionIds jobExecutionIds = new JobExecutionIds(key, value);
+			Set<Long> previous = this.associations.put(key, jobExecutionIds);
+			unregister(previous);
+			jobExecutionIds.register();
+			return previous;
+		}
+
+		@Override
+		public synchronized Set<Long> putIfAbsent(Long key, Set<Long> value) {
+			Assert.notNull(value, "The job execution ids must not be null");
+			JobExecutionIds jobExecutionIds = new JobExecutionIds(key, value);
+			Set<Long> previous = this.associations.putIfAbsent(key, jobExecutionIds);
+			if (previous == null) {
+				jobExecutionIds.register();
+			}
+			return previous;
+		}
+
+		@Override
+		public synchronized Set<Long> remove(Object key) {
+			Set<Long> previous = this.associations.remove(key);
+			unregister(previous);
+			return previous;
+		}
+
+		@Override
+		public synchronized boolean remove(Object key, Object value) {
+			Set<Long> previous = this.associations.get(key);
+			if (previous == null || !previous.equals(value)) {
+				return false;
+			}
+			remove(key);
+			return true;
+		}
+
+		@Override
+		public synchronized boolean replace(Long key, Set<Long> oldValue,
+				Set<Long> newValue) {
+			Set<Long> previous = this.associations.get(key);
+			if (previous == null || !previous.equals(oldValue)) {
+				return false;
+			}
+			put(key, newValue);
+			return true;
+		}
+
+		@Override
+		public synchronized Set<Long> replace(Long key, Set<Long> value) {
+			return this.associations.containsKey(key) ? put(key, value) : null;
+		}
+
+		@Override
+		public synchronized Set<Long> computeIfAbsent(Long key,
+				Function<? super Long, ? extends Set<Long>> mappingFunction) {
+			if (!this.associations.containsKey(key)) {
+				Set<Long> value = mappingFunction.apply(key);
+				if (value != null) {
+					put(key, value);
+				}
+			}
+			return this.associations.get(key);
+		}
+
+		@Override
+		public synchronized Set<Long> computeIfPresent(Long key,
+				BiFunction<? super Long, ? super Set<Long>, ? extends Set<Long>> function) {
+			Set<Long> previous = this.associations.get(key);
+			return (previous != null)
+					? putOrRemove(key, function.apply(key, previous)) : null;
+		}
+
+		@Override
+		public synchronized Set<Long> compute(Long key,
+				BiFunction<? super Long, ? super Set<Long>, ? extends Set<Long>> function) {
+			return putOrRemove(key,
+					function.apply(key, this.associations.get(key)));
+		}
+
+		@Override
+		public synchronized Set<Long> merge(Long key, Set<Long> value,
+				BiFunction<? super Set<Long>, ? super Set<Long>, ? extends Set<Long>> function) {
+			Set<Long> previous = this.associations.get(key);
+			return putOrRemove(key,
+					(previous != null) ? function.apply(previous, value) : value);
+		}
+
+		@Override
+		public synchronized void clear() {
+			this.associations.clear();
+			MapTaskExecutionDao.this.taskExecutionIdsByJobExecutionId.clear();
+		}
+
+		/**
+		 * Stores the value, or removes the key if the value is null, and returns the
+		 * stored set so that further changes to it maintain the index.
+		 */
+		private Set<Long> putOrRemove(Long key, Set<Long> value) {
+			if (value == null) {
+				remove(key);
+				return null;
+			}
+			put(key, value);
+			return this.associations.get(key);
+		}
+
+		private void unregister(Set<Long> jobExecutionIds) {
+			if (jobExecutionIds instanceof JobExecutionIds) {
+				((JobExecutionIds) jobExecutionIds).unregister();
+			}
+		}
+
+	}
+
+	/**
+	 * The job execution ids of a task execution, registered in the job execution id index
+	 * while the set is part of the batch job associations.
+	 */
+	private final class JobExecutionIds extends AbstractSet<Long> {
+
+		private final long taskExecutionId;
+
+		private final Set<Long> jobExecutionIds = new ConcurrentSkipListSet<>();
+
+		private volatile boolean registered;
+
+		JobExecutionIds(long taskExecutionId, Set<Long> jobExecutionIds) {
+			this.taskExecutionId = taskExecutionId;
+			this.jobExecutionIds.addAll(jobExecutionIds);
+		}
+
+		@Override
+		public boolean add(Long jobExecutionId) {
+			synchronized (MapTaskExecutionDao.this.batchJobAssociations) {
+				if (!this.jobExecutionIds.add(jobExecutionId)) {
+					return false;
+				}
+				if (this.registered) {
+					MapTaskExecutionDao.this.taskExecutionIdsByJobExecutionId
+							.put(jobExecutionId, this.taskExecutionId);
+				}
+				return true;
+			}
+		}
+
+		@Override
+		public boolean remove(Object jobExecutionId) {
+			synchronized (MapTaskExecutionDao.this.batchJobAssociations) {
+				if (!this.jobExecutionIds.remove(jobExecutionId)) {
+					return false;
+				}
+				if (this.registered) {
+					MapTaskExecutionDao.this.taskExecutionIdsByJobExecutionId
+							.remove((Long) jobExecutionId, this.taskExecutionId);
+				}
+				return true;
+			}
+		}
+
+		@Override
+		public boolean contains(Object jobExecutionId) {
+			return this.jobExecutionIds.contains(jobExecutionId);
+		}
+
+		@Override
+		public Iterator<Long> iterator() {
+			Iterator<Long> iterator = this.jobExecutionIds.iterator();
+			return new Iterator<Long>() {
+
+				private Long current;
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public Long next() {
+					this.current = iterator.next();
+					return this.current;
+				}
+
+				@Override
+				public void remove() {
+					Assert.state(this.current != null, "next() has not been called");
+					JobExecutionIds.this.remove(this.current);
+					this.current = null;
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return this.jobExecutionIds.size();
+		}
+
+		void register() {
+			this.registered = true;
+			for (Long jobExecutionId : this.jobExecutionIds) {
+				MapTaskExecutionDao.this.taskExecutionIdsByJobExecutionId
+						.put(jobExecutionId, this.taskExecutionId);
+			}
+		}
+
+		void unregister() {
+			this.registered = false;
+			for (Long jobExecutionId : this.jobExecutionIds) {
+				MapTaskExecutionDao.this.taskExecutionIdsByJobExecutionId
+						.remove(jobExecutionId, this.taskExecutionId);
+			}
+		}
+
+	}
+
 }
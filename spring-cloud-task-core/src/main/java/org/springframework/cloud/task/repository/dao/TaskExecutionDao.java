@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,25 @@
 
 package org.springframework.cloud.task.repository.dao;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCriteria;
+import org.springframework.cloud.task.repository.TaskExecutionStatistics;
+import org.springframework.cloud.task.repository.support.TaskExecutionQueryUtils;
+import org.springframework.cloud.task.repository.support.TaskExecutionStatisticsCollector;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.Assert;
 
 /**
  * Data Access Object for task executions.
@@ -58,6 +70,28 @@ public interface TaskExecutionDao {
 	TaskExecution createTaskExecution(String taskName, Date startTime,
 			List<String> arguments, String externalExecutionId, Long parentExecutionId);
 
+	/**
+	 * Save a number of new {@link TaskExecution}s, allocating their ids together. The
+	 * default implementation saves them one at a time.
+	 * @param taskExecutions the task executions to be saved. Their taskName, startTime,
+	 * arguments, externalExecutionId and parentExecutionId are stored.
+	 * @return fully qualified {@link TaskExecution} instances in the order the task
+	 * executions were provided.
+	 * @since 2.3.0
+	 */
+	default List<TaskExecution> createTaskExecutions(
+			List<TaskExecution> taskExecutions) {
+		List<TaskExecution> createdTaskExecutions = new ArrayList<>(
+				taskExecutions.size());
+		for (TaskExecution taskExecution : taskExecutions) {
+			createdTaskExecutions.add(createTaskExecution(taskExecution.getTaskName(),
+					taskExecution.getStartTime(), taskExecution.getArguments(),
+					taskExecution.getExternalExecutionId(),
+					taskExecution.getParentExecutionId()));
+		}
+		return createdTaskExecutions;
+	}
+
 	/**
 	 * Update and existing {@link TaskExecution} to mark it as started.
 	 * @param executionId the id of the taskExecution to be updated.
@@ -67,6 +101,8 @@ public interface TaskExecutionDao {
 	 * @param externalExecutionId id assigned to the task by the platform
 	 * @return A TaskExecution containing the information available at task execution
 	 * start.
+	 * @throws IllegalArgumentException if the task execution does not exist or is
+	 * already complete.
 	 * @since 1.1.0
 	 */
 	TaskExecution startTaskExecution(long executionId, String taskName, Date startTime,
@@ -82,6 +118,8 @@ public interface TaskExecutionDao {
 	 * @param parentExecutionId the parent task execution id.
 	 * @return A TaskExecution containing the information available at task execution
 	 * start.
+	 * @throws IllegalArgumentException if the task execution does not exist or is
+	 * already complete.
 	 * @since 1.2.0
 	 */
 	TaskExecution startTaskExecution(long executionId, String taskName, Date startTime,
@@ -94,6 +132,7 @@ public interface TaskExecutionDao {
 	 * @param endTime the time the task completed.
 	 * @param exitMessage the message assigned to the task upon completion.
 	 * @param errorMessage error information available upon failure of a task.
+	 * @throws IllegalStateException if the task execution does not exist.
 	 * @since 1.1.0
 	 */
 	void completeTaskExecution(long executionId, Integer exitCode, Date endTime,
@@ -160,6 +199,91 @@ public interface TaskExecutionDao {
 	 */
 	Page<TaskExecution> findTaskExecutionsByName(String taskName, Pageable pageable);
 
+	/**
+	 * Retrieves a subset of the task executions that started within the bounds provided.
+	 * When the task tables are partitioned by start time, only the partitions of the
+	 * matching start times are read.
+	 * The default implementation reads every slice of {@link #findAllAsSlice(Pageable)}.
+	 * @param startTimeFrom the inclusive lower bound of the start times, or null for no
+	 * lower bound.
+	 * @param startTimeTo the exclusive upper bound of the start times, or null for no
+	 * upper bound.
+	 * @param pageable the constraints for the search.
+	 * @return page containing the results from the search
+	 * @since 2.3.0
+	 */
+	default Page<TaskExecution> findTaskExecutionsStartedBetween(Date startTimeFrom,
+			Date startTimeTo, Pageable pageable) {
+		return TaskExecutionQueryUtils.findStartedBetween(this::findAllAsSlice,
+				startTimeFrom, startTimeTo, pageable);
+	}
+
+	/**
+	 * Retrieves a subset of the task executions by task name that started within the
+	 * bounds provided.
+	 * The default implementation reads every slice of
+	 * {@link #findTaskExecutionsByNameAsSlice(String, Pageable)}.
+	 * @param taskName the name of the task to search for in the repository.
+	 * @param startTimeFrom the inclusive lower bound of the start times, or null for no
+	 * lower bound.
+	 * @param startTimeTo the exclusive upper bound of the start times, or null for no
+	 * upper bound.
+	 * @param pageable the constraints for the search.
+	 * @return page containing the results from the search
+	 * @since 2.3.0
+	 * @see #findTaskExecutionsStartedBetween(Date, Date, Pageable)
+	 */
+	default Page<TaskExecution> findTaskExecutionsByNameStartedBetween(String taskName,
+			Date startTimeFrom, Date startTimeTo, Pageable pageable) {
+		return TaskExecutionQueryUtils.findStartedBetween(
+				(slicePageable) -> findTaskExecutionsByNameAsSlice(taskName,
+						slicePageable),
+				startTimeFrom, startTimeTo, pageable);
+	}
+
+	/**
+	 * Retrieves a subset of the task executions that match the criteria provided. The
+	 * criteria are applied by the query, the task executions that do not match them are
+	 * not retrieved.
+	 * The default implementation reads every slice of {@link #findAllAsSlice(Pageable)},
+	 * or of {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} when the criteria
+	 * select a single task name.
+	 * @param criteria the criteria the task executions must match.
+	 * @param pageable the constraints for the search.
+	 * @return page containing the results from the search
+	 * @since 2.3.0
+	 */
+	default Page<TaskExecution> findTaskExecutions(TaskExecutionCriteria criteria,
+			Pageable pageable) {
+		Assert.notNull(criteria, "criteria must not be null");
+		String taskName = criteria.getTaskName();
+		return TaskExecutionQueryUtils.findMatching((taskName != null)
+				? (slicePageable) -> findTaskExecutionsByNameAsSlice(taskName,
+						slicePageable)
+				: this::findAllAsSlice, criteria::matches, pageable);
+	}
+
+	/**
+	 * Computes the statistics of the task executions that match the criteria provided,
+	 * grouped by task name and, if a bucket size is provided, by time bucket. The time
+	 * buckets start at the start time lower bound of the criteria.
+	 * The default implementation passes the task executions of
+	 * {@link #streamTaskExecutions(TaskExecutionCriteria, Consumer)} to a
+	 * {@link TaskExecutionStatisticsCollector}.
+	 * @param criteria the criteria the task executions must match.
+	 * @param bucketSize the length of the time buckets, or null to not bucket the
+	 * statistics.
+	 * @return the statistics sorted by task name and bucket start time
+	 * @since 2.3.0
+	 */
+	default List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria, Duration bucketSize) {
+		TaskExecutionStatisticsCollector collector = new TaskExecutionStatisticsCollector(
+				criteria, bucketSize);
+		streamTaskExecutions(criteria, collector::add);
+		return collector.getStatistics();
+	}
+
 	/**
 	 * Retrieves a sorted list of distinct task names for the task executions.
 	 * @return a list of distinct task names from the task repository..
@@ -174,6 +298,188 @@ public interface TaskExecutionDao {
 
 	Page<TaskExecution> findAll(Pageable pageable);
 
+	/**
+	 * Retrieves all the task executions within the pageable constraints without counting
+	 * the total number of task executions. Whether a next slice exists is determined by
+	 * retrieving one more task execution than requested.
+	 * The default implementation returns the page of {@link #findAll(Pageable)}.
+	 * @param pageable the constraints for the search
+	 * @return slice containing the results from the search
+	 * @since 2.3.0
+	 */
+	default Slice<TaskExecution> findAllAsSlice(Pageable pageable) {
+		return findAll(pageable);
+	}
+
+	/**
+	 * Retrieves a slice of task executions by task name without counting the total
+	 * number of task executions.
+	 * The default implementation returns the page of
+	 * {@link #findTaskExecutionsByName(String, Pageable)}.
+	 * @param taskName the name of the task to search for in the repository.
+	 * @param pageable the constraints for the search.
+	 * @return slice containing the results from the search
+	 * @since 2.3.0
+	 * @see #findAllAsSlice(Pageable)
+	 */
+	default Slice<TaskExecution> findTaskExecutionsByNameAsSlice(String taskName,
+			Pageable pageable) {
+		return findTaskExecutionsByName(taskName, pageable);
+	}
+
+	/**
+	 * Retrieves a slice of task executions that are running for a taskName without
+	 * counting the total number of running task executions.
+	 * The default implementation returns the page of
+	 * {@link #findRunningTaskExecutions(String, Pageable)}.
+	 * @param taskName the name of the task to search for in the repository.
+	 * @param pageable the constraints for the search.
+	 * @return slice containing the results from the search
+	 * @since 2.3.0
+	 * @see #findAllAsSlice(Pageable)
+	 */
+	default Slice<TaskExecution> findRunningTaskExecutionsAsSlice(String taskName,
+			Pageable pageable) {
+		return findRunningTaskExecutions(taskName, pageable);
+	}
+
+	/**
+	 * Retrieves up to {@code limit} task executions that follow the provided task
+	 * execution when sorted by start time descending, task execution id descending.
+	 * Unlike {@link #findAll(Pageable)} the page is located by seeking past the provided
+	 * task execution instead of skipping an offset, so deep pages are as cheap to
+	 * retrieve as the first one. Task executions without a start time are not returned.
+	 * The default implementation reads the slices of {@link #findAllAsSlice(Pageable)}
+	 * from the first one, its cost grows with the depth of the page.
+	 * @param after the last task execution of the previous page or {@code null} to
+	 * retrieve the first page
+	 * @param limit the maximum number of task executions to return
+	 * @return list of task executions. May be empty but never null.
+	 * @since 2.3.0
+	 */
+	default List<TaskExecution> findAll(TaskExecution after, int limit) {
+		return TaskExecutionQueryUtils.findAfter(this::findAllAsSlice, after, limit);
+	}
+
+	/**
+	 * Retrieves up to {@code limit} task executions for a taskName that follow the
+	 * provided task execution when sorted by start time descending, task execution id
+	 * descending. Task executions without a start time are not returned.
+	 * The default implementation reads the slices of
+	 * {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} from the first one.
+	 * @param taskName the name of the task to search for in the repository.
+	 * @param after the last task execution of the previous page or {@code null} to
+	 * retrieve the first page
+	 * @param limit the maximum number of task executions to return
+	 * @return list of task executions. May be empty but never null.
+	 * @since 2.3.0
+	 * @see #findAll(TaskExecution, int)
+	 */
+	default List<TaskExecution> findTaskExecutionsByName(String taskName,
+			TaskExecution after, int limit) {
+		return TaskExecutionQueryUtils.findAfter(
+				(pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable), after,
+				limit);
+	}
+
+	/**
+	 * Passes the task executions, with their arguments, to the provided consumer one at
+	 * a time, sorted by task execution id ascending. Unlike the paging methods the task
+	 * executions are read with a single forward-only query and are not collected, so
+	 * memory use does not depend on the number of task executions. The JDBC based
+	 * implementation calls the consumer within a read-only transaction, held open until
+	 * the last task execution is consumed. On MySQL the consumer must not query the task
+	 * repository within the same transaction while the rows are streamed.
+	 * The default implementation reads the slices of {@link #findAllAsSlice(Pageable)},
+	 * or of {@link #findTaskExecutionsByNameAsSlice(String, Pageable)}, and passes the
+	 * task executions in the order of those queries rather than by task execution id.
+	 * @param taskName the name of the task to search for in the repository, or
+	 * {@code null} for the task executions of all tasks.
+	 * @param consumer the consumer of the task executions.
+	 * @since 2.3.0
+	 */
+	default void streamTaskExecutions(String taskName, Consumer<TaskExecution> consumer) {
+		TaskExecutionQueryUtils.forEach((taskName != null)
+				? (pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable)
+				: this::findAllAsSlice, (taskExecution) -> {
+					consumer.accept(taskExecution);
+					return true;
+				});
+	}
+
+	/**
+	 * Passes the task executions that match the criteria, with their arguments, to the
+	 * provided consumer one at a time, sorted by task execution id ascending. The
+	 * criteria are applied by the query, as for
+	 * {@link #findTaskExecutions(TaskExecutionCriteria, Pageable)}.
+	 * The default implementation reads the slices of {@link #findAllAsSlice(Pageable)},
+	 * or of {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} when the criteria
+	 * select a single task name, and passes the matching task executions in the order of
+	 * those queries rather than by task execution id.
+	 * @param criteria the criteria the task executions must match.
+	 * @param consumer the consumer of the task executions.
+	 * @since 2.3.0
+	 * @see #streamTaskExecutions(String, Consumer)
+	 */
+	default void streamTaskExecutions(TaskExecutionCriteria criteria,
+			Consumer<TaskExecution> consumer) {
+		Assert.notNull(criteria, "criteria must not be null");
+		Assert.notNull(consumer, "consumer must not be null");
+		String taskName = criteria.getTaskName();
+		TaskExecutionQueryUtils.forEach((taskName != null)
+				? (pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable)
+				: this::findAllAsSlice, (taskExecution) -> {
+					if (criteria.matches(taskExecution)) {
+						consumer.accept(taskExecution);
+					}
+					return true;
+				});
+	}
+
+	/**
+	 * Retrieves up to limit completed task executions, with their arguments, that ended
+	 * before the time provided, sorted by task execution id ascending.
+	 * The default implementation reads every slice of {@link #findAllAsSlice(Pageable)}.
+	 * @param endTime the time before which the task executions ended.
+	 * @param limit the maximum number of task executions to return.
+	 * @return the completed task executions that ended before the end time.
+	 * @since 2.3.0
+	 */
+	default List<TaskExecution> findCompletedTaskExecutionsEndedBefore(Date endTime,
+			int limit) {
+		return TaskExecutionQueryUtils.findCompletedEndedBefore(this::findAllAsSlice,
+				endTime, limit);
+	}
+
+	/**
+	 * Retrieves up to limit completed task executions, with their arguments, of the task
+	 * name provided, skipping the most recent ones. The task executions are sorted by
+	 * start date descending, taskExecution id descending.
+	 * The default implementation reads the slices of
+	 * {@link #findTaskExecutionsByNameAsSlice(String, Pageable)} from the first one.
+	 * @param taskName the name of the task to search for in the repository.
+	 * @param retainedCount the number of most recent completed task executions to skip.
+	 * @param limit the maximum number of task executions to return.
+	 * @return the completed task executions beyond the most recent ones.
+	 * @since 2.3.0
+	 */
+	default List<TaskExecution> findCompletedTaskExecutionsBeyondLatest(String taskName,
+			int retainedCount, int limit) {
+		return TaskExecutionQueryUtils.findCompletedBeyondLatest(
+				(pageable) -> findTaskExecutionsByNameAsSlice(taskName, pageable),
+				retainedCount, limit);
+	}
+
+	/**
+	 * Deletes the task executions with the ids provided, along with their arguments and
+	 * their associations with batch job executions. Ids of task executions that do not
+	 * exist are ignored.
+	 * @param executionIds the ids of the task executions to delete.
+	 * @return the number of task executions deleted.
+	 * @since 2.3.0
+	 */
+	int deleteTaskExecutions(Collection<Long> executionIds);
+
 	/**
 	 * Retrieves the next available execution id for a task execution.
 	 * @return long containing the executionId.
@@ -196,6 +502,26 @@ public interface TaskExecutionDao {
 	 */
 	Set<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId);
 
+	/**
+	 * Returns the job execution ids associated with each of the task execution ids. The
+	 * default implementation calls {@link #getJobExecutionIdsByTaskExecutionId(long)} for
+	 * each task execution.
+	 * @param taskExecutionIds ids of the {@link TaskExecution}s
+	 * @return a <code>Map</code> of the ids of the job executions executed within each
+	 * task, keyed by task execution id. Task executions without job executions are
+	 * mapped to an empty set.
+	 * @since 2.3.0
+	 */
+	default Map<Long, Set<Long>> getJobExecutionIdsByTaskExecutionIds(
+			Collection<Long> taskExecutionIds) {
+		Map<Long, Set<Long>> jobExecutionIds = new HashMap<>();
+		for (Long taskExecutionId : taskExecutionIds) {
+			jobExecutionIds.put(taskExecutionId,
+					getJobExecutionIdsByTaskExecutionId(taskExecutionId));
+		}
+		return jobExecutionIds;
+	}
+
 	/**
 	 * Updates the externalExecutionId for the execution id specified.
 	 * @param taskExecutionId the execution id for the task to be updated.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import javax.sql.DataSource;
 
 import org.springframework.batch.item.database.Order;
 import org.springframework.data.domain.Pageable;
+import org.springframework.util.StringUtils;
 
 /**
  * Interface defining the functionality to be provided for generating paging queries.
@@ -64,4 +65,51 @@ public interface PagingQueryProvider {
 	 */
 	String getPageQuery(Pageable pageable);
 
+	/**
+	 * Generate the query that will provide the first page of a keyset (seek) based
+	 * iteration over the results, limited to the page size provided.
+	 * @param pageSize the maximum number of rows to return
+	 * @return the generated query
+	 * @since 2.3.0
+	 */
+	String getFirstPageQuery(int pageSize);
+
+	/**
+	 * Generate the query that will provide the page that follows a previously read row
+	 * in a keyset (seek) based iteration over the results, limited to the page size
+	 * provided. Instead of skipping an offset, the query only selects rows that sort
+	 * after the previous row. The sort key values of the previous row are expected as
+	 * named parameters, see {@link #getSortKeyParameterName(String)}.
+	 * @param pageSize the maximum number of rows to return
+	 * @return the generated query
+	 * @since 2.3.0
+	 */
+	String getRemainingPagesQuery(int pageSize);
+
+	/**
+	 * The name of the named parameter that the queries generated by
+	 * {@link #getRemainingPagesQuery(int)} use for the value of a sort key.
+	 * The default implementation prefixes the unqualified sort key with an underscore.
+	 * @param sortKey the sort key (column name)
+	 * @return the name of the parameter to bind the sort key value of the previous row
+	 * to
+	 * @since 2.3.0
+	 */
+	default String getSortKeyParameterName(String sortKey) {
+		return "_" + StringUtils.unqualify(sortKey);
+	}
+
+	/**
+	 * Indicates whether the query generated by {@link #getPageQuery(Pageable)} selects
+	 * directly from the table, without sub selects, on a database that supports the
+	 * {@code COUNT(*) OVER()} window function. If so, a window count added to the select
+	 * clause returns the total number of matching rows along with the page.
+	 * The default implementation returns false.
+	 * @return true if a {@code COUNT(*) OVER()} column can be added to the select clause
+	 * @since 2.3.0
+	 */
+	default boolean isWindowCountSupported() {
+		return false;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,20 @@ import org.springframework.util.StringUtils;
  */
 public abstract class AbstractSqlPagingQueryProvider implements PagingQueryProvider {
 
+	/**
+	 * The name of the named parameter that the queries generated by
+	 * {@link #getPageQuery(int)} use for the number of rows to skip.
+	 * @since 2.3.0
+	 */
+	public static final String OFFSET_PARAMETER_NAME = "_offset";
+
+	/**
+	 * The name of the named parameter that the queries generated by
+	 * {@link #getPageQuery(int)} use for the number of rows to skip plus the page size.
+	 * @since 2.3.0
+	 */
+	public static final String END_ROW_PARAMETER_NAME = "_endRow";
+
 	private String selectClause;
 
 	private String fromClause;
@@ -57,6 +71,10 @@ public abstract class AbstractSqlPagingQueryProvider implements PagingQueryProvi
 
 	private boolean usingNamedParameters;
 
+	private boolean offsetFetchSupported;
+
+	private boolean windowCountSupported;
+
 	/**
 	 * @return SQL SELECT clause part of SQL query string
 	 */
@@ -121,6 +139,57 @@ public abstract class AbstractSqlPagingQueryProvider implements PagingQueryProvi
 		this.sortKeys = sortKeys;
 	}
 
+	/**
+	 * Indicates whether the database supports the SQL:2008 {@code OFFSET ... ROWS FETCH
+	 * NEXT ... ROWS ONLY} clause. Providers for databases whose legacy paging syntax
+	 * requires nested sub selects use the simpler clause when it is supported.
+	 * @return true if the {@code OFFSET/FETCH} clause can be used
+	 * @since 2.3.0
+	 */
+	public boolean isOffsetFetchSupported() {
+		return this.offsetFetchSupported;
+	}
+
+	/**
+	 * @param offsetFetchSupported whether the database supports the SQL:2008
+	 * {@code OFFSET ... ROWS FETCH NEXT ... ROWS ONLY} clause
+	 * @since 2.3.0
+	 */
+	public void setOffsetFetchSupported(boolean offsetFetchSupported) {
+		this.offsetFetchSupported = offsetFetchSupported;
+	}
+
+	@Override
+	public boolean isWindowCountSupported() {
+		return this.windowCountSupported;
+	}
+
+	/**
+	 * @param windowCountSupported whether a {@code COUNT(*) OVER()} column can be added
+	 * to the select clause of the page query
+	 * @since 2.3.0
+	 */
+	public void setWindowCountSupported(boolean windowCountSupported) {
+		this.windowCountSupported = windowCountSupported;
+	}
+
+	/**
+	 * Generate the query that will provide a page of the size provided, skipping the
+	 * number of rows bound to the {@link #OFFSET_PARAMETER_NAME} named parameter. Unlike
+	 * {@link #getPageQuery(Pageable)} the query does not depend on the offset, so the
+	 * same query serves every page of that size. Queries that select a range of row
+	 * numbers also expect the offset plus the page size bound to the
+	 * {@link #END_ROW_PARAMETER_NAME} named parameter. The default implementation uses
+	 * the SQL:2008 {@code OFFSET ... ROWS FETCH NEXT ... ROWS ONLY} clause.
+	 * @param pageSize the maximum number of rows to return
+	 * @return the generated query
+	 * @since 2.3.0
+	 */
+	public String getPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateOffsetFetchJumpToQuery(this,
+				":" + OFFSET_PARAMETER_NAME, pageSize);
+	}
+
 	@Override
 	public int getParameterCount() {
 		return this.parameterCount;
@@ -156,6 +225,17 @@ public abstract class AbstractSqlPagingQueryProvider implements PagingQueryProvi
 		}
 	}
 
+	/**
+	 * Appends the keyset (seek) conditions used by the remaining pages query to the
+	 * provided where clause. Providers may override this to use database specific
+	 * syntax.
+	 * @param sql the sql statement to be appended.
+	 * @since 2.3.0
+	 */
+	protected void appendSortConditions(StringBuilder sql) {
+		SqlPagingQueryUtils.buildSortConditions(this, sql);
+	}
+
 	private String removeKeyWord(String keyWord, String clause) {
 		String temp = clause.trim();
 		String keyWordString = keyWord + " ";
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,4 +34,20 @@ public class H2PagingQueryProvider extends AbstractSqlPagingQueryProvider {
 		return SqlPagingQueryUtils.generateTopJumpToQuery(this, topClause);
 	}
 
+	@Override
+	public String getFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateTopSqlQuery(this, false,
+				buildTopClause(pageSize));
+	}
+
+	@Override
+	public String getRemainingPagesQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateTopSqlQuery(this, true,
+				buildTopClause(pageSize));
+	}
+
+	private String buildTopClause(int pageSize) {
+		return new StringBuilder().append("LIMIT 0 ").append(pageSize).toString();
+	}
+
 }
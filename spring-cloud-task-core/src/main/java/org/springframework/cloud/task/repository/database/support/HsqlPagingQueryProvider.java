@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,4 +35,20 @@ public class HsqlPagingQueryProvider extends AbstractSqlPagingQueryProvider {
 		return SqlPagingQueryUtils.generateTopJumpToQuery(this, topClause);
 	}
 
+	@Override
+	public String getFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateTopSqlQuery(this, false,
+				buildTopClause(pageSize));
+	}
+
+	@Override
+	public String getRemainingPagesQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateTopSqlQuery(this, true,
+				buildTopClause(pageSize));
+	}
+
+	private String buildTopClause(int pageSize) {
+		return new StringBuilder().append("LIMIT 0 ").append(pageSize).toString();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,4 +34,26 @@ public class MySqlPagingQueryProvider extends AbstractSqlPagingQueryProvider {
 		return SqlPagingQueryUtils.generateLimitJumpToQuery(this, topClause);
 	}
 
+	@Override
+	public String getPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitJumpToQuery(this,
+				"LIMIT :" + OFFSET_PARAMETER_NAME + ", " + pageSize);
+	}
+
+	@Override
+	public String getFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, false,
+				buildLimitClause(pageSize));
+	}
+
+	@Override
+	public String getRemainingPagesQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, true,
+				buildLimitClause(pageSize));
+	}
+
+	private String buildLimitClause(int pageSize) {
+		return new StringBuilder().append("LIMIT ").append(pageSize).toString();
+	}
+
 }
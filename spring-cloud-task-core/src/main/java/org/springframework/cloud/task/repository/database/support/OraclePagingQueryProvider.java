@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,12 +29,51 @@ public class OraclePagingQueryProvider extends AbstractSqlPagingQueryProvider {
 
 	@Override
 	public String getPageQuery(Pageable pageable) {
+		if (isOffsetFetchSupported()) {
+			return SqlPagingQueryUtils.generateOffsetFetchJumpToQuery(this,
+					pageable.getOffset(), pageable.getPageSize());
+		}
 		long offset = pageable.getOffset() + 1;
 		return generateRowNumSqlQueryWithNesting(getSelectClause(), false,
 				"TMP_ROW_NUM >= " + offset + " AND TMP_ROW_NUM < "
 						+ (offset + pageable.getPageSize()));
 	}
 
+	@Override
+	public String getPageQuery(int pageSize) {
+		if (isOffsetFetchSupported()) {
+			return super.getPageQuery(pageSize);
+		}
+		return generateRowNumSqlQueryWithNesting(getSelectClause(), false,
+				"TMP_ROW_NUM > :" + OFFSET_PARAMETER_NAME + " AND TMP_ROW_NUM <= :"
+						+ END_ROW_PARAMETER_NAME);
+	}
+
+	@Override
+	public String getFirstPageQuery(int pageSize) {
+		return generateSeekQuery(false, pageSize);
+	}
+
+	@Override
+	public String getRemainingPagesQuery(int pageSize) {
+		return generateSeekQuery(true, pageSize);
+	}
+
+	private String generateSeekQuery(boolean remainingPageQuery, int pageSize) {
+		if (isOffsetFetchSupported()) {
+			return SqlPagingQueryUtils.generateLimitSqlQuery(this, remainingPageQuery,
+					"FETCH FIRST " + pageSize + " ROWS ONLY");
+		}
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT ").append(getSelectClause()).append(" FROM (SELECT ")
+				.append(getSelectClause()).append(" FROM ").append(getFromClause());
+		SqlPagingQueryUtils.buildWhereClause(this, remainingPageQuery, sql);
+		sql.append(" ORDER BY ").append(SqlPagingQueryUtils.buildSortClause(this));
+		sql.append(") WHERE ROWNUM <= ").append(pageSize);
+
+		return sql.toString();
+	}
+
 	private String generateRowNumSqlQueryWithNesting(String selectClause,
 			boolean remainingPageQuery, String rowNumClause) {
 		StringBuilder sql = new StringBuilder();
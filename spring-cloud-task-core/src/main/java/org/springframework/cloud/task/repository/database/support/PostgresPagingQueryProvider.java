@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,4 +35,29 @@ public class PostgresPagingQueryProvider extends AbstractSqlPagingQueryProvider
 		return SqlPagingQueryUtils.generateLimitJumpToQuery(this, limitClause);
 	}
 
+	@Override
+	public String getFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, false,
+				buildLimitClause(pageSize));
+	}
+
+	@Override
+	public String getRemainingPagesQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, true,
+				buildLimitClause(pageSize));
+	}
+
+	/**
+	 * PostgreSQL supports row value comparisons, which it can match against a composite
+	 * index on the sort keys directly.
+	 */
+	@Override
+	protected void appendSortConditions(StringBuilder sql) {
+		SqlPagingQueryUtils.buildRowValueSortConditions(this, sql);
+	}
+
+	private String buildLimitClause(int pageSize) {
+		return new StringBuilder().append("LIMIT ").append(pageSize).toString();
+	}
+
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.database.support;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.cloud.task.repository.support.DatabaseType;
+import org.springframework.util.Assert;
+
+import static org.springframework.cloud.task.repository.support.DatabaseType.DB2;
+import static org.springframework.cloud.task.repository.support.DatabaseType.DB2AS400;
+import static org.springframework.cloud.task.repository.support.DatabaseType.DB2VSE;
+import static org.springframework.cloud.task.repository.support.DatabaseType.DB2ZOS;
+import static org.springframework.cloud.task.repository.support.DatabaseType.H2;
+import static org.springframework.cloud.task.repository.support.DatabaseType.HSQL;
+import static org.springframework.cloud.task.repository.support.DatabaseType.MYSQL;
+import static org.springframework.cloud.task.repository.support.DatabaseType.ORACLE;
+import static org.springframework.cloud.task.repository.support.DatabaseType.POSTGRES;
+import static org.springframework.cloud.task.repository.support.DatabaseType.SQLSERVER;
+
+/**
+ * Utility class that generates the database specific date and time arithmetic used by
+ * the task execution statistics queries.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public final class SqlDateTimeUtils {
+
+	/**
+	 * The expressions of the number of milliseconds between two timestamps, formatted
+	 * with the earlier and the later timestamp.
+	 */
+	private static final Map<DatabaseType, String> MILLISECONDS_BETWEEN = new EnumMap<>(
+			DatabaseType.class);
+
+	/**
+	 * The expressions of a timestamp parameter, formatted with the parameter. Parameters
+	 * are cast where the database cannot infer their type from a function argument.
+	 */
+	private static final Map<DatabaseType, String> TIMESTAMP_PARAMETERS = new EnumMap<>(
+			DatabaseType.class);
+
+	static {
+		String db2MillisecondsBetween = "(CAST(DAYS(%2$s) - DAYS(%1$s) AS BIGINT) * 86400000"
+				+ " + (MIDNIGHT_SECONDS(%2$s) - MIDNIGHT_SECONDS(%1$s)) * 1000"
+				+ " + (MICROSECOND(%2$s) - MICROSECOND(%1$s)) / 1000)";
+		MILLISECONDS_BETWEEN.put(HSQL, "DATEDIFF('millisecond', %1$s, %2$s)");
+		MILLISECONDS_BETWEEN.put(H2, "DATEDIFF('MILLISECOND', %1$s, %2$s)");
+		MILLISECONDS_BETWEEN.put(MYSQL, "(TIMESTAMPDIFF(MICROSECOND, %1$s, %2$s) DIV 1000)");
+		MILLISECONDS_BETWEEN.put(POSTGRES, "(EXTRACT(EPOCH FROM (%2$s - %1$s)) * 1000)");
+		// the difference of two timestamps is an interval, its seconds keep the fraction
+		String oracleInterval = " FROM (%2$s - %1$s))";
+		MILLISECONDS_BETWEEN.put(ORACLE, "(EXTRACT(DAY" + oracleInterval + " * 86400000"
+				+ " + EXTRACT(HOUR" + oracleInterval + " * 3600000"
+				+ " + EXTRACT(MINUTE" + oracleInterval + " * 60000"
+				+ " + EXTRACT(SECOND" + oracleInterval + " * 1000)");
+		MILLISECONDS_BETWEEN.put(SQLSERVER, "DATEDIFF_BIG(MILLISECOND, %1$s, %2$s)");
+		MILLISECONDS_BETWEEN.put(DB2, db2MillisecondsBetween);
+		MILLISECONDS_BETWEEN.put(DB2VSE, db2MillisecondsBetween);
+		MILLISECONDS_BETWEEN.put(DB2ZOS, db2MillisecondsBetween);
+		MILLISECONDS_BETWEEN.put(DB2AS400, db2MillisecondsBetween);
+		TIMESTAMP_PARAMETERS.put(HSQL, "CAST(%s AS TIMESTAMP)");
+		TIMESTAMP_PARAMETERS.put(H2, "CAST(%s AS TIMESTAMP)");
+		TIMESTAMP_PARAMETERS.put(MYSQL, "%s");
+		TIMESTAMP_PARAMETERS.put(POSTGRES, "CAST(%s AS TIMESTAMP)");
+		TIMESTAMP_PARAMETERS.put(ORACLE, "CAST(%s AS TIMESTAMP)");
+		TIMESTAMP_PARAMETERS.put(SQLSERVER, "CAST(%s AS DATETIME2)");
+		TIMESTAMP_PARAMETERS.put(DB2, "CAST(%s AS TIMESTAMP)");
+		TIMESTAMP_PARAMETERS.put(DB2VSE, "CAST(%s AS TIMESTAMP)");
+		TIMESTAMP_PARAMETERS.put(DB2ZOS, "CAST(%s AS TIMESTAMP)");
+		TIMESTAMP_PARAMETERS.put(DB2AS400, "CAST(%s AS TIMESTAMP)");
+	}
+
+	private SqlDateTimeUtils() {
+	}
+
+	/**
+	 * Generate the expression of the number of milliseconds between two timestamps. The
+	 * expression is null if either timestamp is null.
+	 * @param databaseType the type of the database the expression is evaluated by
+	 * @param from the expression of the earlier timestamp
+	 * @param to the expression of the later timestamp
+	 * @return the generated expression
+	 */
+	public static String millisecondsBetween(DatabaseType databaseType, String from,
+			String to) {
+		return String.format(getExpression(MILLISECONDS_BETWEEN, databaseType), from, to);
+	}
+
+	/**
+	 * Generate the expression of a timestamp parameter, for use as an argument of the
+	 * expressions generated by {@link #millisecondsBetween(DatabaseType, String, String)}.
+	 * @param databaseType the type of the database the expression is evaluated by
+	 * @param parameter the parameter placeholder, for example {@code :startTime}
+	 * @return the generated expression
+	 */
+	public static String timestampParameter(DatabaseType databaseType,
+			String parameter) {
+		return String.format(getExpression(TIMESTAMP_PARAMETERS, databaseType),
+				parameter);
+	}
+
+	private static String getExpression(Map<DatabaseType, String> expressions,
+			DatabaseType databaseType) {
+		Assert.notNull(databaseType, "databaseType must not be null");
+		String expression = expressions.get(databaseType);
+		Assert.state(expression != null,
+				"Should not happen: missing expression for DatabaseType="
+						+ databaseType);
+		return expression;
+	}
+
+}
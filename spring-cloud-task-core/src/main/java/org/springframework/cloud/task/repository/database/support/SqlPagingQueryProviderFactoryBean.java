@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import javax.sql.DataSource;
 import org.springframework.batch.item.database.Order;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.cloud.task.repository.database.PagingQueryProvider;
+import org.springframework.cloud.task.repository.support.DatabaseDialect;
 import org.springframework.cloud.task.repository.support.DatabaseType;
 import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.util.Assert;
@@ -43,7 +44,9 @@ import static org.springframework.cloud.task.repository.support.DatabaseType.SQL
 /**
  * Factory bean for {@link PagingQueryProvider} interface. The database type will be
  * determined from the data source if not provided explicitly. Valid types are given by
- * the {@link DatabaseType} enum.
+ * the {@link DatabaseType} enum. When no data source is provided, the database type
+ * must be set explicitly and the provider generates queries that do not depend on the
+ * version of the database (for example, for use with a reactive driver).
  *
  * @author Glenn Renfro
  */
@@ -132,17 +135,18 @@ public class SqlPagingQueryProviderFactoryBean
 	@Override
 	public PagingQueryProvider getObject() throws Exception {
 
-		DatabaseType type;
+		Assert.state(this.databaseType != null || this.dataSource != null,
+				"Either the databaseType or the dataSource must be provided");
+		DatabaseDialect dialect;
 		try {
-			type = this.databaseType != null
-					? DatabaseType.valueOf(this.databaseType.toUpperCase())
-					: DatabaseType.fromMetaData(this.dataSource);
+			dialect = getDatabaseDialect();
 		}
 		catch (MetaDataAccessException e) {
 			throw new IllegalArgumentException(
 					"Could not inspect meta data for database type.  You have to supply it explicitly.",
 					e);
 		}
+		DatabaseType type = dialect.getDatabaseType();
 
 		AbstractSqlPagingQueryProvider provider = this.providers.get(type);
 		Assert.state(provider != null,
@@ -152,15 +156,37 @@ public class SqlPagingQueryProviderFactoryBean
 		provider.setFromClause(this.fromClause);
 		provider.setWhereClause(this.whereClause);
 		provider.setSortKeys(this.sortKeys);
+		provider.setOffsetFetchSupported(dialect.isOffsetFetchSupported());
+		provider.setWindowCountSupported(dialect.isWindowFunctionSupported());
 		if (StringUtils.hasText(this.selectClause)) {
 			provider.setSelectClause(this.selectClause);
 		}
-		provider.init(this.dataSource);
+		if (this.dataSource != null) {
+			provider.init(this.dataSource);
+		}
 
 		return provider;
 
 	}
 
+	/**
+	 * Returns the dialect of the data source, with the database type replaced by the one
+	 * set explicitly. Without a data source, the dialect supports no version dependent
+	 * feature.
+	 */
+	private DatabaseDialect getDatabaseDialect() throws MetaDataAccessException {
+		if (this.dataSource == null) {
+			return new DatabaseDialect(
+					DatabaseType.valueOf(this.databaseType.toUpperCase()), null, 0);
+		}
+		DatabaseDialect dialect = DatabaseDialect.fromDataSource(this.dataSource);
+		if (this.databaseType == null) {
+			return dialect;
+		}
+		return new DatabaseDialect(DatabaseType.valueOf(this.databaseType.toUpperCase()),
+				dialect.getProductVersion(), dialect.getMajorVersion());
+	}
+
 	/**
 	 * Always returns {@link PagingQueryProvider}.
 	 *
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,11 @@
 
 package org.springframework.cloud.task.repository.database.support;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.batch.item.database.Order;
 
@@ -71,9 +75,95 @@ public final class SqlPagingQueryUtils {
 	}
 
 	/**
-	 * Generates WHERE clause for queries that require sub selects.
+	 * Generate SQL query string using an OFFSET/FETCH clause as defined by the SQL:2008
+	 * standard.
+	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
+	 * specifics
+	 * @param offset the number of rows to skip
+	 * @param pageSize the maximum number of rows to return
+	 * @return the generated query
+	 * @since 2.3.0
+	 */
+	public static String generateOffsetFetchJumpToQuery(
+			AbstractSqlPagingQueryProvider provider, long offset, int pageSize) {
+		return generateOffsetFetchJumpToQuery(provider, String.valueOf(offset),
+				pageSize);
+	}
+
+	/**
+	 * Generate SQL query string using an OFFSET/FETCH clause as defined by the SQL:2008
+	 * standard.
+	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
+	 * specifics
+	 * @param offset the expression of the number of rows to skip, e.g. a named parameter
+	 * @param pageSize the maximum number of rows to return
+	 * @return the generated query
+	 * @since 2.3.0
+	 */
+	public static String generateOffsetFetchJumpToQuery(
+			AbstractSqlPagingQueryProvider provider, String offset, int pageSize) {
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT ").append(provider.getSelectClause());
+		sql.append(" FROM ").append(provider.getFromClause());
+		sql.append(provider.getWhereClause() == null ? ""
+				: " WHERE " + provider.getWhereClause());
+		sql.append(" ORDER BY ").append(buildSortClause(provider));
+		sql.append(" OFFSET ").append(offset).append(" ROWS FETCH NEXT ")
+				.append(pageSize).append(" ROWS ONLY");
+
+		return sql.toString();
+	}
+
+	/**
+	 * Generate a keyset (seek) SQL query string using a LIMIT clause.
+	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
+	 * specifics
+	 * @param remainingPageQuery is this query for the remaining pages (true) as opposed
+	 * to the first page (false)
+	 * @param limitClause the implementation specific limit clause to be used
+	 * @return the generated query
+	 * @since 2.3.0
+	 */
+	public static String generateLimitSqlQuery(AbstractSqlPagingQueryProvider provider,
+			boolean remainingPageQuery, String limitClause) {
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT ").append(provider.getSelectClause());
+		sql.append(" FROM ").append(provider.getFromClause());
+		buildWhereClause(provider, remainingPageQuery, sql);
+		sql.append(" ORDER BY ").append(buildSortClause(provider));
+		sql.append(" ").append(limitClause);
+
+		return sql.toString();
+	}
+
+	/**
+	 * Generate a keyset (seek) SQL query string using a TOP clause.
+	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
+	 * specifics
+	 * @param remainingPageQuery is this query for the remaining pages (true) as opposed
+	 * to the first page (false)
+	 * @param topClause the implementation specific top clause to be used
+	 * @return the generated query
+	 * @since 2.3.0
+	 */
+	public static String generateTopSqlQuery(AbstractSqlPagingQueryProvider provider,
+			boolean remainingPageQuery, String topClause) {
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT ").append(topClause).append(" ")
+				.append(provider.getSelectClause());
+		sql.append(" FROM ").append(provider.getFromClause());
+		buildWhereClause(provider, remainingPageQuery, sql);
+		sql.append(" ORDER BY ").append(buildSortClause(provider));
+
+		return sql.toString();
+	}
+
+	/**
+	 * Generates WHERE clause for queries that require sub selects. For remaining page
+	 * queries the keyset (seek) conditions on the sort keys are appended as well.
 	 * @param provider the paging query provider that will provide the base where clause
-	 * @param remainingPageQuery if true assumes more will be appended to where clause
+	 * @param remainingPageQuery if true the sort conditions are appended to the where
+	 * clause
 	 * @param sql the sql statement to be appended.
 	 */
 	public static void buildWhereClause(AbstractSqlPagingQueryProvider provider,
@@ -85,6 +175,7 @@ public final class SqlPagingQueryUtils {
 				sql.append(provider.getWhereClause());
 				sql.append(") AND ");
 			}
+			provider.appendSortConditions(sql);
 		}
 		else {
 			sql.append(provider.getWhereClause() == null ? ""
@@ -92,6 +183,80 @@ public final class SqlPagingQueryUtils {
 		}
 	}
 
+	/**
+	 * Appends the keyset (seek) conditions that select the rows sorting after the row
+	 * whose sort key values are bound to the sort key parameters. The conditions are an
+	 * inclusive range on the leading sort key, so that an index on the sort keys can be
+	 * used by all databases, followed by the exact lexicographic comparison, e.g.
+	 * {@code START_TIME <= :_START_TIME AND (START_TIME < :_START_TIME OR
+	 * (START_TIME = :_START_TIME AND TASK_EXECUTION_ID < :_TASK_EXECUTION_ID))}.
+	 * @param provider the paging query provider that will provide the sort keys
+	 * @param sql the sql statement to be appended.
+	 * @since 2.3.0
+	 */
+	public static void buildSortConditions(AbstractSqlPagingQueryProvider provider,
+			StringBuilder sql) {
+		List<Map.Entry<String, Order>> keys = new ArrayList<>(
+				provider.getSortKeys().entrySet());
+		Map.Entry<String, Order> leadingKey = keys.get(0);
+		sql.append(leadingKey.getKey())
+				.append(isDescending(leadingKey.getValue()) ? " <= " : " >= ")
+				.append(":").append(provider.getSortKeyParameterName(leadingKey.getKey()));
+		sql.append(" AND (");
+		for (int i = 0; i < keys.size(); i++) {
+			if (i > 0) {
+				sql.append(" OR ");
+			}
+			sql.append("(");
+			for (int j = 0; j < i; j++) {
+				String key = keys.get(j).getKey();
+				sql.append(key).append(" = :")
+						.append(provider.getSortKeyParameterName(key)).append(" AND ");
+			}
+			Map.Entry<String, Order> key = keys.get(i);
+			sql.append(key.getKey())
+					.append(isDescending(key.getValue()) ? " < " : " > ").append(":")
+					.append(provider.getSortKeyParameterName(key.getKey()));
+			sql.append(")");
+		}
+		sql.append(")");
+	}
+
+	/**
+	 * Appends the keyset (seek) conditions that select the rows sorting after the row
+	 * whose sort key values are bound to the sort key parameters as a single row value
+	 * comparison, e.g. {@code (START_TIME, TASK_EXECUTION_ID) < (:_START_TIME,
+	 * :_TASK_EXECUTION_ID)}. Only usable by databases that support row value comparisons
+	 * and only if all sort keys are sorted in the same direction, otherwise falls back to
+	 * {@link #buildSortConditions(AbstractSqlPagingQueryProvider, StringBuilder)}.
+	 * @param provider the paging query provider that will provide the sort keys
+	 * @param sql the sql statement to be appended.
+	 * @since 2.3.0
+	 */
+	public static void buildRowValueSortConditions(
+			AbstractSqlPagingQueryProvider provider, StringBuilder sql) {
+		Set<Boolean> directions = new HashSet<>();
+		for (Order order : provider.getSortKeys().values()) {
+			directions.add(isDescending(order));
+		}
+		if (directions.size() != 1) {
+			buildSortConditions(provider, sql);
+			return;
+		}
+		StringBuilder columns = new StringBuilder();
+		StringBuilder parameters = new StringBuilder();
+		String prefix = "";
+		for (String key : provider.getSortKeys().keySet()) {
+			columns.append(prefix).append(key);
+			parameters.append(prefix).append(":")
+					.append(provider.getSortKeyParameterName(key));
+			prefix = ", ";
+		}
+		sql.append("(").append(columns).append(")")
+				.append(directions.contains(Boolean.TRUE) ? " < " : " > ").append("(")
+				.append(parameters).append(")");
+	}
+
 	/**
 	 * Generates ORDER BY attributes based on the sort keys.
 	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
@@ -129,4 +294,8 @@ public final class SqlPagingQueryUtils {
 		return builder.toString();
 	}
 
+	private static boolean isDescending(Order order) {
+		return order != null && order == Order.DESCENDING;
+	}
+
 }
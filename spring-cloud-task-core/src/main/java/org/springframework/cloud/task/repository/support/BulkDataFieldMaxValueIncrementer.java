@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+
+/**
+ * {@link DataFieldMaxValueIncrementer} that can hand out a number of values at once,
+ * usually with a single round trip to the database.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public interface BulkDataFieldMaxValueIncrementer extends DataFieldMaxValueIncrementer {
+
+	/**
+	 * Increment the data store field's max value the number of times requested.
+	 * @param count the number of values required.
+	 * @return the next values, in increasing order.
+	 * @throws DataAccessException in case of errors
+	 */
+	long[] nextLongValues(int count) throws DataAccessException;
+
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCriteria;
+import org.springframework.cloud.task.repository.TaskExecutionStatistics;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link TaskExplorer} that caches the answers of a delegate {@link TaskExplorer} to the
+ * queries polled the most by monitoring tools: {@link #getTaskExecution(long)},
+ * {@link #getTaskNames()}, {@link #getLatestTaskExecutionForTaskName(String)} and the
+ * task execution counts. The other queries are passed through to the delegate.
+ *
+ * <p>
+ * A task execution does not change once it has an end time, so completed task executions
+ * are cached until evicted. Running task executions and the aggregate answers are cached
+ * for the time to live, see {@link #setTimeToLive(Duration)}. At most
+ * {@link #setMaxEntries(int) max entries} task executions and aggregate answers are
+ * cached, the least recently used are evicted first.
+ *
+ * <p>
+ * Writes made by a {@link SimpleTaskRepository} of the same application invalidate the
+ * cache once the explorer is registered with
+ * {@link SimpleTaskRepository#setCacheEvictor(TaskExecutionCacheEvictor)}. Writes
+ * made by other applications are only visible to running and aggregate answers once
+ * their time to live has elapsed. Cache gets are counted by the {@value #GETS_METER}
+ * meter, tagged with the {@value #RESULT_TAG}, and evictions by the
+ * {@value #EVICTIONS_METER} meter.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class CachingTaskExplorer implements TaskExplorer, TaskExecutionCacheEvictor {
+
+	/**
+	 * Counter of the cache gets, tagged with the {@value #RESULT_TAG}.
+	 */
+	public static final String GETS_METER = "spring.cloud.task.explorer.cache.gets";
+
+	/**
+	 * The result of the cache get: {@code hit} or {@code miss}.
+	 */
+	public static final String RESULT_TAG = "result";
+
+	/**
+	 * Counter of the entries evicted because they expired or exceeded the max entries.
+	 */
+	public static final String EVICTIONS_METER
+			= "spring.cloud.task.explorer.cache.evictions";
+
+	/**
+	 * Default maximum number of cached task executions and of cached aggregate answers.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/**
+	 * Default time to live of the running task executions and aggregate answers.
+	 */
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(1);
+
+	private static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+	private final TaskExplorer delegate;
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private final Counter evictions;
+
+	/**
+	 * The cached task executions by id in least recently used order, guarded by this
+	 * explorer.
+	 */
+	private final Map<Long, CacheEntry> taskExecutions = new LinkedHashMap<>(16, 0.75f,
+			true);
+
+	/**
+	 * The cached aggregate answers in least recently used order, guarded by this
+	 * explorer.
+	 */
+	private final Map<AggregateKey, CacheEntry> aggregates = new LinkedHashMap<>(16,
+			0.75f, true);
+
+	/**
+	 * Incremented by each invalidation, so that answers loaded concurrently with a write
+	 * are not cached. Guarded by this explorer.
+	 */
+	private long generation;
+
+	private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	private long timeToLive = DEFAULT_TIME_TO_LIVE.toMillis();
+
+	private Clock clock = Clock.systemUTC();
+
+	public CachingTaskExplorer(TaskExplorer delegate) {
+		Assert.notNull(delegate, "delegate must not be null");
+		this.delegate = delegate;
+		this.hits = Metrics.counter(GETS_METER, RESULT_TAG, "hit");
+		this.misses = Metrics.counter(GETS_METER, RESULT_TAG, "miss");
+		this.evictions = Metrics.counter(EVICTIONS_METER);
+	}
+
+	/**
+	 * Sets the maximum number of cached task executions and of cached aggregate answers.
+	 * Defaults to {@value #DEFAULT_MAX_ENTRIES}.
+	 * @param maxEntries the maximum number of entries, must be greater than zero.
+	 */
+	public void setMaxEntries(int maxEntries) {
+		Assert.isTrue(maxEntries > 0, "maxEntries must be greater than zero");
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Sets the time running task executions and aggregate answers are cached. A zero
+	 * duration disables their caching. Defaults to one second.
+	 * @param timeToLive the time to live, must not be negative.
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive must not be null");
+		Assert.isTrue(!timeToLive.isNegative(), "timeToLive must not be negative");
+		this.timeToLive = timeToLive.toMillis();
+	}
+
+	void setClock(Clock clock) {
+		Assert.notNull(clock, "clock must not be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Removes the task execution and all the aggregate answers from the cache.
+	 * @param executionId the id of the task execution that was written.
+	 */
+	@Override
+	public synchronized void evict(long executionId) {
+		this.taskExecutions.remove(executionId);
+		this.aggregates.clear();
+		this.generation++;
+	}
+
+	/**
+	 * Removes all the entries from the cache.
+	 */
+	public synchronized void evictAll() {
+		this.taskExecutions.clear();
+		this.aggregates.clear();
+		this.generation++;
+	}
+
+	@Override
+	public TaskExecution getTaskExecution(long executionId) {
+		return copy(get(this.taskExecutions, executionId,
+				() -> copy(this.delegate.getTaskExecution(executionId)),
+				taskExecution -> taskExecution.getEndTime() != null));
+	}
+
+	@Override
+	public List<String> getTaskNames() {
+		List<String> taskNames = getAggregate(new AggregateKey("taskNames", null),
+				() -> new ArrayList<>(this.delegate.getTaskNames()));
+		return new ArrayList<>(taskNames);
+	}
+
+	@Override
+	public long getTaskExecutionCountByTaskName(String taskName) {
+		return getAggregate(new AggregateKey("countByTaskName", taskName),
+				() -> this.delegate.getTaskExecutionCountByTaskName(taskName));
+	}
+
+	@Override
+	public long getTaskExecutionCount() {
+		return getAggregate(new AggregateKey("count", null),
+				this.delegate::getTaskExecutionCount);
+	}
+
+	@Override
+	public long getRunningTaskExecutionCount() {
+		return getAggregate(new AggregateKey("runningCount", null),
+				this.delegate::getRunningTaskExecutionCount);
+	}
+
+	@Override
+	public TaskExecution getLatestTaskExecutionForTaskName(String taskName) {
+		return copy(getAggregate(new AggregateKey("latestForTaskName", taskName),
+				() -> copy(this.delegate.getLatestTaskExecutionForTaskName(taskName))));
+	}
+
+	@Override
+	public Page<TaskExecution> findRunningTaskExecutions(String taskName,
+			Pageable pageable) {
+		return this.delegate.findRunningTaskExecutions(taskName, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsByName(String taskName,
+			Pageable pageable) {
+		return this.delegate.findTaskExecutionsByName(taskName, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsStartedBetween(Date startTimeFrom,
+			Date startTimeTo, Pageable pageable) {
+		return this.delegate.findTaskExecutionsStartedBetween(startTimeFrom,
+				startTimeTo, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsByNameStartedBetween(String taskName,
+			Date startTimeFrom, Date startTimeTo, Pageable pageable) {
+		return this.delegate.findTaskExecutionsByNameStartedBetween(taskName,
+				startTimeFrom, startTimeTo, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionCriteria criteria,
+			Pageable pageable) {
+		return this.delegate.findTaskExecutions(criteria, pageable);
+	}
+
+	@Override
+	public List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria) {
+		return this.delegate.getTaskExecutionStatistics(criteria);
+	}
+
+	@Override
+	public List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria, Duration bucketSize) {
+		return this.delegate.getTaskExecutionStatistics(criteria, bucketSize);
+	}
+
+	@Override
+	public Page<TaskExecution> findAll(Pageable pageable) {
+		return this.delegate.findAll(pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findAllAsSlice(Pageable pageable) {
+		return this.delegate.findAllAsSlice(pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findTaskExecutionsByNameAsSlice(String taskName,
+			Pageable pageable) {
+		return this.delegate.findTaskExecutionsByNameAsSlice(taskName, pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findRunningTaskExecutionsAsSlice(String taskName,
+			Pageable pageable) {
+		return this.delegate.findRunningTaskExecutionsAsSlice(taskName, pageable);
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecution after, int limit) {
+		return this.delegate.findAll(after, limit);
+	}
+
+	@Override
+	public List<TaskExecution> findTaskExecutionsByName(String taskName,
+			TaskExecution after, int limit) {
+		return this.delegate.findTaskExecutionsByName(taskName, after, limit);
+	}
+
+	@Override
+	public void streamTaskExecutions(String taskName,
+			Consumer<TaskExecution> consumer) {
+		this.delegate.streamTaskExecutions(taskName, consumer);
+	}
+
+	@Override
+	public void streamTaskExecutions(TaskExecutionCriteria criteria,
+			Consumer<TaskExecution> consumer) {
+		this.delegate.streamTaskExecutions(criteria, consumer);
+	}
+
+	@Override
+	public List<TaskExecution> findCompletedTaskExecutionsEndedBefore(Date endTime,
+			int limit) {
+		return this.delegate.findCompletedTaskExecutionsEndedBefore(endTime, limit);
+	}
+
+	@Override
+	public List<TaskExecution> findCompletedTaskExecutionsBeyondLatest(String taskName,
+			int retainedCount, int limit) {
+		return this.delegate.findCompletedTaskExecutionsBeyondLatest(taskName,
+				retainedCount, limit);
+	}
+
+	@Override
+	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+		return this.delegate.getTaskExecutionIdByJobExecutionId(jobExecutionId);
+	}
+
+	@Override
+	public Set<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId) {
+		return this.delegate.getJobExecutionIdsByTaskExecutionId(taskExecutionId);
+	}
+
+	@Override
+	public Map<Long, Set<Long>> getJobExecutionIdsByTaskExecutionIds(
+			Collection<Long> taskExecutionIds) {
+		return this.delegate.getJobExecutionIdsByTaskExecutionIds(taskExecutionIds);
+	}
+
+	@Override
+	public List<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames) {
+		return this.delegate.getLatestTaskExecutionsByTaskNames(taskNames);
+	}
+
+	private <T> T getAggregate(AggregateKey key, Supplier<T> loader) {
+		return get(this.aggregates, key, loader, value -> false);
+	}
+
+	/**
+	 * Returns the cached value of the key, or loads and caches it. Null values are not
+	 * cached.
+	 * @param cache the cache holding the key.
+	 * @param key the key of the value.
+	 * @param loader loads the value from the delegate.
+	 * @param complete whether the loaded value no longer changes and is cached until
+	 * evicted.
+	 */
+	@SuppressWarnings("unchecked")
+	private <K, T> T get(Map<K, CacheEntry> cache, K key, Supplier<T> loader,
+			Predicate<T> complete) {
+		long loadGeneration;
+		synchronized (this) {
+			CacheEntry entry = cache.get(key);
+			if (entry != null) {
+				if (entry.expiration > this.clock.millis()) {
+					this.hits.increment();
+					return (T) entry.value;
+				}
+				cache.remove(key);
+				this.evictions.increment();
+			}
+			loadGeneration = this.generation;
+		}
+		this.misses.increment();
+		T value = loader.get();
+		if (value == null) {
+			return null;
+		}
+		long expiration = complete.test(value) ? NO_EXPIRATION
+				: this.clock.millis() + this.timeToLive;
+		if (expiration == NO_EXPIRATION || this.timeToLive > 0) {
+			put(cache, key, new CacheEntry(value, expiration), loadGeneration);
+		}
+		return value;
+	}
+
+	private synchronized <K> void put(Map<K, CacheEntry> cache, K key, CacheEntry entry,
+			long loadGeneration) {
+		if (loadGeneration != this.generation) {
+			return;
+		}
+		cache.put(key, entry);
+		Iterator<CacheEntry> leastRecentlyUsed = cache.values().iterator();
+		while (cache.size() > this.maxEntries) {
+			leastRecentlyUsed.next();
+			leastRecentlyUsed.remove();
+			this.evictions.increment();
+		}
+	}
+
+	/**
+	 * Copies the task execution, so that the cached instance is neither shared with the
+	 * delegate nor with the caller.
+	 */
+	private static TaskExecution copy(TaskExecution taskExecution) {
+		if (taskExecution == null) {
+			return null;
+		}
+		return new TaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getTaskName(),
+				taskExecution.getStartTime(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getArguments(),
+				taskExecution.getErrorMessage(), taskExecution.getExternalExecutionId(),
+				taskExecution.getParentExecutionId());
+	}
+
+	private static final class CacheEntry {
+
+		private final Object value;
+
+		private final long expiration;
+
+		private CacheEntry(Object value, long expiration) {
+			this.value = value;
+			this.expiration = expiration;
+		}
+
+	}
+
+	/**
+	 * Identifies an aggregate answer by its query and the argument of the query.
+	 */
+	private static final class AggregateKey {
+
+		private final String query;
+
+		private final String argument;
+
+		private AggregateKey(String query, String argument) {
+			this.query = query;
+			this.argument = argument;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof AggregateKey)) {
+				return false;
+			}
+			AggregateKey that = (AggregateKey) o;
+			return this.query.equals(that.query)
+					&& ObjectUtils.nullSafeEquals(this.argument, that.argument);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.query.hashCode() + ObjectUtils.nullSafeHashCode(this.argument);
+		}
+
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.Assert;
+
+import static org.springframework.cloud.task.repository.support.DatabaseType.DB2;
+import static org.springframework.cloud.task.repository.support.DatabaseType.H2;
+import static org.springframework.cloud.task.repository.support.DatabaseType.MYSQL;
+import static org.springframework.cloud.task.repository.support.DatabaseType.ORACLE;
+import static org.springframework.cloud.task.repository.support.DatabaseType.POSTGRES;
+import static org.springframework.cloud.task.repository.support.DatabaseType.SQLSERVER;
+
+/**
+ * The type, version and SQL capabilities of a database. The dialect of a
+ * {@link DataSource} is resolved from its meta data once, with a single connection, and
+ * shared by the task repository components that use the same {@link DataSource}.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public final class DatabaseDialect {
+
+	/**
+	 * The dialects of the data sources resolved so far. The data sources are weakly
+	 * referenced, so an entry is kept as long as its data source is in use and removed
+	 * once the data source is garbage collected.
+	 */
+	private static final Map<DataSource, DatabaseDialect> dialects = Collections
+			.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * The minimum major version of the databases that support the SQL:2008
+	 * {@code OFFSET/FETCH} clause.
+	 */
+	private static final Map<DatabaseType, Integer> offsetFetchMinimumVersions = new EnumMap<>(
+			DatabaseType.class);
+
+	/**
+	 * The minimum major version of the databases that support window functions. H2 is
+	 * checked separately, see {@link #isH2WindowFunctionSupported(String)}.
+	 */
+	private static final Map<DatabaseType, Integer> windowFunctionMinimumVersions = new EnumMap<>(
+			DatabaseType.class);
+
+	static {
+		offsetFetchMinimumVersions.put(ORACLE, 12);
+		offsetFetchMinimumVersions.put(SQLSERVER, 11);
+		offsetFetchMinimumVersions.put(DB2, 11);
+		windowFunctionMinimumVersions.put(POSTGRES, 9);
+		windowFunctionMinimumVersions.put(MYSQL, 8);
+		windowFunctionMinimumVersions.put(ORACLE, 12);
+		windowFunctionMinimumVersions.put(SQLSERVER, 11);
+		windowFunctionMinimumVersions.put(DB2, 11);
+	}
+
+	private final DatabaseType databaseType;
+
+	private final String productVersion;
+
+	private final int majorVersion;
+
+	private final boolean offsetFetchSupported;
+
+	private final boolean windowFunctionSupported;
+
+	/**
+	 * Creates the dialect of a database whose type and version are known.
+	 * @param databaseType the type of the database
+	 * @param productVersion the product version reported by the database, may be null
+	 * @param majorVersion the major version reported by the database
+	 */
+	public DatabaseDialect(DatabaseType databaseType, String productVersion,
+			int majorVersion) {
+		Assert.notNull(databaseType, "databaseType must not be null");
+		this.databaseType = databaseType;
+		this.productVersion = productVersion;
+		this.majorVersion = majorVersion;
+		this.offsetFetchSupported = isMinimumVersion(
+				offsetFetchMinimumVersions.get(databaseType), majorVersion);
+		this.windowFunctionSupported = (databaseType == H2)
+				? isH2WindowFunctionSupported(productVersion)
+				: isMinimumVersion(windowFunctionMinimumVersions.get(databaseType),
+						majorVersion);
+	}
+
+	/**
+	 * Returns the dialect of the data source provided, reading the database meta data
+	 * the first time the data source is used.
+	 * @param dataSource the data source of the database
+	 * @return the dialect of the database
+	 * @throws MetaDataAccessException if the database meta data cannot be read
+	 */
+	public static DatabaseDialect fromDataSource(DataSource dataSource)
+			throws MetaDataAccessException {
+		Assert.notNull(dataSource, "dataSource must not be null");
+		DatabaseDialect dialect = dialects.get(dataSource);
+		if (dialect == null) {
+			dialect = JdbcUtils.extractDatabaseMetaData(dataSource,
+					(metaData) -> new DatabaseDialect(
+							DatabaseType.fromProductNameAndVersion(
+									metaData.getDatabaseProductName(),
+									metaData.getDatabaseProductVersion()),
+							metaData.getDatabaseProductVersion(),
+							metaData.getDatabaseMajorVersion()));
+			dialects.put(dataSource, dialect);
+		}
+		return dialect;
+	}
+
+	/**
+	 * @return the type of the database
+	 */
+	public DatabaseType getDatabaseType() {
+		return this.databaseType;
+	}
+
+	/**
+	 * @return the product version reported by the database, may be null
+	 */
+	public String getProductVersion() {
+		return this.productVersion;
+	}
+
+	/**
+	 * @return the major version reported by the database
+	 */
+	public int getMajorVersion() {
+		return this.majorVersion;
+	}
+
+	/**
+	 * @return whether the database supports the SQL:2008 {@code OFFSET/FETCH} clause
+	 */
+	public boolean isOffsetFetchSupported() {
+		return this.offsetFetchSupported;
+	}
+
+	/**
+	 * @return whether the database supports window functions, such as
+	 * {@code COUNT(*) OVER()} and {@code ROW_NUMBER() OVER (PARTITION BY ...)}
+	 */
+	public boolean isWindowFunctionSupported() {
+		return this.windowFunctionSupported;
+	}
+
+	private static boolean isMinimumVersion(Integer minimumVersion, int majorVersion) {
+		return minimumVersion != null && majorVersion >= minimumVersion;
+	}
+
+	/**
+	 * Window functions are available as of H2 1.4.198. The build number is only
+	 * reported as part of the product version, e.g. {@code 1.4.200 (2019-10-14)}.
+	 */
+	private static boolean isH2WindowFunctionSupported(String productVersion) {
+		if (productVersion == null) {
+			return false;
+		}
+		String[] version = productVersion.split("[ .]");
+		if (version.length < 3) {
+			return false;
+		}
+		try {
+			int major = Integer.parseInt(version[0]);
+			int minor = Integer.parseInt(version[1]);
+			int build = Integer.parseInt(version[2]);
+			return major > 1
+					|| (major == 1 && (minor > 4 || (minor == 4 && build >= 198)));
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DatabaseDialect{" + "databaseType=" + this.databaseType
+				+ ", productVersion='" + this.productVersion + '\'' + ", majorVersion="
+				+ this.majorVersion + ", offsetFetchSupported="
+				+ this.offsetFetchSupported + ", windowFunctionSupported="
+				+ this.windowFunctionSupported + '}';
+	}
+
+}
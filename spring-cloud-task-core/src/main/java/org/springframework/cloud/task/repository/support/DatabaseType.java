@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -116,6 +116,21 @@ public enum DatabaseType {
 			String databaseProductVersion = JdbcUtils
 					.extractDatabaseMetaData(dataSource, "getDatabaseProductVersion")
 					.toString();
+			return fromProductNameAndVersion(databaseProductName,
+					databaseProductVersion);
+		}
+		return fromProductNameAndVersion(databaseProductName, null);
+	}
+
+	/**
+	 * Returns the database type of the product name and version reported by the
+	 * database meta data. The version is only used to tell the DB2 variants apart.
+	 */
+	static DatabaseType fromProductNameAndVersion(String databaseProductName,
+			String databaseProductVersion) {
+		if (StringUtils.hasText(databaseProductName)
+				&& !databaseProductName.equals("DB2/Linux")
+				&& databaseProductName.startsWith("DB2")) {
 			if (databaseProductVersion.startsWith("ARI")) {
 				databaseProductName = "DB2VSE";
 			}
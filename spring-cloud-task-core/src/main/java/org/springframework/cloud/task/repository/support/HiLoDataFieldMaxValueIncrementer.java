@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataFieldMaxValueIncrementer} that reserves a block of values with each call to
+ * the delegate incrementer (hi/lo algorithm). A value {@code hi} obtained from the
+ * delegate reserves the values {@code hi * blockSize} to
+ * {@code hi * blockSize + blockSize - 1}, which are then handed out without a round trip
+ * to the database.
+ *
+ * <p>
+ * Values are increasing within an instance and all values handed out by instances
+ * sharing the same delegate sequence and block size are unique. Values reserved but not
+ * used before the application stops are lost, leaving gaps. All the applications that
+ * share a task repository must use the same block size, and must not mix this
+ * incrementer with the plain sequence. When a number of values is requested at once,
+ * the hi values of all the blocks required are obtained together if the delegate is a
+ * {@link BulkDataFieldMaxValueIncrementer}.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class HiLoDataFieldMaxValueIncrementer
+		implements BulkDataFieldMaxValueIncrementer {
+
+	private final DataFieldMaxValueIncrementer delegate;
+
+	private final int blockSize;
+
+	private long nextValue;
+
+	private long blockLimit;
+
+	/**
+	 * Creates a hi/lo incrementer.
+	 * @param delegate the incrementer that provides the hi values, usually backed by a
+	 * database sequence.
+	 * @param blockSize the number of values reserved with each call to the delegate.
+	 */
+	public HiLoDataFieldMaxValueIncrementer(DataFieldMaxValueIncrementer delegate,
+			int blockSize) {
+		Assert.notNull(delegate, "delegate must not be null");
+		Assert.isTrue(blockSize > 0, "blockSize must be greater than zero");
+		this.delegate = delegate;
+		this.blockSize = blockSize;
+	}
+
+	@Override
+	public int nextIntValue() throws DataAccessException {
+		return (int) nextLongValue();
+	}
+
+	@Override
+	public synchronized long nextLongValue() throws DataAccessException {
+		if (this.nextValue >= this.blockLimit) {
+			long hi = this.delegate.nextLongValue();
+			this.nextValue = Math.multiplyExact(hi, (long) this.blockSize);
+			this.blockLimit = this.nextValue + this.blockSize;
+		}
+		return this.nextValue++;
+	}
+
+	@Override
+	public synchronized long[] nextLongValues(int count) throws DataAccessException {
+		Assert.isTrue(count >= 0, "count must not be negative");
+		long[] values = new long[count];
+		int index = 0;
+		while (index < count && this.nextValue < this.blockLimit) {
+			values[index++] = this.nextValue++;
+		}
+		int blocks = (count - index + this.blockSize - 1) / this.blockSize;
+		long[] hiValues;
+		if (this.delegate instanceof BulkDataFieldMaxValueIncrementer) {
+			hiValues = ((BulkDataFieldMaxValueIncrementer) this.delegate)
+					.nextLongValues(blocks);
+		}
+		else {
+			hiValues = new long[blocks];
+			for (int i = 0; i < blocks; i++) {
+				hiValues[i] = this.delegate.nextLongValue();
+			}
+		}
+		for (long hi : hiValues) {
+			this.nextValue = Math.multiplyExact(hi, (long) this.blockSize);
+			this.blockLimit = this.nextValue + this.blockSize;
+			while (index < count && this.nextValue < this.blockLimit) {
+				values[index++] = this.nextValue++;
+			}
+		}
+		return values;
+	}
+
+	@Override
+	public String nextStringValue() throws DataAccessException {
+		return String.valueOf(nextLongValue());
+	}
+
+}
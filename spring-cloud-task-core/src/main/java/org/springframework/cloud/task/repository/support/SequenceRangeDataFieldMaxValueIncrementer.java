@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link BulkDataFieldMaxValueIncrementer} that obtains any number of values of a
+ * database sequence with a single query, by selecting the next value of the sequence
+ * for each row of a generated row set. Single values are obtained from the delegate
+ * incrementer of the sequence.
+ *
+ * <p>
+ * Only databases that can generate row sets are supported, see
+ * {@link #supports(DatabaseType)}.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class SequenceRangeDataFieldMaxValueIncrementer
+		implements BulkDataFieldMaxValueIncrementer {
+
+	private static final Map<DatabaseType, String> RANGE_QUERIES = new EnumMap<>(
+			DatabaseType.class);
+
+	static {
+		RANGE_QUERIES.put(DatabaseType.H2,
+				"select next value for %SEQUENCE% from system_range(1, ?)");
+		RANGE_QUERIES.put(DatabaseType.POSTGRES,
+				"select nextval('%SEQUENCE%') from generate_series(1, ?)");
+		RANGE_QUERIES.put(DatabaseType.ORACLE,
+				"select %SEQUENCE%.nextval from dual connect by level <= ?");
+	}
+
+	private final DataFieldMaxValueIncrementer delegate;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final String rangeQuery;
+
+	/**
+	 * Creates a sequence range incrementer.
+	 * @param dataSource the data source of the sequence.
+	 * @param databaseType the type of the database, must be supported.
+	 * @param sequenceName the name of the sequence.
+	 * @param delegate the incrementer used to obtain single values of the sequence.
+	 */
+	public SequenceRangeDataFieldMaxValueIncrementer(DataSource dataSource,
+			DatabaseType databaseType, String sequenceName,
+			DataFieldMaxValueIncrementer delegate) {
+		Assert.notNull(dataSource, "dataSource must not be null");
+		Assert.isTrue(supports(databaseType),
+				"Sequence ranges are not supported for " + databaseType);
+		Assert.hasText(sequenceName, "sequenceName must not be empty");
+		Assert.notNull(delegate, "delegate must not be null");
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.rangeQuery = RANGE_QUERIES.get(databaseType).replace("%SEQUENCE%",
+				sequenceName);
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Indicates whether sequence ranges can be obtained with a single query for the
+	 * database type provided.
+	 * @param databaseType the type of the database.
+	 * @return true if the database type is supported.
+	 */
+	public static boolean supports(DatabaseType databaseType) {
+		return RANGE_QUERIES.containsKey(databaseType);
+	}
+
+	@Override
+	public long[] nextLongValues(int count) throws DataAccessException {
+		Assert.isTrue(count >= 0, "count must not be negative");
+		if (count == 0) {
+			return new long[0];
+		}
+		List<Long> values = this.jdbcTemplate.queryForList(this.rangeQuery, Long.class,
+				count);
+		if (values.size() != count) {
+			throw new IllegalStateException("Expected " + count
+					+ " sequence values, but obtained " + values.size());
+		}
+		long[] result = new long[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = values.get(i);
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	@Override
+	public int nextIntValue() throws DataAccessException {
+		return this.delegate.nextIntValue();
+	}
+
+	@Override
+	public long nextLongValue() throws DataAccessException {
+		return this.delegate.nextLongValue();
+	}
+
+	@Override
+	public String nextStringValue() throws DataAccessException {
+		return this.delegate.nextStringValue();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,22 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCriteria;
+import org.springframework.cloud.task.repository.TaskExecutionStatistics;
 import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.util.Assert;
 
 /**
@@ -87,11 +95,98 @@ public class SimpleTaskExplorer implements TaskExplorer {
 		return this.taskExecutionDao.findTaskExecutionsByName(taskName, pageable);
 	}
 
+	@Override
+	public Page<TaskExecution> findTaskExecutionsStartedBetween(Date startTimeFrom,
+			Date startTimeTo, Pageable pageable) {
+		return this.taskExecutionDao.findTaskExecutionsStartedBetween(startTimeFrom,
+				startTimeTo, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsByNameStartedBetween(String taskName,
+			Date startTimeFrom, Date startTimeTo, Pageable pageable) {
+		return this.taskExecutionDao.findTaskExecutionsByNameStartedBetween(taskName,
+				startTimeFrom, startTimeTo, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionCriteria criteria,
+			Pageable pageable) {
+		return this.taskExecutionDao.findTaskExecutions(criteria, pageable);
+	}
+
+	@Override
+	public List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria) {
+		return this.taskExecutionDao.getTaskExecutionStatistics(criteria, null);
+	}
+
+	@Override
+	public List<TaskExecutionStatistics> getTaskExecutionStatistics(
+			TaskExecutionCriteria criteria, Duration bucketSize) {
+		Assert.notNull(bucketSize, "bucketSize must not be null");
+		return this.taskExecutionDao.getTaskExecutionStatistics(criteria, bucketSize);
+	}
+
 	@Override
 	public Page<TaskExecution> findAll(Pageable pageable) {
 		return this.taskExecutionDao.findAll(pageable);
 	}
 
+	@Override
+	public Slice<TaskExecution> findAllAsSlice(Pageable pageable) {
+		return this.taskExecutionDao.findAllAsSlice(pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findTaskExecutionsByNameAsSlice(String taskName,
+			Pageable pageable) {
+		return this.taskExecutionDao.findTaskExecutionsByNameAsSlice(taskName, pageable);
+	}
+
+	@Override
+	public Slice<TaskExecution> findRunningTaskExecutionsAsSlice(String taskName,
+			Pageable pageable) {
+		return this.taskExecutionDao.findRunningTaskExecutionsAsSlice(taskName,
+				pageable);
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecution after, int limit) {
+		return this.taskExecutionDao.findAll(after, limit);
+	}
+
+	@Override
+	public List<TaskExecution> findTaskExecutionsByName(String taskName,
+			TaskExecution after, int limit) {
+		return this.taskExecutionDao.findTaskExecutionsByName(taskName, after, limit);
+	}
+
+	@Override
+	public void streamTaskExecutions(String taskName,
+			Consumer<TaskExecution> consumer) {
+		this.taskExecutionDao.streamTaskExecutions(taskName, consumer);
+	}
+
+	@Override
+	public void streamTaskExecutions(TaskExecutionCriteria criteria,
+			Consumer<TaskExecution> consumer) {
+		this.taskExecutionDao.streamTaskExecutions(criteria, consumer);
+	}
+
+	@Override
+	public List<TaskExecution> findCompletedTaskExecutionsEndedBefore(Date endTime,
+			int limit) {
+		return this.taskExecutionDao.findCompletedTaskExecutionsEndedBefore(endTime, limit);
+	}
+
+	@Override
+	public List<TaskExecution> findCompletedTaskExecutionsBeyondLatest(String taskName,
+			int retainedCount, int limit) {
+		return this.taskExecutionDao.findCompletedTaskExecutionsBeyondLatest(taskName,
+				retainedCount, limit);
+	}
+
 	@Override
 	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
 		return this.taskExecutionDao.getTaskExecutionIdByJobExecutionId(jobExecutionId);
@@ -102,6 +197,13 @@ public class SimpleTaskExplorer implements TaskExplorer {
 		return this.taskExecutionDao.getJobExecutionIdsByTaskExecutionId(taskExecutionId);
 	}
 
+	@Override
+	public Map<Long, Set<Long>> getJobExecutionIdsByTaskExecutionIds(
+			Collection<Long> taskExecutionIds) {
+		return this.taskExecutionDao
+				.getJobExecutionIdsByTaskExecutionIds(taskExecutionIds);
+	}
+
 	@Override
 	public List<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames) {
 		return this.taskExecutionDao.getLatestTaskExecutionsByTaskNames(taskNames);
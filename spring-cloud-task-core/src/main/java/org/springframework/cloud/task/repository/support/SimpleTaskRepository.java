@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -27,6 +28,8 @@ import org.springframework.beans.factory.FactoryBean;
 import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 /**
@@ -65,6 +68,8 @@ public class SimpleTaskRepository implements TaskRepository {
 
 	private int maxErrorMessageSize = MAX_ERROR_MESSAGE_SIZE;
 
+	private TaskExecutionCacheEvictor cacheEvictor;
+
 	public SimpleTaskRepository(
 			FactoryBean<TaskExecutionDao> taskExecutionDaoFactoryBean) {
 		Assert.notNull(taskExecutionDaoFactoryBean,
@@ -101,19 +106,32 @@ public class SimpleTaskRepository implements TaskRepository {
 			Date endTime, String exitMessage, String errorMessage) {
 		initialize();
 
-		validateCompletedTaskExitInformation(executionId, exitCode, endTime);
-		exitMessage = trimMessage(exitMessage, this.maxExitMessageSize);
-		errorMessage = trimMessage(errorMessage, this.maxErrorMessageSize);
-		this.taskExecutionDao.completeTaskExecution(executionId, exitCode, endTime,
-				exitMessage, errorMessage);
-		logger.debug("Updating: TaskExecution with executionId=" + executionId
-				+ " with the following {" + "exitCode=" + exitCode + ", endTime="
-				+ endTime + ", exitMessage='" + exitMessage + '\'' + ", errorMessage='"
-				+ errorMessage + '\'' + '}');
+		storeCompletedTaskExecution(executionId, exitCode, endTime,
+				trimMessage(exitMessage, this.maxExitMessageSize),
+				trimMessage(errorMessage, this.maxErrorMessageSize));
 
 		return this.taskExecutionDao.getTaskExecution(executionId);
 	}
 
+	/**
+	 * Stores the exit information of the given task execution and returns it, with its
+	 * exit and error messages trimmed to the maximum sizes, without reading it back.
+	 */
+	@Override
+	public TaskExecution completeTaskExecution(TaskExecution taskExecution) {
+		initialize();
+
+		taskExecution.setExitMessage(
+				trimMessage(taskExecution.getExitMessage(), this.maxExitMessageSize));
+		taskExecution.setErrorMessage(
+				trimMessage(taskExecution.getErrorMessage(), this.maxErrorMessageSize));
+		storeCompletedTaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getErrorMessage());
+
+		return taskExecution;
+	}
+
 	@Override
 	public TaskExecution createTaskExecution(TaskExecution taskExecution) {
 		initialize();
@@ -123,15 +141,44 @@ public class SimpleTaskRepository implements TaskRepository {
 				taskExecution.getArguments(), taskExecution.getExternalExecutionId(),
 				taskExecution.getParentExecutionId());
 		logger.debug("Creating: " + taskExecution.toString());
+		evictFromCache(daoTaskExecution.getExecutionId());
 		return daoTaskExecution;
 	}
 
+	@Override
+	public List<TaskExecution> createTaskExecutions(List<TaskExecution> taskExecutions) {
+		initialize();
+		Assert.notNull(taskExecutions, "taskExecutions must not be null");
+		for (TaskExecution taskExecution : taskExecutions) {
+			validateTaskNameSize(taskExecution);
+		}
+		List<TaskExecution> daoTaskExecutions = this.taskExecutionDao
+				.createTaskExecutions(taskExecutions);
+		logger.debug("Created " + daoTaskExecutions.size() + " task executions");
+		for (TaskExecution daoTaskExecution : daoTaskExecutions) {
+			evictFromCache(daoTaskExecution.getExecutionId());
+		}
+		return daoTaskExecutions;
+	}
+
+	@Override
+	public int deleteTaskExecutions(Collection<Long> executionIds) {
+		initialize();
+		int deleted = this.taskExecutionDao.deleteTaskExecutions(executionIds);
+		logger.debug("Deleted " + deleted + " task executions");
+		for (long executionId : executionIds) {
+			evictFromCache(executionId);
+		}
+		return deleted;
+	}
+
 	@Override
 	public TaskExecution createTaskExecution(String name) {
 		initialize();
 		TaskExecution taskExecution = this.taskExecutionDao.createTaskExecution(name,
 				null, Collections.<String>emptyList(), null);
 		logger.debug("Creating: " + taskExecution.toString());
+		evictFromCache(taskExecution.getExecutionId());
 		return taskExecution;
 	}
 
@@ -151,6 +198,7 @@ public class SimpleTaskRepository implements TaskRepository {
 	public void updateExternalExecutionId(long executionid, String externalExecutionId) {
 		initialize();
 		this.taskExecutionDao.updateExternalExecutionId(executionid, externalExecutionId);
+		evictFromCache(executionid);
 	}
 
 	@Override
@@ -162,9 +210,46 @@ public class SimpleTaskRepository implements TaskRepository {
 				executionid, taskName, startTime, arguments, externalExecutionId,
 				parentExecutionId);
 		logger.debug("Starting: " + taskExecution.toString());
+		evictFromCache(executionid);
 		return taskExecution;
 	}
 
+	private void storeCompletedTaskExecution(long executionId, Integer exitCode,
+			Date endTime, String exitMessage, String errorMessage) {
+		validateCompletedTaskExitInformation(executionId, exitCode, endTime);
+		this.taskExecutionDao.completeTaskExecution(executionId, exitCode, endTime,
+				exitMessage, errorMessage);
+		logger.debug("Updating: TaskExecution with executionId=" + executionId
+				+ " with the following {" + "exitCode=" + exitCode + ", endTime="
+				+ endTime + ", exitMessage='" + exitMessage + '\'' + ", errorMessage='"
+				+ errorMessage + '\'' + '}');
+		evictFromCache(executionId);
+	}
+
+	/**
+	 * Evicts the task execution from the cache, once the transaction the task execution
+	 * was written in commits, so that the cache is not loaded again with the state of the
+	 * task execution before the write.
+	 */
+	private void evictFromCache(long executionId) {
+		TaskExecutionCacheEvictor cacheEvictor = this.cacheEvictor;
+		if (cacheEvictor == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager
+					.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCommit() {
+							cacheEvictor.evict(executionId);
+						}
+					});
+		}
+		else {
+			cacheEvictor.evict(executionId);
+		}
+	}
+
 	/**
 	 * Retrieves the taskExecutionDao associated with this repository.
 	 * @return the taskExecutionDao
@@ -194,7 +279,10 @@ public class SimpleTaskRepository implements TaskRepository {
 	private void validateCreateInformation(TaskExecution taskExecution) {
 		Assert.notNull(taskExecution.getStartTime(),
 				"TaskExecution start time cannot be null.");
+		validateTaskNameSize(taskExecution);
+	}
 
+	private void validateTaskNameSize(TaskExecution taskExecution) {
 		if (taskExecution.getTaskName() != null
 				&& taskExecution.getTaskName().length() > this.maxTaskNameSize) {
 			throw new IllegalArgumentException(
@@ -229,4 +317,15 @@ public class SimpleTaskRepository implements TaskRepository {
 		this.maxErrorMessageSize = maxErrorMessageSize;
 	}
 
+	/**
+	 * Sets the cache to invalidate when a task execution is written by this repository,
+	 * such as a {@link CachingTaskExplorer}. Writes made within a transaction invalidate
+	 * the cache once the transaction commits.
+	 * @param cacheEvictor the cache evictor, or null for none.
+	 * @since 2.3.0
+	 */
+	public void setCacheEvictor(TaskExecutionCacheEvictor cacheEvictor) {
+		this.cacheEvictor = cacheEvictor;
+	}
+
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+/**
+ * Evicts the cached state of a task execution once it has been written, see
+ * {@link SimpleTaskRepository#setCacheEvictor(TaskExecutionCacheEvictor)}.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+@FunctionalInterface
+public interface TaskExecutionCacheEvictor {
+
+	/**
+	 * Evicts the cached state of the task execution.
+	 * @param executionId the id of the task execution that was written.
+	 */
+	void evict(long executionId);
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.time.Duration;
+
 import javax.sql.DataSource;
 
 import org.springframework.batch.item.database.support.DataFieldMaxValueIncrementerFactory;
@@ -26,6 +28,7 @@ import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
 import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
 import org.springframework.util.Assert;
 
 /**
@@ -43,6 +46,22 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 
 	private String tablePrefix = TaskProperties.DEFAULT_TABLE_PREFIX;
 
+	private DataFieldMaxValueIncrementer taskIncrementer;
+
+	private int incrementerBlockSize = 1;
+
+	private int mapRepositoryMaxEntries;
+
+	private Duration mapRepositoryMaxAge;
+
+	private long mapRepositoryMaxWeight;
+
+	private Integer streamFetchSize;
+
+	private boolean startTimePartitioned;
+
+	private boolean windowFunctionsEnabled;
+
 	/**
 	 * Default constructor will result in a Map based TaskExecutionDao. <b>This is only
 	 * intended for testing purposes.</b>
@@ -71,6 +90,101 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 		this.dataSource = dataSource;
 	}
 
+	/**
+	 * Sets the incrementer used to obtain the ids of new task executions, e.g. a
+	 * {@link TimeOrderedDataFieldMaxValueIncrementer}. If not set, the ids are obtained
+	 * from the task sequence of the database. Ignored by the Map based TaskExecutionDao.
+	 * @param taskIncrementer the incrementer to use.
+	 * @since 2.3.0
+	 */
+	public void setTaskIncrementer(DataFieldMaxValueIncrementer taskIncrementer) {
+		this.taskIncrementer = taskIncrementer;
+	}
+
+	/**
+	 * Sets the number of task execution ids reserved with each access to the task
+	 * sequence of the database. If greater than 1 the sequence values are used as the
+	 * hi part of a {@link HiLoDataFieldMaxValueIncrementer}. Defaults to 1, where each
+	 * task execution id is a value of the sequence. All the applications sharing a task
+	 * repository must use the same block size. Ignored if a task incrementer is set.
+	 * @param incrementerBlockSize the number of ids reserved per sequence access.
+	 * @since 2.3.0
+	 */
+	public void setIncrementerBlockSize(int incrementerBlockSize) {
+		Assert.isTrue(incrementerBlockSize > 0,
+				"incrementerBlockSize must be greater than zero");
+		this.incrementerBlockSize = incrementerBlockSize;
+	}
+
+	/**
+	 * Sets the maximum number of task executions retained by the Map based
+	 * TaskExecutionDao. Ignored if a {@link DataSource} is used.
+	 * @param mapRepositoryMaxEntries the maximum number of task executions, or 0 for no
+	 * limit.
+	 * @since 2.3.0
+	 * @see MapTaskExecutionDao#setMaxEntries(int)
+	 */
+	public void setMapRepositoryMaxEntries(int mapRepositoryMaxEntries) {
+		this.mapRepositoryMaxEntries = mapRepositoryMaxEntries;
+	}
+
+	/**
+	 * Sets the time completed task executions are retained by the Map based
+	 * TaskExecutionDao. Ignored if a {@link DataSource} is used.
+	 * @param mapRepositoryMaxAge the time completed task executions are retained, or null
+	 * for no limit.
+	 * @since 2.3.0
+	 * @see MapTaskExecutionDao#setMaxAge(Duration)
+	 */
+	public void setMapRepositoryMaxAge(Duration mapRepositoryMaxAge) {
+		this.mapRepositoryMaxAge = mapRepositoryMaxAge;
+	}
+
+	/**
+	 * Sets the maximum total weight of the task executions retained by the Map based
+	 * TaskExecutionDao. Ignored if a {@link DataSource} is used.
+	 * @param mapRepositoryMaxWeight the maximum total weight, or 0 for no limit.
+	 * @since 2.3.0
+	 * @see MapTaskExecutionDao#setMaxWeight(long)
+	 */
+	public void setMapRepositoryMaxWeight(long mapRepositoryMaxWeight) {
+		this.mapRepositoryMaxWeight = mapRepositoryMaxWeight;
+	}
+
+	/**
+	 * Sets the number of rows fetched per round trip when task executions are streamed
+	 * by the JDBC based TaskExecutionDao. Ignored by the Map based TaskExecutionDao.
+	 * @param streamFetchSize the fetch size to use, or null for the default of the
+	 * database.
+	 * @since 2.3.0
+	 * @see JdbcTaskExecutionDao#setStreamFetchSize(int)
+	 */
+	public void setStreamFetchSize(Integer streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	/**
+	 * Sets whether the task tables are partitioned by start time. Ignored by the Map
+	 * based TaskExecutionDao.
+	 * @param startTimePartitioned whether the task tables are partitioned by start time.
+	 * @since 2.3.0
+	 * @see JdbcTaskExecutionDao#setStartTimePartitioned(boolean)
+	 */
+	public void setStartTimePartitioned(boolean startTimePartitioned) {
+		this.startTimePartitioned = startTimePartitioned;
+	}
+
+	/**
+	 * Sets whether the latest task executions are selected with window functions where
+	 * the database supports them. Ignored by the Map based TaskExecutionDao.
+	 * @param windowFunctionsEnabled whether to use window functions where supported.
+	 * @since 2.3.0
+	 * @see JdbcTaskExecutionDao#setWindowFunctionsEnabled(boolean)
+	 */
+	public void setWindowFunctionsEnabled(boolean windowFunctionsEnabled) {
+		this.windowFunctionsEnabled = windowFunctionsEnabled;
+	}
+
 	@Override
 	public TaskExecutionDao getObject() throws Exception {
 		if (this.dao == null) {
@@ -78,7 +192,11 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 				buildTaskExecutionDao(this.dataSource);
 			}
 			else {
-				this.dao = new MapTaskExecutionDao();
+				MapTaskExecutionDao mapTaskExecutionDao = new MapTaskExecutionDao();
+				mapTaskExecutionDao.setMaxEntries(this.mapRepositoryMaxEntries);
+				mapTaskExecutionDao.setMaxAge(this.mapRepositoryMaxAge);
+				mapTaskExecutionDao.setMaxWeight(this.mapRepositoryMaxWeight);
+				this.dao = mapTaskExecutionDao;
 			}
 		}
 
@@ -96,18 +214,41 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 	}
 
 	private void buildTaskExecutionDao(DataSource dataSource) {
+		JdbcTaskExecutionDao jdbcTaskExecutionDao = new JdbcTaskExecutionDao(dataSource,
+				this.tablePrefix);
+		jdbcTaskExecutionDao.setTaskIncrementer(this.taskIncrementer != null
+				? this.taskIncrementer : buildSequenceIncrementer(dataSource));
+		if (this.streamFetchSize != null) {
+			jdbcTaskExecutionDao.setStreamFetchSize(this.streamFetchSize);
+		}
+		jdbcTaskExecutionDao.setStartTimePartitioned(this.startTimePartitioned);
+		jdbcTaskExecutionDao.setWindowFunctionsEnabled(this.windowFunctionsEnabled);
+		this.dao = jdbcTaskExecutionDao;
+	}
+
+	private DataFieldMaxValueIncrementer buildSequenceIncrementer(
+			DataSource dataSource) {
 		DataFieldMaxValueIncrementerFactory incrementerFactory = new DefaultDataFieldMaxValueIncrementerFactory(
 				dataSource);
-		this.dao = new JdbcTaskExecutionDao(dataSource, this.tablePrefix);
-		String databaseType;
+		DatabaseType databaseType;
 		try {
-			databaseType = DatabaseType.fromMetaData(dataSource).name();
+			databaseType = DatabaseDialect.fromDataSource(dataSource).getDatabaseType();
 		}
 		catch (MetaDataAccessException e) {
 			throw new IllegalStateException(e);
 		}
-		((JdbcTaskExecutionDao) this.dao).setTaskIncrementer(incrementerFactory
-				.getIncrementer(databaseType, this.tablePrefix + "SEQ"));
+		String sequenceName = this.tablePrefix + "SEQ";
+		DataFieldMaxValueIncrementer incrementer = incrementerFactory
+				.getIncrementer(databaseType.name(), sequenceName);
+		if (SequenceRangeDataFieldMaxValueIncrementer.supports(databaseType)) {
+			incrementer = new SequenceRangeDataFieldMaxValueIncrementer(dataSource,
+					databaseType, sequenceName, incrementer);
+		}
+		if (this.incrementerBlockSize > 1) {
+			incrementer = new HiLoDataFieldMaxValueIncrementer(incrementer,
+					this.incrementerBlockSize);
+		}
+		return incrementer;
 	}
 
 }
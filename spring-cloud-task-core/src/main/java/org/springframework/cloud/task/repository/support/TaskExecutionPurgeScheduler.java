@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Runs a {@link TaskExecutionPurger} on a background thread when the application starts
+ * and then at a fixed interval, purging the completed task executions older than a
+ * maximum age and the completed task executions of each task beyond a retained count.
+ * Failed purges are logged and retried at the next interval.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class TaskExecutionPurgeScheduler implements InitializingBean, DisposableBean {
+
+	/**
+	 * Default interval between the end of a purge and the start of the next one.
+	 */
+	public static final Duration DEFAULT_INTERVAL = Duration.ofHours(1);
+
+	private static final Log logger = LogFactory
+			.getLog(TaskExecutionPurgeScheduler.class);
+
+	private final TaskExecutionPurger purger;
+
+	private Duration interval = DEFAULT_INTERVAL;
+
+	private Duration maxAge;
+
+	private int retainedCount;
+
+	private ScheduledExecutorService scheduler;
+
+	public TaskExecutionPurgeScheduler(TaskExecutionPurger purger) {
+		Assert.notNull(purger, "purger must not be null");
+		this.purger = purger;
+	}
+
+	/**
+	 * Sets the interval between the end of a purge and the start of the next one.
+	 * Defaults to {@link #DEFAULT_INTERVAL}.
+	 * @param interval the interval between purges.
+	 */
+	public void setInterval(Duration interval) {
+		Assert.isTrue(interval != null && !interval.isNegative() && !interval.isZero(),
+				"interval must be positive");
+		this.interval = interval;
+	}
+
+	/**
+	 * Sets the time completed task executions are retained after their end time.
+	 * Defaults to null, no limit.
+	 * @param maxAge the time completed task executions are retained, or null for no
+	 * limit.
+	 */
+	public void setMaxAge(Duration maxAge) {
+		Assert.isTrue(maxAge == null || !maxAge.isNegative(),
+				"maxAge must not be negative");
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Sets the number of most recent completed task executions retained per task name.
+	 * Defaults to 0, no limit.
+	 * @param retainedCount the number of completed task executions retained per task
+	 * name, or 0 for no limit.
+	 */
+	public void setRetainedCount(int retainedCount) {
+		Assert.isTrue(retainedCount >= 0, "retainedCount must not be negative");
+		this.retainedCount = retainedCount;
+	}
+
+	/**
+	 * Purges the task executions that exceed the maximum age or the retained count.
+	 * @return the number of task executions purged.
+	 */
+	public long purge() {
+		long purged = 0;
+		if (this.maxAge != null) {
+			purged += this.purger.purgeTaskExecutionsEndedBefore(
+					new Date(System.currentTimeMillis() - this.maxAge.toMillis()));
+		}
+		if (this.retainedCount > 0) {
+			purged += this.purger.purgeTaskExecutionsBeyondLatest(this.retainedCount);
+		}
+		return purged;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		Assert.state(this.maxAge != null || this.retainedCount > 0,
+				"A maxAge or a retainedCount is required to purge task executions");
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"task-execution-purger-");
+		threadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.scheduler.scheduleWithFixedDelay(this::purgeAndLogFailures, 0,
+				this.interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the background thread, interrupting a running purge. The chunks already
+	 * deleted remain deleted.
+	 */
+	@Override
+	public void destroy() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+		}
+	}
+
+	private void purgeAndLogFailures() {
+		try {
+			long purged = purge();
+			logger.info("Purged " + purged + " task executions");
+		}
+		catch (RuntimeException e) {
+			logger.error("Unable to purge the task executions", e);
+		}
+	}
+
+}
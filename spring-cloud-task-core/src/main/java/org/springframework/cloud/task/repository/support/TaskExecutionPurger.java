@@ -0,0 +1,318 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.util.Assert;
+
+/**
+ * Purges completed task executions, along with their arguments and batch job
+ * associations, in chunks. Each chunk is looked up through the {@link TaskExplorer} and
+ * deleted by its own call to {@link TaskRepository#deleteTaskExecutions(Collection)}, so
+ * that each transaction only deletes (and locks) the rows of a single chunk. Running
+ * task executions are never purged.
+ *
+ * <p>
+ * If an archive directory is set, the task executions of each chunk are appended to a
+ * gzip compressed file in that directory before they are deleted, one JSON document per
+ * line and one file per purge. The ids of the batch job executions of each chunk are
+ * looked up together, and only when the task executions are archived.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class TaskExecutionPurger {
+
+	/**
+	 * Default number of task executions deleted per transaction.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 100;
+
+	/**
+	 * Largest number of task executions deleted per transaction, the number of ids that
+	 * can be bound to a single IN clause on all the supported databases.
+	 */
+	public static final int MAX_CHUNK_SIZE = 1000;
+
+	private static final Log logger = LogFactory.getLog(TaskExecutionPurger.class);
+
+	private static final DateTimeFormatter ARCHIVE_TIMESTAMP_FORMATTER = DateTimeFormatter
+			.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+	private final TaskExplorer taskExplorer;
+
+	private final TaskRepository taskRepository;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private Path archiveDirectory;
+
+	/**
+	 * Creates a purger.
+	 * @param taskExplorer the explorer used to find the task executions to purge.
+	 * @param taskRepository the repository the task executions are deleted from.
+	 */
+	public TaskExecutionPurger(TaskExplorer taskExplorer, TaskRepository taskRepository) {
+		Assert.notNull(taskExplorer, "taskExplorer must not be null");
+		Assert.notNull(taskRepository, "taskRepository must not be null");
+		this.taskExplorer = taskExplorer;
+		this.taskRepository = taskRepository;
+	}
+
+	/**
+	 * Sets the number of task executions deleted per transaction. Defaults to
+	 * {@link #DEFAULT_CHUNK_SIZE}.
+	 * @param chunkSize the number of task executions deleted per transaction, at most
+	 * {@link #MAX_CHUNK_SIZE}.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0 && chunkSize <= MAX_CHUNK_SIZE,
+				"chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Sets the directory the purged task executions are archived to. Defaults to null,
+	 * where the task executions are not archived.
+	 * @param archiveDirectory the archive directory, created if it does not exist.
+	 */
+	public void setArchiveDirectory(Path archiveDirectory) {
+		this.archiveDirectory = archiveDirectory;
+	}
+
+	/**
+	 * Purges the completed task executions that ended before the time provided.
+	 * @param endTime the time before which the purged task executions ended.
+	 * @return the number of task executions purged.
+	 */
+	public long purgeTaskExecutionsEndedBefore(Date endTime) {
+		Assert.notNull(endTime, "endTime must not be null");
+		try (Archive archive = new Archive()) {
+			return purge(archive, () -> this.taskExplorer
+					.findCompletedTaskExecutionsEndedBefore(endTime, this.chunkSize));
+		}
+	}
+
+	/**
+	 * Purges the completed task executions of each task, except the most recent ones.
+	 * @param retainedCount the number of most recent completed task executions retained
+	 * per task name.
+	 * @return the number of task executions purged.
+	 */
+	public long purgeTaskExecutionsBeyondLatest(int retainedCount) {
+		Assert.isTrue(retainedCount >= 0, "retainedCount must not be negative");
+		long purged = 0;
+		try (Archive archive = new Archive()) {
+			for (String taskName : this.taskExplorer.getTaskNames()) {
+				if (taskName != null) {
+					purged += purge(archive,
+							() -> this.taskExplorer.findCompletedTaskExecutionsBeyondLatest(
+									taskName, retainedCount, this.chunkSize));
+				}
+			}
+		}
+		return purged;
+	}
+
+	private long purge(Archive archive, Supplier<List<TaskExecution>> chunks) {
+		long purged = 0;
+		List<TaskExecution> chunk;
+		do {
+			chunk = chunks.get();
+			if (chunk.isEmpty()) {
+				break;
+			}
+			archive.write(chunk);
+			List<Long> executionIds = new ArrayList<>(chunk.size());
+			for (TaskExecution taskExecution : chunk) {
+				executionIds.add(taskExecution.getExecutionId());
+			}
+			int deleted = this.taskRepository.deleteTaskExecutions(executionIds);
+			if (deleted == 0) {
+				logger.warn("None of the task executions " + executionIds
+						+ " could be deleted, stopping the purge");
+				break;
+			}
+			purged += deleted;
+		}
+		while (chunk.size() == this.chunkSize);
+		if (purged > 0) {
+			logger.debug("Purged " + purged + " task executions");
+		}
+		return purged;
+	}
+
+	private static void appendJson(StringBuilder json, String value) {
+		if (value == null) {
+			json.append("null");
+			return;
+		}
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				json.append("\\\"");
+				break;
+			case '\\':
+				json.append("\\\\");
+				break;
+			case '\n':
+				json.append("\\n");
+				break;
+			case '\r':
+				json.append("\\r");
+				break;
+			case '\t':
+				json.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					json.append(String.format("\\u%04x", (int) c));
+				}
+				else {
+					json.append(c);
+				}
+			}
+		}
+		json.append('"');
+	}
+
+	private static void appendJson(StringBuilder json, Date value) {
+		appendJson(json, (value != null) ? value.toInstant().toString() : null);
+	}
+
+	/**
+	 * Archive file of a single purge, created when the first task execution is written.
+	 */
+	private final class Archive implements AutoCloseable {
+
+		private Writer writer;
+
+		void write(List<TaskExecution> taskExecutions) {
+			if (TaskExecutionPurger.this.archiveDirectory == null) {
+				return;
+			}
+			List<Long> executionIds = new ArrayList<>(taskExecutions.size());
+			for (TaskExecution taskExecution : taskExecutions) {
+				executionIds.add(taskExecution.getExecutionId());
+			}
+			Map<Long, Set<Long>> jobExecutionIds = TaskExecutionPurger.this.taskExplorer
+					.getJobExecutionIdsByTaskExecutionIds(executionIds);
+			try {
+				if (this.writer == null) {
+					this.writer = open();
+				}
+				for (TaskExecution taskExecution : taskExecutions) {
+					this.writer.write(toJson(taskExecution,
+							jobExecutionIds.get(taskExecution.getExecutionId())));
+					this.writer.write('\n');
+				}
+				// written through to the file before the task executions are deleted
+				this.writer.flush();
+			}
+			catch (IOException e) {
+				throw new IllegalStateException(
+						"Unable to archive the purged task executions", e);
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.writer != null) {
+				try {
+					this.writer.close();
+				}
+				catch (IOException e) {
+					throw new IllegalStateException(
+							"Unable to close the task execution archive", e);
+				}
+			}
+		}
+
+		private Writer open() throws IOException {
+			Path archiveDirectory = TaskExecutionPurger.this.archiveDirectory;
+			Files.createDirectories(archiveDirectory);
+			Path file = Files.createTempFile(archiveDirectory, "task-executions-"
+					+ ARCHIVE_TIMESTAMP_FORMATTER.format(new Date().toInstant()) + "-",
+					".json.gz");
+			logger.info("Archiving the purged task executions to " + file);
+			return new BufferedWriter(new OutputStreamWriter(
+					new GZIPOutputStream(Files.newOutputStream(file), true),
+					StandardCharsets.UTF_8));
+		}
+
+		private String toJson(TaskExecution taskExecution, Set<Long> jobExecutionIds) {
+			StringBuilder json = new StringBuilder("{\"executionId\":")
+					.append(taskExecution.getExecutionId());
+			json.append(",\"taskName\":");
+			appendJson(json, taskExecution.getTaskName());
+			json.append(",\"startTime\":");
+			appendJson(json, taskExecution.getStartTime());
+			json.append(",\"endTime\":");
+			appendJson(json, taskExecution.getEndTime());
+			json.append(",\"exitCode\":").append(taskExecution.getExitCode());
+			json.append(",\"exitMessage\":");
+			appendJson(json, taskExecution.getExitMessage());
+			json.append(",\"errorMessage\":");
+			appendJson(json, taskExecution.getErrorMessage());
+			json.append(",\"externalExecutionId\":");
+			appendJson(json, taskExecution.getExternalExecutionId());
+			json.append(",\"parentExecutionId\":")
+					.append(taskExecution.getParentExecutionId());
+			json.append(",\"arguments\":[");
+			List<String> arguments = taskExecution.getArguments();
+			for (int i = 0; i < arguments.size(); i++) {
+				json.append((i > 0) ? "," : "");
+				appendJson(json, arguments.get(i));
+			}
+			json.append("],\"jobExecutionIds\":[");
+			if (jobExecutionIds != null) {
+				int i = 0;
+				for (Long jobExecutionId : jobExecutionIds) {
+					json.append((i++ > 0) ? "," : "").append(jobExecutionId);
+				}
+			}
+			return json.append("]}").toString();
+		}
+
+	}
+
+}
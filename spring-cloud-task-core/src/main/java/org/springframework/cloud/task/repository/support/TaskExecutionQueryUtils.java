@@ -0,0 +1,224 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.Assert;
+
+/**
+ * Utility class that implements the task execution queries added in 2.3.0 on top of the
+ * slice queries, for the {@link org.springframework.cloud.task.repository.TaskExplorer}
+ * and {@link org.springframework.cloud.task.repository.dao.TaskExecutionDao}
+ * implementations that do not provide them.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public final class TaskExecutionQueryUtils {
+
+	/**
+	 * The number of task executions read per slice.
+	 */
+	public static final int SLICE_SIZE = 100;
+
+	private TaskExecutionQueryUtils() {
+	}
+
+	/**
+	 * Passes the task executions of consecutive slices, starting with the first one, to
+	 * the visitor until the visitor returns false or the last slice has been visited.
+	 * @param slices the query returning the slice of the pageable provided
+	 * @param visitor the visitor of the task executions, returning whether to continue
+	 */
+	public static void forEach(Function<Pageable, Slice<TaskExecution>> slices,
+			Predicate<TaskExecution> visitor) {
+		Slice<TaskExecution> slice = slices.apply(PageRequest.of(0, SLICE_SIZE));
+		while (true) {
+			for (TaskExecution taskExecution : slice) {
+				if (!visitor.test(taskExecution)) {
+					return;
+				}
+			}
+			if (!slice.hasNext()) {
+				return;
+			}
+			slice = slices.apply(slice.nextPageable());
+		}
+	}
+
+	/**
+	 * Retrieves up to limit task executions that follow the provided task execution,
+	 * sorted by start time descending, task execution id descending. The slices are
+	 * expected in that order and are read from the first one, task executions without a
+	 * start time are skipped.
+	 * @param slices the query returning the slice of the pageable provided
+	 * @param after the last task execution of the previous page or {@code null} to
+	 * retrieve the first page
+	 * @param limit the maximum number of task executions to return
+	 * @return list of task executions. May be empty but never null.
+	 */
+	public static List<TaskExecution> findAfter(
+			Function<Pageable, Slice<TaskExecution>> slices, TaskExecution after,
+			int limit) {
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		Assert.isTrue(after == null || after.getStartTime() != null,
+				"The task execution to seek after must have a start time");
+		List<TaskExecution> result = new ArrayList<>(limit);
+		forEach(slices, (taskExecution) -> {
+			if (taskExecution.getStartTime() != null && follows(taskExecution, after)) {
+				result.add(taskExecution);
+			}
+			return result.size() < limit;
+		});
+		return result;
+	}
+
+	/**
+	 * Retrieves the page of the task executions that match the predicate, in the order of
+	 * the slices. Every slice is read to count the matching task executions.
+	 * @param slices the query returning the slice of the pageable provided
+	 * @param predicate the predicate of the task executions to retrieve
+	 * @param pageable the page of the matching task executions to retrieve
+	 * @return page of the matching task executions
+	 */
+	public static Page<TaskExecution> findMatching(
+			Function<Pageable, Slice<TaskExecution>> slices,
+			Predicate<TaskExecution> predicate, Pageable pageable) {
+		Assert.notNull(predicate, "predicate must not be null");
+		Assert.notNull(pageable, "pageable must not be null");
+		long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+		long end = pageable.isPaged() ? offset + pageable.getPageSize() : Long.MAX_VALUE;
+		List<TaskExecution> content = new ArrayList<>();
+		AtomicLong total = new AtomicLong();
+		forEach(slices, (taskExecution) -> {
+			if (predicate.test(taskExecution)) {
+				long index = total.getAndIncrement();
+				if (index >= offset && index < end) {
+					content.add(taskExecution);
+				}
+			}
+			return true;
+		});
+		return new PageImpl<>(content, pageable, total.get());
+	}
+
+	/**
+	 * Retrieves the page of the task executions that started within the bounds provided,
+	 * in the order of the slices. Task executions without a start time only match when
+	 * neither bound is set.
+	 * @param slices the query returning the slice of the pageable provided
+	 * @param startTimeFrom the inclusive lower bound of the start times, or null for no
+	 * lower bound
+	 * @param startTimeTo the exclusive upper bound of the start times, or null for no
+	 * upper bound
+	 * @param pageable the page of the matching task executions to retrieve
+	 * @return page of the task executions that started within the bounds
+	 */
+	public static Page<TaskExecution> findStartedBetween(
+			Function<Pageable, Slice<TaskExecution>> slices, Date startTimeFrom,
+			Date startTimeTo, Pageable pageable) {
+		return findMatching(slices, (taskExecution) -> {
+			Date startTime = taskExecution.getStartTime();
+			if (startTime == null) {
+				return startTimeFrom == null && startTimeTo == null;
+			}
+			return (startTimeFrom == null || !startTime.before(startTimeFrom))
+					&& (startTimeTo == null || startTime.before(startTimeTo));
+		}, pageable);
+	}
+
+	/**
+	 * Retrieves up to limit completed task executions that ended before the time
+	 * provided, sorted by task execution id ascending. Every slice is read.
+	 * @param slices the query returning the slice of the pageable provided
+	 * @param endTime the time before which the task executions ended
+	 * @param limit the maximum number of task executions to return
+	 * @return the completed task executions that ended before the end time
+	 */
+	public static List<TaskExecution> findCompletedEndedBefore(
+			Function<Pageable, Slice<TaskExecution>> slices, Date endTime, int limit) {
+		Assert.notNull(endTime, "endTime must not be null");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		// the task executions with the highest ids first, so the head is evicted
+		PriorityQueue<TaskExecution> lowestIds = new PriorityQueue<>(limit + 1,
+				Comparator.comparingLong(TaskExecution::getExecutionId).reversed());
+		forEach(slices, (taskExecution) -> {
+			if (taskExecution.getEndTime() != null
+					&& taskExecution.getEndTime().before(endTime)) {
+				lowestIds.add(taskExecution);
+				if (lowestIds.size() > limit) {
+					lowestIds.poll();
+				}
+			}
+			return true;
+		});
+		List<TaskExecution> result = new ArrayList<>(lowestIds);
+		result.sort(Comparator.comparingLong(TaskExecution::getExecutionId));
+		return result;
+	}
+
+	/**
+	 * Retrieves up to limit completed task executions, skipping the most recent ones.
+	 * The slices are expected sorted by start time descending, task execution id
+	 * descending, and are read from the first one.
+	 * @param slices the query returning the slice of the pageable provided
+	 * @param retainedCount the number of most recent completed task executions to skip
+	 * @param limit the maximum number of task executions to return
+	 * @return the completed task executions beyond the most recent ones
+	 */
+	public static List<TaskExecution> findCompletedBeyondLatest(
+			Function<Pageable, Slice<TaskExecution>> slices, int retainedCount,
+			int limit) {
+		Assert.isTrue(retainedCount >= 0, "retainedCount must not be negative");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		List<TaskExecution> result = new ArrayList<>(limit);
+		AtomicInteger skipped = new AtomicInteger();
+		forEach(slices, (taskExecution) -> {
+			if (taskExecution.getEndTime() != null
+					&& skipped.getAndIncrement() >= retainedCount) {
+				result.add(taskExecution);
+			}
+			return result.size() < limit;
+		});
+		return result;
+	}
+
+	private static boolean follows(TaskExecution taskExecution, TaskExecution after) {
+		if (after == null) {
+			return true;
+		}
+		int result = after.getStartTime().compareTo(taskExecution.getStartTime());
+		return result > 0 || (result == 0
+				&& taskExecution.getExecutionId() < after.getExecutionId());
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCriteria;
+import org.springframework.cloud.task.repository.TaskExecutionStatistics;
+import org.springframework.util.Assert;
+
+/**
+ * Computes the {@link TaskExecutionStatistics} of the task executions passed to it one
+ * at a time, grouped by task name and, if a bucket size is provided, by time bucket.
+ * Used by the task repositories that do not compute the statistics with a query.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class TaskExecutionStatisticsCollector {
+
+	// task executions may have been created without a task name
+	private final Map<String, Map<Long, StatisticsAccumulator>> accumulators
+			= new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	private final long origin;
+
+	private final long bucketMillis;
+
+	/**
+	 * Creates a collector of the statistics of the task executions matching the criteria.
+	 * @param criteria the criteria of the task executions, whose start time lower bound
+	 * is the start time of the first bucket
+	 * @param bucketSize the length of the time buckets, or null to not bucket the
+	 * statistics
+	 */
+	public TaskExecutionStatisticsCollector(TaskExecutionCriteria criteria,
+			Duration bucketSize) {
+		Assert.notNull(criteria, "criteria must not be null");
+		if (bucketSize != null) {
+			Assert.isTrue(bucketSize.toMillis() > 0,
+					"bucketSize must be at least one millisecond");
+			Assert.notNull(criteria.getStartTimeFrom(),
+					"The start time lower bound of the criteria must be set to bucket the statistics");
+		}
+		this.origin = (bucketSize != null) ? criteria.getStartTimeFrom().getTime() : 0;
+		this.bucketMillis = (bucketSize != null) ? bucketSize.toMillis() : 0;
+	}
+
+	/**
+	 * Adds a task execution matching the criteria to the statistics.
+	 * @param taskExecution the task execution to add
+	 */
+	public void add(TaskExecution taskExecution) {
+		long bucket = (this.bucketMillis > 0) ? (taskExecution.getStartTime().getTime()
+				- this.origin) / this.bucketMillis : 0;
+		this.accumulators
+				.computeIfAbsent(taskExecution.getTaskName(), (key) -> new TreeMap<>())
+				.computeIfAbsent(bucket, (key) -> new StatisticsAccumulator())
+				.add(taskExecution);
+	}
+
+	/**
+	 * Returns the statistics of the task executions added.
+	 * @return the statistics sorted by task name and bucket start time
+	 */
+	public List<TaskExecutionStatistics> getStatistics() {
+		List<TaskExecutionStatistics> statistics = new ArrayList<>();
+		for (Map.Entry<String, Map<Long, StatisticsAccumulator>> taskEntry
+				: this.accumulators.entrySet()) {
+			for (Map.Entry<Long, StatisticsAccumulator> bucketEntry : taskEntry.getValue()
+					.entrySet()) {
+				Date bucketStartTime = (this.bucketMillis > 0)
+						? new Date(this.origin + bucketEntry.getKey() * this.bucketMillis)
+						: null;
+				statistics.add(bucketEntry.getValue().getStatistics(taskEntry.getKey(),
+						bucketStartTime));
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * Accumulates the statistics of the task executions of a task name and time bucket.
+	 */
+	private static final class StatisticsAccumulator {
+
+		private long executionCount;
+
+		private long runningExecutionCount;
+
+		private long successfulExecutionCount;
+
+		private long failedExecutionCount;
+
+		private Date lastStartTime;
+
+		private long endedExecutionCount;
+
+		private long totalDuration;
+
+		void add(TaskExecution taskExecution) {
+			this.executionCount++;
+			if (taskExecution.getEndTime() == null) {
+				this.runningExecutionCount++;
+			}
+			if (taskExecution.getExitCode() != null) {
+				if (taskExecution.getExitCode() == 0) {
+					this.successfulExecutionCount++;
+				}
+				else {
+					this.failedExecutionCount++;
+				}
+			}
+			Date startTime = taskExecution.getStartTime();
+			if (startTime != null && (this.lastStartTime == null
+					|| startTime.after(this.lastStartTime))) {
+				this.lastStartTime = startTime;
+			}
+			if (startTime != null && taskExecution.getEndTime() != null) {
+				this.endedExecutionCount++;
+				this.totalDuration += taskExecution.getEndTime().getTime()
+						- startTime.getTime();
+			}
+		}
+
+		TaskExecutionStatistics getStatistics(String taskName, Date bucketStartTime) {
+			return new TaskExecutionStatistics(taskName, bucketStartTime,
+					this.executionCount, this.runningExecutionCount,
+					this.successfulExecutionCount, this.failedExecutionCount,
+					this.lastStartTime,
+					(this.endedExecutionCount > 0) ? Duration.ofMillis(Math
+							.round((double) this.totalDuration / this.endedExecutionCount))
+							: null);
+		}
+
+	}
+
+}
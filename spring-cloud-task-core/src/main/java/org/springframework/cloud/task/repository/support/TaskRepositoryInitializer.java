@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import javax.sql.DataSource;
 
 import org.apache.commons.logging.Log;
@@ -25,7 +29,10 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.task.configuration.TaskProperties;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.jdbc.support.JdbcUtils;
@@ -42,6 +49,14 @@ import org.springframework.jdbc.support.MetaDataAccessException;
  * <code>spring.cloud.task.initialize-enabled</code> to false.
  * <code>spring.cloud.task.initialize.enable</code> has been deprecated.
  *
+ * When <code>spring.cloud.task.start-time-partitioning-enabled</code> is true, the
+ * variant of the schema partitioned by start time is used instead.
+ *
+ * The version of the schema is recorded in the <code>TASK_SCHEMA_VERSION</code> table.
+ * When it is the current version, the initializer only reads it. When it is missing, the
+ * schema script is run, followed by the migration scripts if the task tables already
+ * existed. When it is older, the migration scripts of the later versions are run.
+ *
  * @author Glenn Renfro
  * @author Michael Minella
  */
@@ -53,6 +68,35 @@ public final class TaskRepositoryInitializer implements InitializingBean {
 	private static final String DEFAULT_SCHEMA_LOCATION = "classpath:org/springframework/"
 			+ "cloud/task/schema-@@platform@@.sql";
 
+	private static final String PARTITIONED_SCHEMA_LOCATION = "classpath:org/springframework/"
+			+ "cloud/task/schema-@@platform@@-partitioned.sql";
+
+	private static final String MIGRATION_LOCATION = "classpath:org/springframework/"
+			+ "cloud/task/migration/@@version@@/migration-@@platform@@.sql";
+
+	/**
+	 * The schema versions that have migration scripts, oldest first.
+	 */
+	private static final List<String> SCHEMA_VERSIONS = Collections
+			.unmodifiableList(Arrays.asList("1.1.x", "1.2.x", "2.2.x", "2.3.x"));
+
+	/**
+	 * The version of the schema created by the schema scripts.
+	 */
+	static final String SCHEMA_VERSION = SCHEMA_VERSIONS.get(SCHEMA_VERSIONS.size() - 1);
+
+	private static final String SCHEMA_VERSION_QUERY = "SELECT VERSION FROM "
+			+ "TASK_SCHEMA_VERSION";
+
+	private static final String TASK_TABLES_QUERY = "SELECT TASK_EXECUTION_ID FROM "
+			+ "TASK_EXECUTION WHERE 1 = 0";
+
+	private static final String INSERT_SCHEMA_VERSION = "INSERT INTO "
+			+ "TASK_SCHEMA_VERSION (VERSION) VALUES (?)";
+
+	private static final String DELETE_OTHER_SCHEMA_VERSIONS = "DELETE FROM "
+			+ "TASK_SCHEMA_VERSION WHERE VERSION <> ?";
+
 	/**
 	 * Path to the SQL file to use to initialize the database schema.
 	 */
@@ -82,9 +126,8 @@ public final class TaskRepositoryInitializer implements InitializingBean {
 
 	private String getDatabaseType(DataSource dataSource) {
 		try {
-			return JdbcUtils
-					.commonDatabaseName(DatabaseType.fromMetaData(dataSource).toString())
-					.toLowerCase();
+			return JdbcUtils.commonDatabaseName(DatabaseDialect.fromDataSource(dataSource)
+					.getDatabaseType().toString()).toLowerCase();
 		}
 		catch (MetaDataAccessException ex) {
 			throw new IllegalStateException("Unable to detect database type", ex);
@@ -114,14 +157,114 @@ public final class TaskRepositoryInitializer implements InitializingBean {
 			if ("sqlserver".equals(platform)) {
 				platform = "sqlserver";
 			}
+			Resource schemaResource = getSchemaResource(platform);
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+			String schemaVersion = getSchemaVersion(jdbcTemplate);
+			if (SCHEMA_VERSION.equals(schemaVersion)) {
+				logger.debug(String.format("Task schema for %s database is up to date",
+						platform));
+				return;
+			}
+			int schemaVersionIndex = SCHEMA_VERSIONS.indexOf(schemaVersion);
+			if (schemaVersion != null && schemaVersionIndex < 0) {
+				logger.debug(String.format(
+						"Task schema version %s is unknown, skipping initialization",
+						schemaVersion));
+				return;
+			}
 			ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
-			String schemaLocation = schema;
-			schemaLocation = schemaLocation.replace("@@platform@@", platform);
-			populator.addScript(this.resourceLoader.getResource(schemaLocation));
+			if (schemaVersion == null) {
+				boolean taskTablesExist = isTaskTablesExist(jdbcTemplate);
+				populator.addScript(schemaResource);
+				if (!taskTablesExist) {
+					// the schema script creates the current version
+					schemaVersionIndex = SCHEMA_VERSIONS.size() - 1;
+				}
+			}
+			String migrationPlatform = "oracle10g".equals(platform) ? "oracle"
+					: platform;
+			for (String version : SCHEMA_VERSIONS.subList(schemaVersionIndex + 1,
+					SCHEMA_VERSIONS.size())) {
+				Resource migrationResource = this.resourceLoader
+						.getResource(MIGRATION_LOCATION.replace("@@version@@", version)
+								.replace("@@platform@@", migrationPlatform));
+				if (migrationResource.exists()) {
+					populator.addScript(migrationResource);
+				}
+			}
 			populator.setContinueOnError(true);
-			logger.debug(
-					String.format("Initializing task schema for %s database", platform));
+			logger.debug(String.format(
+					"Initializing task schema version %s for %s database (was %s)",
+					SCHEMA_VERSION, platform, schemaVersion));
 			DatabasePopulatorUtils.execute(populator, this.dataSource);
+			setSchemaVersion(jdbcTemplate);
+		}
+	}
+
+	private Resource getSchemaResource(String platform) {
+		String schemaLocation = this.taskProperties.isStartTimePartitioningEnabled()
+				? PARTITIONED_SCHEMA_LOCATION : schema;
+		schemaLocation = schemaLocation.replace("@@platform@@", platform);
+		Resource schemaResource = this.resourceLoader.getResource(schemaLocation);
+		if (this.taskProperties.isStartTimePartitioningEnabled()
+				&& !schemaResource.exists()) {
+			throw new IllegalStateException(
+					String.format("The task schema %s is not available for %s databases",
+							schemaLocation, platform));
+		}
+		return schemaResource;
+	}
+
+	/**
+	 * Returns the latest known version recorded in the schema version table, the first
+	 * unknown version if there is no known version, or null if the table is missing or
+	 * empty.
+	 */
+	private String getSchemaVersion(JdbcTemplate jdbcTemplate) {
+		List<String> versions;
+		try {
+			versions = jdbcTemplate.queryForList(SCHEMA_VERSION_QUERY, String.class);
+		}
+		catch (DataAccessException ex) {
+			return null;
+		}
+		String schemaVersion = null;
+		for (String version : versions) {
+			if (schemaVersion == null || SCHEMA_VERSIONS
+					.indexOf(version) > SCHEMA_VERSIONS.indexOf(schemaVersion)) {
+				schemaVersion = version;
+			}
+		}
+		return schemaVersion;
+	}
+
+	private boolean isTaskTablesExist(JdbcTemplate jdbcTemplate) {
+		try {
+			jdbcTemplate.queryForList(TASK_TABLES_QUERY);
+			return true;
+		}
+		catch (DataAccessException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Records the current schema version. The version is inserted before the other
+	 * versions are deleted, so that tasks starting meanwhile never find an empty table.
+	 */
+	private void setSchemaVersion(JdbcTemplate jdbcTemplate) {
+		try {
+			if (jdbcTemplate.queryForList(SCHEMA_VERSION_QUERY, String.class)
+					.contains(SCHEMA_VERSION)) {
+				jdbcTemplate.update(DELETE_OTHER_SCHEMA_VERSIONS, SCHEMA_VERSION);
+				return;
+			}
+			jdbcTemplate.update(INSERT_SCHEMA_VERSION, SCHEMA_VERSION);
+			jdbcTemplate.update(DELETE_OTHER_SCHEMA_VERSIONS, SCHEMA_VERSION);
+		}
+		catch (DataAccessException ex) {
+			logger.warn("Unable to record the task schema version, the task schema "
+					+ "will be initialized again at the next startup", ex);
 		}
 	}
 
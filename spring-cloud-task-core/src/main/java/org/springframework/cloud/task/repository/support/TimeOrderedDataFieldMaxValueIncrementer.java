@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Clock;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataFieldMaxValueIncrementer} that generates time ordered 64 bit values without
+ * accessing the database. Each value is composed of the milliseconds elapsed since
+ * 2020-01-01T00:00:00Z (41 bits), the node id (10 bits) and a sequence number within the
+ * millisecond (12 bits).
+ *
+ * <p>
+ * Values are increasing within an instance, even if the system clock moves backwards.
+ * Values generated by instances with different node ids never collide, so each
+ * application that shares a task repository at the same time must use its own node id.
+ * The generated values are larger than the values of the task sequence of an existing
+ * repository, so the incrementer can be introduced without migrating data.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class TimeOrderedDataFieldMaxValueIncrementer
+		implements DataFieldMaxValueIncrementer {
+
+	/**
+	 * The largest node id supported.
+	 */
+	public static final int MAX_NODE_ID = 1023;
+
+	private static final long EPOCH = 1577836800000L;
+
+	private static final int NODE_ID_BITS = 10;
+
+	private static final int SEQUENCE_BITS = 12;
+
+	private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+	private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+
+	private final long nodeId;
+
+	private final Clock clock;
+
+	private long lastTimestamp = -1;
+
+	private long sequence;
+
+	/**
+	 * Creates a time ordered incrementer.
+	 * @param nodeId the id of this node, between 0 and {@link #MAX_NODE_ID}. Must be
+	 * unique among the applications that create task executions at the same time.
+	 */
+	public TimeOrderedDataFieldMaxValueIncrementer(int nodeId) {
+		this(nodeId, Clock.systemUTC());
+	}
+
+	TimeOrderedDataFieldMaxValueIncrementer(int nodeId, Clock clock) {
+		Assert.isTrue(nodeId >= 0 && nodeId <= MAX_NODE_ID,
+				"nodeId must be between 0 and " + MAX_NODE_ID);
+		Assert.notNull(clock, "clock must not be null");
+		this.nodeId = nodeId;
+		this.clock = clock;
+	}
+
+	@Override
+	public int nextIntValue() throws DataAccessException {
+		return (int) nextLongValue();
+	}
+
+	@Override
+	public synchronized long nextLongValue() throws DataAccessException {
+		long timestamp = Math.max(this.clock.millis() - EPOCH, this.lastTimestamp);
+		if (timestamp == this.lastTimestamp) {
+			this.sequence = (this.sequence + 1) & MAX_SEQUENCE;
+			if (this.sequence == 0) {
+				// sequence exhausted for this millisecond, continue with the next one
+				timestamp++;
+			}
+		}
+		else {
+			this.sequence = 0;
+		}
+		Assert.state(timestamp >= 0 && timestamp <= MAX_TIMESTAMP,
+				"The clock is outside of the range supported by the incrementer");
+		this.lastTimestamp = timestamp;
+		return (timestamp << (NODE_ID_BITS + SEQUENCE_BITS))
+				| (this.nodeId << SEQUENCE_BITS) | this.sequence;
+	}
+
+	@Override
+	public String nextStringValue() throws DataAccessException {
+		return String.valueOf(nextLongValue());
+	}
+
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TaskRepository} that writes the start, the external execution id and the
+ * completion of task executions to a delegate {@link TaskRepository} on a background
+ * thread, so that the application does not wait for the task repository.
+ *
+ * <p>
+ * Task executions are created synchronously, so that their id is returned to the
+ * caller. The writes to the task executions created through this repository are then
+ * queued, the writes to the same task execution are coalesced and the queued writes are
+ * applied together, within a single transaction if a transaction manager is set, see
+ * {@link #setTransactionManager(PlatformTransactionManager)}. Writes to other task
+ * executions are passed through to the delegate synchronously.
+ *
+ * <p>
+ * The queued writes are not visible to the task explorer until they are applied. Failed
+ * writes are logged and dropped. The queued writes are flushed when the repository is
+ * destroyed, waiting at most the flush timeout, see {@link #setFlushTimeout(Duration)}.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class WriteBehindTaskRepository implements TaskRepository, DisposableBean {
+
+	/**
+	 * Default time to wait for the queued writes to be applied when the repository is
+	 * destroyed.
+	 */
+	public static final Duration DEFAULT_FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+	private static final Log logger = LogFactory.getLog(WriteBehindTaskRepository.class);
+
+	private final TaskRepository delegate;
+
+	private final ExecutorService writer;
+
+	/**
+	 * The task executions created through this repository, until their completion is
+	 * written. Guarded by this repository.
+	 */
+	private final Map<Long, TaskExecution> taskExecutions = new HashMap<>();
+
+	/**
+	 * The queued writes by task execution id, guarded by this repository.
+	 */
+	private Map<Long, PendingWrite> pendingWrites = new LinkedHashMap<>();
+
+	/**
+	 * Whether the repository was destroyed, guarded by this repository.
+	 */
+	private boolean closed;
+
+	private TransactionTemplate transactionTemplate;
+
+	private Duration flushTimeout = DEFAULT_FLUSH_TIMEOUT;
+
+	public WriteBehindTaskRepository(TaskRepository delegate) {
+		Assert.notNull(delegate, "delegate must not be null");
+		this.delegate = delegate;
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"task-repository-writer-");
+		threadFactory.setDaemon(true);
+		this.writer = Executors.newSingleThreadExecutor(threadFactory);
+	}
+
+	/**
+	 * Sets the transaction manager used to apply the queued writes within a single
+	 * transaction. By default each write is applied in its own transaction, if any.
+	 * @param transactionManager the transaction manager of the task repository.
+	 */
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = (transactionManager != null)
+				? new TransactionTemplate(transactionManager) : null;
+	}
+
+	/**
+	 * Sets the time to wait for the queued writes to be applied when the repository is
+	 * destroyed. Defaults to 30 seconds.
+	 * @param flushTimeout the flush timeout.
+	 */
+	public void setFlushTimeout(Duration flushTimeout) {
+		Assert.notNull(flushTimeout, "flushTimeout must not be null");
+		this.flushTimeout = flushTimeout;
+	}
+
+	@Override
+	public TaskExecution createTaskExecution(TaskExecution taskExecution) {
+		return register(this.delegate.createTaskExecution(taskExecution));
+	}
+
+	@Override
+	public List<TaskExecution> createTaskExecutions(List<TaskExecution> taskExecutions) {
+		List<TaskExecution> result = this.delegate.createTaskExecutions(taskExecutions);
+		for (TaskExecution taskExecution : result) {
+			register(taskExecution);
+		}
+		return result;
+	}
+
+	@Override
+	public TaskExecution createTaskExecution(String name) {
+		return register(this.delegate.createTaskExecution(name));
+	}
+
+	@Override
+	public TaskExecution createTaskExecution() {
+		return register(this.delegate.createTaskExecution());
+	}
+
+	@Override
+	public TaskExecution startTaskExecution(long executionid, String taskName,
+			Date startTime, List<String> arguments, String externalExecutionId) {
+		return startTaskExecution(executionid, taskName, startTime, arguments,
+				externalExecutionId, null);
+	}
+
+	@Override
+	public TaskExecution startTaskExecution(long executionid, String taskName,
+			Date startTime, List<String> arguments, String externalExecutionId,
+			Long parentExecutionId) {
+		synchronized (this) {
+			TaskExecution taskExecution = getWritableTaskExecution(executionid);
+			if (taskExecution != null) {
+				Assert.isNull(taskExecution.getEndTime(), String.format(
+						"Invalid TaskExecution, ID %s task is already complete",
+						executionid));
+				taskExecution.setTaskName(taskName);
+				taskExecution.setStartTime(startTime);
+				taskExecution.setArguments(arguments);
+				taskExecution.setParentExecutionId(parentExecutionId);
+				if (externalExecutionId != null) {
+					taskExecution.setExternalExecutionId(externalExecutionId);
+				}
+				PendingWrite pendingWrite = enqueue(executionid);
+				pendingWrite.start = new StartWrite(taskName, startTime, arguments,
+						externalExecutionId, parentExecutionId);
+				if (externalExecutionId != null) {
+					pendingWrite.externalExecutionIdUpdated = false;
+				}
+				return copy(taskExecution);
+			}
+		}
+		return this.delegate.startTaskExecution(executionid, taskName, startTime,
+				arguments, externalExecutionId, parentExecutionId);
+	}
+
+	@Override
+	public void updateExternalExecutionId(long executionid, String externalExecutionId) {
+		synchronized (this) {
+			TaskExecution taskExecution = getWritableTaskExecution(executionid);
+			if (taskExecution != null) {
+				taskExecution.setExternalExecutionId(externalExecutionId);
+				PendingWrite pendingWrite = enqueue(executionid);
+				pendingWrite.externalExecutionId = externalExecutionId;
+				pendingWrite.externalExecutionIdUpdated = true;
+				return;
+			}
+		}
+		this.delegate.updateExternalExecutionId(executionid, externalExecutionId);
+	}
+
+	@Override
+	public TaskExecution completeTaskExecution(long executionId, Integer exitCode,
+			Date endTime, String exitMessage) {
+		return completeTaskExecution(executionId, exitCode, endTime, exitMessage, null);
+	}
+
+	@Override
+	public TaskExecution completeTaskExecution(long executionId, Integer exitCode,
+			Date endTime, String exitMessage, String errorMessage) {
+		synchronized (this) {
+			TaskExecution taskExecution = getWritableTaskExecution(executionId);
+			if (taskExecution != null) {
+				complete(taskExecution, exitCode, endTime, exitMessage, errorMessage);
+				return copy(taskExecution);
+			}
+		}
+		return this.delegate.completeTaskExecution(executionId, exitCode, endTime,
+				exitMessage, errorMessage);
+	}
+
+	/**
+	 * Queues the completion of the given task execution and returns it. Unlike the
+	 * delegate, the exit and error messages are not trimmed to their maximum sizes.
+	 */
+	@Override
+	public TaskExecution completeTaskExecution(TaskExecution taskExecution) {
+		synchronized (this) {
+			TaskExecution registeredTaskExecution = getWritableTaskExecution(
+					taskExecution.getExecutionId());
+			if (registeredTaskExecution != null) {
+				complete(registeredTaskExecution, taskExecution.getExitCode(),
+						taskExecution.getEndTime(), taskExecution.getExitMessage(),
+						taskExecution.getErrorMessage());
+				return taskExecution;
+			}
+		}
+		return this.delegate.completeTaskExecution(taskExecution);
+	}
+
+	/**
+	 * Drops the queued writes of the task executions and deletes them synchronously.
+	 */
+	@Override
+	public int deleteTaskExecutions(Collection<Long> executionIds) {
+		Assert.notNull(executionIds, "executionIds must not be null");
+		synchronized (this) {
+			for (Long executionId : executionIds) {
+				this.taskExecutions.remove(executionId);
+				this.pendingWrites.remove(executionId);
+			}
+		}
+		return this.delegate.deleteTaskExecutions(executionIds);
+	}
+
+	/**
+	 * Waits for the writes queued so far to be applied.
+	 * @param timeout the maximum time to wait.
+	 * @return true if the writes were applied, false if the timeout elapsed first.
+	 */
+	public boolean flush(Duration timeout) {
+		Future<?> flushed;
+		try {
+			flushed = this.writer.submit(this::writePendingWrites);
+		}
+		catch (RuntimeException e) {
+			// the writer was shut down, nothing is queued anymore
+			return true;
+		}
+		try {
+			flushed.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		catch (ExecutionException | TimeoutException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Flushes the queued writes, waiting at most the flush timeout, and stops the
+	 * background writer. Writes requested afterwards are applied synchronously.
+	 */
+	@Override
+	public void destroy() {
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+		}
+		if (!flush(this.flushTimeout)) {
+			logger.error("Unable to write the queued task execution updates within "
+					+ this.flushTimeout);
+		}
+		this.writer.shutdown();
+	}
+
+	/**
+	 * Keeps a copy of the created task execution, so that changes made by the caller or
+	 * by the delegate are not reflected by the state the queued writes are checked
+	 * against.
+	 */
+	private synchronized TaskExecution register(TaskExecution taskExecution) {
+		if (!this.closed) {
+			this.taskExecutions.put(taskExecution.getExecutionId(), copy(taskExecution));
+		}
+		return taskExecution;
+	}
+
+	/**
+	 * Returns the task execution if its writes are queued, null if they are passed
+	 * through to the delegate. Must be called while holding the lock of this repository.
+	 */
+	private TaskExecution getWritableTaskExecution(long executionId) {
+		return this.closed ? null : this.taskExecutions.get(executionId);
+	}
+
+	private void complete(TaskExecution taskExecution, Integer exitCode, Date endTime,
+			String exitMessage, String errorMessage) {
+		Assert.notNull(exitCode, "exitCode should not be null");
+		Assert.isTrue(exitCode >= 0, "exit code must be greater than or equal to zero");
+		Assert.notNull(endTime, "TaskExecution endTime cannot be null.");
+		taskExecution.setExitCode(exitCode);
+		taskExecution.setEndTime(endTime);
+		taskExecution.setExitMessage(exitMessage);
+		taskExecution.setErrorMessage(errorMessage);
+		enqueue(taskExecution.getExecutionId()).complete = new CompleteWrite(exitCode,
+				endTime, exitMessage, errorMessage);
+	}
+
+	/**
+	 * Returns the queued writes of the task execution, scheduling the writer if no write
+	 * was queued. Must be called while holding the lock of this repository.
+	 */
+	private PendingWrite enqueue(long executionId) {
+		if (this.pendingWrites.isEmpty()) {
+			this.writer.execute(this::writePendingWrites);
+		}
+		return this.pendingWrites.computeIfAbsent(executionId, PendingWrite::new);
+	}
+
+	private void writePendingWrites() {
+		List<PendingWrite> writes;
+		synchronized (this) {
+			if (this.pendingWrites.isEmpty()) {
+				return;
+			}
+			writes = new ArrayList<>(this.pendingWrites.values());
+			this.pendingWrites = new LinkedHashMap<>();
+		}
+		if (this.transactionTemplate != null && writes.size() > 1) {
+			try {
+				this.transactionTemplate.execute(status -> {
+					writes.forEach(write -> write.writeTo(this.delegate));
+					return null;
+				});
+				writes.forEach(this::written);
+				return;
+			}
+			catch (RuntimeException e) {
+				logger.debug("Unable to write the task executions in a single "
+						+ "transaction, writing them one by one", e);
+			}
+		}
+		for (PendingWrite write : writes) {
+			try {
+				if (this.transactionTemplate != null) {
+					this.transactionTemplate.execute(status -> {
+						write.writeTo(this.delegate);
+						return null;
+					});
+				}
+				else {
+					write.writeTo(this.delegate);
+				}
+			}
+			catch (RuntimeException e) {
+				logger.error("Unable to write the TaskExecution with executionId="
+						+ write.executionId, e);
+			}
+			written(write);
+		}
+	}
+
+	private void written(PendingWrite write) {
+		if (write.complete != null) {
+			synchronized (this) {
+				this.taskExecutions.remove(write.executionId);
+			}
+		}
+	}
+
+	private static TaskExecution copy(TaskExecution taskExecution) {
+		return new TaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getTaskName(),
+				taskExecution.getStartTime(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getArguments(),
+				taskExecution.getErrorMessage(), taskExecution.getExternalExecutionId(),
+				taskExecution.getParentExecutionId());
+	}
+
+	/**
+	 * The writes queued for a task execution, in the order they are applied. Guarded by
+	 * the repository until dequeued.
+	 */
+	private static final class PendingWrite {
+
+		private final long executionId;
+
+		private StartWrite start;
+
+		private boolean externalExecutionIdUpdated;
+
+		private String externalExecutionId;
+
+		private CompleteWrite complete;
+
+		private PendingWrite(long executionId) {
+			this.executionId = executionId;
+		}
+
+		private void writeTo(TaskRepository taskRepository) {
+			if (this.start != null) {
+				taskRepository.startTaskExecution(this.executionId, this.start.taskName,
+						this.start.startTime, this.start.arguments,
+						this.start.externalExecutionId, this.start.parentExecutionId);
+			}
+			if (this.externalExecutionIdUpdated) {
+				taskRepository.updateExternalExecutionId(this.executionId,
+						this.externalExecutionId);
+			}
+			if (this.complete != null) {
+				taskRepository.completeTaskExecution(this.executionId,
+						this.complete.exitCode, this.complete.endTime,
+						this.complete.exitMessage, this.complete.errorMessage);
+			}
+		}
+
+	}
+
+	private static final class StartWrite {
+
+		private final String taskName;
+
+		private final Date startTime;
+
+		private final List<String> arguments;
+
+		private final String externalExecutionId;
+
+		private final Long parentExecutionId;
+
+		private StartWrite(String taskName, Date startTime, List<String> arguments,
+				String externalExecutionId, Long parentExecutionId) {
+			this.taskName = taskName;
+			this.startTime = (startTime != null) ? (Date) startTime.clone() : null;
+			this.arguments = (arguments != null) ? new ArrayList<>(arguments) : null;
+			this.externalExecutionId = externalExecutionId;
+			this.parentExecutionId = parentExecutionId;
+		}
+
+	}
+
+	private static final class CompleteWrite {
+
+		private final Integer exitCode;
+
+		private final Date endTime;
+
+		private final String exitMessage;
+
+		private final String errorMessage;
+
+		private CompleteWrite(Integer exitCode, Date endTime, String exitMessage,
+				String errorMessage) {
+			this.exitCode = exitCode;
+			this.endTime = (Date) endTime.clone();
+			this.exitMessage = exitMessage;
+			this.errorMessage = errorMessage;
+		}
+
+	}
+
+}
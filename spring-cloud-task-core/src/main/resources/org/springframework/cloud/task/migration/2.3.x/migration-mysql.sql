@@ -0,0 +1,13 @@
+CREATE INDEX TASK_EXEC_NAME_START_IX ON TASK_EXECUTION (TASK_NAME, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_START_IX ON TASK_EXECUTION (START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_EXIT_START_IX ON TASK_EXECUTION (EXIT_CODE, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_RUNNING_IX ON TASK_EXECUTION (END_TIME, TASK_NAME);
+CREATE INDEX TASK_EXEC_END_IX ON TASK_EXECUTION (END_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_JOB_IX ON TASK_TASK_BATCH (JOB_EXECUTION_ID);
+
+CREATE TABLE TASK_SCHEMA_VERSION  (
+	VERSION VARCHAR(20) NOT NULL,
+	constraint SCHEMA_VERSION_PK primary key (VERSION)
+) ENGINE=InnoDB;
+
+INSERT INTO TASK_SCHEMA_VERSION (VERSION) VALUES ('2.3.x');
@@ -0,0 +1,15 @@
+CREATE INDEX TASK_EXEC_NAME_START_IX ON TASK_EXECUTION (TASK_NAME, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_START_IX ON TASK_EXECUTION (START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_EXIT_START_IX ON TASK_EXECUTION (EXIT_CODE, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_RUNNING_IX ON TASK_EXECUTION (TASK_NAME) WHERE END_TIME IS NULL;
+CREATE INDEX TASK_EXEC_END_IX ON TASK_EXECUTION (END_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_PARAMS_EXEC_IX ON TASK_EXECUTION_PARAMS (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_EXEC_IX ON TASK_TASK_BATCH (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_JOB_IX ON TASK_TASK_BATCH (JOB_EXECUTION_ID);
+
+CREATE TABLE TASK_SCHEMA_VERSION  (
+  VERSION VARCHAR(20) NOT NULL,
+  constraint SCHEMA_VERSION_PK primary key (VERSION)
+);
+
+INSERT INTO TASK_SCHEMA_VERSION (VERSION) VALUES ('2.3.x');
@@ -0,0 +1,54 @@
+-- Variant of schema-h2.sql with the columns and constraints of the schemas
+-- partitioned by START_TIME. H2 does not partition tables, this variant lets
+-- applications and tests use the partitioned schema layout on an embedded database.
+
+CREATE TABLE TASK_EXECUTION  (
+	TASK_EXECUTION_ID BIGINT NOT NULL ,
+	START_TIME TIMESTAMP DEFAULT NULL ,
+	END_TIME TIMESTAMP DEFAULT NULL ,
+	TASK_NAME  VARCHAR(100) ,
+	EXIT_CODE INTEGER ,
+	EXIT_MESSAGE VARCHAR(2500) ,
+	ERROR_MESSAGE VARCHAR(2500) ,
+	LAST_UPDATED TIMESTAMP,
+	EXTERNAL_EXECUTION_ID VARCHAR(255),
+	PARENT_EXECUTION_ID BIGINT
+);
+
+CREATE TABLE TASK_EXECUTION_PARAMS  (
+	TASK_EXECUTION_ID BIGINT NOT NULL ,
+	START_TIME TIMESTAMP DEFAULT NULL ,
+	TASK_PARAM VARCHAR(2500)
+) ;
+
+CREATE TABLE TASK_TASK_BATCH (
+  TASK_EXECUTION_ID BIGINT NOT NULL ,
+  JOB_EXECUTION_ID BIGINT NOT NULL
+) ;
+
+CREATE INDEX TASK_EXEC_ID_IX ON TASK_EXECUTION (TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_NAME_START_IX ON TASK_EXECUTION (TASK_NAME, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_START_IX ON TASK_EXECUTION (START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_EXIT_START_IX ON TASK_EXECUTION (EXIT_CODE, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_RUNNING_IX ON TASK_EXECUTION (END_TIME, TASK_NAME);
+CREATE INDEX TASK_EXEC_END_IX ON TASK_EXECUTION (END_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_PARAMS_EXEC_IX ON TASK_EXECUTION_PARAMS (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_EXEC_IX ON TASK_TASK_BATCH (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_JOB_IX ON TASK_TASK_BATCH (JOB_EXECUTION_ID);
+
+CREATE SEQUENCE TASK_SEQ ;
+
+CREATE TABLE TASK_LOCK  (
+	LOCK_KEY CHAR(36) NOT NULL,
+	REGION VARCHAR(100) NOT NULL,
+	CLIENT_ID CHAR(36),
+	CREATED_DATE TIMESTAMP NOT NULL,
+	constraint LOCK_PK primary key (LOCK_KEY, REGION)
+);
+
+CREATE TABLE TASK_SCHEMA_VERSION  (
+	VERSION VARCHAR(20) NOT NULL,
+	constraint SCHEMA_VERSION_PK primary key (VERSION)
+);
+
+INSERT INTO TASK_SCHEMA_VERSION (VERSION) VALUES ('2.3.x');
@@ -0,0 +1,79 @@
+-- Variant of schema-mysql.sql where TASK_EXECUTION and TASK_EXECUTION_PARAMS are range
+-- partitioned by START_TIME. MySQL stores rows without a start time in the lowest
+-- partition, so the task executions that have not started yet are kept in the dedicated
+-- P_UNSTARTED partition, which must never be dropped. Monthly partitions are split off
+-- the P_MAX partition before the task executions of their range are started, for
+-- example:
+--
+-- ALTER TABLE TASK_EXECUTION REORGANIZE PARTITION P_MAX INTO (
+--	PARTITION P_2020_01 VALUES LESS THAN ('2020-02-01'),
+--	PARTITION P_MAX VALUES LESS THAN (MAXVALUE));
+--
+-- and the same for TASK_EXECUTION_PARAMS. Partitioned tables support neither foreign
+-- keys nor unique keys that exclude the partition key, so the task execution id is
+-- indexed rather than constrained.
+
+CREATE TABLE TASK_EXECUTION  (
+	TASK_EXECUTION_ID BIGINT NOT NULL ,
+	START_TIME DATETIME DEFAULT NULL ,
+	END_TIME DATETIME DEFAULT NULL ,
+	TASK_NAME  VARCHAR(100) ,
+	EXIT_CODE INTEGER ,
+	EXIT_MESSAGE VARCHAR(2500) ,
+	ERROR_MESSAGE VARCHAR(2500) ,
+	LAST_UPDATED TIMESTAMP,
+	EXTERNAL_EXECUTION_ID VARCHAR(255),
+	PARENT_EXECUTION_ID BIGINT
+) ENGINE=InnoDB
+PARTITION BY RANGE COLUMNS (START_TIME) (
+	PARTITION P_UNSTARTED VALUES LESS THAN ('1970-01-02'),
+	PARTITION P_MAX VALUES LESS THAN (MAXVALUE)
+);
+
+CREATE TABLE TASK_EXECUTION_PARAMS  (
+	TASK_EXECUTION_ID BIGINT NOT NULL ,
+	START_TIME DATETIME DEFAULT NULL ,
+	TASK_PARAM VARCHAR(2500)
+) ENGINE=InnoDB
+PARTITION BY RANGE COLUMNS (START_TIME) (
+	PARTITION P_UNSTARTED VALUES LESS THAN ('1970-01-02'),
+	PARTITION P_MAX VALUES LESS THAN (MAXVALUE)
+);
+
+CREATE TABLE TASK_TASK_BATCH (
+ TASK_EXECUTION_ID BIGINT NOT NULL ,
+ JOB_EXECUTION_ID BIGINT NOT NULL
+)  ENGINE=InnoDB;
+
+CREATE INDEX TASK_EXEC_ID_IX ON TASK_EXECUTION (TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_NAME_START_IX ON TASK_EXECUTION (TASK_NAME, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_START_IX ON TASK_EXECUTION (START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_EXIT_START_IX ON TASK_EXECUTION (EXIT_CODE, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_RUNNING_IX ON TASK_EXECUTION (END_TIME, TASK_NAME);
+CREATE INDEX TASK_EXEC_END_IX ON TASK_EXECUTION (END_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_PARAMS_EXEC_IX ON TASK_EXECUTION_PARAMS (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_EXEC_IX ON TASK_TASK_BATCH (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_JOB_IX ON TASK_TASK_BATCH (JOB_EXECUTION_ID);
+
+CREATE TABLE TASK_SEQ (
+	ID BIGINT NOT NULL,
+	UNIQUE_KEY CHAR(1) NOT NULL,
+	constraint UNIQUE_KEY_UN unique (UNIQUE_KEY)
+) ENGINE=InnoDB;
+
+INSERT INTO TASK_SEQ (ID, UNIQUE_KEY) select * from (select 0 as ID, '0' as UNIQUE_KEY) as tmp;
+
+CREATE TABLE TASK_LOCK  (
+	LOCK_KEY CHAR(36) NOT NULL,
+	REGION VARCHAR(100) NOT NULL,
+	CLIENT_ID CHAR(36),
+	CREATED_DATE DATETIME(6) NOT NULL,
+	constraint LOCK_PK primary key (LOCK_KEY, REGION)
+) ENGINE=InnoDB;
+
+CREATE TABLE TASK_SCHEMA_VERSION  (
+	VERSION VARCHAR(20) NOT NULL,
+	constraint SCHEMA_VERSION_PK primary key (VERSION)
+) ENGINE=InnoDB;
+
+INSERT INTO TASK_SCHEMA_VERSION (VERSION) VALUES ('2.3.x');
@@ -0,0 +1,68 @@
+-- Variant of schema-postgresql.sql where TASK_EXECUTION and TASK_EXECUTION_PARAMS are
+-- range partitioned by START_TIME (PostgreSQL 11 or later). Task executions without a
+-- start time, or that started outside of the existing partitions, are stored in the
+-- default partitions. Partitions must be created before the task executions of their
+-- range are started, for example:
+--
+-- CREATE TABLE TASK_EXECUTION_2020_01 PARTITION OF TASK_EXECUTION
+--	FOR VALUES FROM ('2020-01-01') TO ('2020-02-01');
+-- CREATE TABLE TASK_EXECUTION_PARAMS_2020_01 PARTITION OF TASK_EXECUTION_PARAMS
+--	FOR VALUES FROM ('2020-01-01') TO ('2020-02-01');
+--
+-- Unique and foreign key constraints must include the partition key, which may be null,
+-- so the task execution id is indexed rather than constrained.
+
+CREATE TABLE TASK_EXECUTION  (
+	TASK_EXECUTION_ID BIGINT  NOT NULL ,
+	START_TIME TIMESTAMP DEFAULT NULL ,
+	END_TIME TIMESTAMP DEFAULT NULL ,
+	TASK_NAME  VARCHAR(100) ,
+	EXIT_CODE INTEGER ,
+	EXIT_MESSAGE VARCHAR(2500) ,
+	ERROR_MESSAGE VARCHAR(2500) ,
+	LAST_UPDATED TIMESTAMP ,
+	EXTERNAL_EXECUTION_ID VARCHAR(255),
+	PARENT_EXECUTION_ID BIGINT
+) PARTITION BY RANGE (START_TIME);
+
+CREATE TABLE TASK_EXECUTION_DEFAULT PARTITION OF TASK_EXECUTION DEFAULT;
+
+CREATE TABLE TASK_EXECUTION_PARAMS  (
+	TASK_EXECUTION_ID BIGINT NOT NULL ,
+	START_TIME TIMESTAMP DEFAULT NULL ,
+	TASK_PARAM VARCHAR(2500)
+) PARTITION BY RANGE (START_TIME);
+
+CREATE TABLE TASK_EXECUTION_PARAMS_DEFAULT PARTITION OF TASK_EXECUTION_PARAMS DEFAULT;
+
+CREATE TABLE TASK_TASK_BATCH (
+  TASK_EXECUTION_ID BIGINT NOT NULL ,
+  JOB_EXECUTION_ID BIGINT NOT NULL
+) ;
+
+CREATE INDEX TASK_EXEC_ID_IX ON TASK_EXECUTION (TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_NAME_START_IX ON TASK_EXECUTION (TASK_NAME, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_START_IX ON TASK_EXECUTION (START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_EXIT_START_IX ON TASK_EXECUTION (EXIT_CODE, START_TIME DESC, TASK_EXECUTION_ID DESC);
+CREATE INDEX TASK_EXEC_RUNNING_IX ON TASK_EXECUTION (TASK_NAME) WHERE END_TIME IS NULL;
+CREATE INDEX TASK_EXEC_END_IX ON TASK_EXECUTION (END_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_PARAMS_EXEC_IX ON TASK_EXECUTION_PARAMS (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_EXEC_IX ON TASK_TASK_BATCH (TASK_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_JOB_IX ON TASK_TASK_BATCH (JOB_EXECUTION_ID);
+
+CREATE SEQUENCE TASK_SEQ MAXVALUE 9223372036854775807 NO CYCLE;
+
+CREATE TABLE TASK_LOCK  (
+	LOCK_KEY CHAR(36) NOT NULL,
+	REGION VARCHAR(100) NOT NULL,
+	CLIENT_ID CHAR(36),
+	CREATED_DATE TIMESTAMP NOT NULL,
+	constraint LOCK_PK primary key (LOCK_KEY, REGION)
+);
+
+CREATE TABLE TASK_SCHEMA_VERSION  (
+	VERSION VARCHAR(20) NOT NULL,
+	constraint SCHEMA_VERSION_PK primary key (VERSION)
+);
+
+INSERT INTO TASK_SCHEMA_VERSION (VERSION) VALUES ('2.3.x');
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.configuration.TaskProperties;
+import org.springframework.cloud.task.listener.annotation.AfterTask;
+import org.springframework.cloud.task.listener.annotation.BeforeTask;
+import org.springframework.cloud.task.listener.annotation.FailedTask;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.util.NativeImageConfigurationUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the native image configuration of the task core module refers to
+ * existing types and covers the resources read at runtime.
+ *
+ * @author Glenn Renfro
+ */
+public class NativeImageConfigurationTests {
+
+	private static final String MODULE = "spring-cloud-task-core";
+
+	@Test
+	public void testReflectedTypesExist() throws IOException {
+		List<String> types = NativeImageConfigurationUtils.readReflectedTypes(MODULE);
+		assertThat(types).contains(BeforeTask.class.getName(),
+				AfterTask.class.getName(), FailedTask.class.getName(),
+				TaskExecution.class.getName(), TaskProperties.class.getName());
+	}
+
+	@Test
+	public void testSchemaResourcesAreIncluded() throws IOException {
+		List<String> patterns = NativeImageConfigurationUtils.read(MODULE,
+				"resource-config.json", "$.resources[*].pattern");
+		Resource[] scripts = new PathMatchingResourcePatternResolver()
+				.getResources("classpath*:org/springframework/cloud/task/**/*.sql");
+		assertThat(scripts).isNotEmpty();
+		for (Resource script : scripts) {
+			String path = script.getURL().getPath();
+			String location = path.substring(path.indexOf("org/springframework/"));
+			assertThat(patterns).as(location)
+					.anyMatch((pattern) -> location.matches(pattern));
+		}
+		assertThat(patterns).anyMatch(
+				(pattern) -> "META-INF/spring-cloud-task.listeners".matches(pattern));
+	}
+
+}
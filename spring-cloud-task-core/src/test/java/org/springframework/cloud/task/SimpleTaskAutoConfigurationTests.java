@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -42,6 +42,8 @@ import org.springframework.cloud.task.configuration.TaskConfigurer;
 import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.cloud.task.repository.support.SimpleTaskRepository;
+import org.springframework.cloud.task.repository.support.TaskExecutionPurgeScheduler;
+import org.springframework.cloud.task.repository.support.WriteBehindTaskRepository;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -84,6 +86,23 @@ public class SimpleTaskAutoConfigurationTests {
 		});
 	}
 
+	@Test
+	public void testDefaultConfigurerIsBeanDefinition() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(
+						EmbeddedDataSourceConfiguration.class,
+						PropertyPlaceholderAutoConfiguration.class,
+						SimpleTaskAutoConfiguration.class, SingleTaskConfiguration.class));
+		applicationContextRunner.run((context) -> {
+			assertThat(context.getBeanFactory().containsBeanDefinition("taskConfigurer"))
+					.isTrue();
+			TaskConfigurer taskConfigurer = context.getBean(TaskConfigurer.class);
+			assertThat(taskConfigurer).isInstanceOf(DefaultTaskConfigurer.class);
+			assertThat(taskConfigurer.getTaskDataSource())
+					.isSameAs(context.getBean(DataSource.class));
+		});
+	}
+
 	@Test
 	public void testAutoConfigurationDisabled() {
 		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
@@ -115,6 +134,43 @@ public class SimpleTaskAutoConfigurationTests {
 		});
 	}
 
+	@Test
+	public void testWriteBehindRepository() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(
+						EmbeddedDataSourceConfiguration.class,
+						PropertyPlaceholderAutoConfiguration.class,
+						SimpleTaskAutoConfiguration.class, SingleTaskConfiguration.class))
+				.withUserConfiguration(TaskLifecycleListenerConfiguration.class)
+				.withPropertyValues("spring.cloud.task.write-behind-enabled=true");
+		applicationContextRunner.run((context) -> {
+			TaskRepository taskRepository = context.getBean(TaskRepository.class);
+			assertThat(AopProxyUtils.ultimateTargetClass(taskRepository))
+					.isEqualTo(WriteBehindTaskRepository.class);
+			TaskExplorer taskExplorer = context.getBean(TaskExplorer.class);
+			assertThat(taskExplorer.getTaskExecutionCount()).isEqualTo(1L);
+		});
+	}
+
+	@Test
+	public void testPurgeScheduler() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(
+						EmbeddedDataSourceConfiguration.class,
+						PropertyPlaceholderAutoConfiguration.class,
+						SimpleTaskAutoConfiguration.class, SingleTaskConfiguration.class))
+				.withUserConfiguration(TaskLifecycleListenerConfiguration.class);
+		applicationContextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(TaskExecutionPurgeScheduler.class));
+		applicationContextRunner
+				.withPropertyValues("spring.cloud.task.purge-enabled=true",
+						"spring.cloud.task.purge-max-age=30d")
+				.run((context) -> assertThat(context)
+						.hasSingleBean(TaskExecutionPurgeScheduler.class));
+		applicationContextRunner.withPropertyValues("spring.cloud.task.purge-enabled=true")
+				.run((context) -> assertThat(context).hasFailed());
+	}
+
 	@Test
 	public void testRepositoryNotInitialized() {
 		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 the original author or authors.
+ * Copyright 2018-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,7 +55,7 @@ public class TaskRepositoryInitializerDefaultTaskConfigurerTests {
 	public void testTablesCreated() {
 		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
 		List<Map<String, Object>> rows = jdbcTemplate.queryForList("SHOW TABLES");
-		assertThat(rows.size()).isEqualTo(4);
+		assertThat(rows.size()).isEqualTo(5);
 	}
 
 }
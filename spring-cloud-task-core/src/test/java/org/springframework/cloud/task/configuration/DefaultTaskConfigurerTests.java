@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 the original author or authors.
+ * Copyright 2017-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,11 @@
 
 package org.springframework.cloud.task.configuration;
 
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
 import javax.persistence.EntityManager;
 import javax.sql.DataSource;
 
@@ -24,12 +29,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.support.CachingTaskExplorer;
+import org.springframework.cloud.task.repository.support.SimpleTaskExplorer;
+import org.springframework.cloud.task.repository.support.WriteBehindTaskRepository;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -98,6 +115,83 @@ public class DefaultTaskConfigurerTests {
 		assertThat(defaultTaskConfigurer.getTaskExplorer()).isNotNull();
 	}
 
+	@Test
+	public void cachingTaskExplorerTest() {
+		TaskProperties taskProperties = new TaskProperties();
+		DefaultTaskConfigurer defaultTaskConfigurer = new DefaultTaskConfigurer(null,
+				taskProperties, null);
+		assertThat(defaultTaskConfigurer.getTaskExplorer())
+				.isInstanceOf(SimpleTaskExplorer.class);
+
+		taskProperties.setExplorerCacheEnabled(true);
+		defaultTaskConfigurer = new DefaultTaskConfigurer(null, taskProperties, null);
+		assertThat(defaultTaskConfigurer.getTaskExplorer())
+				.isInstanceOf(CachingTaskExplorer.class);
+
+		TaskRepository taskRepository = defaultTaskConfigurer.getTaskRepository();
+		TaskExecution taskExecution = taskRepository.createTaskExecution("FOO");
+		assertThat(defaultTaskConfigurer.getTaskExplorer()
+				.getTaskExecution(taskExecution.getExecutionId()).getStartTime())
+						.isNull();
+		taskRepository.startTaskExecution(taskExecution.getExecutionId(), "FOO",
+				new Date(), Collections.emptyList(), null);
+		assertThat(defaultTaskConfigurer.getTaskExplorer()
+				.getTaskExecution(taskExecution.getExecutionId()).getStartTime())
+						.isNotNull();
+	}
+
+	@Test
+	public void writeBehindTaskRepositoryTest() throws Exception {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setName(UUID.randomUUID().toString()).setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:org/springframework/cloud/task/schema-h2.sql")
+				.build();
+		CountDownLatch transactionsAllowed = new CountDownLatch(1);
+		PlatformTransactionManager transactionManager = new DataSourceTransactionManager(
+				database) {
+			@Override
+			protected void doBegin(Object transaction, TransactionDefinition definition) {
+				try {
+					transactionsAllowed.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.doBegin(transaction, definition);
+			}
+		};
+		TaskProperties taskProperties = new TaskProperties();
+		taskProperties.setWriteBehindEnabled(true);
+		try {
+			DefaultTaskConfigurer defaultTaskConfigurer = new DefaultTaskConfigurer(
+					database, taskProperties, null) {
+				@Override
+				public PlatformTransactionManager getTransactionManager() {
+					return transactionManager;
+				}
+			};
+			TaskRepository taskRepository = defaultTaskConfigurer.getTaskRepository();
+			assertThat(taskRepository).isInstanceOf(WriteBehindTaskRepository.class);
+			TaskExecution taskExecution = taskRepository.createTaskExecution("FOO");
+			taskRepository.startTaskExecution(taskExecution.getExecutionId(), "FOO",
+					new Date(), Collections.emptyList(), null);
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+			String startTimeQuery = "SELECT START_TIME FROM TASK_EXECUTION "
+					+ "WHERE TASK_EXECUTION_ID = ?";
+			assertThat(jdbcTemplate.queryForObject(startTimeQuery, Date.class,
+					taskExecution.getExecutionId())).isNull();
+
+			transactionsAllowed.countDown();
+			((WriteBehindTaskRepository) taskRepository).destroy();
+			assertThat(jdbcTemplate.queryForObject(startTimeQuery, Date.class,
+					taskExecution.getExecutionId())).isNotNull();
+		}
+		finally {
+			transactionsAllowed.countDown();
+			database.shutdown();
+		}
+	}
+
 	@Test
 	public void taskRepositoryTest() {
 		DefaultTaskConfigurer defaultTaskConfigurer = new DefaultTaskConfigurer(
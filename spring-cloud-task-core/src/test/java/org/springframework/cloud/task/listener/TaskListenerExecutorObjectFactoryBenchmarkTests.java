@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.listener;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.cloud.task.listener.annotation.BeforeTask;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.SpringProperties;
+
+/**
+ * Measures how long the {@link TaskListenerExecutorObjectFactory} takes to find the
+ * listener methods of a context with thousands of beans, each of a distinct class. Only
+ * run when the {@code spring.cloud.task.benchmark} system property is {@code true}, for
+ * example {@code mvn test -Dtest=TaskListenerExecutorObjectFactoryBenchmarkTests
+ * -Dspring.cloud.task.benchmark=true}.
+ *
+ * @author Glenn Renfro
+ */
+@EnabledIfSystemProperty(named = "spring.cloud.task.benchmark", matches = "true")
+public class TaskListenerExecutorObjectFactoryBenchmarkTests {
+
+	private static final Log logger = LogFactory
+			.getLog(TaskListenerExecutorObjectFactoryBenchmarkTests.class);
+
+	private static final int BEAN_COUNT = 2000;
+
+	private static final int ITERATIONS = 11;
+
+	private static final AtomicInteger classCount = new AtomicInteger();
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	public void tearDown() {
+		SpringProperties.setProperty(TaskListenerIndex.IGNORE_INDEX, null);
+	}
+
+	@Test
+	public void compareListenerDiscovery() throws IOException {
+		Path index = this.directory.resolve(TaskListenerIndex.INDEX_LOCATION);
+		Files.createDirectories(index.getParent());
+		Files.write(index, (Listener.class.getName() + "=" + BeforeTask.class.getName())
+				.getBytes(StandardCharsets.UTF_8));
+
+		SpringProperties.setFlag(TaskListenerIndex.IGNORE_INDEX);
+		long doubleScanMillis = getMedianMillis(2);
+		long singleScanMillis = getMedianMillis(1);
+		SpringProperties.setProperty(TaskListenerIndex.IGNORE_INDEX, null);
+		long indexMillis = getMedianMillis(1);
+		logger.info(String.format(
+				"Listener discovery among %d beans: two scans %d ms, one scan %d ms, "
+						+ "index %d ms (median of %d)",
+				BEAN_COUNT, doubleScanMillis, singleScanMillis, indexMillis, ITERATIONS));
+	}
+
+	private long getMedianMillis(int scans) throws IOException {
+		long[] millis = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			millis[i] = getMillis(scans);
+		}
+		Arrays.sort(millis);
+		return millis[ITERATIONS / 2];
+	}
+
+	/**
+	 * Registers beans of freshly generated classes, so that no class is introspected
+	 * twice across measurements, and times the listener discovery.
+	 */
+	private long getMillis(int scans) throws IOException {
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { this.directory.toUri().toURL() },
+				getClass().getClassLoader())) {
+			GenericApplicationContext context = new GenericApplicationContext();
+			try {
+				context.setClassLoader(classLoader);
+				context.registerBean(Listener.class);
+				for (int i = 0; i < BEAN_COUNT; i++) {
+					Enhancer enhancer = new Enhancer();
+					enhancer.setSuperclass(Component.class);
+					enhancer.setUseCache(false);
+					enhancer.setNamingPolicy((prefix, source, key, names) -> prefix
+							+ "$$Generated" + classCount.incrementAndGet());
+					enhancer.setCallbackType(NoOp.class);
+					enhancer.setClassLoader(classLoader);
+					Class<?> componentClass = enhancer.createClass();
+					context.registerBean("component" + i, componentClass);
+				}
+				context.refresh();
+				long start = System.nanoTime();
+				TaskListenerExecutorObjectFactory factory =
+						new TaskListenerExecutorObjectFactory(context);
+				for (int scan = 0; scan < scans; scan++) {
+					factory.getObject();
+				}
+				return (System.nanoTime() - start) / 1_000_000;
+			}
+			finally {
+				context.close();
+			}
+		}
+	}
+
+	public static class Listener {
+
+		@BeforeTask
+		public void before(TaskExecution taskExecution) {
+		}
+
+	}
+
+	public static class Component {
+
+		public void run() {
+		}
+
+		public String getName() {
+			return "component";
+		}
+
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.listener;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cloud.task.listener.annotation.BeforeTask;
+import org.springframework.cloud.task.listener.annotation.FailedTask;
+import org.springframework.cloud.task.listener.annotation.TaskListenerExecutor;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.SpringProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the {@link TaskListenerIndex} is loaded and restricts the beans whose
+ * listener methods are introspected.
+ *
+ * @author Glenn Renfro
+ */
+public class TaskListenerIndexTests {
+
+	private static List<String> events = new ArrayList<>();
+
+	@TempDir
+	Path directory;
+
+	private URLClassLoader classLoader;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		events.clear();
+		Path index = this.directory.resolve(TaskListenerIndex.INDEX_LOCATION);
+		Files.createDirectories(index.getParent());
+		String entries = BaseListener.class.getName() + "=" + BeforeTask.class.getName()
+				+ "\n" + FailedListener.class.getName() + "="
+				+ FailedTask.class.getName() + "\n";
+		Files.write(index, entries.getBytes(StandardCharsets.UTF_8));
+		this.classLoader = new URLClassLoader(
+				new URL[] { this.directory.toUri().toURL() }, getClass().getClassLoader());
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		SpringProperties.setProperty(TaskListenerIndex.IGNORE_INDEX, null);
+		this.classLoader.close();
+	}
+
+	@Test
+	public void testLoad() {
+		TaskListenerIndex index = TaskListenerIndex.load(this.classLoader);
+		assertThat(index.getListenerClassNames()).containsExactlyInAnyOrder(
+				BaseListener.class.getName(), FailedListener.class.getName());
+		assertThat(index.mayDeclareListenerMethods(BaseListener.class)).isTrue();
+		assertThat(index.mayDeclareListenerMethods(InheritedListener.class)).isTrue();
+		assertThat(index.mayDeclareListenerMethods(UnindexedListener.class)).isFalse();
+	}
+
+	@Test
+	public void testMayDeclareListenerMethodsOfInterface() {
+		TaskListenerIndex index = new TaskListenerIndex(
+				Collections.singleton(Listener.class.getName()));
+		assertThat(index.mayDeclareListenerMethods(InheritedListener.class)).isTrue();
+		assertThat(index.mayDeclareListenerMethods(UnindexedListener.class)).isFalse();
+	}
+
+	@Test
+	public void testLoadWithoutIndex() {
+		assertThat(TaskListenerIndex.load(getClass().getClassLoader())).isNull();
+	}
+
+	@Test
+	public void testLoadIgnored() {
+		SpringProperties.setFlag(TaskListenerIndex.IGNORE_INDEX);
+		assertThat(TaskListenerIndex.load(this.classLoader)).isNull();
+	}
+
+	@Test
+	public void testOnlyIndexedBeansAreIntrospected() {
+		fireListeners();
+		assertThat(events).containsExactly("before InheritedListener",
+				"failed FailedListener");
+	}
+
+	@Test
+	public void testAllBeansAreIntrospectedWhenIndexIsIgnored() {
+		SpringProperties.setFlag(TaskListenerIndex.IGNORE_INDEX);
+		fireListeners();
+		assertThat(events).containsExactlyInAnyOrder("before InheritedListener",
+				"before UnindexedListener", "failed FailedListener");
+	}
+
+	private void fireListeners() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		try {
+			context.setClassLoader(this.classLoader);
+			context.register(InheritedListener.class, UnindexedListener.class,
+					FailedListener.class);
+			context.refresh();
+			TaskListenerExecutor executor = new TaskListenerExecutorObjectFactory(
+					context).getObject();
+			executor.onTaskStartup(new TaskExecution());
+			executor.onTaskFailed(new TaskExecution(), new IllegalStateException());
+		}
+		finally {
+			context.close();
+		}
+	}
+
+	public interface Listener {
+
+	}
+
+	public abstract static class BaseListener {
+
+		@BeforeTask
+		public void before(TaskExecution taskExecution) {
+			events.add("before " + getClass().getSimpleName());
+		}
+
+	}
+
+	public static class InheritedListener extends BaseListener implements Listener {
+
+	}
+
+	public static class UnindexedListener {
+
+		@BeforeTask
+		public void before(TaskExecution taskExecution) {
+			events.add("before " + getClass().getSimpleName());
+		}
+
+	}
+
+	public static class FailedListener {
+
+		@FailedTask
+		public void failed(TaskExecution taskExecution, Throwable throwable) {
+			events.add("failed " + getClass().getSimpleName());
+		}
+
+	}
+
+}
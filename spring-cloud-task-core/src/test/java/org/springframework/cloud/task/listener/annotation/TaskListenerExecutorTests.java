@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.listener.annotation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cloud.task.listener.TaskExecutionException;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that the {@link TaskListenerExecutor} calls the listener methods in order and
+ * reports the methods that cannot be called.
+ *
+ * @author Glenn Renfro
+ */
+public class TaskListenerExecutorTests {
+
+	private static List<String> events = new ArrayList<>();
+
+	@BeforeEach
+	public void setup() {
+		events.clear();
+	}
+
+	@Test
+	public void testListenersAreCalledInOrder() {
+		Map<Method, Object> beforeTaskInstances = new LinkedHashMap<>();
+		beforeTaskInstances.put(method(SecondListener.class, "before"),
+				new SecondListener());
+		beforeTaskInstances.put(method(FirstListener.class, "before"),
+				new FirstListener());
+		Map<Method, Object> failedTaskInstances = new LinkedHashMap<>();
+		failedTaskInstances.put(method(FirstListener.class, "failed"),
+				new FirstListener());
+		TaskListenerExecutor executor = new TaskListenerExecutor(beforeTaskInstances,
+				Collections.emptyMap(), failedTaskInstances);
+
+		executor.onTaskStartup(new TaskExecution());
+		executor.onTaskEnd(new TaskExecution());
+		executor.onTaskFailed(new TaskExecution(), new IllegalStateException("oops"));
+
+		assertThat(events).containsExactly("second before", "first before",
+				"first failed oops");
+	}
+
+	@Test
+	public void testListenerExceptionIsWrapped() {
+		IllegalStateException exception = new IllegalStateException("oops");
+		TaskListenerExecutor executor = new TaskListenerExecutor(Collections.emptyMap(),
+				Collections.singletonMap(method(FirstListener.class, "fail"),
+						new FirstListener()),
+				Collections.emptyMap());
+
+		assertThatThrownBy(() -> executor.onTaskEnd(new TaskExecution()))
+				.isInstanceOf(TaskExecutionException.class)
+				.hasMessage("Failed to process @BeforeTask or @AfterTask annotation "
+						+ "because: AfterTaskFailure")
+				.hasCauseInstanceOf(InvocationTargetException.class);
+	}
+
+	@Test
+	public void testNonPublicListenerMethod() {
+		TaskListenerExecutor executor = new TaskListenerExecutor(
+				Collections.singletonMap(method(FirstListener.class, "hidden"),
+						new FirstListener()),
+				Collections.emptyMap(), Collections.emptyMap());
+
+		assertThatThrownBy(() -> executor.onTaskStartup(new TaskExecution()))
+				.isInstanceOf(TaskExecutionException.class)
+				.hasMessage("@BeforeTask and @AfterTask annotated methods must be public.");
+		assertThat(events).isEmpty();
+	}
+
+	@Test
+	public void testListenerMethodWithWrongParameters() {
+		TaskListenerExecutor executor = new TaskListenerExecutor(Collections.emptyMap(),
+				Collections.emptyMap(), Collections.singletonMap(
+						method(FirstListener.class, "before"), new FirstListener()));
+
+		assertThatThrownBy(() -> executor.onTaskFailed(new TaskExecution(),
+				new IllegalStateException())).isInstanceOf(TaskExecutionException.class)
+						.hasMessage("taskExecution and throwable parameters are "
+								+ "required for @FailedTask annotated methods");
+	}
+
+	@Test
+	public void testInterfaceProxiedListener() {
+		ProxyFactory proxyFactory = new ProxyFactory(new ProxiedListener());
+		proxyFactory.addInterface(StartupListener.class);
+		Object proxy = proxyFactory.getProxy();
+		TaskListenerExecutor executor = new TaskListenerExecutor(
+				Collections.singletonMap(method(ProxiedListener.class, "before"), proxy),
+				Collections.singletonMap(method(ProxiedListener.class, "after"), proxy),
+				Collections.emptyMap());
+
+		executor.onTaskStartup(new TaskExecution());
+		assertThat(events).containsExactly("proxied before");
+		assertThatThrownBy(() -> executor.onTaskEnd(new TaskExecution()))
+				.isInstanceOf(TaskExecutionException.class)
+				.hasMessageContaining("Need to invoke method 'after'");
+	}
+
+	private static Method method(Class<?> type, String name) {
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+			if (method.getName().equals(name)) {
+				return method;
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	public static class FirstListener {
+
+		@BeforeTask
+		public void before(TaskExecution taskExecution) {
+			events.add("first before");
+		}
+
+		@FailedTask
+		public void failed(TaskExecution taskExecution, Throwable throwable) {
+			events.add("first failed " + throwable.getMessage());
+		}
+
+		@AfterTask
+		public void fail(TaskExecution taskExecution) {
+			throw new IllegalStateException("AfterTaskFailure");
+		}
+
+		@BeforeTask
+		void hidden(TaskExecution taskExecution) {
+			events.add("first hidden");
+		}
+
+	}
+
+	public interface StartupListener {
+
+		void before(TaskExecution taskExecution);
+
+	}
+
+	public static class ProxiedListener implements StartupListener {
+
+		@BeforeTask
+		@Override
+		public void before(TaskExecution taskExecution) {
+			events.add("proxied before");
+		}
+
+		@AfterTask
+		public void after(TaskExecution taskExecution) {
+			events.add("proxied after");
+		}
+
+	}
+
+	public static class SecondListener {
+
+		@BeforeTask
+		public void before(TaskExecution taskExecution) {
+			events.add("second before");
+		}
+
+	}
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies the default implementations of the {@link TaskExplorer} methods added in
+ * 2.3.0, which let existing implementations compile unchanged.
+ *
+ * @author Glenn Renfro
+ */
+public class TaskExplorerTests {
+
+	private final LegacyTaskExplorer taskExplorer = new LegacyTaskExplorer();
+
+	@Test
+	public void testSlicesDelegateToPages() {
+		this.taskExplorer.add(1, "foo", 1000L, null);
+		Pageable pageable = PageRequest.of(0, 10);
+
+		assertThat(this.taskExplorer.findAllAsSlice(pageable).getContent()).hasSize(1);
+		assertThat(this.taskExplorer.findTaskExecutionsByNameAsSlice("foo", pageable)
+				.getContent()).hasSize(1);
+		assertThat(this.taskExplorer.findRunningTaskExecutionsAsSlice("foo", pageable)
+				.getContent()).hasSize(1);
+	}
+
+	@Test
+	public void testKeysetPagesFollowTheSlices() {
+		// more task executions than fit in a slice, some starting at the same time
+		for (long executionId = 1; executionId <= 250; executionId++) {
+			this.taskExplorer.add(executionId, (executionId % 2 == 0) ? "even" : "odd",
+					executionId / 2 * 1000, null);
+		}
+		this.taskExplorer.add(251, "odd", null, null);
+
+		List<TaskExecution> firstPage = this.taskExplorer.findAll(null, 3);
+		assertThat(firstPage).extracting(TaskExecution::getExecutionId)
+				.containsExactly(250L, 249L, 248L);
+		assertThat(this.taskExplorer.findAll(firstPage.get(2), 3))
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactly(247L, 246L, 245L);
+		TaskExecution deep = this.taskExplorer.getTaskExecution(103);
+		assertThat(this.taskExplorer.findAll(deep, 200))
+				.extracting(TaskExecution::getExecutionId).hasSize(102)
+				.startsWith(102L, 101L).endsWith(2L, 1L);
+		assertThat(this.taskExplorer.findTaskExecutionsByName("odd", deep, 2))
+				.extracting(TaskExecution::getExecutionId).containsExactly(101L, 99L);
+	}
+
+	@Test
+	public void testStreamingReadsTheSlices() {
+		for (long executionId = 1; executionId <= 250; executionId++) {
+			this.taskExplorer.add(executionId, (executionId % 2 == 0) ? "even" : "odd",
+					executionId * 1000, null);
+		}
+		List<Long> streamed = new ArrayList<>();
+
+		this.taskExplorer.streamTaskExecutions((String) null,
+				(taskExecution) -> streamed.add(taskExecution.getExecutionId()));
+		assertThat(streamed).hasSize(250).startsWith(250L, 249L).endsWith(1L);
+
+		streamed.clear();
+		this.taskExplorer.streamTaskExecutions("odd",
+				(taskExecution) -> streamed.add(taskExecution.getExecutionId()));
+		assertThat(streamed).hasSize(125).startsWith(249L, 247L).endsWith(1L);
+	}
+
+	@Test
+	public void testStartTimeRangesReadTheSlices() {
+		for (long executionId = 1; executionId <= 250; executionId++) {
+			this.taskExplorer.add(executionId, (executionId % 2 == 0) ? "even" : "odd",
+					executionId * 1000, null);
+		}
+		this.taskExplorer.add(251, "odd", null, null);
+
+		Page<TaskExecution> page = this.taskExplorer.findTaskExecutionsStartedBetween(
+				new Date(10_000), new Date(210_000), PageRequest.of(1, 150));
+		assertThat(page.getTotalElements()).isEqualTo(200);
+		assertThat(page.getContent()).extracting(TaskExecution::getExecutionId)
+				.hasSize(50).startsWith(59L).endsWith(10L);
+		page = this.taskExplorer.findTaskExecutionsByNameStartedBetween("odd", null,
+				new Date(10_000), PageRequest.of(0, 10));
+		assertThat(page.getContent()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(9L, 7L, 5L, 3L, 1L);
+		assertThat(this.taskExplorer.findTaskExecutionsStartedBetween(null, null,
+				PageRequest.of(0, 10)).getTotalElements()).isEqualTo(251);
+	}
+
+	@Test
+	public void testCriteriaQueriesReadTheSlices() {
+		for (long executionId = 1; executionId <= 250; executionId++) {
+			this.taskExplorer.add(executionId, (executionId % 2 == 0) ? "even" : "odd",
+					executionId * 1000, null);
+		}
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+		criteria.setTaskNamePrefix("od");
+		criteria.setStartTimeFrom(new Date(200_000));
+
+		Page<TaskExecution> page = this.taskExplorer.findTaskExecutions(criteria,
+				PageRequest.of(1, 10));
+		assertThat(page.getTotalElements()).isEqualTo(25);
+		assertThat(page.getContent()).extracting(TaskExecution::getExecutionId)
+				.hasSize(10).startsWith(229L).endsWith(211L);
+		List<Long> streamed = new ArrayList<>();
+		this.taskExplorer.streamTaskExecutions(criteria,
+				(taskExecution) -> streamed.add(taskExecution.getExecutionId()));
+		assertThat(streamed).hasSize(25).startsWith(249L).endsWith(201L);
+
+		criteria.setTaskName("even");
+		assertThat(this.taskExplorer.findTaskExecutions(criteria, PageRequest.of(0, 10))
+				.getTotalElements()).isZero();
+	}
+
+	@Test
+	public void testStatisticsReadTheSlices() {
+		// every third task execution is still running
+		for (long executionId = 1; executionId <= 250; executionId++) {
+			this.taskExplorer.add(executionId, (executionId % 2 == 0) ? "even" : "odd",
+					executionId * 1000,
+					(executionId % 3 != 0) ? executionId * 1000 + 500 : null);
+		}
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+
+		assertThat(this.taskExplorer.getTaskExecutionStatistics(criteria))
+				.extracting(TaskExecutionStatistics::getTaskName,
+						TaskExecutionStatistics::getExecutionCount)
+				.containsExactly(tuple("even", 125L), tuple("odd", 125L));
+
+		criteria.setStartTimeFrom(new Date(100_000));
+		List<TaskExecutionStatistics> statistics = this.taskExplorer
+				.getTaskExecutionStatistics(criteria, Duration.ofSeconds(100));
+		assertThat(statistics)
+				.extracting(TaskExecutionStatistics::getTaskName,
+						(bucket) -> bucket.getBucketStartTime().getTime(),
+						TaskExecutionStatistics::getExecutionCount)
+				.containsExactly(tuple("even", 100_000L, 50L),
+						tuple("even", 200_000L, 26L), tuple("odd", 100_000L, 50L),
+						tuple("odd", 200_000L, 25L));
+		assertThat(statistics.get(0).getRunningExecutionCount()).isEqualTo(17);
+		assertThat(statistics.get(0).getLastStartTime()).isEqualTo(new Date(198_000));
+		assertThat(statistics.get(0).getAverageDuration())
+				.isEqualTo(Duration.ofMillis(500));
+		assertThatThrownBy(() -> this.taskExplorer.getTaskExecutionStatistics(
+				new TaskExecutionCriteria(), Duration.ofSeconds(100)))
+						.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testPurgeQueriesReadTheSlices() {
+		// every third task execution is still running
+		for (long executionId = 1; executionId <= 250; executionId++) {
+			this.taskExplorer.add(executionId, (executionId % 2 == 0) ? "even" : "odd",
+					executionId * 1000,
+					(executionId % 3 != 0) ? executionId * 1000 + 500 : null);
+		}
+
+		assertThat(this.taskExplorer
+				.findCompletedTaskExecutionsEndedBefore(new Date(200_000), 5))
+						.extracting(TaskExecution::getExecutionId)
+						.containsExactly(1L, 2L, 4L, 5L, 7L);
+		assertThat(this.taskExplorer.findCompletedTaskExecutionsBeyondLatest("odd", 10, 3))
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactly(217L, 215L, 211L);
+		assertThat(this.taskExplorer.findCompletedTaskExecutionsBeyondLatest("odd", 200, 3))
+				.isEmpty();
+		assertThatThrownBy(() -> this.taskExplorer
+				.findCompletedTaskExecutionsEndedBefore(new Date(), 0))
+						.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+	 * Implements the methods of the {@link TaskExplorer} of 2.2.x only, on top of a list
+	 * of task executions sorted by start time descending, task execution id descending.
+	 */
+	private static class LegacyTaskExplorer implements TaskExplorer {
+
+		private final List<TaskExecution> taskExecutions = new ArrayList<>();
+
+		void add(long executionId, String taskName, Long startTime, Long endTime) {
+			this.taskExecutions.add(new TaskExecution(executionId, null, taskName,
+					(startTime != null) ? new Date(startTime) : null,
+					(endTime != null) ? new Date(endTime) : null, null,
+					Collections.emptyList(), null, null));
+			this.taskExecutions.sort(Comparator
+					.comparing(TaskExecution::getStartTime,
+							Comparator.nullsLast(Comparator.reverseOrder()))
+					.thenComparing(TaskExecution::getExecutionId,
+							Comparator.reverseOrder()));
+		}
+
+		private Page<TaskExecution> page(Predicate<TaskExecution> predicate,
+				Pageable pageable) {
+			List<TaskExecution> matching = this.taskExecutions.stream()
+					.filter(predicate).collect(Collectors.toList());
+			int offset = (int) Math.min(pageable.getOffset(), matching.size());
+			return new PageImpl<>(
+					matching.subList(offset,
+							Math.min(offset + pageable.getPageSize(), matching.size())),
+					pageable, matching.size());
+		}
+
+		@Override
+		public TaskExecution getTaskExecution(long executionId) {
+			return this.taskExecutions.stream()
+					.filter((taskExecution) -> taskExecution
+							.getExecutionId() == executionId)
+					.findFirst().orElse(null);
+		}
+
+		@Override
+		public Page<TaskExecution> findRunningTaskExecutions(String taskName,
+				Pageable pageable) {
+			return page((taskExecution) -> taskName.equals(taskExecution.getTaskName())
+					&& taskExecution.getEndTime() == null, pageable);
+		}
+
+		@Override
+		public List<String> getTaskNames() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public long getTaskExecutionCountByTaskName(String taskName) {
+			return 0;
+		}
+
+		@Override
+		public long getTaskExecutionCount() {
+			return 0;
+		}
+
+		@Override
+		public long getRunningTaskExecutionCount() {
+			return 0;
+		}
+
+		@Override
+		public Page<TaskExecution> findTaskExecutionsByName(String taskName,
+				Pageable pageable) {
+			return page((taskExecution) -> taskName.equals(taskExecution.getTaskName()),
+					pageable);
+		}
+
+		@Override
+		public Page<TaskExecution> findAll(Pageable pageable) {
+			return page((taskExecution) -> true, pageable);
+		}
+
+		@Override
+		public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+			return null;
+		}
+
+		@Override
+		public Set<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId) {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public List<TaskExecution> getLatestTaskExecutionsByTaskNames(
+				String... taskNames) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public TaskExecution getLatestTaskExecutionForTaskName(String taskName) {
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the default implementations of the {@link TaskRepository} methods added in
+ * 2.3.0.
+ *
+ * @author Glenn Renfro
+ */
+public class TaskRepositoryTests {
+
+	@Test
+	public void testTaskExecutionsAreCreatedOneAtATime() {
+		TaskRepository taskRepository = new LegacyTaskRepository();
+		TaskExecution first = new TaskExecution();
+		first.setTaskName("first");
+		TaskExecution second = new TaskExecution();
+		second.setTaskName("second");
+
+		List<TaskExecution> taskExecutions = taskRepository
+				.createTaskExecutions(Arrays.asList(first, second));
+
+		assertThat(taskExecutions).extracting(TaskExecution::getExecutionId)
+				.containsExactly(1L, 2L);
+		assertThat(taskExecutions).extracting(TaskExecution::getTaskName)
+				.containsExactly("first", "second");
+	}
+
+	/**
+	 * Implements the methods of the {@link TaskRepository} of 2.2.x, and
+	 * {@link TaskRepository#deleteTaskExecutions(Collection)} which has no default.
+	 */
+	private static class LegacyTaskRepository implements TaskRepository {
+
+		private long executionId;
+
+		@Override
+		public TaskExecution completeTaskExecution(long executionId, Integer exitCode,
+				Date endTime, String exitMessage) {
+			return null;
+		}
+
+		@Override
+		public TaskExecution completeTaskExecution(long executionId, Integer exitCode,
+				Date endTime, String exitMessage, String errorMessage) {
+			return null;
+		}
+
+		@Override
+		public TaskExecution createTaskExecution(TaskExecution taskExecution) {
+			return new TaskExecution(++this.executionId, null,
+					taskExecution.getTaskName(), null, null, null,
+					Collections.emptyList(), null, null);
+		}
+
+		@Override
+		public TaskExecution createTaskExecution(String name) {
+			return null;
+		}
+
+		@Override
+		public TaskExecution createTaskExecution() {
+			return null;
+		}
+
+		@Override
+		public TaskExecution startTaskExecution(long executionid, String taskName,
+				Date startTime, List<String> arguments, String externalExecutionId) {
+			return null;
+		}
+
+		@Override
+		public void updateExternalExecutionId(long executionid,
+				String externalExecutionId) {
+		}
+
+		@Override
+		public TaskExecution startTaskExecution(long executionid, String taskName,
+				Date startTime, List<String> arguments, String externalExecutionId,
+				Long parentExecutionId) {
+			return null;
+		}
+
+		@Override
+		public int deleteTaskExecutions(Collection<Long> executionIds) {
+			return 0;
+		}
+
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2019 the original author or authors.
+ * Copyright 2018-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,31 @@
 
 package org.springframework.cloud.task.repository.dao;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCriteria;
+import org.springframework.cloud.task.repository.TaskExecutionStatistics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
 
 /**
@@ -43,7 +57,7 @@ public class BaseTaskExecutionDaoTestCases {
 	@DirtiesContext
 	public void getLatestTaskExecutionsByTaskNamesWithNullParameter() {
 		try {
-			this.dao.getLatestTaskExecutionsByTaskNames(null);
+			this.dao.getLatestTaskExecutionsByTaskNames((String[]) null);
 		}
 		catch (IllegalArgumentException e) {
 			assertThat(e.getMessage())
@@ -269,6 +283,441 @@ public class BaseTaskExecutionDaoTestCases {
 				.isEqualTo(this.dao.getTaskExecutionCount() - 1);
 	}
 
+	@Test
+	@DirtiesContext
+	public void findAllPopulatesArgumentsForEachTaskExecution() {
+		long firstId = createTaskExecution(getTaskExecution("FOO1", "externalA"),
+				Arrays.asList("foo=1", "bar=1"));
+		long secondId = createTaskExecution(getTaskExecution("FOO2", "externalB"),
+				Collections.emptyList());
+		long thirdId = createTaskExecution(getTaskExecution("FOO1", "externalC"),
+				Collections.singletonList("baz=3"));
+
+		Map<Long, List<String>> arguments = new HashMap<>();
+		for (TaskExecution taskExecution : this.dao.findAll(PageRequest.of(0, 10))) {
+			arguments.put(taskExecution.getExecutionId(), taskExecution.getArguments());
+		}
+		assertThat(arguments).hasSize(3);
+		assertThat(arguments.get(firstId)).containsExactly("foo=1", "bar=1");
+		assertThat(arguments.get(secondId)).isEmpty();
+		assertThat(arguments.get(thirdId)).containsExactly("baz=3");
+
+		List<TaskExecution> latestTaskExecutions = this.dao
+				.getLatestTaskExecutionsByTaskNames("FOO1", "FOO2");
+		assertThat(latestTaskExecutions).hasSize(2);
+		for (TaskExecution taskExecution : latestTaskExecutions) {
+			assertThat(taskExecution.getArguments())
+					.isEqualTo(arguments.get(taskExecution.getExecutionId()));
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void streamTaskExecutionsPassesTaskExecutionsInIdOrder() {
+		long firstId = createTaskExecution(getTaskExecution("FOO1", "externalA"),
+				Arrays.asList("foo=1", "bar=1"));
+		long secondId = createTaskExecution(getTaskExecution("FOO2", "externalB"),
+				Collections.emptyList());
+		long thirdId = createTaskExecution(getTaskExecution("FOO1", "externalC"),
+				Collections.singletonList("baz=3"));
+
+		List<TaskExecution> taskExecutions = new ArrayList<>();
+		this.dao.streamTaskExecutions((String) null, taskExecutions::add);
+		assertThat(taskExecutions).extracting(TaskExecution::getExecutionId)
+				.containsExactly(firstId, secondId, thirdId);
+		assertThat(taskExecutions.get(0).getArguments())
+				.containsExactlyInAnyOrder("foo=1", "bar=1");
+		assertThat(taskExecutions.get(0).getExternalExecutionId())
+				.isEqualTo("externalA");
+		assertThat(taskExecutions.get(1).getArguments()).isEmpty();
+		assertThat(taskExecutions.get(2).getArguments()).containsExactly("baz=3");
+
+		taskExecutions.clear();
+		this.dao.streamTaskExecutions("FOO1", taskExecutions::add);
+		assertThat(taskExecutions).extracting(TaskExecution::getExecutionId)
+				.containsExactly(firstId, thirdId);
+		taskExecutions.clear();
+		this.dao.streamTaskExecutions("BAR", taskExecutions::add);
+		assertThat(taskExecutions).isEmpty();
+	}
+
+	@Test
+	@DirtiesContext
+	public void createTaskExecutionsStoresAllTaskExecutions() {
+		TaskExecution first = getTaskExecution("FOO1", "externalA");
+		first.setArguments(Arrays.asList("foo=1", "bar=1"));
+		first.setParentExecutionId(42L);
+		TaskExecution second = new TaskExecution();
+
+		List<TaskExecution> taskExecutions = this.dao
+				.createTaskExecutions(Arrays.asList(first, second));
+		assertThat(taskExecutions).hasSize(2);
+		assertThat(taskExecutions.get(0).getExecutionId())
+				.isLessThan(taskExecutions.get(1).getExecutionId());
+		assertThat(this.dao.createTaskExecutions(Collections.emptyList())).isEmpty();
+
+		TaskExecution storedFirst = this.dao
+				.getTaskExecution(taskExecutions.get(0).getExecutionId());
+		assertThat(storedFirst.getTaskName()).isEqualTo("FOO1");
+		assertThat(storedFirst.getExternalExecutionId()).isEqualTo("externalA");
+		assertThat(storedFirst.getParentExecutionId()).isEqualTo(42L);
+		assertThat(storedFirst.getStartTime()).isNotNull();
+		assertThat(storedFirst.getArguments()).containsExactlyInAnyOrder("foo=1",
+				"bar=1");
+		TaskExecution storedSecond = this.dao
+				.getTaskExecution(taskExecutions.get(1).getExecutionId());
+		assertThat(storedSecond.getTaskName()).isNull();
+		assertThat(storedSecond.getStartTime()).isNull();
+		assertThat(storedSecond.getArguments()).isEmpty();
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(2);
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsStartedBetween() {
+		List<Long> fooIds = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			fooIds.add(this.dao.createTaskExecution("FOO", getDate(2020, 1, 1, 0, i),
+					Collections.singletonList("index=" + i), null).getExecutionId());
+		}
+		long barId = this.dao.createTaskExecution("BAR", getDate(2020, 1, 1, 0, 2),
+				Collections.emptyList(), null).getExecutionId();
+		this.dao.createTaskExecution("FOO", null, Collections.emptyList(), null);
+
+		Page<TaskExecution> page = this.dao.findTaskExecutionsStartedBetween(
+				getDate(2020, 1, 1, 0, 1), getDate(2020, 1, 1, 0, 4),
+				PageRequest.of(0, 10));
+		assertThat(page.getContent()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(fooIds.get(3), barId, fooIds.get(2), fooIds.get(1));
+		assertThat(page.getTotalElements()).isEqualTo(4);
+
+		page = this.dao.findTaskExecutionsByNameStartedBetween("FOO",
+				getDate(2020, 1, 1, 0, 1), getDate(2020, 1, 1, 0, 4),
+				PageRequest.of(1, 2));
+		assertThat(page.getContent()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(fooIds.get(1));
+		assertThat(page.getContent().get(0).getArguments()).containsExactly("index=1");
+		assertThat(page.getTotalElements()).isEqualTo(3);
+
+		assertThat(this.dao.findTaskExecutionsByNameStartedBetween("FOO",
+				getDate(2020, 1, 1, 0, 3), null, PageRequest.of(0, 10)).getContent())
+						.extracting(TaskExecution::getExecutionId)
+						.containsExactly(fooIds.get(4), fooIds.get(3));
+		assertThat(this.dao.findTaskExecutionsStartedBetween(null,
+				getDate(2020, 1, 1, 0, 1), PageRequest.of(0, 10)).getContent())
+						.extracting(TaskExecution::getExecutionId)
+						.containsExactly(fooIds.get(0));
+		assertThat(this.dao.findTaskExecutionsByNameStartedBetween("BAZ", null, null,
+				PageRequest.of(0, 10)).getTotalElements()).isZero();
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsMatchingCriteria() {
+		long fooSucceeded = createCompletedTaskExecution("FOO", 0, 0);
+		long fooFailed = createCompletedTaskExecution("FOO", 1, 1);
+		long foobarFailed = createCompletedTaskExecution("FOOBAR", 2, 2);
+		long barFailed = createCompletedTaskExecution("BAR", 3, 1);
+		long fooRunning = this.dao.createTaskExecution("FOO", getDate(2020, 1, 1, 0, 4),
+				Collections.emptyList(), null).getExecutionId();
+		createCompletedTaskExecution("F_O", 5, 1);
+
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+		criteria.setTaskNamePrefix("FOO");
+		assertThat(findTaskExecutionIds(criteria)).containsExactly(fooRunning,
+				foobarFailed, fooFailed, fooSucceeded);
+		criteria.setSuccessful(false);
+		assertThat(findTaskExecutionIds(criteria)).containsExactly(foobarFailed,
+				fooFailed);
+		criteria.setStartTimeTo(getDate(2020, 1, 1, 0, 2));
+		assertThat(findTaskExecutionIds(criteria)).containsExactly(fooFailed);
+
+		criteria = new TaskExecutionCriteria();
+		criteria.setExitCode(1);
+		criteria.setStartTimeFrom(getDate(2020, 1, 1, 0, 1));
+		criteria.setStartTimeTo(getDate(2020, 1, 1, 0, 5));
+		assertThat(findTaskExecutionIds(criteria)).containsExactly(barFailed,
+				fooFailed);
+		criteria.setSuccessful(true);
+		assertThat(findTaskExecutionIds(criteria)).isEmpty();
+
+		criteria = new TaskExecutionCriteria();
+		criteria.setSuccessful(true);
+		assertThat(findTaskExecutionIds(criteria)).containsExactly(fooSucceeded);
+		criteria.setSuccessful(null);
+		criteria.setTaskNamePrefix("F_");
+		assertThat(findTaskExecutionIds(criteria)).hasSize(1);
+		criteria.setTaskNamePrefix("");
+		Page<TaskExecution> page = this.dao.findTaskExecutions(criteria,
+				PageRequest.of(1, 4));
+		assertThat(page.getTotalElements()).isEqualTo(6);
+		assertThat(page.getContent()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(fooFailed, fooSucceeded);
+	}
+
+	@Test
+	@DirtiesContext
+	public void getTaskExecutionStatistics() {
+		createCompletedTaskExecution("FOO", 0, 0);
+		createCompletedTaskExecution("FOO", 1, 1);
+		long fooId = this.dao.createTaskExecution("FOO", getDate(2020, 1, 1, 0, 45),
+				Collections.emptyList(), null).getExecutionId();
+		this.dao.completeTaskExecution(fooId, 2, getDate(2020, 1, 1, 1, 15), null);
+		long barId = this.dao.createTaskExecution("BAR", getDate(2020, 1, 1, 0, 2),
+				Collections.emptyList(), null).getExecutionId();
+		this.dao.completeTaskExecution(barId, 0, getDate(2020, 1, 1, 0, 32), null);
+		this.dao.createTaskExecution("BAR", getDate(2020, 1, 1, 0, 40),
+				Collections.emptyList(), null);
+
+		TaskExecutionCriteria criteria = new TaskExecutionCriteria();
+		List<TaskExecutionStatistics> statistics = this.dao
+				.getTaskExecutionStatistics(criteria, null);
+		assertThat(statistics).hasSize(2);
+		assertStatistics(statistics.get(0), "BAR", null, 2, 1, 1, 0, 40, 30);
+		assertStatistics(statistics.get(1), "FOO", null, 3, 0, 1, 2, 45, 50);
+
+		criteria.setStartTimeFrom(getDate(2020, 1, 1, 0, 0));
+		statistics = this.dao.getTaskExecutionStatistics(criteria,
+				Duration.ofMinutes(30));
+		assertThat(statistics).hasSize(4);
+		assertStatistics(statistics.get(0), "BAR", 0, 1, 0, 1, 0, 2, 30);
+		assertStatistics(statistics.get(1), "BAR", 30, 1, 1, 0, 0, 40, null);
+		assertStatistics(statistics.get(2), "FOO", 0, 2, 0, 1, 1, 1, 60);
+		assertStatistics(statistics.get(3), "FOO", 30, 1, 0, 0, 1, 45, 30);
+
+		criteria.setTaskNamePrefix("FO");
+		criteria.setSuccessful(false);
+		statistics = this.dao.getTaskExecutionStatistics(criteria, null);
+		assertThat(statistics).hasSize(1);
+		assertStatistics(statistics.get(0), "FOO", null, 2, 0, 0, 2, 45, 45);
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.dao.getTaskExecutionStatistics(
+						new TaskExecutionCriteria(), Duration.ofMinutes(30)));
+	}
+
+	@Test
+	@DirtiesContext
+	public void findCompletedTaskExecutionsEndedBeforeAndDelete() {
+		List<Long> completedIds = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			TaskExecution taskExecution = this.dao.createTaskExecution("FOO",
+					getDate(2020, 1, 1, 0, i), Collections.singletonList("index=" + i),
+					null);
+			this.dao.completeTaskExecution(taskExecution.getExecutionId(), 0,
+					getDate(2020, 1, 1, 1, i), null);
+			completedIds.add(taskExecution.getExecutionId());
+		}
+		long runningId = this.dao.createTaskExecution("FOO", getDate(2020, 1, 1, 0, 0),
+				Collections.emptyList(), null).getExecutionId();
+
+		List<TaskExecution> found = this.dao
+				.findCompletedTaskExecutionsEndedBefore(getDate(2020, 1, 1, 1, 4), 3);
+		assertThat(found).extracting(TaskExecution::getExecutionId)
+				.containsExactlyElementsOf(completedIds.subList(0, 3));
+		assertThat(found.get(0).getArguments()).containsExactly("index=0");
+		assertThat(this.dao
+				.findCompletedTaskExecutionsEndedBefore(getDate(2020, 1, 1, 1, 4), 10))
+						.hasSize(4);
+
+		assertThat(this.dao.deleteTaskExecutions(completedIds.subList(0, 3)))
+				.isEqualTo(3);
+		assertThat(this.dao.deleteTaskExecutions(Collections.emptyList())).isZero();
+		assertThat(this.dao.getTaskExecution(completedIds.get(0))).isNull();
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(3);
+		assertThat(this.dao
+				.findCompletedTaskExecutionsEndedBefore(getDate(2020, 1, 1, 1, 4), 10))
+						.extracting(TaskExecution::getExecutionId)
+						.containsExactly(completedIds.get(3));
+		assertThat(this.dao.getTaskExecution(runningId)).isNotNull();
+	}
+
+	@Test
+	@DirtiesContext
+	public void findCompletedTaskExecutionsBeyondLatest() {
+		List<Long> completedIds = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			TaskExecution taskExecution = this.dao.createTaskExecution("FOO",
+					getDate(2020, 1, 1, 0, i), Collections.emptyList(), null);
+			this.dao.completeTaskExecution(taskExecution.getExecutionId(), 0,
+					getDate(2020, 1, 1, 1, i), null);
+			completedIds.add(taskExecution.getExecutionId());
+		}
+		this.dao.createTaskExecution("FOO", getDate(2020, 1, 1, 0, 10),
+				Collections.emptyList(), null);
+		this.dao.createTaskExecution("BAR", getDate(2020, 1, 1, 0, 0),
+				Collections.emptyList(), null);
+
+		assertThat(this.dao.findCompletedTaskExecutionsBeyondLatest("FOO", 2, 10))
+				.extracting(TaskExecution::getExecutionId).containsExactly(
+						completedIds.get(2), completedIds.get(1), completedIds.get(0));
+		assertThat(this.dao.findCompletedTaskExecutionsBeyondLatest("FOO", 2, 1))
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactly(completedIds.get(2));
+		assertThat(this.dao.findCompletedTaskExecutionsBeyondLatest("FOO", 5, 10))
+				.isEmpty();
+		assertThat(this.dao.findCompletedTaskExecutionsBeyondLatest("BAR", 0, 10))
+				.isEmpty();
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllAfterTaskExecutionWalksAllTaskExecutionsInOrder() {
+		initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		List<TaskExecution> expected = new ArrayList<>(
+				this.dao.findAll(PageRequest.of(0, 20)).getContent());
+		expected.sort(Comparator.comparing(TaskExecution::getStartTime)
+				.thenComparing(TaskExecution::getExecutionId).reversed());
+
+		List<Long> executionIds = new ArrayList<>();
+		List<TaskExecution> page = this.dao.findAll(null, 3);
+		while (!page.isEmpty()) {
+			assertThat(page.size()).isLessThanOrEqualTo(3);
+			for (TaskExecution taskExecution : page) {
+				executionIds.add(taskExecution.getExecutionId());
+			}
+			page = this.dao.findAll(page.get(page.size() - 1), 3);
+		}
+		assertThat(executionIds).hasSize(10);
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(executionIds.get(i))
+					.isEqualTo(expected.get(i).getExecutionId());
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsByNameAfterTaskExecution() {
+		initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		List<TaskExecution> firstPage = this.dao.findTaskExecutionsByName("FOO1",
+				null, 3);
+		assertThat(firstPage).hasSize(3);
+		assertThat(firstPage)
+				.extracting(taskExecution -> taskExecution.getStartTime().getTime())
+				.containsExactly(getDate(2015, 2, 22, 23, 59).getTime(),
+						getDate(2015, 2, 20, 14, 45).getTime(),
+						getDate(2015, 1, 20, 14, 45).getTime());
+
+		List<TaskExecution> secondPage = this.dao.findTaskExecutionsByName("FOO1",
+				firstPage.get(2), 3);
+		assertThat(secondPage).hasSize(1);
+		assertThat(secondPage.get(0).getStartTime().getTime())
+				.isEqualTo(getDate(2015, 1, 19, 14, 30).getTime());
+
+		assertThat(this.dao.findTaskExecutionsByName("FOO1", secondPage.get(0), 3))
+				.isEmpty();
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllAsSliceMatchesFindAll() {
+		initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		for (int pageNumber = 0; pageNumber < 4; pageNumber++) {
+			Page<TaskExecution> page = this.dao.findAll(PageRequest.of(pageNumber, 3));
+			Slice<TaskExecution> slice = this.dao
+					.findAllAsSlice(PageRequest.of(pageNumber, 3));
+			assertThat(slice.getContent()).extracting(TaskExecution::getExecutionId)
+					.containsExactlyElementsOf(page.getContent().stream()
+							.map(TaskExecution::getExecutionId)
+							.collect(Collectors.toList()));
+			assertThat(slice.hasNext()).isEqualTo(page.hasNext());
+		}
+		assertThat(this.dao.findAllAsSlice(PageRequest.of(3, 3)).hasNext()).isFalse();
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsByNameAsSlice() {
+		initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		Slice<TaskExecution> slice = this.dao.findTaskExecutionsByNameAsSlice("FOO1",
+				PageRequest.of(0, 3));
+		assertThat(slice.getContent()).hasSize(3);
+		assertThat(slice.hasNext()).isTrue();
+
+		slice = this.dao.findTaskExecutionsByNameAsSlice("FOO1", PageRequest.of(1, 3));
+		assertThat(slice.getContent()).hasSize(1);
+		assertThat(slice.hasNext()).isFalse();
+
+		slice = this.dao.findRunningTaskExecutionsAsSlice("FOO5", PageRequest.of(0, 3));
+		assertThat(slice.getContent()).hasSize(3);
+		assertThat(slice.hasNext()).isFalse();
+	}
+
+	@Test
+	@DirtiesContext
+	public void startTaskExecutionWithNoCreate() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.dao.startTaskExecution(12345L, "FOO",
+						new Date(), Collections.emptyList(), null))
+				.withMessage("Invalid TaskExecution, ID 12345 not found");
+	}
+
+	@Test
+	@DirtiesContext
+	public void startCompletedTaskExecution() {
+		long executionId = this.dao.createTaskExecution(null, null,
+				Collections.emptyList(), null).getExecutionId();
+		this.dao.startTaskExecution(executionId, "FOO", new Date(),
+				Collections.emptyList(), null);
+		this.dao.completeTaskExecution(executionId, 0, new Date(), null);
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.dao.startTaskExecution(executionId, "FOO",
+						new Date(), Collections.emptyList(), null))
+				.withMessage("Invalid TaskExecution, ID " + executionId
+						+ " task is already complete");
+		assertThat(this.dao.getTaskExecution(executionId).getExitCode()).isZero();
+	}
+
+	private long createCompletedTaskExecution(String taskName, int startMinute,
+			int exitCode) {
+		long executionId = this.dao.createTaskExecution(taskName,
+				getDate(2020, 1, 1, 0, startMinute), Collections.emptyList(), null)
+				.getExecutionId();
+		this.dao.completeTaskExecution(executionId, exitCode,
+				getDate(2020, 1, 1, 1, startMinute), null);
+		return executionId;
+	}
+
+	private void assertStatistics(TaskExecutionStatistics statistics, String taskName,
+			Integer bucketStartMinute, long executionCount, long runningExecutionCount,
+			long successfulExecutionCount, long failedExecutionCount,
+			int lastStartMinute, Integer averageDurationInMinutes) {
+		assertThat(statistics.getTaskName()).isEqualTo(taskName);
+		if (bucketStartMinute == null) {
+			assertThat(statistics.getBucketStartTime()).isNull();
+		}
+		else {
+			assertThat(statistics.getBucketStartTime().getTime())
+					.isEqualTo(getDate(2020, 1, 1, 0, bucketStartMinute).getTime());
+		}
+		assertThat(statistics.getExecutionCount()).isEqualTo(executionCount);
+		assertThat(statistics.getRunningExecutionCount())
+				.isEqualTo(runningExecutionCount);
+		assertThat(statistics.getSuccessfulExecutionCount())
+				.isEqualTo(successfulExecutionCount);
+		assertThat(statistics.getFailedExecutionCount()).isEqualTo(failedExecutionCount);
+		assertThat(statistics.getLastStartTime().getTime())
+				.isEqualTo(getDate(2020, 1, 1, 0, lastStartMinute).getTime());
+		assertThat(statistics.getAverageDuration())
+				.isEqualTo((averageDurationInMinutes != null)
+						? Duration.ofMinutes(averageDurationInMinutes) : null);
+	}
+
+	private List<Long> findTaskExecutionIds(TaskExecutionCriteria criteria) {
+		List<Long> executionIds = this.dao
+				.findTaskExecutions(criteria, PageRequest.of(0, 10)).getContent()
+				.stream().map(TaskExecution::getExecutionId)
+				.collect(Collectors.toList());
+		// the same task executions are streamed, sorted by id ascending
+		List<Long> streamedIds = new ArrayList<>();
+		this.dao.streamTaskExecutions(criteria,
+				(taskExecution) -> streamedIds.add(taskExecution.getExecutionId()));
+		assertThat(streamedIds).isSorted()
+				.containsExactlyInAnyOrderElementsOf(executionIds);
+		return executionIds;
+	}
+
 	protected long initializeRepositoryNotInOrderWithMultipleTaskExecutions() {
 
 		final TaskExecution foo1_0 = getTaskExecution("FOO1", "externalC");
@@ -325,8 +774,12 @@ public class BaseTaskExecutionDaoTestCases {
 	}
 
 	private long createTaskExecution(TaskExecution te) {
+		return createTaskExecution(te, te.getArguments());
+	}
+
+	private long createTaskExecution(TaskExecution te, List<String> arguments) {
 		return this.dao.createTaskExecution(te.getTaskName(), te.getStartTime(),
-				te.getArguments(), te.getExternalExecutionId()).getExecutionId();
+				arguments, te.getExternalExecutionId()).getExecutionId();
 	}
 
 	protected TaskExecution getTaskExecution(String taskName,
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
+import org.springframework.cloud.task.configuration.TestConfiguration;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.util.StatementCountingDataSource;
+import org.springframework.cloud.task.util.TestDBUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the queries issued by the {@link JdbcTaskExecutionDao} are served by the
+ * indexes of the task schema rather than by table scans, using the H2 query plans.
+ *
+ * @author Glenn Renfro
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(
+		classes = { TestConfiguration.class, EmbeddedDataSourceConfiguration.class,
+				PropertyPlaceholderAutoConfiguration.class })
+@DirtiesContext
+public class JdbcTaskExecutionDaoQueryPlanTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	private StatementCountingDataSource countingDataSource;
+
+	private JdbcTaskExecutionDao dao;
+
+	private TaskExecution taskExecution;
+
+	@BeforeEach
+	public void setup() {
+		this.countingDataSource = new StatementCountingDataSource(this.dataSource);
+		this.dao = new JdbcTaskExecutionDao(this.countingDataSource);
+		this.dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		this.taskExecution = this.dao.createTaskExecution("FOO", new Date(),
+				new ArrayList<>(0), null);
+		this.dao.createTaskExecution("BAR", new Date(), new ArrayList<>(0), null);
+		this.countingDataSource.reset();
+	}
+
+	@Test
+	public void taskNameQueriesUseTaskNameIndex() throws SQLException {
+		this.dao.getTaskExecutionCountByTaskName("FOO");
+		this.dao.findTaskExecutionsByName("FOO", PageRequest.of(0, 10));
+		this.dao.findTaskExecutionsByName("FOO", this.taskExecution, 10);
+		this.dao.getLatestTaskExecutionsByTaskNames("FOO", "BAR");
+		this.dao.getTaskNames();
+		assertQueriesUseIndexes("TASK_EXEC_NAME_START_IX");
+	}
+
+	@Test
+	public void runningQueriesUseRunningIndex() throws SQLException {
+		this.dao.getRunningTaskExecutionCount();
+		this.dao.getRunningTaskExecutionCountByTaskName("FOO");
+		this.dao.findRunningTaskExecutions("FOO", PageRequest.of(0, 10));
+		assertQueriesUseIndexes("TASK_EXEC_RUNNING_IX");
+	}
+
+	@Test
+	public void findAllQueriesUseStartTimeIndex() throws SQLException {
+		this.dao.findAll(PageRequest.of(0, 10));
+		this.dao.findAllAsSlice(PageRequest.of(0, 10));
+		this.dao.findAll(this.taskExecution, 10);
+		assertQueriesUseIndexes("TASK_EXEC_START_IX");
+	}
+
+	@Test
+	public void endedBeforeQueryUsesEndTimeIndex() throws SQLException {
+		this.dao.findCompletedTaskExecutionsEndedBefore(new Date(), 10);
+		// both TASK_EXEC_END_IX and TASK_EXEC_RUNNING_IX start with END_TIME on H2
+		assertQueriesUseIndexes("_IX: END_TIME < ");
+	}
+
+	@Test
+	public void batchQueriesUseBatchIndexes() throws SQLException {
+		this.dao.getTaskExecutionIdByJobExecutionId(1L);
+		this.dao.getJobExecutionIdsByTaskExecutionId(this.taskExecution.getExecutionId());
+		this.dao.getJobExecutionIdsByTaskExecutionIds(
+				Collections.singletonList(this.taskExecution.getExecutionId()));
+		assertQueriesUseIndexes("TASK_BATCH_JOB_IX");
+	}
+
+	private void assertQueriesUseIndexes(String... expectedIndexes) throws SQLException {
+		List<String> plans = new ArrayList<>();
+		try (Connection connection = this.dataSource.getConnection()) {
+			for (String sql : this.countingDataSource.getPreparedStatements()) {
+				if (!sql.trim().toUpperCase().startsWith("SELECT")
+						|| sql.contains("NEXT VALUE FOR")) {
+					continue;
+				}
+				try (PreparedStatement statement = connection
+						.prepareStatement("EXPLAIN " + sql);
+						ResultSet resultSet = statement.executeQuery()) {
+					resultSet.next();
+					String plan = resultSet.getString(1);
+					assertThat(plan).as("Query plan for %s", sql)
+							.doesNotContain("tableScan");
+					plans.add(plan);
+				}
+			}
+		}
+		assertThat(plans).isNotEmpty();
+		for (String expectedIndex : expectedIndexes) {
+			assertThat(String.join("\n", plans)).contains(expectedIndex);
+		}
+	}
+
+}
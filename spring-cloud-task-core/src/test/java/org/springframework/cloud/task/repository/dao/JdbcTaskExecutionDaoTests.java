@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,15 @@
 package org.springframework.cloud.task.repository.dao;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -34,15 +39,24 @@ import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfigurati
 import org.springframework.cloud.task.configuration.TestConfiguration;
 import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.support.DatabaseType;
+import org.springframework.cloud.task.repository.support.SequenceRangeDataFieldMaxValueIncrementer;
+import org.springframework.cloud.task.util.StatementCountingDataSource;
 import org.springframework.cloud.task.util.TestDBUtils;
 import org.springframework.cloud.task.util.TestVerifierUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -108,6 +122,320 @@ public class JdbcTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 						expectedTaskExecution.getExecutionId()));
 	}
 
+	@Test
+	@DirtiesContext
+	public void createAndStartTaskExecutionBatchArguments() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		List<String> arguments = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			arguments.add("arg" + i + "=" + UUID.randomUUID().toString());
+		}
+
+		TaskExecution expectedTaskExecution = dao.createTaskExecution("FOO",
+				new Date(), arguments, null);
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(2);
+		TestVerifierUtils.verifyTaskExecution(expectedTaskExecution,
+				TestDBUtils.getTaskExecutionFromDB(this.dataSource,
+						expectedTaskExecution.getExecutionId()));
+
+		TaskExecution emptyTaskExecution = dao.createTaskExecution(null, null,
+				new ArrayList<>(0), null);
+		countingDataSource.reset();
+		expectedTaskExecution = dao.startTaskExecution(
+				emptyTaskExecution.getExecutionId(), "BAR", new Date(), arguments,
+				null);
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(2);
+		TestVerifierUtils.verifyTaskExecution(expectedTaskExecution,
+				TestDBUtils.getTaskExecutionFromDB(this.dataSource,
+						expectedTaskExecution.getExecutionId()));
+	}
+
+	@Test
+	@DirtiesContext
+	public void startAndCompleteTaskExecutionWithoutLookups() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		long executionId = dao
+				.createTaskExecution(null, null, new ArrayList<>(0), null)
+				.getExecutionId();
+
+		countingDataSource.reset();
+		dao.startTaskExecution(executionId, "FOO", new Date(), new ArrayList<>(0),
+				null);
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(1);
+
+		countingDataSource.reset();
+		dao.completeTaskExecution(executionId, 0, new Date(), "done", null);
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(1);
+		assertThat(TestDBUtils.getTaskExecutionFromDB(this.dataSource, executionId)
+				.getExitMessage()).isEqualTo("done");
+	}
+
+	@Test
+	@DirtiesContext
+	public void createTaskExecutionsWithBatchedStatements() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(new SequenceRangeDataFieldMaxValueIncrementer(
+				countingDataSource, DatabaseType.H2, "TASK_SEQ",
+				TestDBUtils.getIncrementer(this.dataSource)));
+		List<TaskExecution> taskExecutions = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			TaskExecution taskExecution = new TaskExecution();
+			taskExecution.setArguments(Arrays.asList("first=" + i, "second=" + i));
+			taskExecutions.add(taskExecution);
+		}
+
+		List<TaskExecution> createdTaskExecutions = dao
+				.createTaskExecutions(taskExecutions);
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(3);
+		assertThat(createdTaskExecutions).hasSize(50);
+		for (TaskExecution createdTaskExecution : createdTaskExecutions) {
+			TestVerifierUtils.verifyTaskExecution(createdTaskExecution,
+					TestDBUtils.getTaskExecutionFromDB(this.dataSource,
+							createdTaskExecution.getExecutionId()));
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void streamTaskExecutionsWithSingleQuery() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		dao.setStreamFetchSize(50);
+		for (int i = 0; i < 120; i++) {
+			dao.createTaskExecution("FOO", new Date(),
+					Arrays.asList("first=" + i, "second=" + i), null);
+		}
+
+		countingDataSource.reset();
+		List<TaskExecution> taskExecutions = new ArrayList<>();
+		dao.streamTaskExecutions("FOO", taskExecutions::add);
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(1);
+		assertThat(countingDataSource.getFetchSizes()).containsExactly(50);
+		assertThat(taskExecutions).hasSize(120);
+		assertThat(taskExecutions).allSatisfy((taskExecution) -> assertThat(
+				taskExecution.getArguments()).hasSize(2));
+	}
+
+	@Test
+	@DirtiesContext
+	public void streamTaskExecutionsWithinReadOnlyTransaction() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		dao.createTaskExecution("FOO", new Date(), new ArrayList<>(0), null);
+
+		countingDataSource.reset();
+		List<Boolean> readOnly = new ArrayList<>();
+		dao.streamTaskExecutions("FOO", (taskExecution) -> readOnly
+				.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+		assertThat(readOnly).containsExactly(true);
+		assertThat(countingDataSource.getFetchSizes())
+				.containsExactly(JdbcTaskExecutionDao.DEFAULT_STREAM_FETCH_SIZE);
+	}
+
+	@Test
+	@DirtiesContext
+	public void pagingQueriesAreCachedPerDao() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		for (int i = 0; i < 5; i++) {
+			dao.createTaskExecution("FOO", new Date(), new ArrayList<>(0), null);
+		}
+
+		assertThat(dao.findAll(PageRequest.of(0, 2)).getContent()).hasSize(2);
+		assertThat(countingDataSource.getMetaDataLookupCount()).isGreaterThan(0);
+		dao.findTaskExecutionsByName("FOO", PageRequest.of(0, 2));
+		dao.findAll(null, 2);
+
+		countingDataSource.reset();
+		assertThat(dao.findAll(PageRequest.of(0, 2)).getContent()).hasSize(2);
+		assertThat(dao.findAll(PageRequest.of(2, 2)).getContent()).hasSize(1);
+		assertThat(dao.findTaskExecutionsByName("FOO", PageRequest.of(1, 2))
+				.getContent()).hasSize(2);
+		assertThat(dao.findAll(null, 2)).hasSize(2);
+		assertThat(countingDataSource.getMetaDataLookupCount()).isEqualTo(0);
+	}
+
+	@Test
+	@DirtiesContext
+	public void pagingQueriesBindTheOffset() {
+		for (int i = 0; i < 5; i++) {
+			this.dao.createTaskExecution("FOO", new Date(), new ArrayList<>(0), null);
+		}
+		List<Long> all = this.dao.findAll(PageRequest.of(0, 5)).getContent().stream()
+				.map(TaskExecution::getExecutionId).collect(Collectors.toList());
+		// same page number and size as PageRequest.of(1, 2), different offset
+		Pageable offsetPageable = new PageRequest(1, 2, Sort.unsorted()) {
+			@Override
+			public long getOffset() {
+				return 3;
+			}
+		};
+
+		assertThat(this.dao.findAll(PageRequest.of(1, 2)).getContent())
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactlyElementsOf(all.subList(2, 4));
+		assertThat(this.dao.findAll(offsetPageable).getContent())
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactlyElementsOf(all.subList(3, 5));
+		for (int page = 0; page < 5; page++) {
+			assertThat(this.dao.findAllAsSlice(PageRequest.of(page, 1)).getContent())
+					.extracting(TaskExecution::getExecutionId)
+					.containsExactly(all.get(page));
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllReturnsPageAndTotalInSingleQuery() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		for (int i = 0; i < 5; i++) {
+			dao.createTaskExecution("FOO", new Date(), new ArrayList<>(0), null);
+		}
+
+		countingDataSource.reset();
+		Page<TaskExecution> page = dao.findAll(PageRequest.of(1, 2));
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(page.getTotalElements()).isEqualTo(5);
+		// page query and argument query, no count query
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(2);
+
+		page = dao.findTaskExecutionsByName("FOO", PageRequest.of(0, 3));
+		assertThat(page.getTotalElements()).isEqualTo(5);
+		assertThat(page.getTotalPages()).isEqualTo(2);
+
+		page = dao.findAll(PageRequest.of(5, 2));
+		assertThat(page.getContent()).isEmpty();
+		assertThat(page.getTotalElements()).isEqualTo(5);
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllAsSliceDoesNotCount() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		for (int i = 0; i < 5; i++) {
+			dao.createTaskExecution("FOO", new Date(), new ArrayList<>(0), null);
+		}
+
+		countingDataSource.reset();
+		Slice<TaskExecution> slice = dao.findAllAsSlice(PageRequest.of(1, 2));
+		assertThat(slice.getContent()).hasSize(2);
+		assertThat(slice.hasNext()).isTrue();
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(2);
+
+		slice = dao.findAllAsSlice(PageRequest.of(2, 2));
+		assertThat(slice.getContent()).hasSize(1);
+		assertThat(slice.hasNext()).isFalse();
+	}
+
+	@Test
+	@DirtiesContext
+	public void deleteTaskExecutionsRemovesArgumentsAndJobAssociations() {
+		TaskExecution taskExecution = this.dao.createTaskExecution("FOO", new Date(),
+				Arrays.asList("foo=bar", "baz=qux"), null);
+		TaskExecution retained = this.dao.createTaskExecution("FOO", new Date(),
+				Collections.singletonList("foo=bar"), null);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		jdbcTemplate.update(
+				"INSERT INTO TASK_TASK_BATCH (TASK_EXECUTION_ID, JOB_EXECUTION_ID) VALUES (?, ?)",
+				taskExecution.getExecutionId(), 42L);
+
+		assertThat(this.dao.deleteTaskExecutions(
+				Arrays.asList(taskExecution.getExecutionId(), 12345L))).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM TASK_EXECUTION_PARAMS WHERE TASK_EXECUTION_ID = ?",
+				Long.class, taskExecution.getExecutionId())).isZero();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM TASK_TASK_BATCH", Long.class)).isZero();
+		assertThat(this.dao.getTaskExecution(retained.getExecutionId()).getArguments())
+				.containsExactly("foo=bar");
+	}
+
+	@Test
+	@DirtiesContext
+	public void getJobExecutionIdsByTaskExecutionIdsInSingleQuery() {
+		TaskExecution first = this.dao.createTaskExecution("FOO", new Date(),
+				new ArrayList<>(0), null);
+		TaskExecution second = this.dao.createTaskExecution("FOO", new Date(),
+				new ArrayList<>(0), null);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		for (long jobExecutionId : new long[] { 43L, 42L }) {
+			jdbcTemplate.update(
+					"INSERT INTO TASK_TASK_BATCH (TASK_EXECUTION_ID, JOB_EXECUTION_ID) VALUES (?, ?)",
+					first.getExecutionId(), jobExecutionId);
+		}
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao countingDao = new JdbcTaskExecutionDao(countingDataSource);
+
+		Map<Long, Set<Long>> jobExecutionIds = countingDao
+				.getJobExecutionIdsByTaskExecutionIds(
+						Arrays.asList(first.getExecutionId(), second.getExecutionId()));
+
+		assertThat(jobExecutionIds.get(first.getExecutionId())).containsExactly(42L,
+				43L);
+		assertThat(jobExecutionIds.get(second.getExecutionId())).isEmpty();
+		assertThat(countingDataSource.getPreparedStatements()).hasSize(1);
+	}
+
+	@Test
+	public void startTimePartitionedArguments() {
+		EmbeddedDatabase partitionedDataSource = new EmbeddedDatabaseBuilder()
+				.setName(UUID.randomUUID().toString()).setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:org/springframework/cloud/task/schema-h2-partitioned.sql")
+				.build();
+		try {
+			JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(partitionedDataSource);
+			dao.setTaskIncrementer(TestDBUtils.getIncrementer(partitionedDataSource));
+			dao.setStartTimePartitioned(true);
+			TaskExecution taskExecution = dao.createTaskExecution(null, null,
+					Collections.singletonList("foo=bar"), null);
+			Date startTime = new Date(1_000_000_000_000L);
+			dao.startTaskExecution(taskExecution.getExecutionId(), "FOO", startTime,
+					Collections.singletonList("baz=qux"), null);
+			dao.createTaskExecutions(Collections.singletonList(new TaskExecution(0,
+					null, "FOO", new Date(), null, null,
+					Collections.singletonList("later=true"), null, null)));
+
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(partitionedDataSource);
+			assertThat(jdbcTemplate.queryForList(
+					"SELECT START_TIME FROM TASK_EXECUTION_PARAMS WHERE TASK_EXECUTION_ID = ?",
+					Date.class, taskExecution.getExecutionId()))
+							.extracting(Date::getTime)
+							.containsExactly(startTime.getTime(), startTime.getTime());
+			Page<TaskExecution> page = dao.findTaskExecutionsByNameStartedBetween("FOO",
+					startTime, new Date(startTime.getTime() + 1),
+					PageRequest.of(0, 10));
+			assertThat(page.getContent()).hasSize(1);
+			assertThat(page.getContent().get(0).getArguments())
+					.containsExactlyInAnyOrder("foo=bar", "baz=qux");
+			assertThat(dao.findAll(PageRequest.of(0, 10)).getTotalElements())
+					.isEqualTo(2);
+		}
+		finally {
+			partitionedDataSource.shutdown();
+		}
+	}
+
 	@Test
 	@DirtiesContext
 	public void createEmptyTaskExecution() {
@@ -151,6 +479,33 @@ public class JdbcTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 		});
 	}
 
+	@Test
+	@DirtiesContext
+	public void getLatestTaskExecutionsByTaskNamesWithAndWithoutWindowFunctions() {
+		Date startTime = new Date(1_000_000_000_000L);
+		this.dao.createTaskExecution("FOO", new Date(startTime.getTime() - 1000),
+				Collections.singletonList("foo=0"), null);
+		this.dao.createTaskExecution("FOO", startTime, Collections.singletonList("foo=1"),
+				null);
+		long latestFooId = this.dao.createTaskExecution("FOO", startTime,
+				Collections.singletonList("foo=2"), null).getExecutionId();
+		this.dao.createTaskExecution("FOO", null, Collections.emptyList(), null);
+		long latestBarId = this.dao.createTaskExecution("BAR",
+				new Date(startTime.getTime() + 1000), Collections.emptyList(), null)
+				.getExecutionId();
+		this.dao.createTaskExecution("BAZ", null, Collections.emptyList(), null);
+
+		JdbcTaskExecutionDao jdbcDao = (JdbcTaskExecutionDao) this.dao;
+		for (boolean windowFunctionsEnabled : new boolean[] { true, false }) {
+			jdbcDao.setWindowFunctionsEnabled(windowFunctionsEnabled);
+			List<TaskExecution> latest = jdbcDao
+					.getLatestTaskExecutionsByTaskNames("FOO", "BAR", "BAZ", "QUX");
+			assertThat(latest).extracting(TaskExecution::getExecutionId)
+					.containsExactly(latestBarId, latestFooId);
+			assertThat(latest.get(1).getArguments()).containsExactly("foo=2");
+		}
+	}
+
 	@Test
 	@DirtiesContext
 	public void testFindAllPageableSort() {
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the window function and the self join queries of
+ * {@link JdbcTaskExecutionDao#getLatestTaskExecutionsByTaskNames(String...)} on a million
+ * task executions. Only run when the {@code spring.cloud.task.benchmark} system property
+ * is {@code true}, for example {@code mvn test -Dtest=LatestTaskExecutionsBenchmarkTests
+ * -Dspring.cloud.task.benchmark=true}.
+ *
+ * @author Glenn Renfro
+ */
+@EnabledIfSystemProperty(named = "spring.cloud.task.benchmark", matches = "true")
+public class LatestTaskExecutionsBenchmarkTests {
+
+	private static final Log logger = LogFactory
+			.getLog(LatestTaskExecutionsBenchmarkTests.class);
+
+	private static final int TASK_NAME_COUNT = 10_000;
+
+	private static final int EXECUTIONS_PER_TASK_NAME = 100;
+
+	private static final int QUERIED_TASK_NAME_COUNT = 1000;
+
+	private static final int ITERATIONS = 10;
+
+	private EmbeddedDatabase dataSource;
+
+	private JdbcTaskExecutionDao dao;
+
+	@BeforeEach
+	public void setUp() {
+		this.dataSource = new EmbeddedDatabaseBuilder()
+				.setName(UUID.randomUUID().toString()).setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:org/springframework/cloud/task/schema-h2.sql")
+				.build();
+		this.dao = new JdbcTaskExecutionDao(this.dataSource);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		long executionId = 0;
+		for (int execution = 0; execution < EXECUTIONS_PER_TASK_NAME; execution++) {
+			List<Object[]> rows = new ArrayList<>(TASK_NAME_COUNT);
+			for (int taskName = 0; taskName < TASK_NAME_COUNT; taskName++) {
+				Timestamp time = new Timestamp(
+						1_000_000_000_000L + (execution * TASK_NAME_COUNT + taskName) * 1000L);
+				rows.add(new Object[] { ++executionId, time, time, "TASK_" + taskName, 0,
+						time });
+			}
+			jdbcTemplate.batchUpdate("INSERT INTO TASK_EXECUTION (TASK_EXECUTION_ID, "
+					+ "START_TIME, END_TIME, TASK_NAME, EXIT_CODE, LAST_UPDATED) "
+					+ "VALUES (?, ?, ?, ?, ?, ?)", rows);
+		}
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.dataSource.shutdown();
+	}
+
+	@Test
+	public void compareLatestTaskExecutionsQueries() {
+		String[] taskNames = new String[QUERIED_TASK_NAME_COUNT];
+		for (int i = 0; i < taskNames.length; i++) {
+			taskNames[i] = "TASK_" + (i * (TASK_NAME_COUNT / QUERIED_TASK_NAME_COUNT));
+		}
+		List<Long> windowFunctionResult = getLatestTaskExecutionIds(true, taskNames);
+		List<Long> selfJoinResult = getLatestTaskExecutionIds(false, taskNames);
+		assertThat(windowFunctionResult).hasSize(QUERIED_TASK_NAME_COUNT)
+				.isEqualTo(selfJoinResult);
+
+		long windowFunctionMillis = getMedianMillis(true, taskNames);
+		long selfJoinMillis = getMedianMillis(false, taskNames);
+		logger.info(String.format(
+				"Latest executions of %d of %d task names (%d executions): "
+						+ "window function %d ms, self joins %d ms (median of %d)",
+				QUERIED_TASK_NAME_COUNT, TASK_NAME_COUNT,
+				TASK_NAME_COUNT * EXECUTIONS_PER_TASK_NAME, windowFunctionMillis,
+				selfJoinMillis, ITERATIONS));
+	}
+
+	private long getMedianMillis(boolean windowFunctionsEnabled, String[] taskNames) {
+		long[] millis = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			getLatestTaskExecutionIds(windowFunctionsEnabled, taskNames);
+			millis[i] = (System.nanoTime() - start) / 1_000_000;
+		}
+		Arrays.sort(millis);
+		return millis[ITERATIONS / 2];
+	}
+
+	private List<Long> getLatestTaskExecutionIds(boolean windowFunctionsEnabled,
+			String[] taskNames) {
+		this.dao.setWindowFunctionsEnabled(windowFunctionsEnabled);
+		return this.dao.getLatestTaskExecutionsByTaskNames(taskNames).stream()
+				.map(TaskExecution::getExecutionId).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class LongToLongMapTests {
+
+	@Test
+	public void testPutGetAndRemove() {
+		LongToLongMap map = new LongToLongMap();
+		map.put(1L, 10L);
+		map.put(Long.MIN_VALUE, 20L);
+		map.put(1L, 11L);
+
+		assertThat(map.size()).isEqualTo(2);
+		assertThat(map.get(1L, -1L)).isEqualTo(11L);
+		assertThat(map.get(Long.MIN_VALUE, -1L)).isEqualTo(20L);
+		assertThat(map.get(2L, -1L)).isEqualTo(-1L);
+		assertThat(map.remove(1L, 10L)).isFalse();
+		assertThat(map.remove(1L, 11L)).isTrue();
+		assertThat(map.remove(Long.MIN_VALUE, 20L)).isTrue();
+		assertThat(map.containsKey(1L)).isFalse();
+		assertThat(map.containsKey(Long.MIN_VALUE)).isFalse();
+		assertThat(map.size()).isZero();
+	}
+
+	@Test
+	public void testMatchesHashMapWithCollidingKeys() {
+		LongToLongMap map = new LongToLongMap();
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			long key = random.nextInt(512) * 1024L;
+			if (random.nextBoolean()) {
+				map.put(key, i);
+				expected.put(key, (long) i);
+			}
+			else if (expected.containsKey(key)) {
+				assertThat(map.remove(key, expected.remove(key))).isTrue();
+			}
+		}
+		assertThat(map.size()).isEqualTo(expected.size());
+		for (long key = 0; key < 512 * 1024L; key += 1024L) {
+			assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+			assertThat(map.get(key, -1L)).isEqualTo(expected.getOrDefault(key, -1L));
+		}
+	}
+
+}
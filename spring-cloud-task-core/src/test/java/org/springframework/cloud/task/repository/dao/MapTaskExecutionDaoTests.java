@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.cloud.task.repository.dao;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -25,11 +30,16 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.util.TestVerifierUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -44,10 +54,19 @@ public class MapTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 
 	private MapTaskExecutionDao mapTaskExecutionDao;
 
+	private SimpleMeterRegistry meterRegistry;
+
 	@BeforeEach
 	public void setUp() {
 		this.mapTaskExecutionDao = new MapTaskExecutionDao();
 		super.dao = this.mapTaskExecutionDao;
+		this.meterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(this.meterRegistry);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Metrics.removeRegistry(this.meterRegistry);
 	}
 
 	@Test
@@ -181,6 +200,184 @@ public class MapTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 				taskExecutionMap.get(expectedTaskExecution.getExecutionId()));
 	}
 
+	@Test
+	public void testJobQueriesFollowAssociationChanges() {
+		Map<Long, Set<Long>> associations = this.mapTaskExecutionDao
+				.getBatchJobAssociations();
+		associations.put(1L, new HashSet<>(Collections.singletonList(123L)));
+		associations.get(1L).add(456L);
+		associations.computeIfAbsent(2L, taskExecutionId -> new HashSet<>()).add(789L);
+
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(123L)).isEqualTo(1L);
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(456L)).isEqualTo(1L);
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(789L)).isEqualTo(2L);
+		assertThat(this.dao.getJobExecutionIdsByTaskExecutionId(1L))
+				.containsExactly(123L, 456L);
+
+		associations.get(1L).remove(123L);
+		associations.remove(2L);
+
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(123L)).isNull();
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(456L)).isEqualTo(1L);
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(789L)).isNull();
+	}
+
+	@Test
+	public void testIndexesFollowTaskExecutionLifecycle() {
+		TaskExecution taskExecution = this.dao.createTaskExecution(null, null,
+				new ArrayList<>(0), null);
+
+		assertThat(this.dao.getTaskNames()).isEmpty();
+		assertThat(this.dao.getTaskExecutionCountByTaskName(null)).isZero();
+		assertThat(this.dao.findAll(PageRequest.of(0, 10)).getContent())
+				.containsExactly(taskExecution);
+		assertThat(this.dao.findAll(null, 10)).isEmpty();
+		assertThat(this.dao.getRunningTaskExecutionCount()).isEqualTo(1);
+
+		this.dao.startTaskExecution(taskExecution.getExecutionId(), "FOO", new Date(),
+				new ArrayList<>(0), null);
+
+		assertThat(this.dao.getTaskNames()).containsExactly("FOO");
+		assertThat(this.dao.getTaskExecutionCountByTaskName("FOO")).isEqualTo(1);
+		assertThat(this.dao.getRunningTaskExecutionCountByTaskName("FOO")).isEqualTo(1);
+		assertThat(this.dao.findAll(null, 10)).containsExactly(taskExecution);
+		assertThat(this.dao.getLatestTaskExecutionForTaskName("FOO"))
+				.isSameAs(taskExecution);
+
+		this.dao.completeTaskExecution(taskExecution.getExecutionId(), 0, new Date(),
+				null);
+
+		assertThat(this.dao.getTaskExecutionCountByTaskName("FOO")).isEqualTo(1);
+		assertThat(this.dao.getRunningTaskExecutionCount()).isZero();
+		assertThat(this.dao.getRunningTaskExecutionCountByTaskName("FOO")).isZero();
+		assertThat(this.dao.findRunningTaskExecutions("FOO", PageRequest.of(0, 10)))
+				.isEmpty();
+	}
+
+	@Test
+	public void testPagesAreSortedByStartTimeDescending() {
+		Date startTime = new Date();
+		List<TaskExecution> expectedTaskExecutions = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			expectedTaskExecutions.add(0,
+					this.dao.createTaskExecution("FOO",
+							new Date(startTime.getTime() + (i / 2)), new ArrayList<>(0),
+							null));
+		}
+		this.dao.createTaskExecution("BAR", new Date(startTime.getTime() - 1),
+				new ArrayList<>(0), null);
+
+		Page<TaskExecution> page = this.dao.findTaskExecutionsByName("FOO",
+				PageRequest.of(1, 2));
+		assertThat(page.getTotalElements()).isEqualTo(5);
+		assertThat(page.getContent())
+				.containsExactlyElementsOf(expectedTaskExecutions.subList(2, 4));
+		assertThat(this.dao.findTaskExecutionsByName("FOO", PageRequest.of(3, 2)))
+				.isEmpty();
+		assertThat(this.dao.findTaskExecutionsByNameAsSlice("FOO", PageRequest.of(2, 2))
+				.hasNext()).isFalse();
+		assertThat(this.dao.findTaskExecutionsByName("FOO",
+				expectedTaskExecutions.get(1), 2))
+						.containsExactlyElementsOf(expectedTaskExecutions.subList(2, 4));
+		assertThat(this.dao.getTaskNames()).containsExactly("BAR", "FOO");
+	}
+
+	@Test
+	public void testMaxEntriesEvictsLeastRecentlyUsedCompletedExecutions() {
+		this.mapTaskExecutionDao.setMaxEntries(3);
+		TaskExecution running = createTaskExecution("FOO", new Date(), null);
+		TaskExecution first = createTaskExecution("FOO", new Date(), new Date());
+		TaskExecution second = createTaskExecution("BAR", new Date(), new Date());
+		this.mapTaskExecutionDao.getBatchJobAssociations()
+				.put(second.getExecutionId(), Collections.singleton(123L));
+
+		this.dao.getTaskExecution(second.getExecutionId());
+		this.dao.getTaskExecution(first.getExecutionId());
+		TaskExecution third = createTaskExecution("BAR", new Date(), new Date());
+
+		assertThat(this.mapTaskExecutionDao.getTaskExecutions().keySet())
+				.containsExactlyInAnyOrder(running.getExecutionId(),
+						first.getExecutionId(), third.getExecutionId());
+		assertThat(this.dao.getTaskExecutionCountByTaskName("BAR")).isEqualTo(1);
+		assertThat(this.dao.findAll(PageRequest.of(0, 10)).getTotalElements())
+				.isEqualTo(3);
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(123L)).isNull();
+		assertThat(this.mapTaskExecutionDao.getBatchJobAssociations()).isEmpty();
+		assertThat(this.mapTaskExecutionDao.getEvictionCount()).isEqualTo(1);
+		assertThat(this.meterRegistry.get(MapTaskExecutionDao.EVICTION_METER)
+				.tag(MapTaskExecutionDao.REASON_TAG, "max-entries").counter().count())
+						.isEqualTo(1);
+	}
+
+	@Test
+	public void testRunningExecutionsAreNeverEvicted() {
+		this.mapTaskExecutionDao.setMaxEntries(1);
+		TaskExecution first = createTaskExecution("FOO", new Date(), null);
+		TaskExecution second = createTaskExecution("FOO", new Date(), null);
+
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(2);
+
+		this.dao.completeTaskExecution(first.getExecutionId(), 0, new Date(), null);
+
+		assertThat(this.dao.getTaskExecution(first.getExecutionId())).isNotNull();
+
+		this.dao.completeTaskExecution(second.getExecutionId(), 0, new Date(), null);
+
+		assertThat(this.mapTaskExecutionDao.getTaskExecutions().keySet())
+				.containsExactly(second.getExecutionId());
+		assertThat(this.dao.getRunningTaskExecutionCount()).isZero();
+		assertThat(this.dao.getTaskNames()).containsExactly("FOO");
+	}
+
+	@Test
+	public void testMaxAgeEvictsExpiredCompletedExecutions() {
+		Instant now = Instant.now();
+		this.mapTaskExecutionDao.setMaxAge(Duration.ofMinutes(10));
+		this.mapTaskExecutionDao.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		TaskExecution expired = createTaskExecution("FOO",
+				Date.from(now.minusSeconds(1200)), Date.from(now.minusSeconds(900)));
+		TaskExecution retained = createTaskExecution("FOO",
+				Date.from(now.minusSeconds(1200)), Date.from(now.minusSeconds(300)));
+		TaskExecution running = createTaskExecution("FOO",
+				Date.from(now.minusSeconds(1200)), null);
+
+		assertThat(this.mapTaskExecutionDao.getTaskExecutions().keySet())
+				.containsExactlyInAnyOrder(retained.getExecutionId(),
+						running.getExecutionId());
+		assertThat(this.dao.getTaskExecution(expired.getExecutionId())).isNull();
+		assertThat(this.dao.getTaskExecutionCountByTaskName("FOO")).isEqualTo(2);
+		assertThat(this.meterRegistry.get(MapTaskExecutionDao.EVICTION_METER)
+				.tag(MapTaskExecutionDao.REASON_TAG, "max-age").counter().count())
+						.isEqualTo(1);
+	}
+
+	@Test
+	public void testMaxWeightEvictsUntilWeightIsMet() {
+		this.mapTaskExecutionDao.setMaxWeight(10);
+		TaskExecution first = createTaskExecution("FOO", new Date(), new Date());
+		this.dao.completeTaskExecution(first.getExecutionId(), 1, new Date(), "12345",
+				null);
+		TaskExecution second = this.dao.createTaskExecution("FOO", new Date(),
+				Arrays.asList("abc", "def"), null);
+		this.dao.completeTaskExecution(second.getExecutionId(), 1, new Date(), null,
+				"error");
+
+		assertThat(this.mapTaskExecutionDao.getTaskExecutions().keySet())
+				.containsExactly(second.getExecutionId());
+		assertThat(this.mapTaskExecutionDao.getEvictionCount()).isEqualTo(1);
+	}
+
+	private TaskExecution createTaskExecution(String taskName, Date startTime,
+			Date endTime) {
+		TaskExecution taskExecution = this.dao.createTaskExecution(taskName, startTime,
+				new ArrayList<>(0), null);
+		if (endTime != null) {
+			this.dao.completeTaskExecution(taskExecution.getExecutionId(), 0, endTime,
+					null);
+		}
+		return taskExecution;
+	}
+
 	private TaskExecution initializeTaskExecutionWithExternalExecutionId() {
 		TaskExecution expectedTaskExecution = TestVerifierUtils
 				.createSampleTaskExecutionNoArg();
@@ -19,6 +19,7 @@ package org.springframework.cloud.task.repository.database.support;
 import java.util.Arrays;
 import java.util.Collection;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -81,4 +82,22 @@ public class FindAllPagingQueryProviderTests {
 				.isEqualTo(expectedQuery);
 	}
 
+	@Test
+	public void testOffsetIsBoundToQueriesOfPageSize() throws Exception {
+		assertThat(getPageQuery("PostgreSQL")).endsWith(
+				"ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC OFFSET :_offset ROWS "
+						+ "FETCH NEXT 10 ROWS ONLY");
+		assertThat(getPageQuery("MySQL")).endsWith(
+				"ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC LIMIT :_offset, 10");
+		assertThat(getPageQuery("Oracle")).endsWith(
+				"WHERE TMP_ROW_NUM > :_offset AND TMP_ROW_NUM <= :_endRow");
+		assertThat(getPageQuery("Microsoft SQL Server")).contains(
+				"WHERE TMP_ROW_NUM > :_offset AND TMP_ROW_NUM <= :_endRow ORDER BY");
+	}
+
+	private String getPageQuery(String databaseProductName) throws Exception {
+		return ((AbstractSqlPagingQueryProvider) TestDBUtils
+				.getPagingQueryProvider(databaseProductName)).getPageQuery(10);
+	}
+
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.database.support;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.cloud.task.repository.database.PagingQueryProvider;
+import org.springframework.cloud.task.util.TestDBUtils;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class KeysetPagingQueryProviderTests {
+
+	private static final String SELECT = "TASK_EXECUTION_ID, START_TIME, END_TIME, "
+			+ "TASK_NAME, EXIT_CODE, EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, "
+			+ "EXTERNAL_EXECUTION_ID, PARENT_EXECUTION_ID";
+
+	private static final String FIRST_PAGE_WHERE = "FROM %PREFIX%EXECUTION "
+			+ "WHERE START_TIME IS NOT NULL ORDER BY START_TIME DESC, "
+			+ "TASK_EXECUTION_ID DESC";
+
+	private static final String REMAINING_PAGES_WHERE = "FROM %PREFIX%EXECUTION "
+			+ "WHERE (START_TIME IS NOT NULL) AND START_TIME <= :_START_TIME AND "
+			+ "((START_TIME < :_START_TIME) OR (START_TIME = :_START_TIME AND "
+			+ "TASK_EXECUTION_ID < :_TASK_EXECUTION_ID)) ORDER BY START_TIME DESC, "
+			+ "TASK_EXECUTION_ID DESC";
+
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+				{ "Oracle",
+						"SELECT " + SELECT + " FROM (SELECT " + SELECT + " "
+								+ FIRST_PAGE_WHERE + ") WHERE ROWNUM <= 10",
+						"SELECT " + SELECT + " FROM (SELECT " + SELECT + " "
+								+ REMAINING_PAGES_WHERE + ") WHERE ROWNUM <= 10" },
+				{ "HSQL Database Engine",
+						"SELECT LIMIT 0 10 " + SELECT + " " + FIRST_PAGE_WHERE,
+						"SELECT LIMIT 0 10 " + SELECT + " " + REMAINING_PAGES_WHERE },
+				{ "H2", "SELECT LIMIT 0 10 " + SELECT + " " + FIRST_PAGE_WHERE,
+						"SELECT LIMIT 0 10 " + SELECT + " " + REMAINING_PAGES_WHERE },
+				{ "PostgreSQL",
+						"SELECT " + SELECT + " " + FIRST_PAGE_WHERE + " LIMIT 10",
+						"SELECT " + SELECT + " FROM %PREFIX%EXECUTION WHERE "
+								+ "(START_TIME IS NOT NULL) AND (START_TIME, "
+								+ "TASK_EXECUTION_ID) < (:_START_TIME, :_TASK_EXECUTION_ID) "
+								+ "ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC LIMIT 10" },
+				{ "MySQL", "SELECT " + SELECT + " " + FIRST_PAGE_WHERE + " LIMIT 10",
+						"SELECT " + SELECT + " " + REMAINING_PAGES_WHERE + " LIMIT 10" },
+				{ "Microsoft SQL Server",
+						"SELECT TOP 10 " + SELECT + " " + FIRST_PAGE_WHERE,
+						"SELECT TOP 10 " + SELECT + " " + REMAINING_PAGES_WHERE },
+				{ "DB2/Linux",
+						"SELECT " + SELECT + " " + FIRST_PAGE_WHERE
+								+ " FETCH FIRST 10 ROWS ONLY",
+						"SELECT " + SELECT + " " + REMAINING_PAGES_WHERE
+								+ " FETCH FIRST 10 ROWS ONLY" } });
+	}
+
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testGeneratedQuery(String databaseProductName, String expectedFirstQuery,
+			String expectedRemainingQuery) throws Exception {
+		PagingQueryProvider pagingQueryProvider = TestDBUtils
+				.getPagingQueryProvider(databaseProductName, "START_TIME IS NOT NULL");
+		assertThat(pagingQueryProvider.getFirstPageQuery(10)).as(String.format(
+				"the generated first page query for %s, was not the expected query",
+				databaseProductName)).isEqualTo(expectedFirstQuery);
+		assertThat(pagingQueryProvider.getRemainingPagesQuery(10)).as(String.format(
+				"the generated remaining pages query for %s, was not the expected query",
+				databaseProductName)).isEqualTo(expectedRemainingQuery);
+	}
+
+	@Test
+	public void testOffsetFetchQueries() throws Exception {
+		String expectedPageQuery = "SELECT " + SELECT + " " + FIRST_PAGE_WHERE
+				+ " OFFSET 20 ROWS FETCH NEXT 10 ROWS ONLY";
+		for (String databaseProductName : new String[] { "Oracle",
+				"Microsoft SQL Server", "DB2/Linux" }) {
+			AbstractSqlPagingQueryProvider pagingQueryProvider = (AbstractSqlPagingQueryProvider) TestDBUtils
+					.getPagingQueryProvider(databaseProductName, "START_TIME IS NOT NULL");
+			pagingQueryProvider.setOffsetFetchSupported(true);
+			assertThat(pagingQueryProvider.getPageQuery(PageRequest.of(2, 10)))
+					.as(String.format(
+							"the generated page query for %s, was not the expected query",
+							databaseProductName))
+					.isEqualTo(expectedPageQuery);
+		}
+	}
+
+	@Test
+	public void testOracleOffsetFetchSeekQuery() throws Exception {
+		AbstractSqlPagingQueryProvider pagingQueryProvider = (AbstractSqlPagingQueryProvider) TestDBUtils
+				.getPagingQueryProvider("Oracle", "START_TIME IS NOT NULL");
+		pagingQueryProvider.setOffsetFetchSupported(true);
+		assertThat(pagingQueryProvider.getRemainingPagesQuery(10)).isEqualTo("SELECT "
+				+ SELECT + " " + REMAINING_PAGES_WHERE + " FETCH FIRST 10 ROWS ONLY");
+	}
+
+}
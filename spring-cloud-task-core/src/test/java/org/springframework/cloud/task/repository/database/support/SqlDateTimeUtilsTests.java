@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.database.support;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.cloud.task.repository.support.DatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class SqlDateTimeUtilsTests {
+
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+				{ "Oracle", "(EXTRACT(DAY FROM (END_TIME - CAST(:startTime AS TIMESTAMP)))"
+						+ " * 86400000 + EXTRACT(HOUR FROM (END_TIME - CAST(:startTime AS "
+						+ "TIMESTAMP))) * 3600000 + EXTRACT(MINUTE FROM (END_TIME - "
+						+ "CAST(:startTime AS TIMESTAMP))) * 60000 + EXTRACT(SECOND FROM "
+						+ "(END_TIME - CAST(:startTime AS TIMESTAMP))) * 1000)" },
+				{ "HSQL Database Engine",
+						"DATEDIFF('millisecond', CAST(:startTime AS TIMESTAMP), END_TIME)" },
+				{ "H2", "DATEDIFF('MILLISECOND', CAST(:startTime AS TIMESTAMP), END_TIME)" },
+				{ "PostgreSQL", "(EXTRACT(EPOCH FROM (END_TIME - "
+						+ "CAST(:startTime AS TIMESTAMP))) * 1000)" },
+				{ "MySQL", "(TIMESTAMPDIFF(MICROSECOND, :startTime, END_TIME) DIV 1000)" },
+				{ "Microsoft SQL Server", "DATEDIFF_BIG(MILLISECOND, "
+						+ "CAST(:startTime AS DATETIME2), END_TIME)" },
+				{ "DB2", "(CAST(DAYS(END_TIME) - DAYS(CAST(:startTime AS TIMESTAMP)) "
+						+ "AS BIGINT) * 86400000 + (MIDNIGHT_SECONDS(END_TIME) - "
+						+ "MIDNIGHT_SECONDS(CAST(:startTime AS TIMESTAMP))) * 1000 + "
+						+ "(MICROSECOND(END_TIME) - MICROSECOND(CAST(:startTime AS "
+						+ "TIMESTAMP))) / 1000)" } });
+	}
+
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testMillisecondsBetween(String databaseProductName,
+			String expectedExpression) {
+		DatabaseType databaseType = DatabaseType.fromProductName(databaseProductName);
+		String actualExpression = SqlDateTimeUtils.millisecondsBetween(databaseType,
+				SqlDateTimeUtils.timestampParameter(databaseType, ":startTime"),
+				"END_TIME");
+		assertThat(actualExpression).as(String.format(
+				"the generated expression for %s, was not the expected expression",
+				databaseProductName)).isEqualTo(expectedExpression);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.task.repository.database.support;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -28,6 +29,7 @@ import org.springframework.cloud.task.repository.database.PagingQueryProvider;
 import org.springframework.cloud.task.util.TestDBUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * @author Glenn Renfro
@@ -56,6 +58,50 @@ public class SqlPagingQueryProviderFactoryBeanTests {
 		assertThat(pagingQueryProvider).isInstanceOf(OraclePagingQueryProvider.class);
 	}
 
+	@Test
+	public void testOffsetFetchSupportedByVersion() throws Exception {
+		this.factoryBean.setDataSource(TestDBUtils.getMockDataSource("Oracle", 12));
+		AbstractSqlPagingQueryProvider pagingQueryProvider = (AbstractSqlPagingQueryProvider) this.factoryBean
+				.getObject();
+		assertThat(pagingQueryProvider.isOffsetFetchSupported()).isTrue();
+
+		this.factoryBean.setDataSource(TestDBUtils.getMockDataSource("Oracle", 11));
+		pagingQueryProvider = (AbstractSqlPagingQueryProvider) this.factoryBean
+				.getObject();
+		assertThat(pagingQueryProvider.isOffsetFetchSupported()).isFalse();
+	}
+
+	@Test
+	public void testWindowCountSupportedByVersion() throws Exception {
+		this.factoryBean.setDatabaseType("Postgres");
+		this.factoryBean.setDataSource(TestDBUtils.getMockDataSource("PostgreSQL", 9));
+		PagingQueryProvider pagingQueryProvider = this.factoryBean.getObject();
+		assertThat(pagingQueryProvider.isWindowCountSupported()).isTrue();
+
+		this.factoryBean.setDataSource(TestDBUtils.getMockDataSource("PostgreSQL", 8));
+		pagingQueryProvider = this.factoryBean.getObject();
+		assertThat(pagingQueryProvider.isWindowCountSupported()).isFalse();
+
+		this.factoryBean.setDatabaseType("Oracle");
+		this.factoryBean.setDataSource(TestDBUtils.getMockDataSource("Oracle", 11));
+		pagingQueryProvider = this.factoryBean.getObject();
+		assertThat(pagingQueryProvider.isWindowCountSupported()).isFalse();
+	}
+
+	@Test
+	public void testDatabaseTypeWithoutDataSource() throws Exception {
+		SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
+		factoryBean.setSelectClause(JdbcTaskExecutionDao.SELECT_CLAUSE);
+		factoryBean.setFromClause(JdbcTaskExecutionDao.FROM_CLAUSE);
+		factoryBean.setSortKeys(Collections.singletonMap("START_TIME", Order.DESCENDING));
+		assertThatIllegalStateException().isThrownBy(factoryBean::getObject);
+
+		factoryBean.setDatabaseType("Postgres");
+		PagingQueryProvider pagingQueryProvider = factoryBean.getObject();
+		assertThat(pagingQueryProvider).isInstanceOf(PostgresPagingQueryProvider.class);
+		assertThat(pagingQueryProvider.isWindowCountSupported()).isFalse();
+	}
+
 	@Test
 	public void testIsSingleton() {
 		assertThat(this.factoryBean.isSingleton()).isTrue();
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Date;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class CachingTaskExplorerTests {
+
+	private final Instant now = Instant.now();
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private MapTaskExecutionDao taskExecutionDao;
+
+	private SimpleTaskRepository taskRepository;
+
+	private CachingTaskExplorer taskExplorer;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.meterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(this.meterRegistry);
+		TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean = new TaskExecutionDaoFactoryBean();
+		this.taskExecutionDao = (MapTaskExecutionDao) taskExecutionDaoFactoryBean
+				.getObject();
+		this.taskRepository = new SimpleTaskRepository(taskExecutionDaoFactoryBean);
+		this.taskExplorer = new CachingTaskExplorer(
+				new SimpleTaskExplorer(taskExecutionDaoFactoryBean));
+		this.taskExplorer.setTimeToLive(Duration.ofSeconds(10));
+		this.taskExplorer.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Metrics.removeRegistry(this.meterRegistry);
+	}
+
+	@Test
+	public void testCompletedExecutionIsCachedUntilEvicted() {
+		TaskExecution taskExecution = createCompletedTaskExecution("FOO");
+
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getExitCode()).isZero();
+		advanceClock(Duration.ofDays(1));
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getExitCode()).isZero();
+		assertThat(getCount("hit")).isEqualTo(1);
+		assertThat(getCount("miss")).isEqualTo(1);
+
+		this.taskExplorer.evictAll();
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId()))
+				.isNotNull();
+		assertThat(getCount("miss")).isEqualTo(2);
+	}
+
+	@Test
+	public void testRunningExecutionAndAggregatesExpire() {
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution("FOO");
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getExitCode()).isNull();
+		assertThat(this.taskExplorer.getTaskNames()).containsExactly("FOO");
+		assertThat(this.taskExplorer.getTaskExecutionCount()).isEqualTo(1);
+
+		// a write made by another application is not seen by the cache
+		this.taskExecutionDao.completeTaskExecution(taskExecution.getExecutionId(), 0,
+				new Date(), null);
+		this.taskExecutionDao.createTaskExecution("BAR", new Date(),
+				Collections.emptyList(), null);
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getExitCode()).isNull();
+		assertThat(this.taskExplorer.getTaskNames()).containsExactly("FOO");
+		assertThat(this.taskExplorer.getTaskExecutionCount()).isEqualTo(1);
+
+		advanceClock(Duration.ofSeconds(10));
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getExitCode()).isZero();
+		assertThat(this.taskExplorer.getTaskNames()).containsExactly("BAR", "FOO");
+		assertThat(this.taskExplorer.getTaskExecutionCount()).isEqualTo(2);
+		assertThat(getCount("hit")).isEqualTo(3);
+		assertThat(getCount("miss")).isEqualTo(6);
+		assertThat(this.meterRegistry.get(CachingTaskExplorer.EVICTIONS_METER).counter()
+				.count()).isEqualTo(3);
+	}
+
+	@Test
+	public void testRepositoryWritesInvalidateCache() {
+		this.taskRepository.setCacheEvictor(this.taskExplorer);
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution("FOO");
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getStartTime()).isNull();
+
+		this.taskRepository.startTaskExecution(taskExecution.getExecutionId(), "FOO",
+				new Date(), Collections.emptyList(), null);
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getStartTime()).isNotNull();
+		assertThat(this.taskExplorer.getLatestTaskExecutionForTaskName("FOO")
+				.getExitCode()).isNull();
+		assertThat(this.taskExplorer.getRunningTaskExecutionCount()).isEqualTo(1);
+
+		taskExecution = this.taskExplorer.getTaskExecution(taskExecution.getExecutionId());
+		taskExecution.setExitCode(0);
+		taskExecution.setEndTime(new Date());
+		this.taskRepository.completeTaskExecution(taskExecution);
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getExitCode()).isZero();
+		assertThat(this.taskExplorer.getLatestTaskExecutionForTaskName("FOO")
+				.getExitCode()).isZero();
+		assertThat(this.taskExplorer.getRunningTaskExecutionCount()).isZero();
+	}
+
+	@Test
+	public void testTransactionalWritesInvalidateCacheAfterCommit() {
+		this.taskRepository.setCacheEvictor(this.taskExplorer);
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution("FOO");
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getStartTime()).isNull();
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			this.taskRepository.startTaskExecution(taskExecution.getExecutionId(),
+					"FOO", new Date(), Collections.emptyList(), null);
+			assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+					.getStartTime()).isNull();
+			TransactionSynchronizationUtils.invokeAfterCommit(
+					TransactionSynchronizationManager.getSynchronizations());
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getStartTime()).isNotNull();
+	}
+
+	@Test
+	public void testMaxEntriesEvictsLeastRecentlyUsed() {
+		this.taskExplorer.setMaxEntries(2);
+		TaskExecution first = createCompletedTaskExecution("FOO");
+		TaskExecution second = createCompletedTaskExecution("FOO");
+		TaskExecution third = createCompletedTaskExecution("FOO");
+
+		this.taskExplorer.getTaskExecution(first.getExecutionId());
+		this.taskExplorer.getTaskExecution(second.getExecutionId());
+		this.taskExplorer.getTaskExecution(first.getExecutionId());
+		this.taskExplorer.getTaskExecution(third.getExecutionId());
+		assertThat(this.meterRegistry.get(CachingTaskExplorer.EVICTIONS_METER).counter()
+				.count()).isEqualTo(1);
+
+		assertThat(getCount("hit")).isEqualTo(1);
+		this.taskExplorer.getTaskExecution(first.getExecutionId());
+		this.taskExplorer.getTaskExecution(third.getExecutionId());
+		assertThat(getCount("hit")).isEqualTo(3);
+		this.taskExplorer.getTaskExecution(second.getExecutionId());
+		assertThat(getCount("miss")).isEqualTo(4);
+	}
+
+	@Test
+	public void testCachedExecutionIsNotShared() {
+		TaskExecution taskExecution = createCompletedTaskExecution("FOO");
+		this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.setExitMessage("changed");
+		assertThat(this.taskExplorer.getTaskExecution(taskExecution.getExecutionId())
+				.getExitMessage()).isNull();
+	}
+
+	private TaskExecution createCompletedTaskExecution(String taskName) {
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution(taskName);
+		this.taskRepository.startTaskExecution(taskExecution.getExecutionId(), taskName,
+				new Date(), Collections.emptyList(), null);
+		return this.taskRepository.completeTaskExecution(taskExecution.getExecutionId(),
+				0, new Date(), null);
+	}
+
+	private void advanceClock(Duration duration) {
+		this.taskExplorer
+				.setClock(Clock.fixed(this.now.plus(duration), ZoneOffset.UTC));
+	}
+
+	private double getCount(String result) {
+		return this.meterRegistry.get(CachingTaskExplorer.GETS_METER)
+				.tag(CachingTaskExplorer.RESULT_TAG, result).counter().count();
+	}
+
+}
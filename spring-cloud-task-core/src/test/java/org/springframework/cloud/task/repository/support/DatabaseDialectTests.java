@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.util.TestDBUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.cloud.task.repository.support.DatabaseType.H2;
+import static org.springframework.cloud.task.repository.support.DatabaseType.HSQL;
+import static org.springframework.cloud.task.repository.support.DatabaseType.MYSQL;
+import static org.springframework.cloud.task.repository.support.DatabaseType.ORACLE;
+import static org.springframework.cloud.task.repository.support.DatabaseType.POSTGRES;
+
+/**
+ * Verifies that the database dialect is resolved once per data source and reports the
+ * capabilities of the database versions.
+ *
+ * @author Glenn Renfro
+ */
+public class DatabaseDialectTests {
+
+	@Test
+	public void testDialectIsResolvedOncePerDataSource() throws Exception {
+		DataSource dataSource = TestDBUtils.getMockDataSource("PostgreSQL", 9);
+		DatabaseDialect dialect = DatabaseDialect.fromDataSource(dataSource);
+		assertThat(DatabaseDialect.fromDataSource(dataSource)).isSameAs(dialect);
+		assertThat(dialect.getDatabaseType()).isEqualTo(POSTGRES);
+		assertThat(dialect.getMajorVersion()).isEqualTo(9);
+		verify(dataSource, times(1)).getConnection();
+		assertThat(DatabaseDialect
+				.fromDataSource(TestDBUtils.getMockDataSource("MySQL", 8)))
+						.isNotSameAs(dialect);
+	}
+
+	@Test
+	public void testDialectIsKeptWhileDataSourceIsReferenced() throws Exception {
+		DataSource dataSource = TestDBUtils.getMockDataSource("Oracle", 12);
+		DatabaseDialect dialect = DatabaseDialect.fromDataSource(dataSource);
+		System.gc();
+		assertThat(DatabaseDialect.fromDataSource(dataSource)).isSameAs(dialect);
+		verify(dataSource, times(1)).getConnection();
+	}
+
+	@Test
+	public void testOffsetFetchSupport() {
+		assertThat(new DatabaseDialect(ORACLE, null, 12).isOffsetFetchSupported())
+				.isTrue();
+		assertThat(new DatabaseDialect(ORACLE, null, 11).isOffsetFetchSupported())
+				.isFalse();
+		assertThat(new DatabaseDialect(POSTGRES, null, 13).isOffsetFetchSupported())
+				.isFalse();
+	}
+
+	@Test
+	public void testWindowFunctionSupport() {
+		assertThat(new DatabaseDialect(MYSQL, null, 8).isWindowFunctionSupported())
+				.isTrue();
+		assertThat(new DatabaseDialect(MYSQL, null, 5).isWindowFunctionSupported())
+				.isFalse();
+		assertThat(new DatabaseDialect(HSQL, null, 2).isWindowFunctionSupported())
+				.isFalse();
+	}
+
+	@Test
+	public void testH2WindowFunctionSupport() {
+		assertThat(new DatabaseDialect(H2, "1.4.200 (2019-10-14)", 1)
+				.isWindowFunctionSupported()).isTrue();
+		assertThat(new DatabaseDialect(H2, "1.4.197 (2018-03-18)", 1)
+				.isWindowFunctionSupported()).isFalse();
+		assertThat(new DatabaseDialect(H2, null, 1).isWindowFunctionSupported())
+				.isFalse();
+	}
+
+}
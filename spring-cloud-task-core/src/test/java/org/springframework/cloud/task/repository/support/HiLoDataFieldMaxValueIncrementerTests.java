@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Glenn Renfro
+ */
+public class HiLoDataFieldMaxValueIncrementerTests {
+
+	@Test
+	public void testBlockReservedPerDelegateCall() {
+		DataFieldMaxValueIncrementer delegate = mock(DataFieldMaxValueIncrementer.class);
+		when(delegate.nextLongValue()).thenReturn(3L, 4L);
+		HiLoDataFieldMaxValueIncrementer incrementer = new HiLoDataFieldMaxValueIncrementer(
+				delegate, 10);
+
+		for (long expected = 30; expected < 50; expected++) {
+			assertThat(incrementer.nextLongValue()).isEqualTo(expected);
+		}
+		verify(delegate, times(2)).nextLongValue();
+	}
+
+	@Test
+	public void testInstancesSharingSequenceDoNotCollide() {
+		DataFieldMaxValueIncrementer delegate = mock(DataFieldMaxValueIncrementer.class);
+		when(delegate.nextLongValue()).thenReturn(1L, 2L, 3L, 4L, 5L, 6L);
+		HiLoDataFieldMaxValueIncrementer first = new HiLoDataFieldMaxValueIncrementer(
+				delegate, 5);
+		HiLoDataFieldMaxValueIncrementer second = new HiLoDataFieldMaxValueIncrementer(
+				delegate, 5);
+
+		Set<Long> values = new HashSet<>();
+		for (int i = 0; i < 12; i++) {
+			assertThat(values.add(first.nextLongValue())).isTrue();
+			assertThat(values.add(second.nextLongValue())).isTrue();
+		}
+	}
+
+	@Test
+	public void testBlocksOfMultipleValuesReservedTogether() {
+		BulkDataFieldMaxValueIncrementer delegate = mock(
+				BulkDataFieldMaxValueIncrementer.class);
+		when(delegate.nextLongValue()).thenReturn(3L);
+		when(delegate.nextLongValues(2)).thenReturn(new long[] { 4L, 5L });
+		HiLoDataFieldMaxValueIncrementer incrementer = new HiLoDataFieldMaxValueIncrementer(
+				delegate, 10);
+
+		assertThat(incrementer.nextLongValue()).isEqualTo(30L);
+		long[] values = incrementer.nextLongValues(25);
+		assertThat(values).hasSize(25);
+		for (int i = 0; i < values.length; i++) {
+			assertThat(values[i]).isEqualTo(31L + i);
+		}
+		assertThat(incrementer.nextLongValue()).isEqualTo(56L);
+		verify(delegate, times(1)).nextLongValue();
+		verify(delegate, times(1)).nextLongValues(2);
+	}
+
+	@Test
+	public void testBlockSizeValidation() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new HiLoDataFieldMaxValueIncrementer(
+						mock(DataFieldMaxValueIncrementer.class), 0));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.UUID;
@@ -31,6 +32,7 @@ import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfigurati
 import org.springframework.cloud.task.configuration.SimpleTaskAutoConfiguration;
 import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.util.StatementCountingDataSource;
 import org.springframework.cloud.task.util.TaskExecutionCreator;
 import org.springframework.cloud.task.util.TestDBUtils;
 import org.springframework.cloud.task.util.TestVerifierUtils;
@@ -351,6 +353,31 @@ public class SimpleTaskRepositoryJdbcTests {
 		});
 	}
 
+	@Test
+	@DirtiesContext
+	public void testCompleteTaskExecutionWithoutReadBack() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		TaskRepository taskRepository = new SimpleTaskRepository(
+				new TaskExecutionDaoFactoryBean(countingDataSource), 10, null, 10);
+		TaskExecution taskExecution = taskRepository.createTaskExecution();
+		taskExecution = taskRepository.startTaskExecution(
+				taskExecution.getExecutionId(), "FOO", new Date(),
+				new ArrayList<>(0), null);
+		taskExecution.setExitCode(0);
+		taskExecution.setEndTime(new Date());
+		taskExecution.setExitMessage("exit message longer than 10");
+
+		countingDataSource.reset();
+		TaskExecution completedTaskExecution = taskRepository
+				.completeTaskExecution(taskExecution);
+		assertThat(countingDataSource.getStatementCount()).isEqualTo(1);
+		assertThat(completedTaskExecution).isSameAs(taskExecution);
+		assertThat(completedTaskExecution.getExitMessage()).isEqualTo("exit messa");
+		TestVerifierUtils.verifyTaskExecution(completedTaskExecution, TestDBUtils
+				.getTaskExecutionFromDB(this.dataSource, taskExecution.getExecutionId()));
+	}
+
 	private TaskExecution completeTaskExecution(TaskExecution expectedTaskExecution,
 			TaskRepository taskRepository) {
 		return taskRepository.completeTaskExecution(
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,20 +16,34 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
 import javax.sql.DataSource;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.cloud.task.configuration.SimpleTaskAutoConfiguration;
+import org.springframework.cloud.task.configuration.TaskProperties;
 import org.springframework.cloud.task.configuration.TestConfiguration;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -44,11 +58,16 @@ public class TaskDatabaseInitializerTests {
 
 	private AnnotationConfigApplicationContext context;
 
+	private EmbeddedDatabase dataSource;
+
 	@AfterEach
 	public void close() {
 		if (this.context != null) {
 			this.context.close();
 		}
+		if (this.dataSource != null) {
+			this.dataSource.shutdown();
+		}
 	}
 
 	@Test
@@ -97,6 +116,122 @@ public class TaskDatabaseInitializerTests {
 		});
 	}
 
+	@Test
+	public void testStartTimePartitionedSchema() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(
+						EmbeddedDataSourceConfiguration.class,
+						PropertyPlaceholderAutoConfiguration.class,
+						SimpleTaskAutoConfiguration.class))
+				.withPropertyValues(
+						"spring.cloud.task.start-time-partitioning-enabled=true")
+				.run((context) -> {
+					Date startTime = new Date();
+					context.getBean(TaskRepository.class).createTaskExecution(
+							new TaskExecution(0, null, "FOO", startTime, null, null,
+									Collections.singletonList("foo=bar"), null, null));
+					assertThat(new JdbcTemplate(context.getBean(DataSource.class))
+							.queryForObject(
+									"select START_TIME from TASK_EXECUTION_PARAMS",
+									Date.class).getTime()).isEqualTo(startTime.getTime());
+				});
+	}
+
+	@Test
+	public void testSchemaVersionIsRecorded() throws Exception {
+		JdbcTemplate jdbcTemplate = createDatabase();
+		initialize();
+		assertThat(getSchemaVersions(jdbcTemplate))
+				.containsExactly(TaskRepositoryInitializer.SCHEMA_VERSION);
+		assertThat(jdbcTemplate.queryForList("select * from TASK_EXECUTION")).isEmpty();
+	}
+
+	@Test
+	public void testCurrentSchemaIsNotInitializedAgain() throws Exception {
+		JdbcTemplate jdbcTemplate = createDatabase();
+		initialize();
+		jdbcTemplate.execute("DROP TABLE TASK_LOCK");
+		initialize();
+		assertThat(isTablePresent(jdbcTemplate, "TASK_LOCK")).isFalse();
+		assertThat(getSchemaVersions(jdbcTemplate))
+				.containsExactly(TaskRepositoryInitializer.SCHEMA_VERSION);
+	}
+
+	@Test
+	public void testOutdatedSchemaIsMigrated() throws Exception {
+		JdbcTemplate jdbcTemplate = createDatabase();
+		initialize();
+		jdbcTemplate.execute("DROP INDEX TASK_EXEC_START_IX");
+		jdbcTemplate.execute("DROP TABLE TASK_LOCK");
+		jdbcTemplate.update("UPDATE TASK_SCHEMA_VERSION SET VERSION = '2.2.x'");
+		initialize();
+		assertThat(isIndexPresent(jdbcTemplate, "TASK_EXEC_START_IX")).isTrue();
+		// only the later migration scripts are run
+		assertThat(isTablePresent(jdbcTemplate, "TASK_LOCK")).isFalse();
+		assertThat(getSchemaVersions(jdbcTemplate))
+				.containsExactly(TaskRepositoryInitializer.SCHEMA_VERSION);
+	}
+
+	@Test
+	public void testUnversionedSchemaIsMigrated() throws Exception {
+		JdbcTemplate jdbcTemplate = createDatabase();
+		initialize();
+		jdbcTemplate.execute("DROP TABLE TASK_SCHEMA_VERSION");
+		jdbcTemplate.execute("DROP INDEX TASK_EXEC_START_IX");
+		jdbcTemplate.execute("ALTER TABLE TASK_EXECUTION DROP COLUMN PARENT_EXECUTION_ID");
+		initialize();
+		assertThat(isIndexPresent(jdbcTemplate, "TASK_EXEC_START_IX")).isTrue();
+		assertThat(jdbcTemplate.queryForList(
+				"select PARENT_EXECUTION_ID from TASK_EXECUTION")).isEmpty();
+		assertThat(getSchemaVersions(jdbcTemplate))
+				.containsExactly(TaskRepositoryInitializer.SCHEMA_VERSION);
+	}
+
+	@Test
+	public void testUnknownSchemaVersionIsNotInitialized() throws Exception {
+		JdbcTemplate jdbcTemplate = createDatabase();
+		initialize();
+		jdbcTemplate.execute("DROP TABLE TASK_LOCK");
+		jdbcTemplate.update("UPDATE TASK_SCHEMA_VERSION SET VERSION = '9.9.x'");
+		initialize();
+		assertThat(isTablePresent(jdbcTemplate, "TASK_LOCK")).isFalse();
+		assertThat(getSchemaVersions(jdbcTemplate)).containsExactly("9.9.x");
+	}
+
+	private JdbcTemplate createDatabase() {
+		this.dataSource = new EmbeddedDatabaseBuilder()
+				.setName(UUID.randomUUID().toString()).setType(EmbeddedDatabaseType.H2)
+				.build();
+		return new JdbcTemplate(this.dataSource);
+	}
+
+	private void initialize() throws Exception {
+		TaskProperties taskProperties = new TaskProperties();
+		taskProperties.setInitializeEnabled(true);
+		TaskRepositoryInitializer initializer = new TaskRepositoryInitializer(
+				taskProperties);
+		initializer.setDataSource(this.dataSource);
+		initializer.setResourceLoader(new DefaultResourceLoader());
+		initializer.afterPropertiesSet();
+	}
+
+	private boolean isTablePresent(JdbcTemplate jdbcTemplate, String tableName) {
+		return !jdbcTemplate.queryForList(
+				"SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ?",
+				tableName).isEmpty();
+	}
+
+	private boolean isIndexPresent(JdbcTemplate jdbcTemplate, String indexName) {
+		return !jdbcTemplate.queryForList(
+				"SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = ?",
+				indexName).isEmpty();
+	}
+
+	private List<String> getSchemaVersions(JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForList("SELECT VERSION FROM TASK_SCHEMA_VERSION",
+				String.class);
+	}
+
 	@Configuration
 	public static class EmptyConfiguration {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,15 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.util.ArrayList;
+import java.util.Date;
+
 import javax.sql.DataSource;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
@@ -28,8 +32,10 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +43,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * @author Michael Minella
+ * @author Glenn Renfro
  */
 public class TaskExecutionDaoFactoryBeanTests {
 
@@ -79,6 +86,24 @@ public class TaskExecutionDaoFactoryBeanTests {
 		assertThat(taskExecutionDao == taskExecutionDao2).isTrue();
 	}
 
+	@Test
+	public void testMapRepositoryRetention() throws Exception {
+		TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean();
+		factoryBean.setMapRepositoryMaxEntries(1);
+		TaskExecutionDao taskExecutionDao = factoryBean.getObject();
+
+		for (int i = 0; i < 3; i++) {
+			TaskExecution taskExecution = taskExecutionDao.createTaskExecution("FOO",
+					new Date(), new ArrayList<>(0), null);
+			taskExecutionDao.completeTaskExecution(taskExecution.getExecutionId(), 0,
+					new Date(), null);
+		}
+
+		assertThat(taskExecutionDao.getTaskExecutionCount()).isEqualTo(1);
+		assertThat(((MapTaskExecutionDao) taskExecutionDao).getEvictionCount())
+				.isEqualTo(2);
+	}
+
 	@Test
 	public void testDefaultDataSourceConfiguration() throws Exception {
 		this.context = new AnnotationConfigApplicationContext(
@@ -112,6 +137,69 @@ public class TaskExecutionDaoFactoryBeanTests {
 				.isEqualTo("foo_");
 	}
 
+	@Test
+	public void testIncrementerBlockSize() throws Exception {
+		this.context = new AnnotationConfigApplicationContext(
+				DefaultDataSourceConfiguration.class);
+
+		DataSource dataSource = this.context.getBean(DataSource.class);
+		new ResourceDatabasePopulator(new ClassPathResource(
+				"org/springframework/cloud/task/schema-h2.sql")).execute(dataSource);
+
+		TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean(
+				dataSource);
+		factoryBean.setIncrementerBlockSize(50);
+		TaskExecutionDao taskExecutionDao = factoryBean.getObject();
+
+		assertThat(ReflectionTestUtils.getField(taskExecutionDao, "taskIncrementer"))
+				.isInstanceOf(HiLoDataFieldMaxValueIncrementer.class);
+		long first = taskExecutionDao.getNextExecutionId();
+		for (int i = 1; i < 50; i++) {
+			assertThat(taskExecutionDao.getNextExecutionId()).isEqualTo(first + i);
+		}
+	}
+
+	@Test
+	public void testSequenceRangeIncrementer() throws Exception {
+		this.context = new AnnotationConfigApplicationContext(
+				DefaultDataSourceConfiguration.class);
+
+		DataSource dataSource = this.context.getBean(DataSource.class);
+		new ResourceDatabasePopulator(new ClassPathResource(
+				"org/springframework/cloud/task/schema-h2.sql")).execute(dataSource);
+
+		TaskExecutionDao taskExecutionDao = new TaskExecutionDaoFactoryBean(dataSource)
+				.getObject();
+
+		assertThat(ReflectionTestUtils.getField(taskExecutionDao, "taskIncrementer"))
+				.isInstanceOf(SequenceRangeDataFieldMaxValueIncrementer.class);
+		long first = taskExecutionDao.getNextExecutionId();
+		long[] executionIds = ((JdbcTaskExecutionDao) taskExecutionDao)
+				.getNextExecutionIds(5);
+		for (int i = 0; i < executionIds.length; i++) {
+			assertThat(executionIds[i]).isEqualTo(first + 1 + i);
+		}
+		assertThat(taskExecutionDao.getNextExecutionId()).isEqualTo(first + 6);
+	}
+
+	@Test
+	public void testCustomTaskIncrementer() throws Exception {
+		this.context = new AnnotationConfigApplicationContext(
+				DefaultDataSourceConfiguration.class);
+
+		DataSource dataSource = this.context.getBean(DataSource.class);
+
+		TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean(
+				dataSource);
+		TimeOrderedDataFieldMaxValueIncrementer incrementer = new TimeOrderedDataFieldMaxValueIncrementer(
+				1);
+		factoryBean.setTaskIncrementer(incrementer);
+		TaskExecutionDao taskExecutionDao = factoryBean.getObject();
+
+		assertThat(ReflectionTestUtils.getField(taskExecutionDao, "taskIncrementer"))
+				.isSameAs(incrementer);
+	}
+
 	@Configuration
 	public static class DefaultDataSourceConfiguration {
 
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Glenn Renfro
+ */
+public class TaskExecutionPurgerTests {
+
+	@TempDir
+	Path archiveDirectory;
+
+	private final List<Integer> deletedChunkSizes = new ArrayList<>();
+
+	private final List<Integer> archivedChunkSizes = new ArrayList<>();
+
+	private MapTaskExecutionDao taskExecutionDao;
+
+	private TaskExecutionPurger purger;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean = new TaskExecutionDaoFactoryBean();
+		this.taskExecutionDao = (MapTaskExecutionDao) taskExecutionDaoFactoryBean
+				.getObject();
+		this.purger = new TaskExecutionPurger(
+				new SimpleTaskExplorer(taskExecutionDaoFactoryBean) {
+
+					@Override
+					public Map<Long, Set<Long>> getJobExecutionIdsByTaskExecutionIds(
+							Collection<Long> taskExecutionIds) {
+						TaskExecutionPurgerTests.this.archivedChunkSizes
+								.add(taskExecutionIds.size());
+						return super.getJobExecutionIdsByTaskExecutionIds(
+								taskExecutionIds);
+					}
+
+				},
+				new SimpleTaskRepository(taskExecutionDaoFactoryBean) {
+
+					@Override
+					public int deleteTaskExecutions(Collection<Long> executionIds) {
+						TaskExecutionPurgerTests.this.deletedChunkSizes
+								.add(executionIds.size());
+						return super.deleteTaskExecutions(executionIds);
+					}
+
+				});
+		this.purger.setChunkSize(2);
+	}
+
+	@Test
+	public void testPurgeTaskExecutionsEndedBeforeInChunks() {
+		for (int i = 0; i < 5; i++) {
+			createCompletedTaskExecution("FOO", i);
+		}
+		TaskExecution recent = createCompletedTaskExecution("FOO", 100);
+		TaskExecution running = this.taskExecutionDao.createTaskExecution("FOO",
+				new Date(0), Collections.emptyList(), null);
+
+		assertThat(this.purger.purgeTaskExecutionsEndedBefore(new Date(50_000)))
+				.isEqualTo(5);
+		assertThat(this.deletedChunkSizes).containsExactly(2, 2, 1);
+		assertThat(this.taskExecutionDao.getTaskExecutionCount()).isEqualTo(2);
+		assertThat(this.taskExecutionDao.getTaskExecution(recent.getExecutionId()))
+				.isNotNull();
+		assertThat(this.taskExecutionDao.getTaskExecution(running.getExecutionId()))
+				.isNotNull();
+		assertThat(this.archiveDirectory).isEmptyDirectory();
+		assertThat(this.archivedChunkSizes).isEmpty();
+	}
+
+	@Test
+	public void testPurgeTaskExecutionsBeyondLatest() {
+		List<Long> fooIds = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			fooIds.add(createCompletedTaskExecution("FOO", i).getExecutionId());
+		}
+		TaskExecution bar = createCompletedTaskExecution("BAR", 0);
+
+		assertThat(this.purger.purgeTaskExecutionsBeyondLatest(3)).isEqualTo(2);
+		assertThat(this.taskExecutionDao.getTaskExecution(fooIds.get(0))).isNull();
+		assertThat(this.taskExecutionDao.getTaskExecution(fooIds.get(1))).isNull();
+		assertThat(this.taskExecutionDao.getTaskExecution(fooIds.get(2))).isNotNull();
+		assertThat(this.taskExecutionDao.getTaskExecution(bar.getExecutionId()))
+				.isNotNull();
+
+		assertThat(this.purger.purgeTaskExecutionsBeyondLatest(0)).isEqualTo(4);
+		assertThat(this.taskExecutionDao.getTaskExecutionCount()).isZero();
+	}
+
+	@Test
+	public void testPurgedTaskExecutionsAreArchived() throws IOException {
+		this.purger.setArchiveDirectory(this.archiveDirectory.resolve("archive"));
+		TaskExecution taskExecution = this.taskExecutionDao.createTaskExecution("FOO",
+				new Date(0), Collections.singletonList("message=\"hi\"\n"), "external");
+		this.taskExecutionDao.completeTaskExecution(taskExecution.getExecutionId(), 1,
+				new Date(1000), "failed", "oops");
+		this.taskExecutionDao.getBatchJobAssociations().put(
+				taskExecution.getExecutionId(), new TreeSet<>(Arrays.asList(8L, 7L)));
+		for (int i = 0; i < 2; i++) {
+			createCompletedTaskExecution("BAR", i);
+		}
+
+		assertThat(this.purger.purgeTaskExecutionsEndedBefore(new Date(50_000)))
+				.isEqualTo(3);
+		assertThat(this.archivedChunkSizes).containsExactly(2, 1);
+
+		List<Path> archives;
+		try (Stream<Path> files = Files.list(this.archiveDirectory.resolve("archive"))) {
+			archives = files.collect(Collectors.toList());
+		}
+		assertThat(archives).hasSize(1);
+		assertThat(archives.get(0).getFileName().toString()).startsWith("task-executions-")
+				.endsWith(".json.gz");
+		List<String> lines = readArchive(archives.get(0));
+		assertThat(lines).hasSize(3);
+		assertThat(lines.get(0)).isEqualTo("{\"executionId\":"
+				+ taskExecution.getExecutionId()
+				+ ",\"taskName\":\"FOO\",\"startTime\":\"1970-01-01T00:00:00Z\","
+				+ "\"endTime\":\"1970-01-01T00:00:01Z\",\"exitCode\":1,"
+				+ "\"exitMessage\":\"failed\",\"errorMessage\":\"oops\","
+				+ "\"externalExecutionId\":\"external\",\"parentExecutionId\":null,"
+				+ "\"arguments\":[\"message=\\\"hi\\\"\\n\"],\"jobExecutionIds\":[7,8]}");
+	}
+
+	@Test
+	public void testInvalidChunkSize() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.purger
+				.setChunkSize(TaskExecutionPurger.MAX_CHUNK_SIZE + 1));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.purger.setChunkSize(0));
+	}
+
+	private TaskExecution createCompletedTaskExecution(String taskName,
+			int endTimeInSeconds) {
+		TaskExecution taskExecution = this.taskExecutionDao.createTaskExecution(
+				taskName, new Date(0), Collections.emptyList(), null);
+		this.taskExecutionDao.completeTaskExecution(taskExecution.getExecutionId(), 0,
+				new Date(endTimeInSeconds * 1000L), null);
+		return taskExecution;
+	}
+
+	private static List<String> readArchive(Path archive) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(Files.newInputStream(archive)),
+				StandardCharsets.UTF_8))) {
+			return reader.lines().collect(Collectors.toList());
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Glenn Renfro
+ */
+public class TimeOrderedDataFieldMaxValueIncrementerTests {
+
+	private static final Instant NOW = Instant.parse("2020-06-01T12:00:00Z");
+
+	@Test
+	public void testValuesIncreaseWithinMillisecond() {
+		TimeOrderedDataFieldMaxValueIncrementer incrementer = new TimeOrderedDataFieldMaxValueIncrementer(
+				1, Clock.fixed(NOW, ZoneOffset.UTC));
+		long previous = incrementer.nextLongValue();
+		for (int i = 0; i < 10000; i++) {
+			long value = incrementer.nextLongValue();
+			assertThat(value).isGreaterThan(previous);
+			previous = value;
+		}
+	}
+
+	@Test
+	public void testValuesIncreaseWhenClockMovesBackwards() {
+		MutableClock clock = new MutableClock(NOW);
+		TimeOrderedDataFieldMaxValueIncrementer incrementer = new TimeOrderedDataFieldMaxValueIncrementer(
+				1, clock);
+		long value = incrementer.nextLongValue();
+		clock.instant = NOW.minusSeconds(10);
+		assertThat(incrementer.nextLongValue()).isGreaterThan(value);
+	}
+
+	@Test
+	public void testNodesDoNotCollide() {
+		Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+		TimeOrderedDataFieldMaxValueIncrementer first = new TimeOrderedDataFieldMaxValueIncrementer(
+				1, clock);
+		TimeOrderedDataFieldMaxValueIncrementer second = new TimeOrderedDataFieldMaxValueIncrementer(
+				2, clock);
+		Set<Long> values = new HashSet<>();
+		for (int i = 0; i < 5000; i++) {
+			assertThat(values.add(first.nextLongValue())).isTrue();
+			assertThat(values.add(second.nextLongValue())).isTrue();
+		}
+	}
+
+	@Test
+	public void testValuesFollowTime() {
+		MutableClock clock = new MutableClock(NOW);
+		TimeOrderedDataFieldMaxValueIncrementer early = new TimeOrderedDataFieldMaxValueIncrementer(
+				TimeOrderedDataFieldMaxValueIncrementer.MAX_NODE_ID, clock);
+		long earlyValue = early.nextLongValue();
+		clock.instant = NOW.plusMillis(1);
+		TimeOrderedDataFieldMaxValueIncrementer late = new TimeOrderedDataFieldMaxValueIncrementer(
+				0, clock);
+		assertThat(late.nextLongValue()).isGreaterThan(earlyValue);
+		assertThat(earlyValue).isGreaterThan(Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void testNodeIdValidation() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new TimeOrderedDataFieldMaxValueIncrementer(
+						TimeOrderedDataFieldMaxValueIncrementer.MAX_NODE_ID + 1));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new TimeOrderedDataFieldMaxValueIncrementer(-1));
+	}
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant;
+
+		MutableClock(Instant instant) {
+			this.instant = instant;
+		}
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+
+	}
+
+}
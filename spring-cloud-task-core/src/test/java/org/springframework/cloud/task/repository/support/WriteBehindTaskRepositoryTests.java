@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Glenn Renfro
+ */
+public class WriteBehindTaskRepositoryTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private final CountDownLatch writesReleased = new CountDownLatch(1);
+
+	private final AtomicInteger externalExecutionIdUpdates = new AtomicInteger();
+
+	private TaskExecutionDao taskExecutionDao;
+
+	private WriteBehindTaskRepository taskRepository;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean = new TaskExecutionDaoFactoryBean();
+		this.taskExecutionDao = taskExecutionDaoFactoryBean.getObject();
+		this.taskRepository = new WriteBehindTaskRepository(
+				new SimpleTaskRepository(taskExecutionDaoFactoryBean) {
+
+					@Override
+					public void updateExternalExecutionId(long executionid,
+							String externalExecutionId) {
+						WriteBehindTaskRepositoryTests.this.externalExecutionIdUpdates
+								.incrementAndGet();
+						super.updateExternalExecutionId(executionid,
+								externalExecutionId);
+					}
+
+					@Override
+					public TaskExecution completeTaskExecution(long executionId,
+							Integer exitCode, Date endTime, String exitMessage,
+							String errorMessage) {
+						try {
+							WriteBehindTaskRepositoryTests.this.writesReleased.await();
+						}
+						catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return super.completeTaskExecution(executionId, exitCode,
+								endTime, exitMessage, errorMessage);
+					}
+
+				});
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.writesReleased.countDown();
+		this.taskRepository.destroy();
+	}
+
+	@Test
+	public void testWritesAreAppliedInBackground() {
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution("FOO");
+		assertThat(this.taskExecutionDao.getTaskExecution(taskExecution.getExecutionId()))
+				.isNotNull();
+
+		taskExecution = this.taskRepository.startTaskExecution(
+				taskExecution.getExecutionId(), "FOO", new Date(),
+				Collections.singletonList("foo=bar"), "external");
+		taskExecution.setExitCode(0);
+		taskExecution.setEndTime(new Date());
+		taskExecution.setExitMessage("done");
+		assertThat(this.taskRepository.completeTaskExecution(taskExecution))
+				.isSameAs(taskExecution);
+
+		// the writer is blocked on the completion, the caller was not
+		assertThat(this.taskRepository.flush(Duration.ofMillis(100))).isFalse();
+		assertThat(this.taskExecutionDao.getTaskExecution(taskExecution.getExecutionId())
+				.getEndTime()).isNull();
+
+		this.writesReleased.countDown();
+		assertThat(this.taskRepository.flush(TIMEOUT)).isTrue();
+		TaskExecution storedTaskExecution = this.taskExecutionDao
+				.getTaskExecution(taskExecution.getExecutionId());
+		assertThat(storedTaskExecution.getExitCode()).isZero();
+		assertThat(storedTaskExecution.getExitMessage()).isEqualTo("done");
+		assertThat(storedTaskExecution.getExternalExecutionId()).isEqualTo("external");
+		assertThat(storedTaskExecution.getArguments()).containsExactly("foo=bar");
+	}
+
+	@Test
+	public void testWritesToSameExecutionAreCoalesced() {
+		// the writer is blocked on this completion while the updates below are queued
+		TaskExecution blocker = this.taskRepository.createTaskExecution("BAR");
+		this.taskRepository.completeTaskExecution(blocker.getExecutionId(), 0,
+				new Date(), null);
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution("FOO");
+		for (int i = 0; i < 10; i++) {
+			this.taskRepository.updateExternalExecutionId(taskExecution.getExecutionId(),
+					"external" + i);
+		}
+
+		this.writesReleased.countDown();
+		assertThat(this.taskRepository.flush(TIMEOUT)).isTrue();
+		assertThat(this.taskExecutionDao.getTaskExecution(taskExecution.getExecutionId())
+				.getExternalExecutionId()).isEqualTo("external9");
+		assertThat(this.externalExecutionIdUpdates.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void testStartOfCompletedExecutionIsRejected() {
+		this.writesReleased.countDown();
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution("FOO");
+		this.taskRepository.completeTaskExecution(taskExecution.getExecutionId(), 0,
+				new Date(), null);
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.taskRepository.startTaskExecution(
+						taskExecution.getExecutionId(), "FOO", new Date(),
+						Collections.emptyList(), null))
+				.withMessage("Invalid TaskExecution, ID " + taskExecution.getExecutionId()
+						+ " task is already complete");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.taskRepository.completeTaskExecution(
+						taskExecution.getExecutionId(), -1, new Date(), null));
+	}
+
+	@Test
+	public void testWritesToUnknownExecutionsAreSynchronous() {
+		this.writesReleased.countDown();
+		TaskExecution taskExecution = this.taskExecutionDao.createTaskExecution("FOO",
+				null, Collections.emptyList(), null);
+
+		this.taskRepository.startTaskExecution(taskExecution.getExecutionId(), "FOO",
+				new Date(), Collections.emptyList(), null);
+		assertThat(this.taskExecutionDao.getTaskExecution(taskExecution.getExecutionId())
+				.getStartTime()).isNotNull();
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> this.taskRepository.startTaskExecution(12345L, "FOO",
+						new Date(), Collections.emptyList(), null))
+				.withMessage("Invalid TaskExecution, ID 12345 not found");
+	}
+
+	@Test
+	public void testDestroyFlushesQueuedWrites() {
+		this.writesReleased.countDown();
+		TaskExecution taskExecution = this.taskRepository.createTaskExecution("FOO");
+		this.taskRepository.completeTaskExecution(taskExecution.getExecutionId(), 0,
+				new Date(), null);
+		this.taskRepository.destroy();
+		assertThat(this.taskExecutionDao.getTaskExecution(taskExecution.getExecutionId())
+				.getExitCode()).isZero();
+
+		taskExecution = this.taskRepository.createTaskExecution("FOO");
+		this.taskRepository.updateExternalExecutionId(taskExecution.getExecutionId(),
+				"external");
+		assertThat(this.taskExecutionDao.getTaskExecution(taskExecution.getExecutionId())
+				.getExternalExecutionId()).isEqualTo("external");
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import com.jayway.jsonpath.JsonPath;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads the native image configuration shipped by a task module, shared by the tests of
+ * the modules that ship one.
+ *
+ * @author Glenn Renfro
+ */
+public final class NativeImageConfigurationUtils {
+
+	private static final String CONFIGURATION_LOCATION = "META-INF/native-image/"
+			+ "org.springframework.cloud/";
+
+	private NativeImageConfigurationUtils() {
+	}
+
+	/**
+	 * Reads the values at the JSON path of a native image configuration file of a
+	 * module.
+	 * @param module the artifact id of the module, e.g. {@code spring-cloud-task-core}.
+	 * @param file the name of the configuration file, e.g. {@code reflect-config.json}.
+	 * @param path the JSON path of the values to read.
+	 * @return the values read.
+	 * @throws IOException if the configuration file cannot be read.
+	 */
+	public static List<String> read(String module, String file, String path)
+			throws IOException {
+		try (InputStream inputStream = new ClassPathResource(
+				CONFIGURATION_LOCATION + module + "/" + file).getInputStream()) {
+			return JsonPath.read(inputStream, path);
+		}
+	}
+
+	/**
+	 * Reads the types registered for reflection by a module and asserts that they exist.
+	 * @param module the artifact id of the module.
+	 * @return the names of the types registered for reflection.
+	 * @throws IOException if the configuration file cannot be read.
+	 */
+	public static List<String> readReflectedTypes(String module) throws IOException {
+		List<String> types = read(module, "reflect-config.json", "$[*].name");
+		for (String type : types) {
+			assertThat(ClassUtils.isPresent(type,
+					NativeImageConfigurationUtils.class.getClassLoader())).as(type)
+							.isTrue();
+		}
+		return types;
+	}
+
+}
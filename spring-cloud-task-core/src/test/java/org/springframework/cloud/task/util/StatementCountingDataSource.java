@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} that counts the number of statement executions (round trips to the
+ * database) performed through the connections it hands out. A JDBC batch is counted as
+ * a single execution. Database meta data lookups are counted separately and the SQL and
+ * fetch sizes of the prepared statements are recorded.
+ *
+ * @author Glenn Renfro
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+	private final AtomicInteger statementCount = new AtomicInteger();
+
+	private final AtomicInteger metaDataLookupCount = new AtomicInteger();
+
+	private final List<String> preparedStatements = new CopyOnWriteArrayList<>();
+
+	private final List<Integer> fetchSizes = new CopyOnWriteArrayList<>();
+
+	public StatementCountingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	/**
+	 * Returns the number of statements executed since creation or the last reset.
+	 * @return the number of statements executed.
+	 */
+	public int getStatementCount() {
+		return this.statementCount.get();
+	}
+
+	/**
+	 * Returns the number of database meta data lookups since creation or the last reset.
+	 * @return the number of meta data lookups.
+	 */
+	public int getMetaDataLookupCount() {
+		return this.metaDataLookupCount.get();
+	}
+
+	/**
+	 * Returns the SQL of the statements prepared since creation or the last reset.
+	 * @return the SQL of the prepared statements, in the order they were prepared.
+	 */
+	public List<String> getPreparedStatements() {
+		return new ArrayList<>(this.preparedStatements);
+	}
+
+	/**
+	 * Returns the fetch sizes set on statements since creation or the last reset.
+	 * @return the fetch sizes, in the order they were set.
+	 */
+	public List<Integer> getFetchSizes() {
+		return new ArrayList<>(this.fetchSizes);
+	}
+
+	/**
+	 * Resets the statement and meta data lookup counts to zero and clears the recorded
+	 * prepared statements and fetch sizes.
+	 */
+	public void reset() {
+		this.statementCount.set(0);
+		this.metaDataLookupCount.set(0);
+		this.preparedStatements.clear();
+		this.fetchSizes.clear();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return proxy(Connection.class, super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password)
+			throws SQLException {
+		return proxy(Connection.class, super.getConnection(username, password));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(Class<T> type, T target) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (target instanceof Connection
+					&& method.getName().equals("prepareStatement")) {
+				this.preparedStatements.add((String) args[0]);
+			}
+			if (target instanceof Statement && method.getName().equals("setFetchSize")) {
+				this.fetchSizes.add((Integer) args[0]);
+			}
+			Object result = invoke(target, method, args);
+			if (result instanceof Statement) {
+				Class<?> statementType = method.getReturnType();
+				return proxy((Class<Statement>) statementType, (Statement) result);
+			}
+			if (target instanceof Statement && method.getName().startsWith("execute")) {
+				this.statementCount.incrementAndGet();
+			}
+			if (target instanceof Connection && method.getName().equals("getMetaData")) {
+				this.metaDataLookupCount.incrementAndGet();
+			}
+			return result;
+		};
+		return (T) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { type }, handler);
+	}
+
+	private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2019 the original author or authors.
+ * Copyright 2015-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -149,12 +149,26 @@ public final class TestDBUtils {
 	 */
 	public static DataSource getMockDataSource(String databaseProductName)
 			throws Exception {
+		return getMockDataSource(databaseProductName, 0);
+	}
+
+	/**
+	 * Creates a mock DataSource for use in testing.
+	 * @param databaseProductName the name of the database type to mock.
+	 * @param databaseMajorVersion the major version of the database to mock.
+	 * @return a mock DataSource.
+	 * @throws Exception exception thrown if error occurs creating mock
+	 * {@link DataSource}.
+	 */
+	public static DataSource getMockDataSource(String databaseProductName,
+			int databaseMajorVersion) throws Exception {
 		DatabaseMetaData dmd = mock(DatabaseMetaData.class);
 		DataSource ds = mock(DataSource.class);
 		Connection con = mock(Connection.class);
 		when(ds.getConnection()).thenReturn(con);
 		when(con.getMetaData()).thenReturn(dmd);
 		when(dmd.getDatabaseProductName()).thenReturn(databaseProductName);
+		when(dmd.getDatabaseMajorVersion()).thenReturn(databaseMajorVersion);
 		return ds;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016-2019 the original author or authors.
+ * Copyright 2016-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -136,6 +136,7 @@ public class TaskStartTests {
 		template.execute("DROP TABLE IF EXISTS TASK_EXECUTION_PARAMS");
 		template.execute("DROP TABLE IF EXISTS TASK_EXECUTION");
 		template.execute("DROP TABLE IF EXISTS TASK_LOCK");
+		template.execute("DROP TABLE IF EXISTS TASK_SCHEMA_VERSION");
 		template.execute("DROP TABLE IF EXISTS BATCH_STEP_EXECUTION_SEQ");
 		template.execute("DROP TABLE IF EXISTS BATCH_STEP_EXECUTION_CONTEXT");
 		template.execute("DROP TABLE IF EXISTS BATCH_STEP_EXECUTION");
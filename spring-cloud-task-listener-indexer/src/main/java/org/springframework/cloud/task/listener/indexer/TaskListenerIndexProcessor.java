@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.listener.indexer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the binary names of the classes that declare
+ * {@code @BeforeTask}, {@code @AfterTask} or {@code @FailedTask} methods, directly or
+ * through composed annotations, to {@value #INDEX_LOCATION}. Spring Cloud Task reads
+ * the index at task startup instead of introspecting the methods of every bean.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+@SupportedAnnotationTypes("*")
+public class TaskListenerIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * The location of the index, relative to the class output.
+	 */
+	static final String INDEX_LOCATION = "META-INF/spring-cloud-task.listeners";
+
+	private static final List<String> LISTENER_ANNOTATIONS = Arrays.asList(
+			"org.springframework.cloud.task.listener.annotation.BeforeTask",
+			"org.springframework.cloud.task.listener.annotation.AfterTask",
+			"org.springframework.cloud.task.listener.annotation.FailedTask");
+
+	/**
+	 * The listener annotations each indexed class name is declared with.
+	 */
+	private final Map<String, Set<String>> listenerClasses = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			String listenerAnnotation = getListenerAnnotation(annotation,
+					new HashSet<>());
+			if (listenerAnnotation != null) {
+				for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+					addListenerMethod(element, listenerAnnotation);
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !this.listenerClasses.isEmpty()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the listener annotation the annotation provided is or is meta-annotated
+	 * with, or null.
+	 */
+	private String getListenerAnnotation(TypeElement annotation, Set<String> visited) {
+		String name = annotation.getQualifiedName().toString();
+		if (LISTENER_ANNOTATIONS.contains(name)) {
+			return name;
+		}
+		if (!visited.add(name) || name.startsWith("java.lang.annotation.")) {
+			return null;
+		}
+		for (AnnotationMirror metaAnnotation : annotation.getAnnotationMirrors()) {
+			String listenerAnnotation = getListenerAnnotation(
+					(TypeElement) metaAnnotation.getAnnotationType().asElement(),
+					visited);
+			if (listenerAnnotation != null) {
+				return listenerAnnotation;
+			}
+		}
+		return null;
+	}
+
+	private void addListenerMethod(Element element, String listenerAnnotation) {
+		Element enclosingElement = element.getEnclosingElement();
+		if (element.getKind() != ElementKind.METHOD
+				|| !(enclosingElement instanceof TypeElement)) {
+			return;
+		}
+		String className = this.processingEnv.getElementUtils()
+				.getBinaryName((TypeElement) enclosingElement).toString();
+		this.listenerClasses.computeIfAbsent(className, (key) -> new TreeSet<>())
+				.add(listenerAnnotation);
+	}
+
+	private void writeIndex() {
+		readExistingIndex();
+		try {
+			FileObject index = this.processingEnv.getFiler()
+					.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			try (Writer writer = new OutputStreamWriter(index.openOutputStream(),
+					StandardCharsets.UTF_8)) {
+				for (Map.Entry<String, Set<String>> entry : this.listenerClasses
+						.entrySet()) {
+					writer.write(entry.getKey() + "="
+							+ String.join(",", entry.getValue()) + "\n");
+				}
+			}
+		}
+		catch (IOException e) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write " + INDEX_LOCATION + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Keeps the entries of an index written by a previous, incremental, compilation.
+	 * Entries of classes that no longer declare listener methods only cause these
+	 * classes to be introspected.
+	 */
+	private void readExistingIndex() {
+		try {
+			FileObject index = this.processingEnv.getFiler()
+					.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+					index.openInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					int separator = line.indexOf('=');
+					if (separator > 0) {
+						this.listenerClasses
+								.computeIfAbsent(line.substring(0, separator),
+										(key) -> new TreeSet<>())
+								.addAll(Arrays.asList(
+										line.substring(separator + 1).split(",")));
+					}
+				}
+			}
+		}
+		catch (IOException e) {
+			// no index was written by a previous compilation
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.listener.indexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cloud.task.listener.TaskListenerIndex;
+import org.springframework.cloud.task.listener.annotation.BeforeTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class TaskListenerIndexProcessorTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testIndexListenerClasses() throws Exception {
+		writeSource("sample/SampleListener.java",
+				"package sample;\n"
+						+ "import org.springframework.cloud.task.listener.annotation.*;\n"
+						+ "import org.springframework.cloud.task.repository.TaskExecution;\n"
+						+ "public class SampleListener {\n"
+						+ "  @BeforeTask public void before(TaskExecution e) { }\n"
+						+ "  @AfterTask public void after(TaskExecution e) { }\n"
+						+ "  public static class Nested {\n"
+						+ "    @FailedTask public void failed(TaskExecution e, Throwable t) { }\n"
+						+ "  }\n"
+						+ "}\n");
+		writeSource("sample/Started.java", "package sample;\n"
+				+ "import java.lang.annotation.*;\n"
+				+ "import org.springframework.cloud.task.listener.annotation.BeforeTask;\n"
+				+ "@Target(ElementType.METHOD) @Retention(RetentionPolicy.RUNTIME)\n"
+				+ "@BeforeTask public @interface Started { }\n");
+		writeSource("sample/ComposedListener.java", "package sample;\n"
+				+ "import org.springframework.cloud.task.repository.TaskExecution;\n"
+				+ "public class ComposedListener {\n"
+				+ "  @Started public void started(TaskExecution e) { }\n" + "}\n");
+		writeSource("sample/NotAListener.java", "package sample;\n"
+				+ "public class NotAListener {\n"
+				+ "  @Deprecated public void run() { }\n" + "}\n");
+
+		Path classes = compile();
+
+		List<String> index = Files.readAllLines(
+				classes.resolve(TaskListenerIndexProcessor.INDEX_LOCATION),
+				StandardCharsets.UTF_8);
+		assertThat(index).containsExactly(
+				"sample.ComposedListener=org.springframework.cloud.task.listener.annotation.BeforeTask",
+				"sample.SampleListener=org.springframework.cloud.task.listener.annotation.AfterTask,"
+						+ "org.springframework.cloud.task.listener.annotation.BeforeTask",
+				"sample.SampleListener$Nested=org.springframework.cloud.task.listener.annotation.FailedTask");
+
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { classes.toUri().toURL() }, getClass().getClassLoader())) {
+			TaskListenerIndex taskListenerIndex = TaskListenerIndex.load(classLoader);
+			assertThat(taskListenerIndex.mayDeclareListenerMethods(
+					classLoader.loadClass("sample.SampleListener$Nested"))).isTrue();
+			assertThat(taskListenerIndex.mayDeclareListenerMethods(
+					classLoader.loadClass("sample.NotAListener"))).isFalse();
+		}
+	}
+
+	@Test
+	public void testNoIndexWithoutListenerClasses() throws IOException {
+		writeSource("sample/NotAListener.java",
+				"package sample;\n" + "public class NotAListener { }\n");
+
+		Path classes = compile();
+
+		assertThat(classes.resolve("sample/NotAListener.class")).exists();
+		assertThat(classes.resolve(TaskListenerIndexProcessor.INDEX_LOCATION))
+				.doesNotExist();
+	}
+
+	private void writeSource(String path, String source) throws IOException {
+		Path file = this.directory.resolve("src").resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private Path compile() throws IOException {
+		Path classes = Files.createDirectories(this.directory.resolve("classes"));
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null,
+				null, StandardCharsets.UTF_8)) {
+			File[] sources;
+			try (Stream<Path> files = Files
+					.walk(this.directory.resolve("src"))) {
+				sources = files.filter((file) -> file.toString().endsWith(".java"))
+						.map(Path::toFile).toArray(File[]::new);
+			}
+			Iterable<? extends JavaFileObject> compilationUnits = fileManager
+					.getJavaFileObjects(sources);
+			String classPath = new File(BeforeTask.class.getProtectionDomain()
+					.getCodeSource().getLocation().getPath()).getPath();
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager,
+					null, Arrays.asList("-d", classes.toString(), "-classpath", classPath),
+					null, compilationUnits);
+			task.setProcessors(Arrays.asList(new TaskListenerIndexProcessor()));
+			assertThat(task.call()).isTrue();
+		}
+		return classes;
+	}
+
+}
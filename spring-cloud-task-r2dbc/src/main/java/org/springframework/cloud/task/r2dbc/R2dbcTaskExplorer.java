@@ -0,0 +1,371 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.r2dbc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.batch.item.database.Order;
+import org.springframework.cloud.task.configuration.TaskProperties;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
+import org.springframework.cloud.task.repository.database.PagingQueryProvider;
+import org.springframework.cloud.task.repository.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.cloud.task.repository.support.DatabaseType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link ReactiveTaskExplorer} that queries the task tables through R2DBC. It uses the
+ * same table model as the
+ * {@link org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao} and the
+ * same database specific paging queries. The database type is determined from the
+ * name reported by the {@link ConnectionFactory}, and can be set explicitly when the
+ * driver reports a name that is not a known {@link DatabaseType}.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public class R2dbcTaskExplorer implements ReactiveTaskExplorer {
+
+	/**
+	 * Number of task executions whose arguments are retrieved with a single query. The
+	 * arguments of a streamed result are retrieved batch by batch, so at most this many
+	 * task executions are held in memory per outstanding request.
+	 */
+	static final int ARGUMENT_BATCH_SIZE = 100;
+
+	private static final String WHERE_CLAUSE_PLACEHOLDER = "%WHERE%";
+
+	private static final String FIND_TASK_EXECUTIONS = "SELECT "
+			+ JdbcTaskExecutionDao.SELECT_CLAUSE + "from %PREFIX%EXECUTION "
+			+ WHERE_CLAUSE_PLACEHOLDER
+			+ "order by START_TIME DESC, TASK_EXECUTION_ID DESC";
+
+	private static final String GET_EXECUTION_BY_ID = "SELECT "
+			+ JdbcTaskExecutionDao.SELECT_CLAUSE
+			+ "from %PREFIX%EXECUTION where TASK_EXECUTION_ID = :taskExecutionId";
+
+	private static final String FIND_ARGUMENTS_FROM_IDS = "SELECT TASK_EXECUTION_ID, "
+			+ "TASK_PARAM from %PREFIX%EXECUTION_PARAMS where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
+			+ "%PREFIX%EXECUTION ";
+
+	private static final String TASK_EXECUTION_COUNT_BY_NAME = "SELECT COUNT(*) FROM "
+			+ "%PREFIX%EXECUTION where TASK_NAME = :taskName";
+
+	private static final String RUNNING_TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
+			+ "%PREFIX%EXECUTION where END_TIME IS NULL ";
+
+	private static final String LAST_TASK_EXECUTIONS_BY_TASK_NAMES = "select TE2.* from ("
+			+ "select MAX(TE.TASK_EXECUTION_ID) as TASK_EXECUTION_ID, TE.TASK_NAME, TE.START_TIME from ("
+			+ "select TASK_NAME, MAX(START_TIME) as START_TIME"
+			+ "      FROM %PREFIX%EXECUTION where TASK_NAME in (:taskNames)"
+			+ "      GROUP BY TASK_NAME" + ") TE_MAX "
+			+ "inner join %PREFIX%EXECUTION TE ON TE.TASK_NAME = TE_MAX.TASK_NAME AND TE.START_TIME = TE_MAX.START_TIME "
+			+ "group by TE.TASK_NAME, TE.START_TIME" + ") TE1 "
+			+ "inner join %PREFIX%EXECUTION TE2 ON TE1.TASK_EXECUTION_ID = TE2.TASK_EXECUTION_ID "
+			+ "order by TE2.START_TIME DESC, TE2.TASK_EXECUTION_ID DESC";
+
+	private static final String FIND_TASK_NAMES = "SELECT distinct TASK_NAME from %PREFIX%EXECUTION order by TASK_NAME";
+
+	private static final String FIND_TASK_EXECUTION_BY_JOB_EXECUTION_ID = "SELECT TASK_EXECUTION_ID FROM "
+			+ "%PREFIX%TASK_BATCH WHERE JOB_EXECUTION_ID = :jobExecutionId";
+
+	private static final String FIND_JOB_EXECUTION_BY_TASK_EXECUTION_ID = "SELECT JOB_EXECUTION_ID "
+			+ "FROM %PREFIX%TASK_BATCH WHERE TASK_EXECUTION_ID = :taskExecutionId";
+
+	private final DatabaseClient databaseClient;
+
+	private final String tablePrefix;
+
+	private final LinkedHashMap<String, Order> orderMap;
+
+	private DatabaseType databaseType;
+
+	/**
+	 * Initializes the R2dbcTaskExplorer and defaults the table prefix to
+	 * {@link TaskProperties#DEFAULT_TABLE_PREFIX}.
+	 * @param connectionFactory used by the explorer to execute queries.
+	 */
+	public R2dbcTaskExplorer(ConnectionFactory connectionFactory) {
+		this(connectionFactory, TaskProperties.DEFAULT_TABLE_PREFIX);
+	}
+
+	/**
+	 * Initializes the R2dbcTaskExplorer.
+	 * @param connectionFactory used by the explorer to execute queries.
+	 * @param tablePrefix the table prefix to use for this explorer.
+	 */
+	public R2dbcTaskExplorer(ConnectionFactory connectionFactory, String tablePrefix) {
+		Assert.notNull(connectionFactory, "connectionFactory must not be null");
+		Assert.hasText(tablePrefix, "tablePrefix must not be null nor empty");
+		this.databaseClient = DatabaseClient.create(connectionFactory);
+		this.tablePrefix = tablePrefix;
+		this.orderMap = new LinkedHashMap<>();
+		this.orderMap.put("START_TIME", Order.DESCENDING);
+		this.orderMap.put("TASK_EXECUTION_ID", Order.DESCENDING);
+		try {
+			this.databaseType = DatabaseType
+					.fromProductName(connectionFactory.getMetadata().getName());
+		}
+		catch (IllegalArgumentException e) {
+			// paging queries require the database type to be set explicitly
+			this.databaseType = null;
+		}
+	}
+
+	/**
+	 * Sets the database type used to generate the paging queries, overriding the one
+	 * determined from the {@link ConnectionFactory} meta data.
+	 * @param databaseType the name of a {@link DatabaseType}
+	 */
+	public void setDatabaseType(String databaseType) {
+		Assert.hasText(databaseType, "databaseType must not be empty nor null");
+		this.databaseType = DatabaseType.valueOf(databaseType.toUpperCase());
+	}
+
+	@Override
+	public Mono<TaskExecution> getTaskExecution(long executionId) {
+		return withArguments(this.databaseClient.sql(getQuery(GET_EXECUTION_BY_ID))
+				.bind("taskExecutionId", executionId)
+				.map((row, metadata) -> mapTaskExecution(row)).all()).next();
+	}
+
+	@Override
+	public Flux<TaskExecution> findRunningTaskExecutions(String taskName,
+			Pageable pageable) {
+		return queryForPageableResults(pageable,
+				JdbcTaskExecutionDao.RUNNING_TASK_WHERE_CLAUSE,
+				Collections.singletonMap("taskName", taskName));
+	}
+
+	@Override
+	public Flux<String> getTaskNames() {
+		return this.databaseClient.sql(getQuery(FIND_TASK_NAMES))
+				.map((row, metadata) -> row.get("TASK_NAME", String.class)).all();
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionCountByTaskName(String taskName) {
+		return queryForCount(this.databaseClient
+				.sql(getQuery(TASK_EXECUTION_COUNT_BY_NAME)).bind("taskName", taskName));
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionCount() {
+		return queryForCount(this.databaseClient.sql(getQuery(TASK_EXECUTION_COUNT)));
+	}
+
+	@Override
+	public Mono<Long> getRunningTaskExecutionCount() {
+		return queryForCount(
+				this.databaseClient.sql(getQuery(RUNNING_TASK_EXECUTION_COUNT)));
+	}
+
+	@Override
+	public Flux<TaskExecution> findTaskExecutionsByName(String taskName,
+			Pageable pageable) {
+		return queryForPageableResults(pageable,
+				JdbcTaskExecutionDao.TASK_NAME_WHERE_CLAUSE,
+				Collections.singletonMap("taskName", taskName));
+	}
+
+	@Override
+	public Flux<TaskExecution> findTaskExecutionsByName(String taskName) {
+		return withArguments(this.databaseClient
+				.sql(getQuery(StringUtils.replace(FIND_TASK_EXECUTIONS,
+						WHERE_CLAUSE_PLACEHOLDER,
+						JdbcTaskExecutionDao.TASK_NAME_WHERE_CLAUSE)))
+				.bind("taskName", taskName).map((row, metadata) -> mapTaskExecution(row))
+				.all());
+	}
+
+	@Override
+	public Flux<TaskExecution> findAll(Pageable pageable) {
+		return queryForPageableResults(pageable, null, Collections.emptyMap());
+	}
+
+	@Override
+	public Flux<TaskExecution> findAll() {
+		return withArguments(this.databaseClient
+				.sql(getQuery(StringUtils.replace(FIND_TASK_EXECUTIONS,
+						WHERE_CLAUSE_PLACEHOLDER, "")))
+				.map((row, metadata) -> mapTaskExecution(row)).all());
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+		return this.databaseClient.sql(getQuery(FIND_TASK_EXECUTION_BY_JOB_EXECUTION_ID))
+				.bind("jobExecutionId", jobExecutionId)
+				.map((row, metadata) -> row.get("TASK_EXECUTION_ID", Long.class)).first();
+	}
+
+	@Override
+	public Flux<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId) {
+		return this.databaseClient.sql(getQuery(FIND_JOB_EXECUTION_BY_TASK_EXECUTION_ID))
+				.bind("taskExecutionId", taskExecutionId)
+				.map((row, metadata) -> row.get("JOB_EXECUTION_ID", Long.class)).all();
+	}
+
+	@Override
+	public Flux<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames) {
+		Assert.notEmpty(taskNames, "At least 1 task name must be provided.");
+		long emptyTaskNames = Arrays.stream(taskNames)
+				.filter((taskName) -> !StringUtils.hasText(taskName)).count();
+		Assert.isTrue(emptyTaskNames == 0, String.format(
+				"Task names must not contain any empty elements but %s of %s were empty or null.",
+				emptyTaskNames, taskNames.length));
+		return withArguments(this.databaseClient
+				.sql(getQuery(LAST_TASK_EXECUTIONS_BY_TASK_NAMES))
+				.bind("taskNames", Arrays.asList(taskNames))
+				.map((row, metadata) -> mapTaskExecution(row)).all());
+	}
+
+	@Override
+	public Mono<TaskExecution> getLatestTaskExecutionForTaskName(String taskName) {
+		Assert.hasText(taskName, "The task name must not be empty.");
+		return getLatestTaskExecutionsByTaskNames(taskName).collectList()
+				.flatMap((taskExecutions) -> {
+					if (taskExecutions.size() > 1) {
+						return Mono.error(new IllegalStateException(
+								"Only expected a single TaskExecution but received "
+										+ taskExecutions.size()));
+					}
+					return Mono.justOrEmpty(taskExecutions.stream().findFirst());
+				});
+	}
+
+	private Flux<TaskExecution> queryForPageableResults(Pageable pageable,
+			String whereClause, Map<String, Object> queryParameters) {
+		Assert.isTrue(pageable.isPaged(), "pageable must be paged");
+		GenericExecuteSpec executeSpec = this.databaseClient.sql(getQuery(
+				getPagingQueryProvider(whereClause, getSortKeys(pageable))
+						.getPageQuery(pageable)));
+		for (Map.Entry<String, Object> queryParameter : queryParameters.entrySet()) {
+			executeSpec = executeSpec.bind(queryParameter.getKey(),
+					queryParameter.getValue());
+		}
+		return withArguments(
+				executeSpec.map((row, metadata) -> mapTaskExecution(row)).all());
+	}
+
+	private Mono<Long> queryForCount(GenericExecuteSpec executeSpec) {
+		return executeSpec.map((row, metadata) -> row.get(0, Long.class)).first()
+				.defaultIfEmpty(0L);
+	}
+
+	private Map<String, Order> getSortKeys(Pageable pageable) {
+		final LinkedHashMap<String, Order> sortOrderMap = new LinkedHashMap<>();
+		for (Sort.Order sortOrder : pageable.getSort()) {
+			sortOrderMap.put(sortOrder.getProperty(),
+					sortOrder.isAscending() ? Order.ASCENDING : Order.DESCENDING);
+		}
+		return !sortOrderMap.isEmpty() ? sortOrderMap : this.orderMap;
+	}
+
+	/**
+	 * Creates the {@link PagingQueryProvider} for the given where clause. Without a
+	 * {@link javax.sql.DataSource} the provider does not inspect the database, so
+	 * creating one for each query is cheap.
+	 */
+	private PagingQueryProvider getPagingQueryProvider(String whereClause,
+			Map<String, Order> sortKeys) {
+		Assert.state(this.databaseType != null,
+				"The database type could not be determined from the connection factory, "
+						+ "it has to be set explicitly");
+		SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
+		factoryBean.setDatabaseType(this.databaseType.name());
+		factoryBean.setSelectClause(JdbcTaskExecutionDao.SELECT_CLAUSE);
+		factoryBean.setFromClause(JdbcTaskExecutionDao.FROM_CLAUSE);
+		if (StringUtils.hasText(whereClause)) {
+			factoryBean.setWhereClause(whereClause);
+		}
+		factoryBean.setSortKeys(sortKeys);
+		try {
+			return factoryBean.getObject();
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Populates the arguments of the task executions emitted by the provided
+	 * {@link Flux}, using one query per {@link #ARGUMENT_BATCH_SIZE} task executions.
+	 * The order of the task executions is preserved, and further rows are only read
+	 * once the task executions of the previous batch have been requested.
+	 */
+	private Flux<TaskExecution> withArguments(Flux<TaskExecution> taskExecutions) {
+		return taskExecutions.buffer(ARGUMENT_BATCH_SIZE)
+				.concatMap(this::populateArguments);
+	}
+
+	private Flux<TaskExecution> populateArguments(List<TaskExecution> taskExecutions) {
+		final Map<Long, TaskExecution> taskExecutionMap = new HashMap<>();
+		for (TaskExecution taskExecution : taskExecutions) {
+			taskExecutionMap.put(taskExecution.getExecutionId(), taskExecution);
+		}
+		return this.databaseClient.sql(getQuery(FIND_ARGUMENTS_FROM_IDS))
+				.bind("taskExecutionIds", new ArrayList<>(taskExecutionMap.keySet()))
+				.map((row, metadata) -> new AbstractMap.SimpleEntry<>(
+						row.get("TASK_EXECUTION_ID", Long.class),
+						row.get("TASK_PARAM", String.class)))
+				.all()
+				.doOnNext((argument) -> taskExecutionMap.get(argument.getKey())
+						.getArguments().add(argument.getValue()))
+				.thenMany(Flux.fromIterable(taskExecutions));
+	}
+
+	private TaskExecution mapTaskExecution(Row row) {
+		return new TaskExecution(row.get("TASK_EXECUTION_ID", Long.class),
+				row.get("EXIT_CODE", Integer.class), row.get("TASK_NAME", String.class),
+				toTimestamp(row.get("START_TIME", LocalDateTime.class)),
+				toTimestamp(row.get("END_TIME", LocalDateTime.class)),
+				row.get("EXIT_MESSAGE", String.class), Collections.emptyList(),
+				row.get("ERROR_MESSAGE", String.class),
+				row.get("EXTERNAL_EXECUTION_ID", String.class),
+				row.get("PARENT_EXECUTION_ID", Long.class));
+	}
+
+	private Timestamp toTimestamp(LocalDateTime localDateTime) {
+		return (localDateTime != null) ? Timestamp.valueOf(localDateTime) : null;
+	}
+
+	private String getQuery(String base) {
+		return StringUtils.replace(base, "%PREFIX%", this.tablePrefix);
+	}
+
+}
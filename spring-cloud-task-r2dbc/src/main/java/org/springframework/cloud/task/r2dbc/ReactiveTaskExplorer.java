@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.r2dbc;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Offers non-blocking methods that allow users to query the task executions that are
+ * available. This is the reactive counterpart of the {@link TaskExplorer}; pages are
+ * emitted as a {@link Flux} of task executions instead of a materialized
+ * {@link org.springframework.data.domain.Page}, so the total number of task executions
+ * must be retrieved separately when needed.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+public interface ReactiveTaskExplorer {
+
+	/**
+	 * Retrieve a {@link TaskExecution} by its id.
+	 * @param executionId the task execution id
+	 * @return the {@link TaskExecution} with this id, or an empty {@link Mono} if not
+	 * found
+	 */
+	Mono<TaskExecution> getTaskExecution(long executionId);
+
+	/**
+	 * Retrieve the running task executions that have the task name provided.
+	 * @param taskName the name of the task
+	 * @param pageable the constraints for the search
+	 * @return the running executions for tasks with the specified name
+	 */
+	Flux<TaskExecution> findRunningTaskExecutions(String taskName, Pageable pageable);
+
+	/**
+	 * Retrieve the available task names.
+	 * @return the task names that have been executed
+	 */
+	Flux<String> getTaskNames();
+
+	/**
+	 * Get number of executions for a taskName.
+	 * @param taskName the name of the task to be searched
+	 * @return the number of tasks that have the taskname specified
+	 */
+	Mono<Long> getTaskExecutionCountByTaskName(String taskName);
+
+	/**
+	 * Retrieves current number of task executions.
+	 * @return current number of task executions.
+	 */
+	Mono<Long> getTaskExecutionCount();
+
+	/**
+	 * Retrieves current number of running task executions.
+	 * @return current number of running task executions.
+	 */
+	Mono<Long> getRunningTaskExecutionCount();
+
+	/**
+	 * Get a page of executions for a taskName.
+	 * @param taskName the name of the task to be searched
+	 * @param pageable the constraints for the search
+	 * @return the task executions of the page
+	 */
+	Flux<TaskExecution> findTaskExecutionsByName(String taskName, Pageable pageable);
+
+	/**
+	 * Streams all the executions for a taskName sorted by start date descending,
+	 * taskExecution id descending. The task executions are read as they are requested
+	 * by the subscriber.
+	 * @param taskName the name of the task to be searched
+	 * @return the task executions
+	 */
+	Flux<TaskExecution> findTaskExecutionsByName(String taskName);
+
+	/**
+	 * Retrieves all the task executions within the pageable constraints sorted by start
+	 * date descending, taskExecution id descending.
+	 * @param pageable the constraints for the search
+	 * @return the task executions of the page
+	 */
+	Flux<TaskExecution> findAll(Pageable pageable);
+
+	/**
+	 * Streams all the task executions sorted by start date descending, taskExecution id
+	 * descending. The task executions are read as they are requested by the subscriber.
+	 * @return the task executions
+	 */
+	Flux<TaskExecution> findAll();
+
+	/**
+	 * Returns the id of the TaskExecution that the requested Spring Batch job execution
+	 * was executed within the context of. Returns an empty {@link Mono} if none were
+	 * found.
+	 * @param jobExecutionId the id of the JobExecution
+	 * @return the id of the {@link TaskExecution}
+	 */
+	Mono<Long> getTaskExecutionIdByJobExecutionId(long jobExecutionId);
+
+	/**
+	 * Returns the job execution ids associated with a task execution id.
+	 * @param taskExecutionId id of the {@link TaskExecution}
+	 * @return the ids of the job executions
+	 */
+	Flux<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId);
+
+	/**
+	 * Returns the latest task execution for each of the given task names, sorted by
+	 * start date descending, taskExecution id descending.
+	 * @param taskNames at least 1 task name must be provided
+	 * @return the latest task executions
+	 */
+	Flux<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames);
+
+	/**
+	 * Returns the latest task execution for a given task name.
+	 * @param taskName must not be null or empty
+	 * @return the latest task execution, or an empty {@link Mono} if the task was never
+	 * executed
+	 */
+	Mono<TaskExecution> getLatestTaskExecutionForTaskName(String taskName);
+
+}
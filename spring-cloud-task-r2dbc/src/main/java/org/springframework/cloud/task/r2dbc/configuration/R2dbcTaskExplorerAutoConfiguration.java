@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.r2dbc.configuration;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.task.configuration.TaskProperties;
+import org.springframework.cloud.task.r2dbc.R2dbcTaskExplorer;
+import org.springframework.cloud.task.r2dbc.ReactiveTaskExplorer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides auto configuration for the {@link ReactiveTaskExplorer} when a
+ * {@link ConnectionFactory} is available.
+ *
+ * @author Glenn Renfro
+ * @since 2.3.0
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(ConnectionFactory.class)
+@ConditionalOnBean(ConnectionFactory.class)
+@ConditionalOnProperty(prefix = "spring.cloud.task.r2dbc", name = "enabled",
+		havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(TaskProperties.class)
+@AutoConfigureAfter(R2dbcAutoConfiguration.class)
+public class R2dbcTaskExplorerAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ReactiveTaskExplorer reactiveTaskExplorer(ConnectionFactory connectionFactory,
+			TaskProperties taskProperties) {
+		return new R2dbcTaskExplorer(connectionFactory, taskProperties.getTablePrefix());
+	}
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.r2dbc;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
+import org.springframework.cloud.task.repository.support.TaskExecutionDaoFactoryBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class R2dbcTaskExplorerTests {
+
+	private static final int TASK_EXECUTION_COUNT = 2
+			* R2dbcTaskExplorer.ARGUMENT_BATCH_SIZE + 50;
+
+	private EmbeddedDatabase dataSource;
+
+	private TaskExecutionDao taskExecutionDao;
+
+	private R2dbcTaskExplorer taskExplorer;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		String databaseName = UUID.randomUUID().toString();
+		this.dataSource = new EmbeddedDatabaseBuilder().setName(databaseName)
+				.setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:org/springframework/cloud/task/schema-h2.sql")
+				.build();
+		this.taskExecutionDao = new TaskExecutionDaoFactoryBean(this.dataSource)
+				.getObject();
+		this.taskExplorer = new R2dbcTaskExplorer(
+				H2ConnectionFactory.inMemory(databaseName));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.dataSource.shutdown();
+	}
+
+	@Test
+	public void testGetTaskExecution() {
+		TaskExecution expected = createTaskExecution("FOO", 0, "foo=bar", "baz=qux");
+		this.taskExecutionDao.completeTaskExecution(expected.getExecutionId(), 0,
+				new Date(), "done");
+
+		StepVerifier.create(this.taskExplorer.getTaskExecution(expected.getExecutionId()))
+				.assertNext((taskExecution) -> {
+					assertThat(taskExecution.getTaskName()).isEqualTo("FOO");
+					assertThat(taskExecution.getExitCode()).isZero();
+					assertThat(taskExecution.getExitMessage()).isEqualTo("done");
+					assertThat(taskExecution.getStartTime().getTime())
+							.isEqualTo(expected.getStartTime().getTime());
+					assertThat(taskExecution.getEndTime()).isNotNull();
+					assertThat(taskExecution.getArguments())
+							.containsExactlyInAnyOrder("foo=bar", "baz=qux");
+				}).verifyComplete();
+		StepVerifier.create(this.taskExplorer.getTaskExecution(12345L)).verifyComplete();
+	}
+
+	@Test
+	public void testFindAllStreamsWithBackpressure() {
+		for (int i = 0; i < TASK_EXECUTION_COUNT; i++) {
+			createTaskExecution((i % 2 == 0) ? "FOO" : "BAR", i, "index=" + i);
+		}
+
+		StepVerifier.create(this.taskExplorer.findAll(), 1)
+				.assertNext((taskExecution) -> assertThat(taskExecution.getArguments())
+						.containsExactly("index=" + (TASK_EXECUTION_COUNT - 1)))
+				.thenRequest(TASK_EXECUTION_COUNT - 2)
+				.expectNextCount(TASK_EXECUTION_COUNT - 2)
+				.expectNoEvent(Duration.ofMillis(100)).thenRequest(1)
+				.assertNext((taskExecution) -> assertThat(taskExecution.getArguments())
+						.containsExactly("index=0"))
+				.verifyComplete();
+
+		List<Long> expectedIds = this.taskExecutionDao
+				.findTaskExecutionsByName("FOO",
+						PageRequest.of(0, TASK_EXECUTION_COUNT))
+				.getContent().stream().map(TaskExecution::getExecutionId)
+				.collect(Collectors.toList());
+		StepVerifier.create(this.taskExplorer.findTaskExecutionsByName("FOO")
+				.map(TaskExecution::getExecutionId).collectList())
+				.expectNext(expectedIds).verifyComplete();
+	}
+
+	@Test
+	public void testFindAllPageable() {
+		for (int i = 0; i < 25; i++) {
+			createTaskExecution((i % 2 == 0) ? "FOO" : "BAR", i, "index=" + i);
+		}
+
+		PageRequest pageRequest = PageRequest.of(1, 10);
+		StepVerifier
+				.create(this.taskExplorer.findAll(pageRequest)
+						.map(TaskExecution::getExecutionId))
+				.expectNextSequence(this.taskExecutionDao.findAll(pageRequest)
+						.map(TaskExecution::getExecutionId))
+				.verifyComplete();
+		StepVerifier
+				.create(this.taskExplorer.findTaskExecutionsByName("FOO", pageRequest)
+						.map(TaskExecution::getArguments))
+				.expectNextSequence(this.taskExecutionDao
+						.findTaskExecutionsByName("FOO", pageRequest).getContent()
+						.stream().map(TaskExecution::getArguments)
+						.collect(Collectors.toList()))
+				.verifyComplete();
+		StepVerifier.create(this.taskExplorer.findRunningTaskExecutions("BAR",
+				PageRequest.of(2, 5))).expectNextCount(2).verifyComplete();
+	}
+
+	@Test
+	public void testCounts() {
+		StepVerifier.create(this.taskExplorer.getTaskExecutionCount()).expectNext(0L)
+				.verifyComplete();
+		TaskExecution foo = createTaskExecution("FOO", 0);
+		createTaskExecution("FOO", 1);
+		createTaskExecution("BAR", 2);
+		this.taskExecutionDao.completeTaskExecution(foo.getExecutionId(), 0, new Date(),
+				null);
+
+		StepVerifier.create(this.taskExplorer.getTaskExecutionCount()).expectNext(3L)
+				.verifyComplete();
+		StepVerifier.create(this.taskExplorer.getTaskExecutionCountByTaskName("FOO"))
+				.expectNext(2L).verifyComplete();
+		StepVerifier.create(this.taskExplorer.getRunningTaskExecutionCount())
+				.expectNext(2L).verifyComplete();
+		StepVerifier.create(this.taskExplorer.getTaskNames()).expectNext("BAR", "FOO")
+				.verifyComplete();
+	}
+
+	@Test
+	public void testLatestTaskExecutionsAndJobExecutionIds() {
+		createTaskExecution("FOO", 0);
+		TaskExecution latestFoo = createTaskExecution("FOO", 1);
+		TaskExecution latestBar = createTaskExecution("BAR", 2);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		jdbcTemplate.update(
+				"INSERT INTO TASK_TASK_BATCH (TASK_EXECUTION_ID, JOB_EXECUTION_ID) VALUES (?, ?)",
+				latestBar.getExecutionId(), 42L);
+
+		StepVerifier
+				.create(this.taskExplorer.getLatestTaskExecutionsByTaskNames("FOO", "BAR")
+						.map(TaskExecution::getExecutionId))
+				.expectNext(latestBar.getExecutionId(), latestFoo.getExecutionId())
+				.verifyComplete();
+		StepVerifier
+				.create(this.taskExplorer.getLatestTaskExecutionForTaskName("FOO")
+						.map(TaskExecution::getExecutionId))
+				.expectNext(latestFoo.getExecutionId()).verifyComplete();
+		StepVerifier.create(this.taskExplorer.getLatestTaskExecutionForTaskName("BAZ"))
+				.verifyComplete();
+		StepVerifier.create(this.taskExplorer.getTaskExecutionIdByJobExecutionId(42L))
+				.expectNext(latestBar.getExecutionId()).verifyComplete();
+		StepVerifier
+				.create(this.taskExplorer
+						.getJobExecutionIdsByTaskExecutionId(latestBar.getExecutionId()))
+				.expectNext(42L).verifyComplete();
+	}
+
+	private TaskExecution createTaskExecution(String taskName, int offsetInSeconds,
+			String... arguments) {
+		return this.taskExecutionDao.createTaskExecution(taskName,
+				new Date(1_000_000_000_000L + offsetInSeconds * 1000L),
+				(arguments.length > 0) ? Arrays.asList(arguments)
+						: Collections.emptyList(),
+				null);
+	}
+
+}
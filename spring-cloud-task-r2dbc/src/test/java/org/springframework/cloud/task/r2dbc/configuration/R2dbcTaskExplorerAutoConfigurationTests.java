@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.r2dbc.configuration;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.task.r2dbc.R2dbcTaskExplorer;
+import org.springframework.cloud.task.r2dbc.ReactiveTaskExplorer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class R2dbcTaskExplorerAutoConfigurationTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(
+					AutoConfigurations.of(R2dbcTaskExplorerAutoConfiguration.class));
+
+	@Test
+	public void testReactiveTaskExplorer() {
+		this.contextRunner
+				.withBean(ConnectionFactory.class,
+						() -> H2ConnectionFactory.inMemory("testdb"))
+				.run((context) -> assertThat(context)
+						.getBean(ReactiveTaskExplorer.class)
+						.isInstanceOf(R2dbcTaskExplorer.class));
+	}
+
+	@Test
+	public void testNoConnectionFactory() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(ReactiveTaskExplorer.class));
+	}
+
+	@Test
+	public void testDisabled() {
+		this.contextRunner
+				.withBean(ConnectionFactory.class,
+						() -> H2ConnectionFactory.inMemory("testdb"))
+				.withPropertyValues("spring.cloud.task.r2dbc.enabled=false")
+				.run((context) -> assertThat(context)
+						.doesNotHaveBean(ReactiveTaskExplorer.class));
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.batch.listener.BatchEventAutoConfiguration;
+import org.springframework.cloud.task.batch.listener.support.JobExecutionEvent;
+import org.springframework.cloud.task.batch.listener.support.JobInstanceEvent;
+import org.springframework.cloud.task.batch.listener.support.JobParameterEvent;
+import org.springframework.cloud.task.batch.listener.support.JobParametersEvent;
+import org.springframework.cloud.task.batch.listener.support.StepExecutionEvent;
+import org.springframework.cloud.task.listener.TaskEventAutoConfiguration;
+import org.springframework.cloud.task.util.NativeImageConfigurationUtils;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the native image configuration of the task stream module refers to
+ * existing types and covers the event payloads and binding interfaces.
+ *
+ * @author Glenn Renfro
+ */
+public class TaskStreamNativeImageConfigurationTests {
+
+	private static final String MODULE = "spring-cloud-task-stream";
+
+	@Test
+	public void testReflectedTypesExist() throws IOException {
+		List<String> types = NativeImageConfigurationUtils.readReflectedTypes(MODULE);
+		assertThat(types).contains(JobExecutionEvent.class.getName(),
+				JobInstanceEvent.class.getName(), JobParameterEvent.class.getName(),
+				JobParametersEvent.class.getName(), StepExecutionEvent.class.getName());
+	}
+
+	@Test
+	public void testBindingInterfacesAreProxied() throws IOException {
+		List<String> interfaces = NativeImageConfigurationUtils.read(MODULE,
+				"proxy-config.json", "$[*][0]");
+		assertThat(interfaces).containsExactlyInAnyOrder(
+				TaskEventAutoConfiguration.TaskEventChannels.class.getName(),
+				BatchEventAutoConfiguration.BatchEventsChannels.class.getName());
+	}
+
+	@Test
+	public void testPropertiesAreIncluded() throws IOException {
+		List<String> patterns = NativeImageConfigurationUtils.read(MODULE,
+				"resource-config.json", "$.resources[*].pattern");
+		String location = "org/springframework/cloud/task/application.properties";
+		assertThat(new ClassPathResource(location).exists()).isTrue();
+		assertThat(patterns).anyMatch((pattern) -> location.matches(pattern));
+	}
+
+}